@@ -0,0 +1,91 @@
+package com.jcloisterzone.bench;
+
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.ai.SavePoint;
+import com.jcloisterzone.ai.SavePointManager;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.ui.HeadlessGameController;
+
+/**
+ * Operations performed by ranking AI for each examined move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiBenchmark {
+
+    //saves with castles are left out, castle state has no save point support
+    @Param({BenchmarkGames.TILE_PHASE, BenchmarkGames.ACTION_PHASE, BenchmarkGames.CORN_CIRCLE_PHASE})
+    public String savedGame;
+
+    private Game game;
+    private GameController gc;
+    private SavePointManager spm;
+
+    private Rotation rotation;
+    private Position position;
+
+    @Setup
+    public void setup() throws Exception {
+        game = BenchmarkGames.load(BenchmarkGames.readSave(savedGame));
+        gc = new HeadlessGameController(game, new Config());
+        spm = new SavePointManager(game);
+        spm.startRecording();
+        if (game.getPhase() instanceof TilePhase) {
+            Entry<Position, Set<Rotation>> placement = game.getBoard().getAvailablePlacements().entrySet().iterator().next();
+            position = placement.getKey();
+            rotation = placement.getValue().iterator().next();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        spm.stopRecording();
+    }
+
+    /** the same copy as <code>RankingAiPlayer.copyGame</code> does */
+    @Benchmark
+    public Game copyGame() {
+        return game.copy(gc);
+    }
+
+    /**
+     * Saves game, applies tile placement (if game is in tile phase) and restores it back.
+     */
+    @Benchmark
+    public SavePoint savePointRestore() {
+        SavePoint sp = spm.save();
+        if (position != null) {
+            Phase phase = game.getPhase();
+            phase.placeTile(rotation, position);
+            game.flushEventQueue();
+        }
+        spm.restore(sp);
+        return sp;
+    }
+}
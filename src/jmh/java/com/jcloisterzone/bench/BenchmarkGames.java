@@ -0,0 +1,78 @@
+package com.jcloisterzone.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.phase.LoadGamePhase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.ui.HeadlessGameController;
+
+/**
+ * Loads saved games used as benchmark input. Games are read from test classpath
+ * (<code>/saved-games</code>), both gzipped and plain saves are accepted.
+ * <p>
+ * Basic game saves are complemented by saves with expansions which keep additional state
+ * on board and in capabilities (bridges, castles, tunnels, little buildings, bazaar auction, corn circles).
+ */
+public final class BenchmarkGames {
+
+    public static final String TILE_PHASE = "/saved-games/tilePhase.jcz";
+    public static final String ACTION_PHASE = "/saved-games/actionPhase.jcz";
+    /** Bridges, Castles and Bazaars + Tunnel + Little Buildings, action phase */
+    public static final String BRIDGES_TUNNELS_BUILDINGS = "/saved-games/bridgesTunnelsBuildings.jcz";
+    /** Bridges, Castles and Bazaars, running bazaar auction */
+    public static final String BAZAAR_PHASE = "/saved-games/bazaarPhase.jcz";
+    /** Crop Circles I + II, corn circle option selection */
+    public static final String CORN_CIRCLE_PHASE = "/saved-games/cornCirclePhase.jcz";
+
+    private BenchmarkGames() {
+    }
+
+    /** returns uncompressed xml content of saved game */
+    public static String readSave(String resource) throws IOException {
+        InputStream raw = BenchmarkGames.class.getResourceAsStream(resource);
+        if (raw == null) {
+            throw new IOException("Saved game not found: " + resource);
+        }
+        PushbackInputStream is = new PushbackInputStream(raw, 2);
+        byte[] magic = new byte[2];
+        int len = is.read(magic);
+        if (len > 0) {
+            is.unread(magic, 0, len);
+        }
+        boolean gzip = len == 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B;
+        try (InputStream in = gzip ? new GZIPInputStream(is) : is) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    /** creates started game from saved game xml, the same way client does on load */
+    public static Game load(String xml) throws Exception {
+        return load(new Snapshot(xml));
+    }
+
+    public static Game load(Snapshot snapshot) throws Exception {
+        Game game = snapshot.asGame(new Game("12345678"));
+        GameController gc = new HeadlessGameController(game, new Config());
+        LoadGamePhase phase = new LoadGamePhase(game, snapshot, gc);
+        game.getPhases().put(phase.getClass(), phase);
+        game.setPhase(phase);
+        phase.setSlots(new PlayerSlot[0]);
+        phase.startGame(false);
+        game.flushEventQueue();
+        return game;
+    }
+}
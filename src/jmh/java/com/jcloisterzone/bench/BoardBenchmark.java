@@ -0,0 +1,53 @@
+package com.jcloisterzone.bench;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.game.Game;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({BenchmarkGames.TILE_PHASE, BenchmarkGames.ACTION_PHASE, BenchmarkGames.BRIDGES_TUNNELS_BUILDINGS,
+            BenchmarkGames.BAZAAR_PHASE, BenchmarkGames.CORN_CIRCLE_PHASE})
+    public String savedGame;
+
+    private Board board;
+    private Tile tile;
+
+    @Setup
+    public void setup() throws Exception {
+        Game game = BenchmarkGames.load(BenchmarkGames.readSave(savedGame));
+        board = game.getBoard();
+        //tile from pack is not placed yet in both saves
+        tile = game.getTilePack().drawTile(0);
+    }
+
+    @Benchmark
+    public Map<Position, Set<Rotation>> refreshAvailablePlacements() {
+        board.refreshAvailablePlacements(tile);
+        return board.getAvailablePlacements();
+    }
+}
@@ -0,0 +1,86 @@
+package com.jcloisterzone.bench;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.ui.plugin.Plugin;
+import com.jcloisterzone.ui.plugin.ResourcePlugin;
+import com.jcloisterzone.ui.resources.FeatureArea;
+
+/**
+ * Hover latency of feature area layer. Mouse entering square with placed tile requests areas
+ * of all tile features, the same way <code>FeatureAreaLayer</code> does. Each invocation hovers
+ * over next placed tile of saved game, areas are computed by bundled classic plugin.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureAreaBenchmark {
+
+    private static final int TILE_SIZE = 120;
+
+    private ResourcePlugin plugin;
+    private final List<Tile> tiles = new ArrayList<>();
+    private final List<Set<Location>> locations = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        plugin = (ResourcePlugin) Plugin.readPlugin(Paths.get(ResourcePlugin.class.getResource("/plugins/classic").toURI()));
+        plugin.load();
+        plugin.setEnabled(true);
+
+        Game game = BenchmarkGames.load(BenchmarkGames.readSave(BenchmarkGames.ACTION_PHASE));
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            Set<Location> locs = new HashSet<>();
+            for (Feature f : tile.getFeatures()) {
+                locs.add(f.getLocation());
+            }
+            tiles.add(tile);
+            locations.add(locs);
+        }
+    }
+
+    private int next() {
+        int i = next;
+        next = i + 1 == tiles.size() ? 0 : i + 1;
+        return i;
+    }
+
+    /** first hover over tile or hover after zoom */
+    @Benchmark
+    public Map<Location, FeatureArea> hoverUncached() {
+        int i = next();
+        plugin.clearFeatureAreaCache();
+        return plugin.getFeatureAreas(tiles.get(i), TILE_SIZE, TILE_SIZE, locations.get(i));
+    }
+
+    @Benchmark
+    public Map<Location, FeatureArea> hoverCached() {
+        int i = next();
+        return plugin.getFeatureAreas(tiles.get(i), TILE_SIZE, TILE_SIZE, locations.get(i));
+    }
+}
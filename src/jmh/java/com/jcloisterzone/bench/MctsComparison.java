@@ -0,0 +1,90 @@
+package com.jcloisterzone.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.jcloisterzone.ai.SearchStats;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.ai.mctsplayer.MctsAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayReport;
+import com.jcloisterzone.ai.selfplay.SelfPlayRunner;
+
+/**
+ * Compares {@link MctsAiPlayer} with {@link LegacyAiPlayer} in self-play.
+ * <p>
+ * The same seeded batch is played for both seat orders, so first player advantage and particular tile orders
+ * don't favour either AI. Prints win rate (shared wins are counted for both), mean points and decisions/s of both players.
+ */
+public class MctsComparison {
+
+    private static final String MCTS = MctsAiPlayer.class.getName();
+    private static final String LEGACY = LegacyAiPlayer.class.getName();
+
+    private final SelfPlayRunner runner = new SelfPlayRunner();
+
+    private int games;
+    private int mctsWins;
+    private int legacyWins;
+    private long mctsPoints;
+    private long legacyPoints;
+    private final SearchStats mctsStats = new SearchStats();
+    private final SearchStats legacyStats = new SearchStats();
+
+    private void runBatch(int mctsSeat) throws InterruptedException {
+        runner.setAiClassNames(mctsSeat == 0 ? Arrays.asList(MCTS, LEGACY) : Arrays.asList(LEGACY, MCTS));
+        SelfPlayReport report = runner.run();
+        int legacySeat = 1 - mctsSeat;
+        games += report.getFinished().size();
+        mctsWins += report.getWins(mctsSeat);
+        legacyWins += report.getWins(legacySeat);
+        mctsPoints += sum(report.getPoints(mctsSeat));
+        legacyPoints += sum(report.getPoints(legacySeat));
+        if (report.getSearchStats(mctsSeat) != null) mctsStats.add(report.getSearchStats(mctsSeat));
+        if (report.getSearchStats(legacySeat) != null) legacyStats.add(report.getSearchStats(legacySeat));
+        if (report.getFinished().size() < report.getResults().size()) {
+            report.print(System.out);
+        }
+    }
+
+    private static long sum(List<Integer> points) {
+        long sum = 0;
+        for (int p : points) {
+            sum += p;
+        }
+        return sum;
+    }
+
+    private void print() {
+        System.out.println(String.format(Locale.ROOT, "Games: %d (both seat orders)", games));
+        if (games == 0) return;
+        System.out.println(String.format(Locale.ROOT, "  %-16s %6s %8s %8s %12s", "", "wins", "win %", "points", "decisions/s"));
+        System.out.println(String.format(Locale.ROOT, "  %-16s %6d %8.1f %8.1f %12.1f", "MctsAiPlayer",
+            mctsWins, 100.0 * mctsWins / games, (double) mctsPoints / games, mctsStats.getDecisionsPerSecond()));
+        System.out.println(String.format(Locale.ROOT, "  %-16s %6d %8.1f %8.1f %12.1f", "LegacyAiPlayer",
+            legacyWins, 100.0 * legacyWins / games, (double) legacyPoints / games, legacyStats.getDecisionsPerSecond()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        MctsComparison comparison = new MctsComparison();
+        SelfPlayRunner runner = comparison.runner;
+        runner.setGames(Integer.parseInt(System.getProperty("games", "10")));
+        runner.setThreads(Integer.parseInt(System.getProperty("threads", "1")));
+        runner.setSeed(Long.parseLong(System.getProperty("seed", "1")));
+        String budget = System.getProperty("budget");
+        if (budget != null && budget.length() > 0) {
+            runner.getConfig().setAi_search_budget(Integer.parseInt(budget));
+        }
+        String searchThreads = System.getProperty("searchThreads");
+        if (searchThreads != null && searchThreads.length() > 0) {
+            runner.getConfig().setAi_search_threads(Integer.parseInt(searchThreads));
+        }
+
+        System.out.println(String.format(Locale.ROOT, "Seeds %d..%d, budget %s ms, search threads %s",
+            runner.getSeed(), runner.getSeed() + runner.getGames() - 1,
+            budget == null ? String.valueOf(MctsAiPlayer.DEFAULT_BUDGET) : budget, searchThreads == null ? "1" : searchThreads));
+        comparison.runBatch(0);
+        comparison.runBatch(1);
+        comparison.print();
+    }
+}
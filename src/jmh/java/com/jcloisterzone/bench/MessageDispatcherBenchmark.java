@@ -0,0 +1,98 @@
+package com.jcloisterzone.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.WsSubscribe;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.ClockMessage;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Dispatch of single incoming message to subscribed handler. <code>reflectiveScan</code> is baseline
+ * which looks up handler on each message, as dispatcher did before handlers were cached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageDispatcherBenchmark {
+
+    public static class Target {
+
+        public int received;
+
+        @WsSubscribe
+        public void handleCommit(Object context, CommitMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handleUndo(Object context, UndoMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handleChat(ChatMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handlePostChat(Object context, PostChatMessage msg) {
+            received++;
+        }
+
+        @WsSubscribe
+        public void handleClock(ClockMessage msg) {
+            received++;
+        }
+
+        public int getReceived() {
+            return received;
+        }
+    }
+
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+    private final Target target = new Target();
+    private final Object context = new Object();
+    private final WsMessage msg = new ChatMessage("session", "hello");
+
+    @Benchmark
+    public int cachedHandle() {
+        dispatcher.dispatch(msg, context, target);
+        return target.received;
+    }
+
+    @Benchmark
+    public int reflectiveScan() throws Exception {
+        for (Method m : target.getClass().getMethods()) {
+            if (m.getAnnotation(WsSubscribe.class) == null) continue;
+            Class<?> params[] = m.getParameterTypes();
+            if (params[params.length-1].equals(msg.getClass())) {
+                if (params.length == 1) {
+                    m.invoke(target, msg);
+                } else {
+                    m.invoke(target, context, msg);
+                }
+                break;
+            }
+        }
+        return target.received;
+    }
+}
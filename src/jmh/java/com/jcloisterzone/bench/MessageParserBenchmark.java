@@ -0,0 +1,92 @@
+package com.jcloisterzone.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.RmiCodec;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Parsing of messages sent on every move (RMI call) and on game (re)join (game message with snapshot).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParserBenchmark {
+
+    @Param({BenchmarkGames.TILE_PHASE, BenchmarkGames.ACTION_PHASE, BenchmarkGames.BRIDGES_TUNNELS_BUILDINGS,
+            BenchmarkGames.BAZAAR_PHASE, BenchmarkGames.CORN_CIRCLE_PHASE})
+    public String savedGame;
+
+    private MessageParser parser;
+    private String gameId;
+    private Method rmiMethod;
+    private Object[] rmiArgs;
+    private String rmiJson;
+    private GameMessage gameMessage;
+    private String gameJson;
+
+    @Setup
+    public void setup() throws Exception {
+        parser = new MessageParser();
+        Game game = BenchmarkGames.load(BenchmarkGames.readSave(savedGame));
+
+        gameId = game.getGameId();
+        rmiMethod = RmiCodec.getMethod("placeTile");
+        rmiArgs = new Object[] { Rotation.R90, new Position(-2, 0) };
+        rmiJson = parser.toJson(new RmiMessage(gameId, rmiMethod, rmiArgs));
+
+        //capability classes are left out, gson refuses to serialize java.lang.Class
+        GameSetupMessage gsm = new GameSetupMessage(game.getGameId(), game.getCustomRules(), game.getExpansions(), null);
+        gameMessage = new GameMessage(game.getGameId(), "", GameState.RUNNING, gsm);
+        gameMessage.setSnapshot(new Snapshot(game).saveToString());
+        gameJson = parser.toJson(gameMessage);
+    }
+
+    /** includes encoding of call arguments */
+    @Benchmark
+    public String rmiToJson() {
+        return parser.toJson(new RmiMessage(gameId, rmiMethod, rmiArgs));
+    }
+
+    /** includes decoding of call arguments */
+    @Benchmark
+    public Object rmiFromJson() {
+        RmiMessage msg = (RmiMessage) parser.fromJson(rmiJson);
+        return msg.decode();
+    }
+
+    @Benchmark
+    public String gameToJson() {
+        return parser.toJson(gameMessage);
+    }
+
+    @Benchmark
+    public WsMessage gameFromJson() {
+        return parser.fromJson(gameJson);
+    }
+}
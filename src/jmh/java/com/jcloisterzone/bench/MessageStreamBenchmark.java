@@ -0,0 +1,129 @@
+package com.jcloisterzone.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_17;
+import org.java_websocket.framing.Framedata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.WsMessageCommand;
+import com.jcloisterzone.wsio.message.WsMessage;
+import com.jcloisterzone.wsio.server.PreparedMessage;
+
+/**
+ * Message traffic of 6 player AI game. Each benchmark invocation handles next message of recorded
+ * game log, so throughput is in messages per second. Broadcast benchmarks encode message
+ * for all 6 connections, as <code>WebSocket.send</code> does, to compare per connection
+ * text encoding with payload encoded once.
+ * <p>
+ * Methods with <code>Split</code> and <code>Annotation</code> suffix are former parser implementation kept
+ * for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageStreamBenchmark {
+
+    private static final int CONNECTIONS = 6;
+
+    private final MessageParser parser = new MessageParser();
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+    private final Draft draft = new Draft_17();
+    private String[] payloads;
+    private WsMessage[] messages;
+    private final Map<String, Class<? extends WsMessage>> types = new HashMap<>();
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> players = Collections.nCopies(CONNECTIONS, DummyAiPlayer.class.getName());
+        SelfPlayGame selfPlay = new SelfPlayGame(1, new ArrayList<>(players), EnumSet.of(Expansion.BASIC), new Config());
+        selfPlay.setRecordLog(true);
+        GameLog log = selfPlay.call().getLog();
+        payloads = log.getEntries(0);
+        messages = new WsMessage[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            messages[i] = parser.fromJson(payloads[i]);
+            types.put(messages[i].getClass().getAnnotation(WsMessageCommand.class).value(), messages[i].getClass());
+        }
+    }
+
+    private int next() {
+        int i = next;
+        next = i + 1 == payloads.length ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public WsMessage fromJson() {
+        return parser.fromJson(payloads[next()]);
+    }
+
+    @Benchmark
+    public WsMessage fromJsonSplit() {
+        String s[] = payloads[next()].split(" ", 2);
+        return gson.fromJson(s[1], types.get(s[0]));
+    }
+
+    @Benchmark
+    public String toJson() {
+        return parser.toJson(messages[next()]);
+    }
+
+    @Benchmark
+    public String toJsonAnnotation() {
+        WsMessage msg = messages[next()];
+        return msg.getClass().getAnnotation(WsMessageCommand.class).value() + " " + gson.toJson(msg);
+    }
+
+    /** serialization and text frame for each connection */
+    @Benchmark
+    public int broadcast() {
+        String payload = parser.toJson(messages[next()]);
+        int size = 0;
+        for (int i = 0; i < CONNECTIONS; i++) {
+            for (Framedata frame : draft.createFrames(payload, false)) {
+                size += draft.createBinaryFrame(frame).remaining();
+            }
+        }
+        return size;
+    }
+
+    /** serialization, payload encoded once and frame for each connection */
+    @Benchmark
+    public int broadcastPrepared() {
+        PreparedMessage prepared = new PreparedMessage(parser.toJson(messages[next()]));
+        int size = 0;
+        for (int i = 0; i < CONNECTIONS; i++) {
+            size += draft.createBinaryFrame(prepared.createFrame()).remaining();
+        }
+        return size;
+    }
+}
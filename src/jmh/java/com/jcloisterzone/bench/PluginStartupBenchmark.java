@@ -0,0 +1,75 @@
+package com.jcloisterzone.bench;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.ui.plugin.Plugin;
+import com.jcloisterzone.ui.plugin.ResourcePlugin;
+
+/**
+ * Cold start of all bundled plugins, each measurement runs in new JVM.
+ * <p>
+ * <code>pluginsReady</code> is time after which client can be created and first window shown
+ * (as in <code>JCloisterZone.loadPlugins</code> with all plugins enabled). <code>geometryReady</code>
+ * waits for geometry parsed on background too, <code>serialLoad</code> waits for each plugin
+ * before loading next one as plugins were loaded before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class PluginStartupBenchmark {
+
+    private List<Plugin> readPlugins(boolean await) throws Exception {
+        List<Plugin> plugins = new ArrayList<>();
+        Path pluginDir = Paths.get(getClass().getClassLoader().getResource("plugins").toURI());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(pluginDir)) {
+            for (Path file : stream) {
+                Plugin plugin = Plugin.readPlugin(file);
+                plugin.load();
+                plugin.setEnabled(true);
+                if (await) {
+                    ((ResourcePlugin) plugin).awaitLoaded();
+                }
+                plugins.add(plugin);
+            }
+        }
+        return plugins;
+    }
+
+    @Benchmark
+    public List<Plugin> pluginsReady() throws Exception {
+        return readPlugins(false);
+    }
+
+    @Benchmark
+    public List<Plugin> geometryReady() throws Exception {
+        List<Plugin> plugins = readPlugins(false);
+        for (Plugin plugin : plugins) {
+            ((ResourcePlugin) plugin).awaitLoaded();
+        }
+        return plugins;
+    }
+
+    @Benchmark
+    public List<Plugin> serialLoad() throws Exception {
+        return readPlugins(true);
+    }
+}
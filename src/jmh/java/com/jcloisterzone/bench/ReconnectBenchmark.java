@@ -0,0 +1,128 @@
+package com.jcloisterzone.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.game.log.GameLog.Checkpoint;
+import com.jcloisterzone.game.log.GameLogPlayer;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+
+/**
+ * Rejoin of running game - server prepares {@link GameMessage}, client parses it and restores game.
+ * Compares full replay of game log with authoritative server state (snapshot of current turn start
+ * and only messages of current turn). Client joins in the middle of given turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReconnectBenchmark {
+
+    private static final long SEED = 1;
+
+    @Param({"10", "40", "65"})
+    public int joinTurn;
+
+    private final MessageParser parser = new MessageParser();
+    private final Config config = new Config();
+    private GameLog log;
+    private String[] entries;
+    private Checkpoint turnState;
+
+    @Setup
+    public void setup() throws Exception {
+        String ai = DummyAiPlayer.class.getName();
+        SelfPlayGame selfPlay = new SelfPlayGame(SEED, Arrays.asList(ai, ai), Collections.<Expansion>emptySet(), config);
+        selfPlay.setRecordLog(true);
+        log = selfPlay.call().getLog();
+        if (joinTurn >= log.getTurnCount()) {
+            throw new IllegalStateException("Game has only " + log.getTurnCount() + " turns");
+        }
+        int turnStart = log.getTurnStart(joinTurn);
+        //tile is placed, meeple deploy is pending
+        entries = Arrays.copyOf(log.getEntries(0), turnStart + 1);
+
+        //same state as kept by server replica
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new BinarySnapshotCodec().write(GameLogPlayer.seek(log, joinTurn, config), os);
+        turnState = new Checkpoint(joinTurn, turnStart, os.toByteArray());
+    }
+
+    private PlayerSlot[] createSlots() {
+        PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new PlayerSlot(i);
+            if (i < 2) {
+                slots[i].setSerial(i);
+                slots[i].setNickname("AI-" + i);
+                slots[i].setAiClassName(DummyAiPlayer.class.getName());
+                slots[i].setState(SlotState.REMOTE);
+            } else {
+                slots[i].setState(SlotState.OPEN);
+            }
+        }
+        return slots;
+    }
+
+    private GameMessage transfer(GameMessage msg) {
+        return (GameMessage) parser.fromJson(parser.toJson(msg));
+    }
+
+    @Benchmark
+    public Game fullReplay() {
+        GameMessage msg = new GameMessage(log.getGameId(), "", GameState.RUNNING, null);
+        msg.setReplay(entries);
+        msg = transfer(msg);
+
+        Game game = new Game("selfplay-" + SEED, SEED);
+        game.getExpansions().add(Expansion.BASIC);
+        GameLogPlayer player = new GameLogPlayer(game, createSlots(), null, config);
+        for (String entry : msg.getReplay()) {
+            player.apply(parser.fromJson(entry));
+        }
+        return player.getGame();
+    }
+
+    @Benchmark
+    public Game turnStateReplay() throws Exception {
+        GameMessage msg = new GameMessage(log.getGameId(), "", GameState.RUNNING, null);
+        msg.setSnapshot(turnState.getSnapshot().saveToString());
+        msg.setReplay(Arrays.copyOfRange(entries, turnState.getEntryIndex(), entries.length));
+        msg = transfer(msg);
+
+        Snapshot snapshot = new Snapshot(msg.getSnapshot());
+        GameLogPlayer player = new GameLogPlayer(snapshot.asGame(msg.getGameId()), new PlayerSlot[0], snapshot, config);
+        for (String entry : msg.getReplay()) {
+            player.apply(parser.fromJson(entry));
+        }
+        return player.getGame();
+    }
+}
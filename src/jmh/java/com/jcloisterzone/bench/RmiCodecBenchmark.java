@@ -0,0 +1,104 @@
+package com.jcloisterzone.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
+
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.board.pointer.MeeplePointer;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.wsio.RmiCodec;
+import com.jcloisterzone.wsio.RmiProxy;
+import com.jcloisterzone.wsio.message.RmiMessage;
+
+/**
+ * Encoding of RMI call arguments. <code>legacy*</code> benchmarks measure previous format
+ * (Java serialization of argument array encoded to Base64). Wire sizes of both formats are printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RmiCodecBenchmark {
+
+    @Param({"placeTile", "deployMeeple", "takePrisoner", "pass"})
+    public String method;
+
+    private Method rmiMethod;
+    private Object[] args;
+    private String encoded;
+    private String legacyEncoded;
+
+    @Setup
+    public void setup() throws Exception {
+        rmiMethod = RmiCodec.getMethod(method);
+        FeaturePointer fp = new FeaturePointer(new Position(-3, 2), Location.NW);
+        switch (method) {
+        case "placeTile": args = new Object[] { Rotation.R90, new Position(-2, 0) }; break;
+        case "deployMeeple": args = new Object[] { fp, SmallFollower.class }; break;
+        case "takePrisoner": args = new Object[] { new MeeplePointer(fp, "1.SmallFollower.3") }; break;
+        default: args = null;
+        }
+        encoded = RmiMessage.encode(rmiMethod, args);
+        legacyEncoded = legacyEncode(args);
+        System.out.println(String.format("%s wire size: %d chars, legacy %d chars", method, encoded.length(), legacyEncoded.length()));
+    }
+
+    private static String legacyEncode(Object object) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(object);
+        oos.close();
+        return new String(Base64Coder.encode(baos.toByteArray()));
+    }
+
+    @Benchmark
+    public String encode() {
+        return RmiMessage.encode(rmiMethod, args);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return RmiCodec.decode(Base64.getUrlDecoder().decode(encoded));
+    }
+
+    @Benchmark
+    public String legacyEncode() throws IOException {
+        return legacyEncode(args);
+    }
+
+    /** includes method lookup by name as done by receiver */
+    @Benchmark
+    public Object legacyDecode() throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(Base64Coder.decode(legacyEncoded)));
+        Object o = ois.readObject();
+        ois.close();
+        for (Method m : RmiProxy.class.getMethods()) {
+            if (m.getName().equals(method)) return o;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.jcloisterzone.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.feature.City;
+import com.jcloisterzone.feature.Completable;
+import com.jcloisterzone.feature.Farm;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.score.ScoreAllCallback;
+import com.jcloisterzone.feature.score.ScoreAllFeatureFinder;
+import com.jcloisterzone.feature.visitor.score.CityScoreContext;
+import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
+import com.jcloisterzone.feature.visitor.score.FarmScoreContext;
+import com.jcloisterzone.figure.Barn;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Game;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    /** sums points the same way as final scoring does, without posting any events */
+    static class PointsCollector implements ScoreAllCallback {
+
+        int points;
+
+        @Override
+        public void scoreCompletableFeature(CompletableScoreContext ctx) {
+            points += ctx.getPoints();
+        }
+
+        @Override
+        public void scoreFarm(FarmScoreContext ctx, Player player) {
+            points += ctx.getPoints(player);
+        }
+
+        @Override
+        public void scoreBarn(FarmScoreContext ctx, Barn meeple) {
+            points += ctx.getBarnPoints();
+        }
+
+        @Override
+        public void scoreCastle(Meeple meeple, Castle castle) {
+        }
+
+        @Override
+        public CompletableScoreContext getCompletableScoreContext(Completable completable) {
+            return completable.getScoreContext();
+        }
+
+        @Override
+        public FarmScoreContext getFarmScoreContext(Farm farm) {
+            return farm.getScoreContext();
+        }
+    }
+
+    @Param({BenchmarkGames.TILE_PHASE, BenchmarkGames.ACTION_PHASE, BenchmarkGames.BRIDGES_TUNNELS_BUILDINGS,
+            BenchmarkGames.BAZAAR_PHASE, BenchmarkGames.CORN_CIRCLE_PHASE})
+    public String savedGame;
+
+    private Game game;
+    private List<City> cities;
+    private List<Farm> farms;
+
+    @Setup
+    public void setup() throws Exception {
+        game = BenchmarkGames.load(BenchmarkGames.readSave(savedGame));
+        Set<City> cityMasters = new LinkedHashSet<>();
+        Set<Farm> farmMasters = new LinkedHashSet<>();
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Feature f : tile.getFeatures()) {
+                if (f instanceof City) {
+                    cityMasters.add((City) f.getMaster());
+                } else if (f instanceof Farm) {
+                    farmMasters.add((Farm) f.getMaster());
+                }
+            }
+        }
+        cities = new ArrayList<>(cityMasters);
+        farms = new ArrayList<>(farmMasters);
+    }
+
+    @Benchmark
+    public void walkCities(Blackhole bh) {
+        for (City city : cities) {
+            CityScoreContext ctx = new CityScoreContext(game);
+            city.walk(ctx);
+            bh.consume(ctx.getPoints());
+        }
+    }
+
+    @Benchmark
+    public void walkFarms(Blackhole bh) {
+        Map<City, CityScoreContext> cityCache = new HashMap<>();
+        for (Farm farm : farms) {
+            FarmScoreContext ctx = new FarmScoreContext(game);
+            ctx.setCityCache(cityCache);
+            farm.walk(ctx);
+            bh.consume(ctx.getMajorOwners());
+        }
+    }
+
+    @Benchmark
+    public int scoreAll() {
+        PointsCollector collector = new PointsCollector();
+        new ScoreAllFeatureFinder().scoreAll(game, collector);
+        return collector.points;
+    }
+}
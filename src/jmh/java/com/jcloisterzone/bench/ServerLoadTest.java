@@ -0,0 +1,367 @@
+package com.jcloisterzone.bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.KeyUtils;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.HeadlessGameController;
+import com.jcloisterzone.wsio.Connection;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
+import com.jcloisterzone.wsio.message.DeployFlierMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.HelloMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.StartGameMessage;
+import com.jcloisterzone.wsio.message.TakeSlotMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WelcomeMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+import com.jcloisterzone.wsio.server.OutboundQueue;
+import com.jcloisterzone.wsio.server.SimpleServer;
+import com.jcloisterzone.wsio.server.SimpleServer.SimpleServerErrorHandler;
+
+/**
+ * Load test of multi game {@link SimpleServer} mode.
+ * <p>
+ * For each round given number of games is hosted at once. Every game has one client which owns both seats
+ * and plays them by AI. Like desktop client, game client applies only moves broadcast back by server
+ * (server stamps time to commits and the time seeds tile draw), so AI sends next move when previous one
+ * is echoed (after optional think time) and latency includes queuing on game thread.
+ * <p>
+ * Clients run in the same process as server, round is considered sustained when all games are finished
+ * without error and 99th percentile of move latency is below <code>maxLatencyMs</code>.
+ */
+public class ServerLoadTest {
+
+    private final MessageParser parser = new MessageParser();
+    private final int port;
+    private final long thinkMs;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final Config config = new Config();
+    private final AtomicInteger serverErrors = new AtomicInteger();
+    private final AtomicInteger clientErrors = new AtomicInteger();
+    private SimpleServer server;
+
+    private static final String AI_CLASS_NAME = DummyAiPlayer.class.getName();
+
+    class GameClient extends WebSocketClient implements Connection {
+
+        private final int index;
+        private final CountDownLatch ready;
+        private final CountDownLatch finished;
+        private final List<Long> latencies;
+        private final MessageDispatcher dispatcher = new MessageDispatcher();
+        private final Queue<Long> sentAt = new ArrayDeque<>();
+
+        private String gameId;
+        private Game game;
+        private boolean over;
+
+        public GameClient(URI uri, int index, CountDownLatch ready, CountDownLatch finished, List<Long> latencies) {
+            super(uri);
+            this.index = index;
+            this.ready = ready;
+            this.finished = finished;
+            this.latencies = latencies;
+        }
+
+        @Override
+        public void send(final WsMessage msg) {
+            if (msg instanceof GameOverMessage) {
+                over = true;
+                finished.countDown();
+            }
+            if (thinkMs > 0 && isMove(msg)) {
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        sendNow(msg);
+                    }
+                }, thinkMs, TimeUnit.MILLISECONDS);
+            } else {
+                sendNow(msg);
+            }
+        }
+
+        private void sendNow(WsMessage msg) {
+            if (isMove(msg)) {
+                synchronized (sentAt) {
+                    sentAt.add(System.nanoTime());
+                }
+            }
+            send(parser.toJson(msg));
+        }
+
+        private boolean isMove(WsMessage msg) {
+            return msg instanceof RmiMessage || msg instanceof CommitMessage
+                || msg instanceof UndoMessage || msg instanceof DeployFlierMessage;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+            send(new HelloMessage("load-" + index, KeyUtils.createRandomId(), KeyUtils.createRandomId()));
+        }
+
+        @Override
+        public void onMessage(String payload) {
+            WsMessage msg = parser.fromJson(payload);
+            if (msg instanceof WelcomeMessage) {
+                send(new CreateGameMessage("load-" + index, null, null));
+            } else if (msg instanceof GameMessage) {
+                GameMessage gm = (GameMessage) msg;
+                if (gm.getState() == GameState.OPEN && gameId == null) {
+                    setupGame(gm.getGameId());
+                } else if (gm.getState() == GameState.RUNNING && game == null) {
+                    startGame();
+                }
+            } else if (isMove(msg)) {
+                Long start;
+                synchronized (sentAt) {
+                    start = sentAt.poll();
+                }
+                if (start != null) {
+                    synchronized (latencies) {
+                        latencies.add(System.nanoTime() - start);
+                    }
+                }
+                try {
+                    apply(msg);
+                } catch (Exception e) {
+                    //client replica diverged from server, game can't continue
+                    clientErrors.incrementAndGet();
+                    e.printStackTrace();
+                    if (!over) {
+                        over = true;
+                        finished.countDown();
+                    }
+                }
+            }
+        }
+
+        private void setupGame(String gameId) {
+            this.gameId = gameId;
+            //no custom rules, random seating must be off to keep seat order same as on client
+            send(new GameSetupMessage(gameId, new HashMap<CustomRule, Object>(), EnumSet.of(Expansion.BASIC), null));
+            for (int i = 0; i < 2; i++) {
+                TakeSlotMessage msg = new TakeSlotMessage(gameId, i, "AI-" + i);
+                msg.setAiClassName(AI_CLASS_NAME);
+                send(msg);
+            }
+            ready.countDown();
+        }
+
+        /** client owns both seats, its AI players act on game events the same way as in the desktop client */
+        private void startGame() {
+            game = new Game(gameId);
+            game.getExpansions().add(Expansion.BASIC);
+            HeadlessGameController gc = new HeadlessGameController(game, config) {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    GameClient.this.send(new RmiMessage(gameId, method, args));
+                    return null;
+                }
+            };
+            gc.setConnection(this);
+            CreateGamePhase phase = new CreateGamePhase(game, gc);
+            game.getPhases().put(phase.getClass(), phase);
+            game.setPhase(phase);
+            PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new PlayerSlot(i);
+                if (i < 2) {
+                    slots[i].setNickname("AI-" + i);
+                    slots[i].setSerial(i);
+                    slots[i].setAiClassName(AI_CLASS_NAME);
+                    slots[i].setState(SlotState.OWN);
+                } else {
+                    slots[i].setState(SlotState.OPEN);
+                }
+            }
+            phase.setSlots(slots);
+            phase.startGame(false);
+            phaseLoop();
+        }
+
+        private void apply(WsMessage msg) throws Exception {
+            if (msg instanceof RmiMessage) {
+                try {
+                    ((RmiMessage) msg).decode().invoke(game.getPhase());
+                } catch (InvocationTargetException e) {
+                    throw (Exception) e.getCause();
+                }
+            } else if (msg instanceof UndoMessage) {
+                game.undo();
+            } else {
+                dispatcher.dispatch(msg, this, game.getPhase());
+            }
+            phaseLoop();
+        }
+
+        private void phaseLoop() {
+            Phase phase = game.getPhase();
+            while (phase != null && !phase.isEntered()) {
+                phase.setEntered(true);
+                phase.enter();
+                phase = game.getPhase();
+                game.flushEventQueue();
+            }
+            game.flushEventQueue();
+        }
+
+        public void start() {
+            send(new StartGameMessage(gameId));
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            ex.printStackTrace();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return getConnection().isClosed();
+        }
+
+        @Override
+        public void reconnect(String gameId) {
+        }
+
+        @Override
+        public void stopReconnecting() {
+        }
+
+        @Override
+        public String getSessionId() {
+            return null;
+        }
+
+        @Override
+        public String getNickname() {
+            return "load-" + index;
+        }
+    }
+
+    public ServerLoadTest(int port, long thinkMs) {
+        this.port = port;
+        this.thinkMs = thinkMs;
+    }
+
+    public boolean runRound(int games, long maxLatencyMs) throws Exception {
+        URI uri = new URI("ws://localhost:" + port);
+        CountDownLatch ready = new CountDownLatch(games);
+        CountDownLatch finished = new CountDownLatch(games);
+        List<Long> latencies = new ArrayList<>();
+        List<GameClient> clients = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            GameClient client = new GameClient(uri, i, ready, finished, latencies);
+            clients.add(client);
+            client.connect();
+        }
+        if (!ready.await(10 + games, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Games were not created in time");
+        }
+        int errorsBefore = serverErrors.get() + clientErrors.get();
+        long start = System.nanoTime();
+        for (GameClient client : clients) {
+            client.start();
+        }
+        boolean allFinished = finished.await(60 + games, TimeUnit.SECONDS);
+        long duration = System.nanoTime() - start;
+        int maxDepth = 0;
+        long maxQueueLatency = 0;
+        for (OutboundQueue queue : server.getOutboundQueues()) {
+            maxDepth = Math.max(maxDepth, queue.getMaxDepth());
+            maxQueueLatency = Math.max(maxQueueLatency, queue.getMaxLatency());
+        }
+        for (GameClient client : clients) {
+            client.close();
+        }
+
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        double p50 = percentile(sorted, 0.5) / 1e6;
+        double p99 = percentile(sorted, 0.99) / 1e6;
+        int errors = serverErrors.get() + clientErrors.get() - errorsBefore;
+        boolean sustained = allFinished && errors == 0 && p99 <= maxLatencyMs;
+        System.out.println(String.format("%6d games  %6d finished  %8.0f moves/s  p50 %7.2f ms  p99 %7.2f ms  outbound queue max %d / %.2f ms  errors %d  %s",
+            games, games - finished.getCount(), sorted.size() / (duration / 1e9), p50, p99,
+            maxDepth, maxQueueLatency / 1e6, errors, sustained ? "OK" : "OVERLOADED"));
+        return sustained;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return 0;
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * p)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(System.getProperty("port", "37448"));
+        int threads = Integer.parseInt(System.getProperty("gameThreads", "" + Runtime.getRuntime().availableProcessors()));
+        long thinkMs = Long.parseLong(System.getProperty("thinkMs", "0"));
+        long maxLatencyMs = Long.parseLong(System.getProperty("maxLatencyMs", "100"));
+        String[] rounds = System.getProperty("games", "10,50,100,200,400").split(",");
+
+        final ServerLoadTest test = new ServerLoadTest(port, thinkMs);
+        SimpleServer server = test.server = new SimpleServer(new InetSocketAddress(port), new SimpleServerErrorHandler() {
+            @Override
+            public void onError(WebSocket ws, Exception ex) {
+                test.serverErrors.incrementAndGet();
+                ex.printStackTrace();
+            }
+        });
+        server.setMultiGame(threads);
+        server.start();
+        Thread.sleep(200); //no start callback on server
+
+        System.out.println(String.format("Game threads %d, think time %d ms", threads, thinkMs));
+        int sustained = 0;
+        for (String round : rounds) {
+            int games = Integer.parseInt(round.trim());
+            if (!test.runRound(games, maxLatencyMs)) break;
+            sustained = games;
+        }
+        System.out.println("Sustained simultaneous games: " + sustained);
+        server.stop();
+        test.scheduler.shutdownNow();
+    }
+}
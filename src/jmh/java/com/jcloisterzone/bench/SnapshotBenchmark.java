@@ -0,0 +1,80 @@
+package com.jcloisterzone.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.Snapshot;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({BenchmarkGames.TILE_PHASE, BenchmarkGames.ACTION_PHASE, BenchmarkGames.BRIDGES_TUNNELS_BUILDINGS,
+            BenchmarkGames.BAZAAR_PHASE, BenchmarkGames.CORN_CIRCLE_PHASE})
+    public String savedGame;
+
+    private String xml;
+    private byte[] binary;
+    private Game game;
+
+    @Setup
+    public void setup() throws Exception {
+        xml = BenchmarkGames.readSave(savedGame);
+        game = BenchmarkGames.load(xml);
+        binary = saveBinary();
+    }
+
+    private byte[] save(boolean gzip) throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new Snapshot(game).save(os, gzip);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] save() throws Exception {
+        return save(false);
+    }
+
+    @Benchmark
+    public byte[] saveGzipped() throws Exception {
+        return save(true);
+    }
+
+    @Benchmark
+    public byte[] saveBinary() throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new BinarySnapshotCodec().write(game, os);
+        return os.toByteArray();
+    }
+
+    /** parses saved game and replays it into started game */
+    @Benchmark
+    public Game load() throws Exception {
+        return BenchmarkGames.load(xml);
+    }
+
+    @Benchmark
+    public Game loadBinary() throws Exception {
+        return new BinarySnapshotCodec().load(new ByteArrayInputStream(binary), "12345678", new Config());
+    }
+}
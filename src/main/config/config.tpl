@@ -9,6 +9,9 @@ locale: ${locale}
 
 score_display_duration: ${score_display_duration} # seconds
 ai_place_tile_delay: ${ai_place_tile_delay} # miliseconds to wait before computer player place tile
+ai_search_budget: ${ai_search_budget} # miliseconds computer player can spend ranking one decision, keep empty for full search
+ai_search_threads: ${ai_search_threads} # number of threads used by computer player to rank moves, keep empty for single thread
+ai_ponder: ${ai_ponder} # true to let computer player precompute its next move while other players think
 theme: ${theme}
 
 beep_alert: ${beep_alert}
@@ -62,7 +65,7 @@ connection_history: ${connection_history}
 
 ${if hasDebug}
 debug:
-  # plain or zip
+  # plain, zip or binary
   save_format: ${save_format}
   window_size: ${window_size}
 
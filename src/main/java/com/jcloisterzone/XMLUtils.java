@@ -15,6 +15,7 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -72,6 +73,16 @@ public class XMLUtils {
         return child == null ? null : child.getTextContent();
     }
 
+    /** removes all attributes and child nodes of element */
+    public static void clearElement(Element el) {
+        while (el.getAttributes().getLength() > 0) {
+            el.removeAttributeNode((Attr) el.getAttributes().item(0));
+        }
+        while (el.getFirstChild() != null) {
+            el.removeChild(el.getFirstChild());
+        }
+    }
+
     public static String nodeToString(Node node) {
         StringWriter sw = new StringWriter();
         try {
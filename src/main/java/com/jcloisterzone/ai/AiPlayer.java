@@ -2,12 +2,17 @@ package com.jcloisterzone.ai;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jcloisterzone.Player;
 import com.jcloisterzone.action.AbbeyPlacementAction;
+import com.jcloisterzone.action.GoldPieceAction;
+import com.jcloisterzone.action.MageAndWitchAction;
 import com.jcloisterzone.action.MeepleAction;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.action.TakePrisonerAction;
@@ -16,18 +21,28 @@ import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.TilePlacement;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.board.pointer.MeeplePointer;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jcloisterzone.event.PlayEvent;
+import com.jcloisterzone.event.RequestConfirmEvent;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Cloister;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.figure.neutral.Dragon;
+import com.jcloisterzone.figure.neutral.Mage;
+import com.jcloisterzone.game.capability.BazaarItem;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.ui.GameController;
 import com.jcloisterzone.wsio.RmiProxy;
+import com.jcloisterzone.wsio.message.CommitMessage;
 
 public abstract class AiPlayer {
 
+    private static ExecutorService executor = Executors.newFixedThreadPool(1);
+    private static ExecutorService searchExecutor;
+    private static int searchExecutorThreads;
+
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
     protected Game game;
@@ -36,6 +51,7 @@ public abstract class AiPlayer {
     private RmiProxy rmiProxy;
     private Player player;
     private boolean muted;
+    private ExecutorService taskExecutor;
 
     public void setGame(Game game) {
         this.game = game;
@@ -75,6 +91,64 @@ public abstract class AiPlayer {
         this.muted = muted;
     }
 
+    /**
+     * Sets executor for search tasks of this player, eg. direct executor to search synchronously
+     * on the game thread. When not set, tasks are queued to executor shared by all AI players.
+     */
+    public void setTaskExecutor(ExecutorService taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    protected ExecutorService getTaskExecutor() {
+        return taskExecutor == null ? executor : taskExecutor;
+    }
+
+    protected int getSearchThreads() {
+        Integer threads = gc.getConfig().getAi_search_threads();
+        return threads == null ? 1 : threads;
+    }
+
+    /** search time per decision used when <code>ai_search_budget</code> is not set, 0 for unlimited search */
+    protected int getDefaultSearchBudget() {
+        return 0;
+    }
+
+    /** returns deadline for decision requested now or 0 when search time is not limited */
+    protected long getSearchDeadline() {
+        Integer budget = gc.getConfig().getAi_search_budget();
+        if (budget == null || budget <= 0) {
+            budget = getDefaultSearchBudget();
+            if (budget <= 0) return 0;
+        }
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+    }
+
+    /** returns shared pool for search workers, pool is replaced when configured thread count changes */
+    protected static synchronized ExecutorService getSearchExecutor(int threads) {
+        if (searchExecutor == null || searchExecutorThreads != threads) {
+            if (searchExecutor != null) {
+                //running searches finish, their tasks are already submitted
+                searchExecutor.shutdown();
+            }
+            searchExecutor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("AI-search-%d").setDaemon(true).build());
+            searchExecutorThreads = threads;
+        }
+        return searchExecutor;
+    }
+
+    /** statistics of decisions searched by this player, null if player doesn't search */
+    public SearchStats getSearchStats() {
+        return null;
+    }
+
+    @Subscribe
+    public void requestConfirm(RequestConfirmEvent ev) {
+        if (isAiActive(ev)) {
+            getGameController().getConnection().send(new CommitMessage(game.getGameId()));
+        }
+    }
+
     // dummy implementations
 
     protected final void selectDummyAction(List<? extends PlayerAction<?>> actions, boolean canPass) {
@@ -91,6 +165,12 @@ public abstract class AiPlayer {
             if (action instanceof TakePrisonerAction) {
                 if (selectDummyTowerCapture((TakePrisonerAction) action)) return;
             }
+            if (action instanceof GoldPieceAction) {
+                if (selectDummyGoldPiece((GoldPieceAction) action)) return;
+            }
+            if (action instanceof MageAndWitchAction) {
+                if (selectDummyMageAndWitch((MageAndWitchAction) action)) return;
+            }
         }
         getRmiProxy().pass();
     }
@@ -132,10 +212,45 @@ public abstract class AiPlayer {
         return true;
     }
 
+    protected boolean selectDummyGoldPiece(GoldPieceAction action) {
+        action.perform(getRmiProxy(), action.iterator().next());
+        return true;
+    }
+
+    protected boolean selectDummyMageAndWitch(MageAndWitchAction action) {
+        action.perform(getRmiProxy(), action.iterator().next());
+        return true;
+    }
+
     protected final void selectDummyDragonMove(Set<Position> positions, int movesLeft) {
         getRmiProxy().moveNeutralFigure(positions.iterator().next().asFeaturePointer(), Dragon.class);
     }
 
+    protected final void selectDummyMageWitchRemoval() {
+        getRmiProxy().moveNeutralFigure(null, Mage.class);
+    }
+
+    protected final void selectDummyCornCircleOption() {
+        getRmiProxy().cornCiclesRemoveOrDeploy(false);
+    }
+
+    protected final void selectDummyBazaarTile(List<BazaarItem> supply) {
+        for (int i = 0; i < supply.size(); i++) {
+            if (supply.get(i).getOwner() == null) {
+                getRmiProxy().bazaarBid(i, 0);
+                return;
+            }
+        }
+    }
+
+    protected final void selectDummyBazaarBid() {
+        getRmiProxy().pass();
+    }
+
+    protected final void selectDummyBazaarBuyOrSell() {
+        getRmiProxy().bazaarBuyOrSell(true);
+    }
+
     @Override
     public String toString() {
         return String.valueOf(player);
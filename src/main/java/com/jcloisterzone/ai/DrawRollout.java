@@ -0,0 +1,180 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.board.EdgePattern;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TilePlacement;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.CleanUpTurnPartPhase;
+import com.jcloisterzone.game.phase.CleanUpTurnPhase;
+import com.jcloisterzone.game.phase.TilePhase;
+
+/**
+ * Chance and opponent levels of expectimax for one candidate chain.
+ * <p>
+ * Chain is replayed on own game copy and AI player's turn is finished, then, for each tile draw,
+ * next player's placement of drawn tile which is worst for AI player is found. Opponent places tile
+ * only, meeple deployment is not examined.
+ * <p>
+ * Turn is finished by scoring and turn clean up only, phases between scoring and next draw which
+ * need decision (wagon, dragon, corn circle, escape, bazaar) are skipped. Draws are evaluated in given
+ * order, deadline is checked between them.
+ */
+public class DrawRollout implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final RankingAiPlayer aiPlayer;
+    private final AiChoice candidate;
+    private final List<EdgePattern> draws;
+    private final long deadline;
+
+    private final double[] values;
+    private volatile int completed;
+    private double finalRanking;
+    private int evaluatedPlacements;
+    private boolean failed;
+
+    /**
+     * @param deadline time in {@link System#nanoTime()} units, 0 for no limit
+     */
+    public DrawRollout(RankingAiPlayer aiPlayer, AiChoice candidate, List<EdgePattern> draws, long deadline) {
+        this.aiPlayer = aiPlayer;
+        this.candidate = candidate;
+        this.draws = draws;
+        this.deadline = deadline;
+        this.values = new double[draws.size()];
+        Arrays.fill(values, Double.NaN);
+    }
+
+    @Override
+    public void run() {
+        try {
+            Game game = aiPlayer.copyGame(this);
+            GameRanking gameRanking = aiPlayer.createGameRanking();
+            SavePointManager spm = new SavePointManager(game);
+            spm.startRecording();
+            replayChain(game);
+            //phase loop returns on chain end without flushing, events of last choice must be recorded before save
+            game.flushEventQueue();
+
+            SavePoint sp = spm.save();
+            Tile currentTile = game.getCurrentTile();
+            Player turnPlayer = game.getTurnPlayer();
+            //scores AI player's turn
+            finalRanking = gameRanking.getFinal(game);
+
+            TilePhase tilePhase = game.getPhases().getInstance(TilePhase.class);
+            startNextTurn(game, tilePhase);
+            SavePoint nextTurn = spm.save();
+
+            DefaultTilePack pack = (DefaultTilePack) game.getTilePack();
+            for (int i = 0; i < draws.size(); i++) {
+                if (deadline != 0 && System.nanoTime() - deadline > 0) break;
+                Tile tile = pack.getActiveTile(draws.get(i));
+                if (tile != null) {
+                    values[i] = rankDraw(game, gameRanking, spm, nextTurn, tilePhase, tile);
+                }
+                completed = i + 1;
+            }
+            spm.restore(sp);
+            //turn player isn't undoable
+            game.setTurnPlayer(turnPlayer);
+            game.setCurrentTile(currentTile);
+            spm.stopRecording();
+        } catch (Exception e) {
+            failed = true;
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    private void replayChain(Game game) {
+        List<AiChoice> chain = new ArrayList<>();
+        for (AiChoice choice = candidate; choice != null; choice = choice.getPrevious()) {
+            chain.add(choice);
+        }
+        Collections.reverse(chain);
+        for (AiChoice choice : chain) {
+            choice.perform(game.getPhase());
+            SelectActionTask.phaseLoop(game);
+        }
+    }
+
+    /** cleans up scored turn as {@link CleanUpTurnPartPhase} and {@link CleanUpTurnPhase} do and makes next player active */
+    private void startNextTurn(Game game, TilePhase tilePhase) {
+        game.turnPartCleanUp();
+        game.setCurrentTile(null);
+        game.turnCleanUp();
+        game.setTurnPlayer(game.getNextPlayer());
+        game.setPhase(tilePhase);
+        game.flushEventQueue();
+    }
+
+    /** returns ranking after next player's placement which is the worst for AI player */
+    private double rankDraw(Game game, GameRanking gameRanking, SavePointManager spm, SavePoint sp, TilePhase tilePhase, Tile tile) {
+        spm.restore(sp);
+        game.setCurrentTile(tile);
+        game.getBoard().refreshAvailablePlacements(tile);
+        List<TilePlacement> placements = new ArrayList<>();
+        for (Entry<Position, Set<Rotation>> entry : game.getBoard().getAvailablePlacements().entrySet()) {
+            for (Rotation rotation : entry.getValue()) {
+                placements.add(new TilePlacement(entry.getKey(), rotation));
+            }
+        }
+        if (placements.isEmpty()) {
+            //tile is discarded
+            return finalRanking;
+        }
+        double worst = Double.POSITIVE_INFINITY;
+        for (TilePlacement tp : placements) {
+            spm.restore(sp);
+            game.setCurrentTile(tile);
+            tilePhase.placeTile(tp.getRotation(), tp.getPosition());
+            game.flushEventQueue();
+            worst = Math.min(worst, gameRanking.getFinal(game));
+            evaluatedPlacements++;
+        }
+        return worst;
+    }
+
+    public AiChoice getCandidate() {
+        return candidate;
+    }
+
+    /** ranking of candidate chain end without lookahead */
+    public double getFinalRanking() {
+        return finalRanking;
+    }
+
+    /** number of draws evaluated before deadline */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /** rankings after each draw, NaN if draw wasn't evaluated or there is no such tile to draw */
+    public double[] getValues() {
+        return values;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public int getEvaluatedPlacements() {
+        return evaluatedPlacements;
+    }
+}
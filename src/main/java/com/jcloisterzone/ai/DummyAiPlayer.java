@@ -1,6 +1,11 @@
 package com.jcloisterzone.ai;
 
 import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.event.BazaarMakeBidEvent;
+import com.jcloisterzone.event.BazaarSelectBuyOrSellEvent;
+import com.jcloisterzone.event.BazaarSelectTileEvent;
+import com.jcloisterzone.event.CornCircleSelectOptionEvent;
+import com.jcloisterzone.event.MageWitchSelectRemoval;
 import com.jcloisterzone.event.SelectActionEvent;
 import com.jcloisterzone.event.SelectDragonMoveEvent;
 
@@ -20,4 +25,39 @@ public class DummyAiPlayer extends AiPlayer {
     	}
     }
 
+    @Subscribe
+    public void selectMageWitchRemoval(MageWitchSelectRemoval ev) {
+        if (isAiActive(ev)) {
+            selectDummyMageWitchRemoval();
+        }
+    }
+
+    @Subscribe
+    public void selectCornCircleOption(CornCircleSelectOptionEvent ev) {
+        if (isAiActive(ev)) {
+            selectDummyCornCircleOption();
+        }
+    }
+
+    @Subscribe
+    public void selectBazaarTile(BazaarSelectTileEvent ev) {
+        if (isAiActive(ev)) {
+            selectDummyBazaarTile(ev.getBazaarSupply());
+        }
+    }
+
+    @Subscribe
+    public void makeBazaarBid(BazaarMakeBidEvent ev) {
+        if (isAiActive(ev)) {
+            selectDummyBazaarBid();
+        }
+    }
+
+    @Subscribe
+    public void selectBazaarBuyOrSell(BazaarSelectBuyOrSellEvent ev) {
+        if (isAiActive(ev)) {
+            selectDummyBazaarBuyOrSell();
+        }
+    }
+
 }
@@ -0,0 +1,207 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.board.EdgePattern;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Depth-2 expectimax over tile draws.
+ * <p>
+ * Common {@link SelectActionTask} search keeps several best chains. Then for each of them
+ * {@link DrawRollout} ranks next player's worst (for AI) placement of each possible tile draw.
+ * Draws are grouped by edge pattern and weighted by remaining tile counts, when there are more patterns
+ * than <code>maxDraws</code>, draws are sampled proportionally to counts instead. All candidates
+ * are examined with the same draws. Chain with best expected ranking is selected.
+ * <p>
+ * When deadline is set, first half of time is used by common search. Draws are evaluated most probable first
+ * and candidates are compared on draws finished by all of them.
+ */
+public class ExpectimaxSelectActionTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final RankingAiPlayer aiPlayer;
+    private final SelectActionEvent rootEv;
+    private final int candidateCount;
+    private final int maxDraws;
+    private ExecutorService rolloutExecutor;
+    private long deadline;
+
+    public ExpectimaxSelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, int candidateCount, int maxDraws) {
+        this.aiPlayer = aiPlayer;
+        this.rootEv = rootEv;
+        this.candidateCount = candidateCount;
+        this.maxDraws = maxDraws;
+    }
+
+    /** executor for rollouts of candidates, rollouts are run on calling thread when not set */
+    public void setRolloutExecutor(ExecutorService rolloutExecutor) {
+        this.rolloutExecutor = rolloutExecutor;
+    }
+
+    /** see {@link SelectActionTask#setDeadline(long)} */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        SelectActionTask search = new SelectActionTask(aiPlayer, rootEv);
+        search.setCandidateCount(candidateCount);
+        if (deadline != 0) {
+            search.setDeadline(start + (deadline - start) / 2);
+        }
+        search.search();
+        AiChoice best = search.getBestSoFar();
+        int evaluated = search.getEvaluatedChoices();
+        boolean cutOff = search.isCutOff();
+
+        List<AiChoice> candidates = search.getCandidates();
+        Map<EdgePattern, Double> draws = candidates.size() > 1 ? selectDraws() : Collections.<EdgePattern, Double>emptyMap();
+        if (!draws.isEmpty()) {
+            List<DrawRollout> rollouts = runRollouts(candidates, new ArrayList<>(draws.keySet()));
+            AiChoice expectimaxBest = selectBest(rollouts, new ArrayList<>(draws.values()));
+            if (expectimaxBest != null) {
+                best = expectimaxBest;
+            }
+            for (DrawRollout rollout : rollouts) {
+                evaluated += rollout.getEvaluatedPlacements();
+                cutOff |= rollout.getCompleted() < draws.size();
+            }
+        }
+        aiPlayer.getSearchStats().record(evaluated, cutOff, System.nanoTime() - start);
+        aiPlayer.selectBestChain(best, rootEv);
+    }
+
+    /** returns draws with their weights, the most probable first */
+    private Map<EdgePattern, Double> selectDraws() {
+        DefaultTilePack pack = (DefaultTilePack) aiPlayer.game.getTilePack();
+        return selectDraws(pack.getEdgePatterns(), maxDraws, 31L * aiPlayer.game.getGameId().hashCode());
+    }
+
+    /**
+     * Weights draws by remaining counts. When there are more draws than <code>maxDraws</code>,
+     * <code>maxDraws</code> draws are sampled proportionally to counts and weighted by number of times
+     * they were sampled.
+     * @param seed sampling seed, same seed and counts give same draws
+     * @return draws with their weights, ordered by remaining count (ties by name)
+     */
+    static <T> Map<T, Double> selectDraws(Map<T, Integer> remaining, int maxDraws, long seed) {
+        List<Entry<T, Integer>> counts = new ArrayList<>(remaining.entrySet());
+        //deterministic order, hash order of patterns is not
+        Collections.sort(counts, new Comparator<Entry<T, Integer>>() {
+            @Override
+            public int compare(Entry<T, Integer> o1, Entry<T, Integer> o2) {
+                int cmp = o2.getValue().compareTo(o1.getValue());
+                return cmp == 0 ? o1.getKey().toString().compareTo(o2.getKey().toString()) : cmp;
+            }
+        });
+
+        Map<T, Double> draws = new LinkedHashMap<>();
+        if (counts.size() <= maxDraws) {
+            for (Entry<T, Integer> e : counts) {
+                draws.put(e.getKey(), e.getValue().doubleValue());
+            }
+            return draws;
+        }
+
+        int total = 0;
+        for (Entry<T, Integer> e : counts) {
+            total += e.getValue();
+        }
+        //same draws for same situation, so self-play games stay reproducible
+        Random random = new Random(seed + total);
+        Map<T, Double> sampled = new LinkedHashMap<>();
+        for (int i = 0; i < maxDraws; i++) {
+            int r = random.nextInt(total);
+            for (Entry<T, Integer> e : counts) {
+                r -= e.getValue();
+                if (r < 0) {
+                    Double w = sampled.get(e.getKey());
+                    sampled.put(e.getKey(), w == null ? 1.0 : w + 1.0);
+                    break;
+                }
+            }
+        }
+        //keep order by remaining count
+        for (Entry<T, Integer> e : counts) {
+            Double w = sampled.get(e.getKey());
+            if (w != null) draws.put(e.getKey(), w);
+        }
+        return draws;
+    }
+
+    private List<DrawRollout> runRollouts(List<AiChoice> candidates, List<EdgePattern> draws) {
+        List<DrawRollout> rollouts = new ArrayList<>(candidates.size());
+        List<Future<?>> futures = new ArrayList<>(candidates.size());
+        for (AiChoice candidate : candidates) {
+            DrawRollout rollout = new DrawRollout(aiPlayer, candidate, draws, deadline);
+            rollouts.add(rollout);
+            if (rolloutExecutor == null) {
+                rollout.run();
+            } else {
+                futures.add(rolloutExecutor.submit(rollout));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Expectimax rollouts interrupted.");
+            } catch (ExecutionException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        return rollouts;
+    }
+
+    /** returns candidate with best expected ranking or null if no draw was evaluated for all candidates */
+    private AiChoice selectBest(List<DrawRollout> rollouts, List<Double> weights) {
+        int n = weights.size();
+        for (DrawRollout rollout : rollouts) {
+            if (!rollout.isFailed()) {
+                n = Math.min(n, rollout.getCompleted());
+            }
+        }
+        if (n == 0) return null;
+
+        AiChoice best = null;
+        double bestRanking = Double.NEGATIVE_INFINITY;
+        for (DrawRollout rollout : rollouts) {
+            if (rollout.isFailed()) continue;
+            double sum = 0.0, weightSum = 0.0;
+            double[] values = rollout.getValues();
+            for (int i = 0; i < n; i++) {
+                if (Double.isNaN(values[i])) continue;
+                sum += weights.get(i) * values[i];
+                weightSum += weights.get(i);
+            }
+            double expected = weightSum == 0.0 ? rollout.getFinalRanking() : sum / weightSum;
+            //replace ranking of chain end by expected ranking after next player's placement
+            double ranking = rollout.getCandidate().getChainRanking() - rollout.getFinalRanking() + expected;
+            if (ranking > bestRanking) {
+                best = rollout.getCandidate();
+                bestRanking = ranking;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Splits root choices of {@link SelectActionTask} across several workers.
+ * Every worker ranks on its own game copy with own {@link SavePointManager}.
+ * Best chains are merged deterministically - on equal ranking chain with root evaluated
+ * first by sequential search wins, so result is same as single threaded one
+ * (unless search is limited by deadline).
+ */
+public class ParallelSelectActionTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final RankingAiPlayer aiPlayer;
+    private final SelectActionEvent rootEv;
+    private final ExecutorService workerExecutor;
+    private final int workerCount;
+    private long deadline;
+    private SelectActionTask best;
+    private int evaluatedChoices;
+    private boolean cutOff;
+
+    public ParallelSelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, ExecutorService workerExecutor, int workerCount) {
+        this.aiPlayer = aiPlayer;
+        this.rootEv = rootEv;
+        this.workerExecutor = workerExecutor;
+        this.workerCount = workerCount;
+    }
+
+    /** deadline shared by all workers, see {@link SelectActionTask#setDeadline(long)} */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        search();
+        aiPlayer.getSearchStats().record(evaluatedChoices, cutOff, System.nanoTime() - start);
+        aiPlayer.selectBestChain(getBestSoFar(), rootEv);
+    }
+
+    /**
+     * Runs all workers and merges their results.
+     * Result is available through {@link #getBestSoFar()} when method returns.
+     */
+    public void search() {
+        List<SelectActionTask> workers = new ArrayList<>(workerCount);
+        List<Future<?>> futures = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            final SelectActionTask worker = new SelectActionTask(aiPlayer, rootEv, aiPlayer.createGameRanking(), i, workerCount);
+            if (deadline != 0) {
+                worker.setDeadline(deadline);
+            }
+            workers.add(worker);
+            futures.add(workerExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    worker.search();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Parallel ranking interrupted.");
+            } catch (ExecutionException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        evaluatedChoices = 0;
+        cutOff = false;
+        for (SelectActionTask worker : workers) {
+            evaluatedChoices += worker.getEvaluatedChoices();
+            cutOff |= worker.isCutOff();
+        }
+        best = mergeBestChains(workers);
+    }
+
+    public AiChoice getBestSoFar() {
+        return best == null ? null : best.getBestSoFar();
+    }
+
+    public double getBestSoFarRanking() {
+        return best == null ? Double.NEGATIVE_INFINITY : best.getBestSoFarRanking();
+    }
+
+    private SelectActionTask mergeBestChains(List<SelectActionTask> workers) {
+        SelectActionTask best = null;
+        for (SelectActionTask worker : workers) {
+            if (worker.getBestSoFar() == null) continue;
+            if (best == null || worker.getBestSoFarRanking() > best.getBestSoFarRanking()) {
+                best = worker;
+            } else if (worker.getBestSoFarRanking() == best.getBestSoFarRanking()
+                    && worker.getBestSoFarRootIndex() < best.getBestSoFarRootIndex()) {
+                best = worker;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,208 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.choice.TilePlacementChoice;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.event.PlayEvent;
+import com.jcloisterzone.event.RequestConfirmEvent;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.DrawPhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.ScorePhase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.wsio.message.CommitMessage;
+
+/**
+ * Searches AI player's next turn while previous player decides.
+ * <p>
+ * Previous player's turn is predicted by the same search as AI uses for itself. Then for each
+ * tile which can be drawn (the most frequent first) predicted turn is replayed on game copy,
+ * given tile is drawn and the best chain is searched. Chains are cached by drawn tile id and
+ * hash of game state, so they are used only when the real turn reaches exactly the same state.
+ */
+public class PonderTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    /** guards against engine stuck in loop */
+    private static final int MAX_STEPS = 1000;
+
+    private final RankingAiPlayer aiPlayer;
+    private final Game base;
+    private final SelectActionEvent opponentEv;
+    private final Map<String, AiChoice> cache;
+
+    private volatile boolean cancelled;
+    private volatile SelectActionTask running;
+    private PlayEvent pending;
+
+    /**
+     * @param base private copy of the game taken when previous player was asked to place tile
+     * @param opponentEv previous player's tile placement request
+     * @param cache map where best chains are stored
+     */
+    public PonderTask(RankingAiPlayer aiPlayer, Game base, SelectActionEvent opponentEv, Map<String, AiChoice> cache) {
+        this.aiPlayer = aiPlayer;
+        this.base = base;
+        this.opponentEv = opponentEv;
+        this.cache = cache;
+    }
+
+    /** stops pondering, search in progress is abandoned and its result isn't cached */
+    public void cancel() {
+        cancelled = true;
+        SelectActionTask task = running;
+        if (task != null) task.cancel();
+    }
+
+    @Override
+    public void run() {
+        try {
+            AiChoice opponentChain = search(aiPlayer.createShadow(opponentEv.getTargetPlayer(), base), opponentEv);
+            if (opponentChain == null) return;
+
+            List<Entry<String, Integer>> tiles = new ArrayList<>(((DefaultTilePack) base.getTilePack()).getActiveTileCounts().entrySet());
+            Collections.sort(tiles, new Comparator<Entry<String, Integer>>() {
+                @Override
+                public int compare(Entry<String, Integer> o1, Entry<String, Integer> o2) {
+                    int cmp = o2.getValue().compareTo(o1.getValue());
+                    return cmp == 0 ? o1.getKey().compareTo(o2.getKey()) : cmp;
+                }
+            });
+            for (Entry<String, Integer> entry : tiles) {
+                if (cancelled) return;
+                ponderDraw(opponentChain, entry.getKey());
+            }
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    private AiChoice search(RankingAiPlayer searchingPlayer, SelectActionEvent ev) {
+        SelectActionTask task = new SelectActionTask(searchingPlayer, ev);
+        running = task;
+        if (cancelled) return null;
+        task.search();
+        running = null;
+        return cancelled ? null : task.getBestSoFar();
+    }
+
+    private void ponderDraw(AiChoice opponentChain, String tileId) {
+        Game game = base.copy(aiPlayer.getGameController());
+        game.flushEventQueue();
+        game.getEventBus().register(this);
+        for (AiChoice choice : getChain(opponentChain)) {
+            pending = null;
+            choice.perform(game.getPhase());
+            SelectActionTask.phaseLoop(game);
+        }
+        SelectActionEvent ev = playToDraw(game, tileId);
+        if (ev == null) return;
+
+        String key = getKey(tileId, game);
+        AiChoice best = search(aiPlayer.createShadow(aiPlayer.getPlayer(), game), ev);
+        if (best != null) {
+            cache.put(key, best);
+            aiPlayer.getSearchStats().recordPondered();
+        }
+    }
+
+    /** plays rest of predicted turn and draws given tile, returns AI's placement request or null if it's not reached */
+    private SelectActionEvent playToDraw(Game game, String tileId) {
+        boolean drawn = false;
+        for (int steps = 0; steps < MAX_STEPS; steps++) {
+            Phase phase = game.getPhase();
+            if (!phase.isEntered()) {
+                if (phase instanceof GameOverPhase) return null;
+                phase.setEntered(true);
+                if (phase instanceof DrawPhase) {
+                    if (drawn || !((DrawPhase) phase).enter(tileId)) return null; //tile is discarded
+                    drawn = true;
+                } else {
+                    phase.enter();
+                }
+                game.flushEventQueue();
+                continue;
+            }
+            PlayEvent ev = pending;
+            pending = null;
+            if (ev instanceof RequestConfirmEvent && phase instanceof ScorePhase) {
+                ((ScorePhase) phase).handleCommit(new CommitMessage(game.getGameId()));
+                game.flushEventQueue();
+                continue;
+            }
+            if (drawn && phase instanceof TilePhase && ev instanceof SelectActionEvent
+                    && aiPlayer.getPlayer().equals(((SelectActionEvent) ev).getTargetPlayer())) {
+                return (SelectActionEvent) ev;
+            }
+            //other decision is required, it can't be predicted
+            return null;
+        }
+        return null;
+    }
+
+    private static List<AiChoice> getChain(AiChoice last) {
+        List<AiChoice> chain = new ArrayList<>();
+        for (AiChoice choice = last; choice != null; choice = choice.getPrevious()) {
+            chain.add(choice);
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    /** returns true if chain starts with tile placement which is allowed by given request */
+    public static boolean isApplicable(AiChoice chain, SelectActionEvent ev) {
+        AiChoice first = getChain(chain).get(0);
+        if (!(first instanceof TilePlacementChoice)) return false;
+        for (PlayerAction<?> action : ev.getActions()) {
+            if (action instanceof TilePlacementAction
+                    && ((TilePlacementAction) action).getOptions().contains(((TilePlacementChoice) first).getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** cache key of position where given tile is drawn */
+    public static String getKey(String tileId, Game game) {
+        return tileId + "@" + Long.toHexString(stateHash(game));
+    }
+
+    /**
+     * Hash of game state extended by turn player and tile pack size.
+     */
+    static long stateHash(Game game) {
+        return game.getZobristHash().getValue() + mix(game.getTurnPlayer().getIndex() * 31L + game.getTilePack().size());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Subscribe
+    public void handleEvent(SelectActionEvent ev) {
+        pending = ev;
+    }
+
+    @Subscribe
+    public void handleEvent(RequestConfirmEvent ev) {
+        pending = ev;
+    }
+}
@@ -2,27 +2,33 @@ package com.jcloisterzone.ai;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.xml.transform.TransformerException;
 
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
 import com.jcloisterzone.ai.choice.AiChoice;
 import com.jcloisterzone.config.Config.DebugConfig;
-import com.jcloisterzone.event.RequestConfirmEvent;
 import com.jcloisterzone.event.SelectActionEvent;
 import com.jcloisterzone.event.SelectDragonMoveEvent;
+import com.jcloisterzone.game.BinarySnapshotCodec;
 import com.jcloisterzone.game.Game;
-import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.Snapshot;
-import com.jcloisterzone.game.phase.LoadGamePhase;
-import com.jcloisterzone.wsio.message.CommitMessage;
 
 public abstract class RankingAiPlayer extends AiPlayer {
 
-    private static ExecutorService executor = Executors.newFixedThreadPool(1);
+    private static ExecutorService ponderExecutor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder().setNameFormat("AI-ponder").setDaemon(true).setPriority(Thread.MIN_PRIORITY).build());
 
     //private Map<Feature, AiScoreContext> scoreCache = new HashMap<>();
     //private List<PositionLocation> hopefulGatePlacements = new ArrayList<PositionLocation>();
@@ -33,6 +39,11 @@ public abstract class RankingAiPlayer extends AiPlayer {
 
     private final GameRanking gameRanking;
     private final AtomicReference<AiChoice> bestChain = new AtomicReference<>();
+    private final SearchStats searchStats = new SearchStats();
+    /** best chains for next turn found by pondering, see {@link PonderTask} */
+    private final Map<String, AiChoice> ponderCache = new ConcurrentHashMap<>();
+    private PonderTask ponderTask;
+    private Future<?> ponderFuture;
 
 
     public RankingAiPlayer() {
@@ -46,6 +57,11 @@ public abstract class RankingAiPlayer extends AiPlayer {
     }
 
 
+    @Override
+    public SearchStats getSearchStats() {
+        return searchStats;
+    }
+
     public AiChoice getBestChain() {
         return bestChain.get();
     }
@@ -73,28 +89,38 @@ public abstract class RankingAiPlayer extends AiPlayer {
         toExecute.perform(getRmiProxy());
     }
 
+    protected void selectBestChain(AiChoice best, SelectActionEvent ev) {
+        if (best == null) {
+            //in perfect world it should never happen
+            setBestChain(null);
+            selectDummyAction(ev.getActions(), ev.isPassAllowed());
+        } else {
+            setBestChain(best);
+            popActionChain();
+        }
+    }
+
     private void autosave() {
         DebugConfig debugConfig = gc.getConfig().getDebug();
         if (debugConfig != null && debugConfig.getAutosave() != null && debugConfig.getAutosave().length() > 0) {
-            Snapshot snapshot = new Snapshot(game);
-            if ("plain".equals(debugConfig.getSave_format())) {
-                snapshot.setGzipOutput(false);
-            }
             try {
-                snapshot.save(new FileOutputStream(debugConfig.getAutosave()));
+                if (BinarySnapshotCodec.SAVE_FORMAT.equals(debugConfig.getSave_format())) {
+                    try (FileOutputStream os = new FileOutputStream(debugConfig.getAutosave())) {
+                        new BinarySnapshotCodec().write(game, os);
+                    }
+                } else {
+                    Snapshot snapshot = new Snapshot(game);
+                    if ("plain".equals(debugConfig.getSave_format())) {
+                        snapshot.setGzipOutput(false);
+                    }
+                    snapshot.save(new FileOutputStream(debugConfig.getAutosave()));
+                }
             } catch (TransformerException | IOException e) {
                 logger.error("Auto save before ranking failed.", e);
             }
         }
     }
 
-    @Subscribe
-    public void requestConfirm(RequestConfirmEvent ev) {
-    	if (isAiActive(ev)) {
-    		getGameController().getConnection().send(new CommitMessage(game.getGameId()));
-    	}
-    }
-
     @Subscribe
     public void selectAction(SelectActionEvent ev) {
     	if (isAiActive(ev)) {
@@ -103,33 +129,129 @@ public abstract class RankingAiPlayer extends AiPlayer {
                 popActionChain();
             } else {
                 autosave();
-                executor.submit(new SelectActionTask(this, ev));
+                ExecutorService exec = getTaskExecutor();
+                final AiChoice pondered = lookupPondered(ev);
+                if (pondered != null) {
+                    final SelectActionEvent selectEv = ev;
+                    exec.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            selectBestChain(pondered, selectEv);
+                        }
+                    });
+                } else {
+                    exec.submit(createSelectActionTask(ev, getSearchDeadline()));
+                }
             }
         } else {
             if (getBestChain() != null) {
                 logger.warn("AI action chain wasn't fully used! There is an error in ranking engine.");
                 setBestChain(null);
             }
+            if (!isMuted() && isPonderEnabled() && isTilePlacement(ev)
+                    && !getPlayer().equals(ev.getTargetPlayer()) && getPlayer().equals(game.getNextPlayer(ev.getTargetPlayer()))) {
+                startPondering(ev);
+            }
+        }
+    }
+
+    /** true if player searches its next turn in advance during previous player's turn, see {@link PonderTask} */
+    protected boolean isPonderEnabled() {
+        return Boolean.TRUE.equals(gc.getConfig().getAi_ponder());
+    }
+
+    private static boolean isTilePlacement(SelectActionEvent ev) {
+        for (PlayerAction<?> action : ev.getActions()) {
+            if (action instanceof TilePlacementAction) return true;
+        }
+        return false;
+    }
+
+    private void startPondering(SelectActionEvent ev) {
+        if (ponderTask != null) {
+            ponderTask.cancel();
+        }
+        ponderCache.clear();
+        //game is changed only by game thread, so copy must be taken here, ponder task works on its private copy
+        ponderTask = new PonderTask(this, game.copy(gc), ev, ponderCache);
+        ponderFuture = ponderExecutor.submit(ponderTask);
+    }
+
+    /** true if own turn waits until pondering is finished instead of cancelling it, used by tests */
+    protected boolean isPonderAwaited() {
+        return false;
+    }
+
+    /** stops pondering and returns pondered chain for actual position or null */
+    private AiChoice lookupPondered(SelectActionEvent ev) {
+        if (ponderTask == null) return null;
+        if (isPonderAwaited()) {
+            try {
+                ponderFuture.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        ponderTask.cancel();
+        ponderTask = null;
+        ponderFuture = null;
+        if (!isTilePlacement(ev)) {
+            ponderCache.clear();
+            return null;
+        }
+        AiChoice chain = ponderCache.get(PonderTask.getKey(game.getCurrentTile().getId(), game));
+        ponderCache.clear();
+        boolean hit = chain != null && PonderTask.isApplicable(chain, ev);
+        searchStats.recordPonderLookup(hit);
+        return hit ? chain : null;
+    }
+
+    /**
+     * Creates task which searches for best action chain and performs its first action.
+     * @param deadline search deadline in {@link System#nanoTime()} units or 0 for unlimited search
+     */
+    protected Runnable createSelectActionTask(SelectActionEvent ev, long deadline) {
+        int threads = getSearchThreads();
+        if (threads > 1) {
+            ParallelSelectActionTask task = new ParallelSelectActionTask(this, ev, getSearchExecutor(threads), threads);
+            if (deadline != 0) task.setDeadline(deadline);
+            return task;
+        } else {
+            SelectActionTask task = new SelectActionTask(this, ev);
+            if (deadline != 0) task.setDeadline(deadline);
+            return task;
         }
     }
 
     @Subscribe
     public void selectDragonMove(SelectDragonMoveEvent ev) {
     	if (isAiActive(ev)) {
-             new Thread(new SelectDragonMoveTask(this, ev), "AI-selectDragonMove").start();
+            getTaskExecutor().submit(new SelectDragonMoveTask(this, ev));
+        }
+    }
+
+    /**
+     * Creates player of the same type for given player and game. Used to search positions
+     * which aren't reached in actual game, shadow player is not registered to any game.
+     */
+    protected RankingAiPlayer createShadow(Player player, Game game) {
+        try {
+            RankingAiPlayer shadow = getClass().newInstance();
+            shadow.setPlayer(player);
+            shadow.setGame(game);
+            shadow.setGameController(gc);
+            return shadow;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    //TODO is there faster game copying without snapshot? or without re-creating board and tile instances
     protected Game copyGame(Object gameListener) {
-        Snapshot snapshot = new Snapshot(game);
-        Game copy = snapshot.asGame(game.getGameId());
+        Game copy = game.copy(getGameController());
+        //events are queued until flush, listener receives also events fired during copy
         copy.getEventBus().register(gameListener);
-        LoadGamePhase phase = new LoadGamePhase(copy, snapshot, getGameController());
-        phase.setSlots(new PlayerSlot[0]);
-        copy.getPhases().put(phase.getClass(), phase);
-        copy.setPhase(phase);
-        phase.startGame(false);
         return copy;
     }
 }
@@ -8,14 +8,16 @@ public class SavePoint {
     private final Undoable operation;
     private final Phase phase;
     private final Object[] capabilitiesBackups;
+    private final long stateHash;
 
     //testing purposes only
     private Snapshot snapshot;
 
-    public SavePoint(Undoable operation, Phase phase, Object[] capabilitiesBackups) {
+    public SavePoint(Undoable operation, Phase phase, Object[] capabilitiesBackups, long stateHash) {
         this.operation = operation;
         this.phase = phase;
         this.capabilitiesBackups = capabilitiesBackups;
+        this.stateHash = stateHash;
     }
 
     public Undoable getOperation() {
@@ -30,6 +32,11 @@ public class SavePoint {
         return capabilitiesBackups;
     }
 
+    /** {@link com.jcloisterzone.game.ZobristHash} value of saved state */
+    public long getStateHash() {
+        return stateHash;
+    }
+
     public Snapshot getSnapshot() {
         return snapshot;
     }
@@ -14,6 +14,7 @@ import com.jcloisterzone.event.Undoable;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.ZobristHash;
 import com.jcloisterzone.game.phase.Phase;
 
 public class SavePointManager {
@@ -55,7 +56,7 @@ public class SavePointManager {
         for (Capability cap : game.getCapabilities()) {
             backups[i++] = cap.backup();
         }
-        SavePoint sp = new SavePoint(operations.peekLast(), game.getPhase(), backups);
+        SavePoint sp = new SavePoint(operations.peekLast(), game.getPhase(), backups, game.getZobristHash().getValue());
         if (DEBUG_VERIFY_SAVE_POINT) {
             sp.setSnapshot(new Snapshot(game));
         }
@@ -68,7 +69,9 @@ public class SavePointManager {
         Undoable target = sp.getOperation();
         //assert target == null || operations.contains(target);
         while (operations.peekLast() != target) {
-            operations.pollLast().undo(game);
+            Undoable u = operations.pollLast();
+            game.getZobristHash().revert(u);
+            u.undo(game);
         }
         int i = 0;
         for (Capability cap : game.getCapabilities()) {
@@ -80,7 +83,15 @@ public class SavePointManager {
         phase.setEntered(true);
         game.getEventBus().register(operationRecorder);
 
+        if (logger.isDebugEnabled() && game.getZobristHash().getValue() != sp.getStateHash()) {
+            //state changed by something else than recorded operations, eg. points without score event
+            logger.debug("State hash of restored save point doesn't match.");
+        }
+
         if (DEBUG_VERIFY_SAVE_POINT) {
+            if (ZobristHash.compute(game) != sp.getStateHash()) {
+                System.err.println("--- state hash recomputed from restored save point doesn't match ---");
+            }
             try {
                 String sRestore = new Snapshot(game).saveToString();
                 String sSave = sp.getSnapshot().saveToString();
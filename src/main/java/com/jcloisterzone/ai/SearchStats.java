@@ -0,0 +1,118 @@
+package com.jcloisterzone.ai;
+
+import java.util.Locale;
+
+/**
+ * Cumulative statistics of AI decisions searched by {@link SelectActionTask}.
+ */
+public class SearchStats {
+
+    private int decisions;
+    private long evaluatedChoices;
+    private int cutOffDecisions;
+    private long searchTime;
+    private int ponderLookups;
+    private int ponderHits;
+    private int ponderedPositions;
+
+    /**
+     * @param evaluated number of choices ranked (or games simulated) for decision
+     * @param cutOff true if search was stopped by time budget
+     * @param nanos duration of search
+     */
+    public synchronized void record(int evaluated, boolean cutOff, long nanos) {
+        decisions++;
+        evaluatedChoices += evaluated;
+        if (cutOff) cutOffDecisions++;
+        searchTime += nanos;
+    }
+
+    /** @param hit true if decision was served from positions pondered during opponent's turn */
+    public synchronized void recordPonderLookup(boolean hit) {
+        ponderLookups++;
+        if (hit) ponderHits++;
+    }
+
+    /** counts position searched in advance during opponent's turn */
+    public synchronized void recordPondered() {
+        ponderedPositions++;
+    }
+
+    /** adds statistics of other player or game */
+    public void add(SearchStats other) {
+        int d, c, pl, ph, pp;
+        long e, t;
+        synchronized (other) {
+            d = other.decisions;
+            e = other.evaluatedChoices;
+            c = other.cutOffDecisions;
+            t = other.searchTime;
+            pl = other.ponderLookups;
+            ph = other.ponderHits;
+            pp = other.ponderedPositions;
+        }
+        synchronized (this) {
+            decisions += d;
+            evaluatedChoices += e;
+            cutOffDecisions += c;
+            searchTime += t;
+            ponderLookups += pl;
+            ponderHits += ph;
+            ponderedPositions += pp;
+        }
+    }
+
+    public synchronized int getDecisions() {
+        return decisions;
+    }
+
+    public synchronized long getEvaluatedChoices() {
+        return evaluatedChoices;
+    }
+
+    /** number of decisions returned before all choices were evaluated */
+    public synchronized int getCutOffDecisions() {
+        return cutOffDecisions;
+    }
+
+    /** total search time in nanoseconds */
+    public synchronized long getSearchTime() {
+        return searchTime;
+    }
+
+    public synchronized double getDecisionsPerSecond() {
+        return searchTime == 0 ? 0.0 : decisions / (searchTime / 1e9);
+    }
+
+    /** number of tile placement decisions looked up in ponder cache */
+    public synchronized int getPonderLookups() {
+        return ponderLookups;
+    }
+
+    public synchronized int getPonderHits() {
+        return ponderHits;
+    }
+
+    public synchronized int getPonderedPositions() {
+        return ponderedPositions;
+    }
+
+    public synchronized double getPonderHitRate() {
+        return ponderLookups == 0 ? 0.0 : (double) ponderHits / ponderLookups;
+    }
+
+    public synchronized double getChoicesPerDecision() {
+        return decisions == 0 ? 0.0 : (double) evaluatedChoices / decisions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        String s = String.format(Locale.ROOT, "%d decisions, %.1f choices per decision, %d cut off, %.1f decisions/s",
+            decisions, getChoicesPerDecision(), cutOffDecisions, getDecisionsPerSecond());
+        if (ponderLookups > 0) {
+            s += String.format(Locale.ROOT, ", ponder hits %d/%d (%.0f %%, %d positions pondered)",
+                ponderHits, ponderLookups, 100.0 * getPonderHitRate(), ponderedPositions);
+        }
+        return s;
+    }
+}
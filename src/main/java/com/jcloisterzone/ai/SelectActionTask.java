@@ -3,10 +3,16 @@ package com.jcloisterzone.ai;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +54,33 @@ public class SelectActionTask implements Runnable {
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
     private final RankingAiPlayer aiPlayer;
+    private final GameRanking gameRanking;
     private final SelectActionEvent rootEv;
     private final Deque<AiChoice> queue = new LinkedList<>();
 
+    /** worker partitioning, root choices are dealt round-robin in the order they would be evaluated */
+    private final int workerIndex;
+    private final int workerCount;
+    private final Map<AiChoice, Integer> rootOrder = new HashMap<>();
+
     private AiChoice choice = null;
     private AiChoice bestSoFar = null;
     private double bestSoFarRanking = Double.NEGATIVE_INFINITY;
 
+    /** search deadline in {@link System#nanoTime()} units, search is not limited when 0 */
+    private long deadline;
+    /** true while root choices are ranked to find evaluation order, new choices are not queued */
+    private boolean seeding;
+    /** root choices ranked while seeding and not explored yet */
+    private final Set<AiChoice> seeded = new HashSet<>();
+    private volatile boolean cancelled;
+    private int evaluatedChoices;
+    private boolean cutOff;
+
+    /** number of best complete chains kept in {@link #candidates} */
+    private int candidateCount = 1;
+    private final List<AiChoice> candidates = new ArrayList<>();
+
     private SavePointManager spm;
     private Game game;
 
@@ -62,8 +88,47 @@ public class SelectActionTask implements Runnable {
     private static final List<Class<? extends Phase>> ALLOWED_IN_PHASE_LOOP = Lists.newArrayList(ActionPhase.class, EscapePhase.class, TowerCapturePhase.class, WagonPhase.class);
 
     public SelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv) {
+        this(aiPlayer, rootEv, aiPlayer.getGameRanking(), 0, 1);
+    }
+
+    /**
+     * Creates worker which explores only root choices with
+     * {@code index % workerCount == workerIndex}. Each worker must own its ranking instance
+     * because rankings keep intermediate state.
+     */
+    public SelectActionTask(RankingAiPlayer aiPlayer, SelectActionEvent rootEv, GameRanking gameRanking, int workerIndex, int workerCount) {
         this.aiPlayer = aiPlayer;
         this.rootEv = rootEv;
+        this.gameRanking = gameRanking;
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Limits search time. Root choices are then evaluated in promising-first order (by partial ranking)
+     * and search stops on first check after deadline, once all continuations of the most promising root
+     * are ranked.
+     * @param deadline time in {@link System#nanoTime()} units
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline == 0 ? 1 : deadline;
+    }
+
+    /**
+     * Keeps given number of best complete chains, eg. to examine them deeper.
+     * @see #getCandidates()
+     */
+    public void setCandidateCount(int candidateCount) {
+        this.candidateCount = candidateCount;
+    }
+
+    /** stops running search on next check, result of cancelled search is incomplete */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private boolean isExpired() {
+        return deadline != 0 && System.nanoTime() - deadline > 0;
     }
 
     private void dbgPringHeader() {
@@ -110,6 +175,17 @@ public class SelectActionTask implements Runnable {
 
     @Override
     public void run() {
+        long start = System.nanoTime();
+        search();
+        aiPlayer.getSearchStats().record(evaluatedChoices, cutOff, System.nanoTime() - start);
+        aiPlayer.selectBestChain(bestSoFar, rootEv);
+    }
+
+    /**
+     * Explores all choices assigned to this task on own game copy.
+     * Result is available through {@link #getBestSoFar()} when method returns.
+     */
+    public void search() {
         //logger.info("Select action task started " + aiPlayer.getClientStub().getGame().getTilePack().size() + " " + rootEv.getPlayer() + " > " + rootEv.getActions().toString());
         boolean dbgPrint = false;
         try {
@@ -120,15 +196,33 @@ public class SelectActionTask implements Runnable {
             spm.startRecording();
 
             handleActionEvent(rootEv);
+            partitionRootChoices();
+            if (deadline != 0) {
+                sortRootChoices();
+            }
 
+            boolean rootStarted = false, rootExplored = false;
             while (!queue.isEmpty()) {
+                //whole subtree of the most promising root is explored at least, then search can stop between any choices
+                if (rootStarted && queue.peek().getPrevious() == null) {
+                    rootExplored = true;
+                }
+                if (cancelled || (rootExplored && bestSoFar != null && isExpired())) {
+                    cutOff = true;
+                    break;
+                }
                 choice = queue.pop();
+                rootStarted = true;
                 spm.restore(choice.getSavePoint());
                 choice.perform(game.getPhase());
                 boolean isFinal = phaseLoop();
-                choice.rankPartial(aiPlayer.getGameRanking(), game);
-                if (isFinal) {
-                    rankFinal(choice);
+                //seeded root is performed again only to queue its continuations, its ranking is kept
+                if (!seeded.remove(choice)) {
+                    evaluatedChoices++;
+                    choice.rankPartial(gameRanking, game);
+                    if (isFinal) {
+                        rankFinal(choice);
+                    }
                 }
                 if (dbgPrint) dbgPringStep(choice, isFinal);
             }
@@ -137,17 +231,110 @@ public class SelectActionTask implements Runnable {
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
         }
-        if (bestSoFar == null) {
-            //in perfect world it should never happen
-            aiPlayer.setBestChain(null);
-            aiPlayer.selectDummyAction(rootEv.getActions(), rootEv.isPassAllowed());
-        } else {
-            aiPlayer.setBestChain(bestSoFar);
-            aiPlayer.popActionChain();
+    }
+
+    private void partitionRootChoices() {
+        int i = 0;
+        for (Iterator<AiChoice> iter = queue.iterator(); iter.hasNext(); i++) {
+            AiChoice root = iter.next();
+            if (i % workerCount == workerIndex) {
+                rootOrder.put(root, i);
+            } else {
+                iter.remove();
+            }
         }
     }
 
+    /**
+     * Orders root choices by their partial ranking, the most promising first. Choices not ranked
+     * before deadline keep original order after the ranked ones.
+     * <p>
+     * Ranking is kept, so seeded root is not ranked again when it is explored. Root which completes
+     * chain is ranked as final right away and is not explored again at all.
+     */
+    private void sortRootChoices() {
+        List<AiChoice> roots = new ArrayList<>(queue);
+        final Map<AiChoice, Double> seeds = new HashMap<>();
+        seeding = true;
+        try {
+            for (Iterator<AiChoice> iter = roots.iterator(); iter.hasNext(); ) {
+                AiChoice root = iter.next();
+                if (isExpired()) break;
+                evaluatedChoices++;
+                spm.restore(root.getSavePoint());
+                root.perform(game.getPhase());
+                boolean isFinal = phaseLoop();
+                root.rankPartial(gameRanking, game);
+                if (isFinal) {
+                    rankFinal(root);
+                    iter.remove();
+                } else {
+                    seeds.put(root, root.getRanking());
+                    seeded.add(root);
+                }
+            }
+        } finally {
+            seeding = false;
+        }
+        Collections.sort(roots, new Comparator<AiChoice>() {
+            @Override
+            public int compare(AiChoice o1, AiChoice o2) {
+                Double s1 = seeds.get(o1), s2 = seeds.get(o2);
+                return Double.compare(
+                    s2 == null ? Double.NEGATIVE_INFINITY : s2,
+                    s1 == null ? Double.NEGATIVE_INFINITY : s1);
+            }
+        });
+        queue.clear();
+        queue.addAll(roots);
+    }
+
+    /** best complete chains (their last choices), best first */
+    public List<AiChoice> getCandidates() {
+        if (candidateCount > 1 || bestSoFar == null) return candidates;
+        return Collections.singletonList(bestSoFar);
+    }
+
+    /** number of choices performed and ranked by last search */
+    public int getEvaluatedChoices() {
+        return evaluatedChoices;
+    }
+
+    /** true if last search was stopped by deadline before all choices were evaluated */
+    public boolean isCutOff() {
+        return cutOff;
+    }
+
+    public AiChoice getBestSoFar() {
+        return bestSoFar;
+    }
+
+    public double getBestSoFarRanking() {
+        return bestSoFarRanking;
+    }
+
+    /**
+     * Returns position of best chain's root choice in sequential evaluation order.
+     * Used to break ties between workers same way as sequential search does.
+     */
+    public int getBestSoFarRootIndex() {
+        if (bestSoFar == null) return Integer.MAX_VALUE;
+        AiChoice root = bestSoFar;
+        while (root.getPrevious() != null) {
+            root = root.getPrevious();
+        }
+        return rootOrder.get(root);
+    }
+
     private boolean phaseLoop() {
+        return phaseLoop(game);
+    }
+
+    /**
+     * Enters phases which doesn't require player decision.
+     * @return true if chain of choices is complete (turn part reached phase not handled by AI search)
+     */
+    public static boolean phaseLoop(Game game) {
         Phase phase = game.getPhase();
         while (!phase.isEntered()) {
             if (!Iterables.contains(ALLOWED_IN_PHASE_LOOP, phase.getClass())) {
@@ -163,12 +350,24 @@ public class SelectActionTask implements Runnable {
     }
 
     private void rankFinal(AiChoice step) {
-        step.setRanking(step.getRanking() + aiPlayer.getGameRanking().getFinal(game));
+        step.setRanking(step.getRanking() + gameRanking.getFinal(game));
         double currChainRanking = step.getChainRanking();
         if (currChainRanking > bestSoFarRanking) {
             bestSoFar = step;
             bestSoFarRanking = currChainRanking;
         }
+        if (candidateCount > 1) {
+            int i = candidates.size();
+            while (i > 0 && candidates.get(i - 1).getChainRanking() < currChainRanking) {
+                i--;
+            }
+            if (i < candidateCount) {
+                candidates.add(i, step);
+                if (candidates.size() > candidateCount) {
+                    candidates.remove(candidateCount);
+                }
+            }
+        }
     }
 
     /*
@@ -180,6 +379,9 @@ public class SelectActionTask implements Runnable {
 
     @Subscribe
     public void handleActionEvent(SelectActionEvent ev) {
+        if (seeding) {
+            return;
+        }
         if (!game.getActivePlayer().equals(aiPlayer.getPlayer())) {
             return; //e.g. wagon move of other player
         }
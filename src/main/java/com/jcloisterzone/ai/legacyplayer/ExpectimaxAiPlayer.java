@@ -0,0 +1,69 @@
+package com.jcloisterzone.ai.legacyplayer;
+
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.ExpectimaxSelectActionTask;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Legacy AI with lookahead. Whole turn is decided on tile placement, so on tile placement
+ * several best chains are examined against next player's placements of possible tile draws.
+ * Uses <code>ai_search_threads</code> for rollouts and <code>ai_search_budget</code> as time cap.
+ * <p>
+ * Experimental, it is not offered in game setup. Lookahead is several times slower than legacy AI
+ * and self-play doesn't show measurable gain of play strength yet.
+ */
+public class ExpectimaxAiPlayer extends LegacyAiPlayer {
+
+    public static final int DEFAULT_CANDIDATES = 4;
+    public static final int DEFAULT_MAX_DRAWS = 8;
+
+    private int candidates = DEFAULT_CANDIDATES;
+    private int maxDraws = DEFAULT_MAX_DRAWS;
+
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /** number of best chains examined by lookahead */
+    public void setCandidates(int candidates) {
+        this.candidates = candidates;
+    }
+
+    public int getMaxDraws() {
+        return maxDraws;
+    }
+
+    /** max tile draws examined for each chain, draws are sampled when there are more distinct edge patterns */
+    public void setMaxDraws(int maxDraws) {
+        this.maxDraws = maxDraws;
+    }
+
+    /** pondered chains are found by plain ranking search, without lookahead */
+    @Override
+    protected boolean isPonderEnabled() {
+        return false;
+    }
+
+    @Override
+    protected Runnable createSelectActionTask(SelectActionEvent ev, long deadline) {
+        boolean tilePlacement = false;
+        for (PlayerAction<?> action : ev.getActions()) {
+            if (action instanceof TilePlacementAction) {
+                tilePlacement = true;
+            }
+        }
+        if (!tilePlacement) {
+            return super.createSelectActionTask(ev, deadline);
+        }
+        ExpectimaxSelectActionTask task = new ExpectimaxSelectActionTask(this, ev, candidates, maxDraws);
+        int threads = getSearchThreads();
+        if (threads > 1) {
+            task.setRolloutExecutor(getSearchExecutor(threads));
+        }
+        if (deadline != 0) {
+            task.setDeadline(deadline);
+        }
+        return task;
+    }
+}
@@ -481,6 +481,7 @@ public class LegacyRanking implements GameRanking {
         double rank = 0;
 
         Tile tile = game.getCurrentTile();
+        if (tile == null) return 0.0; //nothing placed, eg. abbey pass
         Position placement = tile.getPosition();
         assert placement != null;
 
@@ -0,0 +1,137 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.EnumSet;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.ai.SearchStats;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.event.SelectDragonMoveEvent;
+import com.jcloisterzone.game.Game;
+
+/**
+ * Monte Carlo tree search player. Decisions of own turn are searched with UCT,
+ * leaves are evaluated by random playouts to the end of game, see {@link MctsWorker} and {@link Playout}.
+ * Uses <code>ai_search_threads</code> for root-parallel search and <code>ai_search_budget</code>
+ * as time per decision ({@link #DEFAULT_BUDGET} when not set).
+ */
+public class MctsAiPlayer extends AiPlayer {
+
+    public static final int DEFAULT_BUDGET = 1000; //ms
+    public static final double DEFAULT_EXPLORATION = 0.7;
+    public static final double DEFAULT_GREEDY = 0.5;
+
+    private final SearchStats searchStats = new SearchStats();
+    private int iterations;
+    private double exploration = DEFAULT_EXPLORATION;
+    private double greedy = DEFAULT_GREEDY;
+    private long searchCount;
+
+    public static EnumSet<Expansion> supportedExpansions() {
+        return EnumSet.of(
+            Expansion.BASIC,
+            Expansion.WINTER,
+            Expansion.INNS_AND_CATHEDRALS,
+            Expansion.TRADERS_AND_BUILDERS,
+            Expansion.KING_AND_ROBBER_BARON,
+            Expansion.RIVER,
+            Expansion.RIVER_II,
+            Expansion.GQ11,
+            Expansion.CATHARS,
+            Expansion.BESIEGERS,
+            Expansion.GERMAN_MONASTERIES,
+            //only tiles
+            Expansion.COUNT
+        );
+    }
+
+    @Override
+    public SearchStats getSearchStats() {
+        return searchStats;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /** max number of playouts per decision, 0 for no limit (search is then limited by time only) */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public double getExploration() {
+        return exploration;
+    }
+
+    /** UCT exploration constant, rewards are in 0..1 range */
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    public double getGreedy() {
+        return greedy;
+    }
+
+    /** probability of greedy tile placement and of taking optional action in playouts */
+    public void setGreedy(double greedy) {
+        this.greedy = greedy;
+    }
+
+    @Subscribe
+    public void selectAction(SelectActionEvent ev) {
+        if (isAiActive(ev)) {
+            if (countChoices(ev) <= 1) {
+                selectDummyAction(ev);
+                return;
+            }
+            int threads = getSearchThreads();
+            MctsSelectActionTask task = new MctsSelectActionTask(this, ev, threads);
+            if (threads > 1) {
+                task.setWorkerExecutor(getSearchExecutor(threads));
+            }
+            task.setDeadline(getSearchDeadline());
+            task.setIterations(iterations);
+            getTaskExecutor().submit(task);
+        }
+    }
+
+    @Subscribe
+    public void selectDragonMove(SelectDragonMoveEvent ev) {
+        if (isAiActive(ev)) {
+            selectDummyDragonMove(ev.getPositions(), ev.getMovesLeft());
+        }
+    }
+
+    private int countChoices(SelectActionEvent ev) {
+        int count = ev.isPassAllowed() ? 1 : 0;
+        for (PlayerAction<?> action : ev.getActions()) {
+            count += action.getOptions().size();
+        }
+        return count;
+    }
+
+    void selectDummyAction(SelectActionEvent ev) {
+        selectDummyAction(ev.getActions(), ev.isPassAllowed());
+    }
+
+    /** search is limited by time only when iterations limit isn't set */
+    @Override
+    protected int getDefaultSearchBudget() {
+        return iterations > 0 ? 0 : DEFAULT_BUDGET;
+    }
+
+    /** seed of next search, derived from game so seeded games are reproducible when search is limited by iterations */
+    synchronized long nextSearchSeed() {
+        return game.getRandomSeed() * 31 + searchCount++;
+    }
+
+    Game copyGame() {
+        return copyGame(game);
+    }
+
+    Game copyGame(Game source) {
+        return source.copy(gc);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jcloisterzone.ai.choice.AiChoice;
+
+/**
+ * Node of search tree. Node represents state after its choice, root has no choice.
+ * Children are created lazily, one for each tried choice.
+ */
+public class MctsNode {
+
+    private final MctsNode parent;
+    private final AiChoice choice;
+
+    /** null until node state is reached first time */
+    private List<AiChoice> untried;
+    private final List<MctsNode> children = new ArrayList<>();
+
+    private int visits;
+    private double reward;
+
+    public MctsNode(MctsNode parent, AiChoice choice) {
+        this.parent = parent;
+        this.choice = choice;
+    }
+
+    public boolean isExpanded() {
+        return untried != null;
+    }
+
+    /**
+     * Sets choices available in node state.
+     * Empty list means own decisions of the turn ends here.
+     */
+    public void expand(List<AiChoice> choices) {
+        this.untried = choices;
+    }
+
+    public List<AiChoice> getUntried() {
+        return untried;
+    }
+
+    public MctsNode addChild(AiChoice choice) {
+        untried.remove(choice);
+        MctsNode child = new MctsNode(this, choice);
+        children.add(child);
+        return child;
+    }
+
+    /** returns child with best UCT value, children without visits first */
+    public MctsNode selectChild(double exploration) {
+        MctsNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        double logVisits = Math.log(visits);
+        for (MctsNode child : children) {
+            if (child.visits == 0) return child;
+            double value = child.reward / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+            if (value > bestValue) {
+                best = child;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    public void update(double reward) {
+        visits++;
+        this.reward += reward;
+    }
+
+    public MctsNode getParent() {
+        return parent;
+    }
+
+    public AiChoice getChoice() {
+        return choice;
+    }
+
+    public List<MctsNode> getChildren() {
+        return children;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    public double getReward() {
+        return reward;
+    }
+}
@@ -0,0 +1,148 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.ai.choice.ActionChoice;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.event.SelectActionEvent;
+
+/**
+ * Root-parallel MCTS. Each worker builds independent tree, visits and rewards of root children
+ * are summed over workers and the most visited choice is performed.
+ */
+public class MctsSelectActionTask implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MctsAiPlayer aiPlayer;
+    private final SelectActionEvent rootEv;
+    private final int threads;
+    private ExecutorService workerExecutor;
+    private long deadline;
+    private int iterations;
+
+    public MctsSelectActionTask(MctsAiPlayer aiPlayer, SelectActionEvent rootEv, int threads) {
+        this.aiPlayer = aiPlayer;
+        this.rootEv = rootEv;
+        this.threads = threads;
+    }
+
+    /** executor for workers, workers except the first one are required to run in parallel */
+    public void setWorkerExecutor(ExecutorService workerExecutor) {
+        this.workerExecutor = workerExecutor;
+    }
+
+    /** @param deadline time in {@link System#nanoTime()} units, 0 for no limit */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /** @param iterations max number of playouts of all workers together, 0 for no limit */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long seed = aiPlayer.nextSearchSeed();
+        List<MctsWorker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int workerIterations = iterations == 0 ? 0 : Math.max(1, (iterations + i) / threads);
+            workers.add(new MctsWorker(aiPlayer, rootEv, seed + i, deadline, workerIterations));
+        }
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            futures.add(workerExecutor.submit(workers.get(i)));
+        }
+        workers.get(0).run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("MCTS workers interrupted.");
+            } catch (ExecutionException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+
+        int playouts = 0;
+        boolean cutOff = false;
+        //workers create root choices from the same event, so equal choices share action instance and have equal value
+        Map<ChoiceKey, AiChoice> choices = new LinkedHashMap<>();
+        Map<ChoiceKey, Integer> visits = new LinkedHashMap<>();
+        Map<ChoiceKey, Double> rewards = new LinkedHashMap<>();
+        for (MctsWorker worker : workers) {
+            playouts += worker.getPlayouts();
+            cutOff |= worker.isCutOff();
+            for (MctsNode child : worker.getRoot().getChildren()) {
+                ChoiceKey key = new ChoiceKey(child.getChoice());
+                Integer v = visits.get(key);
+                if (v == null) {
+                    choices.put(key, child.getChoice());
+                    visits.put(key, child.getVisits());
+                    rewards.put(key, child.getReward());
+                } else {
+                    visits.put(key, v + child.getVisits());
+                    rewards.put(key, rewards.get(key) + child.getReward());
+                }
+            }
+        }
+
+        ChoiceKey best = null;
+        for (ChoiceKey key : choices.keySet()) {
+            if (best == null || visits.get(key) > visits.get(best)
+                    || (visits.get(key).equals(visits.get(best)) && rewards.get(key) > rewards.get(best))) {
+                best = key;
+            }
+        }
+        aiPlayer.getSearchStats().record(playouts, cutOff, System.nanoTime() - start);
+        if (best == null) {
+            aiPlayer.selectDummyAction(rootEv);
+        } else {
+            choices.get(best).perform(aiPlayer.getRmiProxy());
+        }
+    }
+
+    /** identifies root choice across workers, pass choice has neither action nor value */
+    static final class ChoiceKey {
+
+        private final PlayerAction<?> action;
+        private final Object value;
+
+        ChoiceKey(AiChoice choice) {
+            if (choice instanceof ActionChoice) {
+                action = ((ActionChoice<?>) choice).getAction();
+                value = ((ActionChoice<?>) choice).getValue();
+            } else {
+                action = null;
+                value = null;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(action) + (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ChoiceKey)) return false;
+            ChoiceKey other = (ChoiceKey) obj;
+            return action == other.action && Objects.equals(value, other.value);
+        }
+    }
+}
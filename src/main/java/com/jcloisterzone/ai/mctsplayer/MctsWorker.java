@@ -0,0 +1,174 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.SavePoint;
+import com.jcloisterzone.ai.SavePointManager;
+import com.jcloisterzone.ai.SelectActionTask;
+import com.jcloisterzone.ai.choice.ActionChoice;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.choice.PassChoice;
+import com.jcloisterzone.ai.choice.TilePlacementChoice;
+import com.jcloisterzone.board.TilePlacement;
+import com.jcloisterzone.board.TileSymmetry;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.game.Game;
+
+/**
+ * Builds own search tree on own game copies.
+ * <p>
+ * Tree covers AI player's decisions of current turn. Tree game is returned to root with
+ * {@link SavePointManager} and selected path is performed on it, so choices of reached node are known from events.
+ * Tile draws can't be undone, so every playout is played on fresh copy of root game.
+ */
+public class MctsWorker implements Runnable {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MctsAiPlayer aiPlayer;
+    private final SelectActionEvent rootEv;
+    private final Random random;
+    private final long deadline;
+    private final int iterations;
+
+    private final MctsNode root = new MctsNode(null, null);
+    private Game game;
+    private SavePointManager spm;
+    private SelectActionEvent pending;
+    private int playouts;
+    private boolean cutOff;
+
+    /**
+     * @param deadline time in {@link System#nanoTime()} units, 0 for no limit
+     * @param iterations max number of playouts, 0 for no limit
+     */
+    public MctsWorker(MctsAiPlayer aiPlayer, SelectActionEvent rootEv, long seed, long deadline, int iterations) {
+        this.aiPlayer = aiPlayer;
+        this.rootEv = rootEv;
+        this.random = new Random(seed);
+        this.deadline = deadline;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Game rootGame = aiPlayer.copyGame();
+            game = aiPlayer.copyGame();
+            game.getEventBus().register(this);
+            spm = new SavePointManager(game);
+            spm.startRecording();
+            SavePoint rootSp = spm.save();
+            root.expand(createChoices(rootEv, null));
+
+            while (iterations == 0 || playouts < iterations) {
+                if (deadline != 0 && System.nanoTime() - deadline > 0) {
+                    cutOff = true;
+                    break;
+                }
+                spm.restore(rootSp);
+                MctsNode leaf = select();
+
+                Game playoutGame = aiPlayer.copyGame(rootGame);
+                playoutGame.updateRandomSeed(random.nextLong());
+                double reward = new Playout(playoutGame, random, aiPlayer.getGreedy()).play(leaf.getChoice(), aiPlayer.getPlayer());
+                for (MctsNode node = leaf; node != null; node = node.getParent()) {
+                    node.update(reward);
+                }
+                playouts++;
+            }
+            spm.stopRecording();
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /** descends from root by UCT and adds one new node, tree game is left in state of returned node */
+    private MctsNode select() {
+        MctsNode node = root;
+        while (true) {
+            List<AiChoice> untried = node.getUntried();
+            if (!untried.isEmpty()) {
+                MctsNode child = node.addChild(untried.get(random.nextInt(untried.size())));
+                perform(child);
+                return child;
+            }
+            if (node.getChildren().isEmpty()) {
+                return node;
+            }
+            node = node.selectChild(aiPlayer.getExploration());
+            perform(node);
+        }
+    }
+
+    private void perform(MctsNode node) {
+        pending = null;
+        node.getChoice().perform(game.getPhase());
+        boolean isFinal = SelectActionTask.phaseLoop(game);
+        if (!node.isExpanded()) {
+            if (isFinal || pending == null || !pending.getTargetPlayer().equals(aiPlayer.getPlayer())) {
+                //rest of turn is played by playout
+                node.expand(new ArrayList<AiChoice>());
+            } else {
+                node.expand(createChoices(pending, node.getChoice()));
+            }
+        }
+    }
+
+    private List<AiChoice> createChoices(SelectActionEvent ev, AiChoice previous) {
+        List<AiChoice> choices = new ArrayList<>();
+        for (PlayerAction<?> action : ev.getActions()) {
+            addChoices(choices, previous, action);
+        }
+        if (ev.isPassAllowed()) {
+            choices.add(new PassChoice(previous, null));
+        }
+        return choices;
+    }
+
+    private <T> void addChoices(List<AiChoice> choices, AiChoice previous, PlayerAction<T> action) {
+        if (action instanceof TilePlacementAction) {
+            TilePlacementAction tpa = (TilePlacementAction) action;
+            List<TilePlacement> options = new ArrayList<>(tpa.getOptions());
+            Collections.sort(options);
+            boolean symmetric = tpa.getTile().getSymmetry() == TileSymmetry.S4;
+            for (int i = 0; i < options.size(); i++) {
+                TilePlacement tp = options.get(i);
+                //all rotations of symmetric tile are equal
+                if (symmetric && i > 0 && options.get(i - 1).getPosition().equals(tp.getPosition())) continue;
+                choices.add(new TilePlacementChoice(previous, null, tpa, tp));
+            }
+        } else {
+            for (T value : action) {
+                choices.add(new ActionChoice<T>(previous, null, action, value));
+            }
+        }
+    }
+
+    @Subscribe
+    public void handleActionEvent(SelectActionEvent ev) {
+        pending = ev;
+    }
+
+    public MctsNode getRoot() {
+        return root;
+    }
+
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    /** true if search was stopped by deadline */
+    public boolean isCutOff() {
+        return cutOff;
+    }
+}
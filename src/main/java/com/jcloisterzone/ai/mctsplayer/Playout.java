@@ -0,0 +1,170 @@
+package com.jcloisterzone.ai.mctsplayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.eventbus.Subscribe;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.action.PlayerAction;
+import com.jcloisterzone.action.TilePlacementAction;
+import com.jcloisterzone.ai.SelectActionTask;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.TilePlacement;
+import com.jcloisterzone.event.PlayEvent;
+import com.jcloisterzone.event.RequestConfirmEvent;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.event.SelectDragonMoveEvent;
+import com.jcloisterzone.figure.neutral.Dragon;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.ScorePhase;
+import com.jcloisterzone.wsio.message.CommitMessage;
+
+/**
+ * Plays game copy to the end. Given chain of choices is replayed first, then all players
+ * act by light random policy: tile is placed next to most tiles with probability <code>greedy</code>
+ * or randomly otherwise, optional actions are taken or passed with the same probability.
+ */
+public class Playout {
+
+    /** turn parts are bounded by tile count, limit only guards against engine stuck in loop */
+    private static final int MAX_STEPS = 100000;
+    private static final double MARGIN_SCALE = 20.0;
+
+    private final Game game;
+    private final Random random;
+    private final double greedy;
+
+    private PlayEvent pending;
+
+    public Playout(Game game, Random random, double greedy) {
+        this.game = game;
+        this.random = random;
+        this.greedy = greedy;
+        game.flushEventQueue();
+        game.getEventBus().register(this);
+    }
+
+    /**
+     * Plays the game to the end.
+     * @param chain last choice of chain to replay, may be null
+     * @return reward of given player in 0..1 range
+     */
+    public double play(AiChoice chain, Player player) {
+        List<AiChoice> choices = new ArrayList<>();
+        for (AiChoice choice = chain; choice != null; choice = choice.getPrevious()) {
+            choices.add(choice);
+        }
+        Collections.reverse(choices);
+        for (AiChoice choice : choices) {
+            pending = null;
+            choice.perform(game.getPhase());
+            SelectActionTask.phaseLoop(game);
+        }
+
+        for (int steps = 0; steps < MAX_STEPS; steps++) {
+            Phase phase = game.getPhase();
+            if (!phase.isEntered()) {
+                phase.setEntered(true);
+                phase.enter();
+                game.flushEventQueue();
+                if (phase instanceof GameOverPhase) {
+                    return getReward(player);
+                }
+                continue;
+            }
+            PlayEvent ev = pending;
+            pending = null;
+            if (ev instanceof SelectActionEvent) {
+                selectAction(phase, (SelectActionEvent) ev);
+            } else if (ev instanceof SelectDragonMoveEvent) {
+                List<Position> positions = new ArrayList<>(((SelectDragonMoveEvent) ev).getPositions());
+                phase.moveNeutralFigure(positions.get(random.nextInt(positions.size())).asFeaturePointer(), Dragon.class);
+            } else if (ev instanceof RequestConfirmEvent && phase instanceof ScorePhase) {
+                ((ScorePhase) phase).handleCommit(new CommitMessage(game.getGameId()));
+            } else {
+                throw new IllegalStateException("Playout is stuck in " + phase.getClass().getSimpleName());
+            }
+            game.flushEventQueue();
+        }
+        throw new IllegalStateException("Playout doesn't end in " + MAX_STEPS + " steps.");
+    }
+
+    /** reward is derived from score margin to the best opponent, 0.5 is draw */
+    private double getReward(Player player) {
+        int points = game.getPlayer(player.getIndex()).getPoints();
+        int best = Integer.MIN_VALUE;
+        for (Player p : game.getAllPlayers()) {
+            if (p.getIndex() != player.getIndex()) {
+                best = Math.max(best, p.getPoints());
+            }
+        }
+        return 0.5 + 0.5 * Math.tanh((points - best) / MARGIN_SCALE);
+    }
+
+    private void selectAction(Phase phase, SelectActionEvent ev) {
+        List<PlayerAction<?>> actions = new ArrayList<>();
+        for (PlayerAction<?> action : ev.getActions()) {
+            if (action instanceof TilePlacementAction) {
+                placeTile(phase, (TilePlacementAction) action);
+                return;
+            }
+            if (!action.isEmpty()) {
+                actions.add(action);
+            }
+        }
+        if (actions.isEmpty() || (ev.isPassAllowed() && random.nextDouble() >= greedy)) {
+            phase.pass();
+        } else {
+            perform(phase, actions.get(random.nextInt(actions.size())));
+        }
+    }
+
+    private <T> void perform(Phase phase, PlayerAction<T> action) {
+        List<T> options = new ArrayList<>(action.getOptions());
+        action.perform(phase, options.get(random.nextInt(options.size())));
+    }
+
+    private void placeTile(Phase phase, TilePlacementAction action) {
+        List<TilePlacement> options = new ArrayList<>(action.getOptions());
+        TilePlacement selected = null;
+        if (random.nextDouble() < greedy) {
+            Collections.shuffle(options, random);
+            Board board = game.getBoard();
+            int maxNeighbours = -1;
+            for (TilePlacement tp : options) {
+                int neighbours = 0;
+                for (Position offset : Position.ADJACENT.values()) {
+                    if (board.get(tp.getPosition().add(offset)) != null) neighbours++;
+                }
+                if (neighbours > maxNeighbours) {
+                    selected = tp;
+                    maxNeighbours = neighbours;
+                }
+            }
+        } else {
+            selected = options.get(random.nextInt(options.size()));
+        }
+        phase.placeTile(selected.getRotation(), selected.getPosition());
+    }
+
+    @Subscribe
+    public void handleEvent(SelectActionEvent ev) {
+        pending = ev;
+    }
+
+    @Subscribe
+    public void handleEvent(SelectDragonMoveEvent ev) {
+        pending = ev;
+    }
+
+    @Subscribe
+    public void handleEvent(RequestConfirmEvent ev) {
+        pending = ev;
+    }
+}
@@ -0,0 +1,147 @@
+package com.jcloisterzone.ai.selfplay;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.AiPlayer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.game.log.GameLogRecorder;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.HeadlessGameController;
+
+/**
+ * Plays single game between AI players without UI and server.
+ * Phases are driven directly on calling thread, AI searches run on the same thread after events
+ * of current phase are delivered to all players.
+ */
+public class SelfPlayGame implements Callable<SelfPlayResult> {
+
+    /** max time to wait for AI action, AI moves are synchronous so it is reached only if AI is stuck */
+    private static final long STALL_TIMEOUT_SECONDS = 60;
+
+    private final long seed;
+    private final List<String> aiClassNames;
+    private final Set<Expansion> expansions;
+    private final Config config;
+    private boolean recordLog;
+
+    public SelfPlayGame(long seed, List<String> aiClassNames, Set<Expansion> expansions, Config config) {
+        this.seed = seed;
+        this.aiClassNames = aiClassNames;
+        this.expansions = expansions;
+        this.config = config;
+    }
+
+    /** keep game log of played game in result */
+    public void setRecordLog(boolean recordLog) {
+        this.recordLog = recordLog;
+    }
+
+    private PlayerSlot[] createSlots(SlotState aiSlotState) {
+        PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+        for (int i = 0; i < slots.length; i++) {
+            PlayerSlot slot = new PlayerSlot(i);
+            if (i < aiClassNames.size()) {
+                String aiClassName = aiClassNames.get(i);
+                slot.setState(aiSlotState);
+                slot.setSerial(i);
+                slot.setAiClassName(aiClassName);
+                slot.setNickname("AI-" + i + "-" + aiClassName.substring(aiClassName.lastIndexOf('.') + 1).replace("AiPlayer", ""));
+            } else {
+                slot.setState(SlotState.OPEN);
+            }
+            slots[i] = slot;
+        }
+        return slots;
+    }
+
+    @Override
+    public SelfPlayResult call() throws Exception {
+        SelfPlayResult result = new SelfPlayResult(seed);
+        long start = System.nanoTime();
+
+        Game game = createGame();
+        HeadlessGameController gc = new HeadlessGameController(game, config);
+        if (recordLog) {
+            //replica with remote players is fed by messages of played game
+            GameLog log = new GameLog(game.getGameId());
+            gc.setRecorder(new GameLogRecorder(log, createGame(), createSlots(SlotState.REMOTE), null, config));
+            result.setLog(log);
+        }
+        CreateGamePhase createPhase = new CreateGamePhase(game, gc);
+        game.getPhases().put(createPhase.getClass(), createPhase);
+        game.setPhase(createPhase);
+        PlayerSlot[] slots = createSlots(SlotState.OWN);
+        createPhase.setSlots(slots);
+        createPhase.startGame(false);
+
+        for (PlayerSlot slot : slots) {
+            AiPlayer ai = slot.getAiPlayer();
+            if (ai == null) {
+                if (slot.isOwn()) {
+                    throw new IllegalStateException("Unable to create AI player " + slot.getAiClassName());
+                }
+            } else {
+                ai.setTaskExecutor(gc.getDeferredExecutor());
+            }
+        }
+
+        try {
+            play(game, gc, result);
+        } catch (Exception e) {
+            result.setError(e);
+        }
+
+        for (Player p : game.getAllPlayers()) {
+            AiPlayer ai = p.getSlot().getAiPlayer();
+            result.addPlayer(p.getSlot().getAiClassName(), p.getPoints(), ai == null ? null : ai.getSearchStats());
+        }
+        result.setDuration(System.nanoTime() - start);
+        return result;
+    }
+
+    private Game createGame() {
+        Game game = new Game("selfplay-" + seed, seed);
+        game.getExpansions().addAll(expansions.isEmpty() ? EnumSet.of(Expansion.BASIC) : expansions);
+        return game;
+    }
+
+    private void play(Game game, HeadlessGameController gc, SelfPlayResult result) throws InterruptedException {
+        while (true) {
+            Phase phase = game.getPhase();
+            long t = System.nanoTime();
+            if (!phase.isEntered()) {
+                phase.setEntered(true);
+                phase.enter();
+            } else {
+                if (phase instanceof GameOverPhase && !gc.hasPending()) {
+                    return;
+                }
+                Runnable call = gc.pollPending(STALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (call == null) {
+                    throw new IllegalStateException("No action received in " + phase.getClass().getSimpleName());
+                }
+                call.run();
+            }
+            //AI players respond to events during flush
+            game.flushEventQueue();
+            result.addPhaseTime(phase.getClass(), System.nanoTime() - t);
+            stepFinished(game);
+        }
+    }
+
+    /** called after each step of game loop, when all events of step are delivered */
+    protected void stepFinished(Game game) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.jcloisterzone.ai.selfplay;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.jcloisterzone.ai.SearchStats;
+import com.jcloisterzone.game.phase.Phase;
+
+/**
+ * Aggregated statistics of self-play batch.
+ */
+public class SelfPlayReport {
+
+    private final List<SelfPlayResult> results;
+    private final long wallTime;
+
+    public SelfPlayReport(List<SelfPlayResult> results, long wallTime) {
+        this.results = results;
+        this.wallTime = wallTime;
+    }
+
+    public List<SelfPlayResult> getResults() {
+        return results;
+    }
+
+    public List<SelfPlayResult> getFinished() {
+        List<SelfPlayResult> finished = new ArrayList<>();
+        for (SelfPlayResult r : results) {
+            if (r.isFinished()) finished.add(r);
+        }
+        return finished;
+    }
+
+    /** wall clock time of whole batch in nanoseconds */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    public double getGamesPerSecond() {
+        return getFinished().size() / (wallTime / 1e9);
+    }
+
+    /** total nanoseconds spent in each phase over all finished games */
+    public Map<Class<? extends Phase>, Long> getPhaseTimes() {
+        Map<Class<? extends Phase>, Long> totals = new LinkedHashMap<>();
+        for (SelfPlayResult r : getFinished()) {
+            for (Entry<Class<? extends Phase>, Long> e : r.getPhaseTimes().entrySet()) {
+                Long total = totals.get(e.getKey());
+                totals.put(e.getKey(), total == null ? e.getValue() : total + e.getValue());
+            }
+        }
+        return totals;
+    }
+
+    /** final points of all finished games for player on given turn order position */
+    public List<Integer> getPoints(int seat) {
+        List<Integer> points = new ArrayList<>();
+        for (SelfPlayResult r : getFinished()) {
+            if (seat < r.getPoints().size()) {
+                points.add(r.getPoints().get(seat));
+            }
+        }
+        return points;
+    }
+
+    /** number of finished games won by player on given position, shared wins are counted for all winners */
+    public int getWins(int seat) {
+        int wins = 0;
+        for (SelfPlayResult r : getFinished()) {
+            if (seat < r.getPoints().size() && r.getPoints().get(seat).intValue() == Collections.max(r.getPoints()).intValue()) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+
+    /** search statistics of all finished games for player on given position, <code>null</code> if player doesn't rank moves */
+    public SearchStats getSearchStats(int seat) {
+        SearchStats total = null;
+        for (SelfPlayResult r : getFinished()) {
+            SearchStats stats = seat < r.getSearchStats().size() ? r.getSearchStats().get(seat) : null;
+            if (stats == null) continue;
+            if (total == null) total = new SearchStats();
+            total.add(stats);
+        }
+        return total;
+    }
+
+    private static int percentile(List<Integer> sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, idx)));
+    }
+
+    public void print(PrintStream out) {
+        List<SelfPlayResult> finished = getFinished();
+        out.println(String.format(Locale.ROOT, "Games: %d finished, %d failed in %.1f s (%.2f games/s)",
+            finished.size(), results.size() - finished.size(), wallTime / 1e9, getGamesPerSecond()));
+        for (SelfPlayResult r : results) {
+            if (!r.isFinished()) {
+                out.println("  seed " + r.getSeed() + " failed: " + r.getError());
+            }
+        }
+        if (finished.isEmpty()) return;
+
+        long cpu = 0;
+        for (SelfPlayResult r : finished) {
+            cpu += r.getDuration();
+        }
+        out.println(String.format(Locale.ROOT, "Mean game duration: %.1f ms", cpu / 1e6 / finished.size()));
+
+        out.println("Phase times (mean per game):");
+        Map<Class<? extends Phase>, Long> phaseTimes = getPhaseTimes();
+        long phaseTotal = 0;
+        for (Long t : phaseTimes.values()) {
+            phaseTotal += t;
+        }
+        for (Entry<Class<? extends Phase>, Long> e : phaseTimes.entrySet()) {
+            out.println(String.format(Locale.ROOT, "  %-24s %10.2f ms %6.1f %%",
+                e.getKey().getSimpleName(), e.getValue() / 1e6 / finished.size(), 100.0 * e.getValue() / phaseTotal));
+        }
+
+        out.println("Final points (mean, stdev, min, p10, median, p90, max, wins):");
+        List<String> aiClassNames = finished.get(0).getAiClassNames();
+        for (int seat = 0; seat < aiClassNames.size(); seat++) {
+            List<Integer> points = getPoints(seat);
+            Collections.sort(points);
+            double sum = 0, sumSq = 0;
+            for (int p : points) {
+                sum += p;
+                sumSq += (double) p * p;
+            }
+            double mean = sum / points.size();
+            double stdev = Math.sqrt(Math.max(0, sumSq / points.size() - mean * mean));
+            String name = aiClassNames.get(seat);
+            out.println(String.format(Locale.ROOT, "  %d %-20s %7.1f %6.1f %4d %4d %4d %4d %4d %6d",
+                seat, name.substring(name.lastIndexOf('.') + 1), mean, stdev,
+                points.get(0), percentile(points, 0.1), percentile(points, 0.5), percentile(points, 0.9),
+                points.get(points.size() - 1), getWins(seat)));
+        }
+
+        boolean searchHeader = false;
+        for (int seat = 0; seat < aiClassNames.size(); seat++) {
+            SearchStats stats = getSearchStats(seat);
+            if (stats != null) {
+                if (!searchHeader) {
+                    out.println("AI search:");
+                    searchHeader = true;
+                }
+                String name = aiClassNames.get(seat);
+                out.println(String.format(Locale.ROOT, "  %d %-20s %s", seat, name.substring(name.lastIndexOf('.') + 1), stats));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.jcloisterzone.ai.selfplay;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jcloisterzone.ai.SearchStats;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.game.phase.Phase;
+
+/**
+ * Outcome of single self-play game.
+ */
+public class SelfPlayResult {
+
+    private final long seed;
+    private final List<String> aiClassNames = new ArrayList<>();
+    private final List<Integer> points = new ArrayList<>();
+    private final List<SearchStats> searchStats = new ArrayList<>();
+    private final Map<Class<? extends Phase>, Long> phaseTimes = new LinkedHashMap<>();
+    private long duration;
+    private Exception error;
+    private GameLog log;
+
+    public SelfPlayResult(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    void addPlayer(String aiClassName, int points, SearchStats searchStats) {
+        aiClassNames.add(aiClassName);
+        this.points.add(points);
+        this.searchStats.add(searchStats);
+    }
+
+    /** AI class names in turn order */
+    public List<String> getAiClassNames() {
+        return aiClassNames;
+    }
+
+    /** final points in turn order */
+    public List<Integer> getPoints() {
+        return points;
+    }
+
+    /** search statistics in turn order, <code>null</code> for players which don't rank moves */
+    public List<SearchStats> getSearchStats() {
+        return searchStats;
+    }
+
+    void addPhaseTime(Class<? extends Phase> phase, long nanos) {
+        Long total = phaseTimes.get(phase);
+        phaseTimes.put(phase, total == null ? nanos : total + nanos);
+    }
+
+    /** nanoseconds spent in each phase including AI decisions made during it */
+    public Map<Class<? extends Phase>, Long> getPhaseTimes() {
+        return phaseTimes;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    void setError(Exception error) {
+        this.error = error;
+    }
+
+    /** game log, if recording was requested */
+    public GameLog getLog() {
+        return log;
+    }
+
+    void setLog(GameLog log) {
+        this.log = log;
+    }
+
+    public boolean isFinished() {
+        return error == null;
+    }
+}
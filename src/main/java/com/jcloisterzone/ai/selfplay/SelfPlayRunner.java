@@ -0,0 +1,164 @@
+package com.jcloisterzone.ai.selfplay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.config.Config;
+
+/**
+ * Runs batch of seeded AI-vs-AI games in parallel and reports throughput, phase times
+ * and final score distributions.
+ * <p>
+ * Game <code>i</code> of batch uses random seed <code>seed + i</code>, so batch is reproducible.
+ */
+public class SelfPlayRunner {
+
+    private int games = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 1;
+    private List<String> aiClassNames = Arrays.asList(LegacyAiPlayer.class.getName(), LegacyAiPlayer.class.getName());
+    private Set<Expansion> expansions = EnumSet.of(Expansion.BASIC);
+    private Config config = new Config();
+    private boolean recordLog;
+
+    public SelfPlayReport run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<SelfPlayResult>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                SelfPlayGame game = new SelfPlayGame(seed + i, aiClassNames, expansions, config);
+                game.setRecordLog(recordLog);
+                futures.add(pool.submit(game));
+            }
+            List<SelfPlayResult> results = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    SelfPlayResult failed = new SelfPlayResult(seed + i);
+                    failed.setError(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                    results.add(failed);
+                }
+            }
+            return new SelfPlayReport(results, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public List<String> getAiClassNames() {
+        return aiClassNames;
+    }
+
+    public void setAiClassNames(List<String> aiClassNames) {
+        this.aiClassNames = aiClassNames;
+    }
+
+    public Set<Expansion> getExpansions() {
+        return expansions;
+    }
+
+    public void setExpansions(Set<Expansion> expansions) {
+        this.expansions = expansions;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /** configuration passed to AI players and phases, eg. <code>ai_search_threads</code> */
+    public void setConfig(Config config) {
+        this.config = config;
+    }
+
+    public boolean isRecordLog() {
+        return recordLog;
+    }
+
+    /** keep game log of each game in results, eg. for later analysis of particular turns */
+    public void setRecordLog(boolean recordLog) {
+        this.recordLog = recordLog;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.length() == 0 ? defaultValue : value;
+    }
+
+    /**
+     * Command line example:
+     * <pre>
+     * java -cp JCloisterZone.jar -Dgames=1000 -Dthreads=8 -Dseed=1 -Dbudget=500 -Dexpansions=BASIC,INNS_AND_CATHEDRALS
+     *      -Dplayers=com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer,com.jcloisterzone.ai.DummyAiPlayer
+     *      com.jcloisterzone.ai.selfplay.SelfPlayRunner
+     * </pre>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SelfPlayRunner runner = new SelfPlayRunner();
+        runner.setGames(Integer.parseInt(property("games", String.valueOf(runner.getGames()))));
+        runner.setThreads(Integer.parseInt(property("threads", String.valueOf(runner.getThreads()))));
+        runner.setSeed(Long.parseLong(property("seed", String.valueOf(runner.getSeed()))));
+        String players = System.getProperty("players");
+        if (players != null && players.length() > 0) {
+            List<String> aiClassNames = new ArrayList<>();
+            for (String player : players.split(",")) {
+                aiClassNames.add(player.trim());
+            }
+            runner.setAiClassNames(aiClassNames);
+        }
+        String expansions = System.getProperty("expansions");
+        if (expansions != null && expansions.length() > 0) {
+            Set<Expansion> set = EnumSet.noneOf(Expansion.class);
+            for (String exp : expansions.split(",")) {
+                set.add(Expansion.valueOf(exp.trim()));
+            }
+            runner.setExpansions(set);
+        }
+        String budget = System.getProperty("budget");
+        if (budget != null && budget.length() > 0) {
+            runner.getConfig().setAi_search_budget(Integer.parseInt(budget));
+        }
+        String delay = System.getProperty("delay");
+        if (delay != null && delay.length() > 0) {
+            runner.getConfig().setAi_place_tile_delay(Integer.parseInt(delay));
+        }
+        if (Boolean.parseBoolean(System.getProperty("ponder"))) {
+            runner.getConfig().setAi_ponder(true);
+        }
+        runner.run().print(System.out);
+    }
+}
@@ -26,8 +26,13 @@ import com.jcloisterzone.game.capability.BridgeCapability;
 
  */
 public class Board {
+    /** placed tiles in placement order */
     protected final Map<Position,Tile> tiles = new LinkedHashMap<Position,Tile>();
+    /** coordinates lookup for placed tiles */
+    private final TileIndex index = new TileIndex();
     protected final Map<Position, EdgePattern> availMoves = new HashMap<>();
+    /** empty positions grouped by canonized edge pattern */
+    protected final Map<EdgePattern, Set<Position>> availMovesByPattern = new HashMap<>();
     protected final Map<Position, Set<Rotation>> currentAvailMoves = new HashMap<>();
     protected final Set<Position> holes = new HashSet<>();
 
@@ -51,15 +56,33 @@ public class Board {
      */
     public void refreshAvailablePlacements(Tile tile) {
         Rotation tileRotation = tile.getRotation();
+        EdgePattern tilePattern = tile.getEdgePattern();
+        BridgeCapability bridgeCap = game.getCapability(BridgeCapability.class);
         currentAvailMoves.clear();
-        for (Position p : availMoves.keySet()) {
+        Iterable<Position> positions;
+        if (bridgeCap == null) {
+            //only positions which pattern matches tile in some rotation are worth to check
+            Set<Position> candidates = new HashSet<>();
+            for (EdgePattern pattern : tilePattern.wildcardCombinations()) {
+                Set<Position> matching = availMovesByPattern.get(pattern);
+                if (matching != null) {
+                    candidates.addAll(matching);
+                }
+            }
+            positions = candidates;
+        } else {
+            //bridge can allow placement on any position
+            positions = availMoves.keySet();
+        }
+        for (Position p : positions) {
+            EdgePattern emptyPlace = availMoves.get(p);
             EnumSet<Rotation> allowed = EnumSet.noneOf(Rotation.class);
             for (Rotation rotation: Rotation.values()) {
                 tile.setRotation(rotation);
-                if (!isPlacementAllowed(tile, p)) {
+                if (!tilePattern.isMatching(emptyPlace, rotation)) {
                     //not allowed according standard rules, must check if deployed bridge can allow it
-                    if (!game.hasCapability(BridgeCapability.class)) continue;
-                    if (!game.getCapability(BridgeCapability.class).isTilePlacementWithBridgePossible(tile, p)) continue;
+                    if (bridgeCap == null) continue;
+                    if (!bridgeCap.isTilePlacementWithBridgePossible(tile, p)) continue;
                 }
                 if (!game.isTilePlacementAllowed(tile, p)) continue;
                 allowed.add(rotation);
@@ -73,11 +96,45 @@ public class Board {
 
 
     protected void availMovesAdd(Position pos) {
-        availMoves.put(pos, EdgePattern.forEmptyTile(this, pos));
+        EdgePattern pattern = EdgePattern.forEmptyTile(this, pos);
+        EdgePattern old = availMoves.put(pos, pattern);
+        if (old != null) {
+            removeFromPatternIndex(pos, old);
+        }
+        Set<Position> positions = availMovesByPattern.get(pattern);
+        if (positions == null) {
+            positions = new HashSet<>();
+            availMovesByPattern.put(pattern, positions);
+        }
+        positions.add(pos);
     }
 
     protected void availMovesRemove(Position pos) {
-        availMoves.remove(pos);
+        EdgePattern old = availMoves.remove(pos);
+        if (old != null) {
+            removeFromPatternIndex(pos, old);
+        }
+    }
+
+    private void removeFromPatternIndex(Position pos, EdgePattern pattern) {
+        Set<Position> positions = availMovesByPattern.get(pattern);
+        positions.remove(pos);
+        if (positions.isEmpty()) {
+            availMovesByPattern.remove(pattern);
+        }
+    }
+
+    /**
+     * Recomputes patterns of empty positions around given one.
+     * Must be called when edges of placed tile are changed (eg. by bridge).
+     */
+    public void refreshAdjacentAvailMoves(Position pos) {
+        for (Position offset: Position.ADJACENT.values()) {
+            Position next = pos.add(offset);
+            if (availMoves.containsKey(next)) {
+                availMovesAdd(next);
+            }
+        }
     }
 
     public EdgePattern getAvailMoveEdgePattern(Position pos) {
@@ -113,6 +170,7 @@ public class Board {
         }
 
         tiles.put(p, tile);
+        index.put(p.x, p.y, tile);
         availMovesRemove(p);
 
         for (Position offset: Position.ADJACENT.values()) {
@@ -142,21 +200,28 @@ public class Board {
         Position pos = tile.getPosition();
         assert pos != null;
         tiles.remove(pos);
+        index.remove(pos.x, pos.y);
         tile.setPosition(null);
         availMovesAdd(pos);
         if (isHole(pos)) holes.add(pos);
         for (Position offset: Position.ADJACENT.values()) {
             Position next = pos.add(offset);
             holes.remove(next);
+            if (get(next) != null) continue;
             if (getAdjacentCount(next) == 0) {
-                availMoves.remove(next);
+                availMovesRemove(next);
+            } else {
+                availMovesAdd(next); //refresh pattern, removed tile edge is unknown now
             }
         }
     }
 
     public void unmergeFeatures(Tile tile) {
         assert tile.getPosition() != null;
-        for (Entry<Location, Tile> e : getAdjacentTilesMap(tile.getPosition()).entrySet()) {
+        //unmerge in reverse order to merge, feature components are restored without walking
+        List<Entry<Location, Tile>> adjacent = new ArrayList<>(getAdjacentTilesMap(tile.getPosition()).entrySet());
+        for (int i = adjacent.size() - 1; i >= 0; i--) {
+            Entry<Location, Tile> e = adjacent.get(i);
             tile.unmerge(e.getValue(), e.getKey());
         }
     }
@@ -173,8 +238,7 @@ public class Board {
 
     private boolean isHole(Position p) {
         for (Position offset: Position.ADJACENT.values()) {
-            Position next = p.add(offset);
-            if (get(next) == null) {
+            if (get(p.x + offset.x, p.y + offset.y) == null) {
                 return false;
             }
         }
@@ -184,8 +248,7 @@ public class Board {
     private int getAdjacentCount(Position p) {
         int count = 0;
         for (Position offset: Position.ADJACENT.values()) {
-            Position next = p.add(offset);
-            if (get(next) != null) {
+            if (get(p.x + offset.x, p.y + offset.y) != null) {
                 count++;
             }
         }
@@ -212,15 +275,15 @@ public class Board {
      * @return demand tile
      */
     public Tile get(int x, int y) {
-        return tiles.get(new Position(x, y));
+        return index.get(x, y);
     }
 
     public Tile get(Position p) {
-        return tiles.get(p);
+        return index.get(p.x, p.y);
     }
 
     public Feature get(FeaturePointer fp) {
-        Tile tile =  tiles.get(fp.getPosition());
+        Tile tile =  get(fp.getPosition());
         return tile == null ? null : tile.getFeaturePartOf(fp.getLocation());
     }
 
@@ -231,8 +294,10 @@ public class Board {
     /*
      * Check if placement is legal against orthonogal neigbours. */
     public boolean isPlacementAllowed(Tile tile, Position p) {
-        for (Entry<Location, Tile> e : getAdjacentTilesMap(p).entrySet()) {
-            if (!tile.check(e.getValue(), e.getKey(), this)) {
+        for (Entry<Location, Position> e: Position.ADJACENT.entrySet()) {
+            Position offset = e.getValue();
+            Tile adjacent = get(p.x + offset.x, p.y + offset.y);
+            if (adjacent != null && !tile.check(adjacent, e.getKey(), this)) {
                 return false;
             }
         }
@@ -269,7 +334,8 @@ public class Board {
     public Map<Location, Tile> getAdjacentTilesMap(Position pos) {
         Map<Location, Tile> tiles = new HashMap<Location, Tile>(4);
         for (Entry<Location, Position> e: Position.ADJACENT.entrySet()) {
-            Tile tile = get(e.getValue().add(pos));
+            Position offset = e.getValue();
+            Tile tile = get(pos.x + offset.x, pos.y + offset.y);
             if (tile != null) {
                 tiles.put(e.getKey(), tile);
             }
@@ -282,11 +348,13 @@ public class Board {
     }
 
     public int getContinuousRowSize(Position start, Location direction) {
-        start = start.add(direction);
+        Position step = new Position(0, 0).add(direction);
+        int x = start.x + step.x, y = start.y + step.y;
         int size = 0;
-        while (get(start) != null) {
+        while (get(x, y) != null) {
             size++;
-            start = start.add(direction);
+            x += step.x;
+            y += step.y;
         }
         return size;
     }
@@ -1,6 +1,7 @@
 package com.jcloisterzone.board;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -11,6 +12,8 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jcloisterzone.game.Game;
+
 public class DefaultTilePack implements TilePack {
 
     static class TileGroup {
@@ -30,6 +33,23 @@ public class DefaultTilePack implements TilePack {
         groups.put(INACTIVE_GROUP, inactive);
     }
 
+    /**
+     * Creates copy of pack with tiles bound to given game. Groups, their states
+     * and order of tiles inside groups are preserved.
+     */
+    public DefaultTilePack copy(Game game) {
+        DefaultTilePack copy = new DefaultTilePack();
+        for (Entry<String, TileGroup> entry : groups.entrySet()) {
+            TileGroup group = new TileGroup();
+            group.state = entry.getValue().state;
+            copy.groups.put(entry.getKey(), group);
+            for (Tile tile : entry.getValue().tiles) {
+                copy.addTile(tile.copy(game), entry.getKey());
+            }
+        }
+        return copy;
+    }
+
     @Override
     public int totalSize() {
         int n = 0;
@@ -187,6 +207,35 @@ public class DefaultTilePack implements TilePack {
         return null;
     }
 
+    /** remaining tiles by edge pattern, tiles of inactive group are not counted */
+    public Map<EdgePattern, Integer> getEdgePatterns() {
+        return Collections.unmodifiableMap(edgePatterns);
+    }
+
+    /** remaining tiles of active groups by tile id */
+    public Map<String, Integer> getActiveTileCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (TileGroup group : groups.values()) {
+            if (group.state != TileGroupState.ACTIVE) continue;
+            for (Tile tile : group.tiles) {
+                Integer count = counts.get(tile.getId());
+                counts.put(tile.getId(), count == null ? 1 : count + 1);
+            }
+        }
+        return counts;
+    }
+
+    /** returns (without drawing) first tile with given edge pattern from active groups or null */
+    public Tile getActiveTile(EdgePattern pattern) {
+        for (TileGroup group : groups.values()) {
+            if (group.state != TileGroupState.ACTIVE) continue;
+            for (Tile tile : group.tiles) {
+                if (tile.getEdgePattern().equals(pattern)) return tile;
+            }
+        }
+        return null;
+    }
+
     @Override
     public int getSizeForEdgePattern(EdgePattern pattern) {
         int size = 0;
@@ -1,9 +1,11 @@
 package com.jcloisterzone.board;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 import com.jcloisterzone.feature.Feature;
@@ -12,6 +14,8 @@ import com.jcloisterzone.feature.Road;
 public class EdgePattern {
 
     private Edge[] edges = new Edge[4];
+    /** lazily computed canonized form, pattern is immutable once created */
+    private Edge[] canonized;
 
     private EdgePattern() { }
     private EdgePattern(Edge[] edges) { this.edges = edges; }
@@ -55,7 +59,7 @@ public class EdgePattern {
             if (t == null) {
                 pattern.edges[idx] = Edge.UNKNOWN;
             } else {
-                pattern.edges[idx] = getTileEdgePattern(t, loc.rev());
+                pattern.edges[idx] = t.getEdge(loc.rev());
             }
         }
         return pattern;
@@ -104,6 +108,37 @@ public class EdgePattern {
         return q;
     }
 
+    /**
+     * Inverse to fill. Generates all patterns with any subset of edges replaced by wildcard.
+     * eg: RRCF -> RRCF, ?RCF, R?CF, ... ????
+     * Empty place pattern is matched by tile if it is equal to one of tile pattern combinations.
+     */
+    public Collection<EdgePattern> wildcardCombinations() {
+        List<EdgePattern> result = new ArrayList<>(1 << edges.length);
+        for (int mask = 0; mask < 1 << edges.length; mask++) {
+            Edge[] combination = Arrays.copyOf(edges, edges.length);
+            for (int i = 0; i < edges.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    combination[i] = Edge.UNKNOWN;
+                }
+            }
+            result.add(new EdgePattern(combination));
+        }
+        return result;
+    }
+
+    /**
+     * Checks if tile with this pattern and given rotation can be placed on empty place
+     * with given pattern.
+     */
+    public boolean isMatching(EdgePattern emptyPlace, Rotation rotation) {
+        for (Location loc : Location.sides()) {
+            Edge edge = emptyPlace.at(loc);
+            if (edge != Edge.UNKNOWN && edge != at(loc, rotation)) return false;
+        }
+        return true;
+    }
+
     private Edge[] shift(int shift) {
         Edge[] result = new Edge[4];
         for (int i = 0; i < edges.length; i++) {
@@ -118,6 +153,7 @@ public class EdgePattern {
      * Canonized pattern is first one from ordering by Edge ordinals.
      */
     private Edge[] canonize() {
+        if (canonized != null) return canonized;
         Edge[] result = edges;
         shiftLoop:
         for (int shift = 1; shift < edges.length; shift++) {
@@ -132,6 +168,7 @@ public class EdgePattern {
                 }
             }
         }
+        canonized = result;
         return result;
     }
 
@@ -32,7 +32,7 @@ public class LoadGameTilePackFactory extends TilePackFactory {
         Tile tile;
         Element element;
     }
-    PreplacedTile[] preplaced;
+    private final List<PreplacedTile> preplaced = new ArrayList<>();
 
     public Snapshot getSnapshot() {
         return snapshot;
@@ -42,17 +42,31 @@ public class LoadGameTilePackFactory extends TilePackFactory {
         this.snapshot = snapshot;
 
         NodeList nl = snapshot.getTileElements();
-        preplaced = new PreplacedTile[nl.getLength()];
-
         for (int i = 0; i < nl.getLength(); i++) {
             Element el = (Element) nl.item(i);
-            preplaced[i] = new PreplacedTile();
-            preplaced[i].tileId = el.getAttribute("name");
-            preplaced[i].pos = XMLUtils.extractPosition(el);
-            preplaced[i].rot = snapshot.extractTileRotation(el);
-            preplaced[i].element = el;
-            preplacedMeeples.addAll(snapshot.extractTileMeeples(el, game, preplaced[i].pos));
+            Position pos = XMLUtils.extractPosition(el);
+            addPreplacedTile(el.getAttribute("name"), pos, snapshot.extractTileRotation(el));
+            preplaced.get(preplaced.size()-1).element = el;
+            preplacedMeeples.addAll(snapshot.extractTileMeeples(el, game, pos));
+        }
+    }
+
+    /** adds tile placed in loaded game, used directly when game is not loaded from snapshot document */
+    public void addPreplacedTile(String tileId, Position pos, Rotation rot) {
+        PreplacedTile pt = new PreplacedTile();
+        pt.tileId = tileId;
+        pt.pos = pos;
+        pt.rot = rot;
+        preplaced.add(pt);
+    }
+
+    /** placed tiles in order they were added, available after tile pack is created */
+    public List<Tile> getPreplacedTiles() {
+        List<Tile> tiles = new ArrayList<>(preplaced.size());
+        for (PreplacedTile pt : preplaced) {
+            tiles.add(pt.tile);
         }
+        return tiles;
     }
 
     protected URL getCardsConfig(Expansion expansion) {
@@ -72,7 +86,9 @@ public class LoadGameTilePackFactory extends TilePackFactory {
         for (PreplacedTile pt : preplaced) {
             if (pt.tile == null && pt.tileId.equals(tileId)) {
                 pt.tile = result.remove(result.size()-1);
-                game.loadTileFromSnapshot(pt.tile, pt.element);
+                if (pt.element != null) {
+                    game.loadTileFromSnapshot(pt.tile, pt.element);
+                }
             }
             if (result.isEmpty()) {
                 break;
@@ -102,8 +118,8 @@ public class LoadGameTilePackFactory extends TilePackFactory {
             pack.addTile(pt.tile, PLACED_GROUP);
         }
         pack.setGroupState(PLACED_GROUP, TileGroupState.ACTIVE);
-        if (preplaced.length > 0) {
-            game.setCurrentTile(preplaced[preplaced.length-1].tile);
+        if (!preplaced.isEmpty()) {
+            game.setCurrentTile(preplaced.get(preplaced.size()-1).tile);
         }
         return pack;
     }
@@ -3,9 +3,9 @@ package com.jcloisterzone.board;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -27,7 +27,7 @@ public class Location implements Serializable {
     transient private String name;
     private int mask;
 
-    private static Map<Integer, Location> instances = new HashMap<>();
+    private static Map<Integer, Location> instances = new ConcurrentHashMap<>();
 
     /**
      * Obtains instance with given mask. For named location
@@ -138,6 +138,11 @@ public class Location implements Serializable {
         return mask;
     }
 
+    /** bit mask, location is restored by {@link #create(int)} */
+    public int getMask() {
+        return mask;
+    }
+
     /** Rotation about quarter circle clockwise */
     public Location next() {
         return shift(2);
@@ -93,7 +93,8 @@ public class Position implements BoardPointer, Comparable<Position> {
 
     @Override
     public int hashCode() {
-        return (x << 16) ^ y;
+        //mask y to not overwrite x bits for negative y
+        return (x << 16) ^ (y & 0xFFFF);
     }
     @Override
     public boolean equals(Object obj) {
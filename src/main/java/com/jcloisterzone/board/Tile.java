@@ -2,7 +2,9 @@ package com.jcloisterzone.board;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -14,9 +16,11 @@ import com.jcloisterzone.feature.Bridge;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Cloister;
 import com.jcloisterzone.feature.Completable;
+import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.MultiTileFeature;
 import com.jcloisterzone.feature.Scoreable;
+import com.jcloisterzone.feature.TileFeature;
 import com.jcloisterzone.feature.Tower;
 import com.jcloisterzone.feature.visitor.IsOccupied;
 import com.jcloisterzone.feature.visitor.IsOccupiedAndUncompleted;
@@ -58,6 +62,9 @@ public class Tile /*implements Cloneable*/ {
     private Location windRose;
     private Class<? extends Feature> cornCircle;
 
+    /** pristine tile instance, shared by all copies of tile */
+    private Tile prototype;
+
     public Tile(Expansion origin, String id) {
         this.origin = origin;
         this.id = id;
@@ -149,29 +156,30 @@ public class Tile /*implements Cloneable*/ {
         }
     }
 
+    /** reverse to merge, edges are disconnected in opposite order */
     protected void unmerge(Tile tile, Location loc) {
+        for (int i = 1; i >= 0; i--) {
+            Location halfSide = i == 0 ? loc.getLeftFarm() : loc.getRightFarm();
+            Location oppositeHalfSide = halfSide.rev();
+            MultiTileFeature oppositePiece = (MultiTileFeature) tile.getFeaturePartOf(oppositeHalfSide);
+            if (oppositePiece != null) {
+                if (!isAbbeyTile()) {
+                    MultiTileFeature thisPiece = (MultiTileFeature) getFeaturePartOf(halfSide);
+                    thisPiece.setEdge(halfSide, null);
+                }
+                oppositePiece.setEdge(oppositeHalfSide, null);
+            }
+        }
         Location oppositeLoc = loc.rev();
         MultiTileFeature oppositePiece = (MultiTileFeature) tile.getFeaturePartOf(oppositeLoc);
         if (oppositePiece != null) {
-            oppositePiece.setEdge(oppositeLoc, null);
             if (!isAbbeyTile()) {
                 MultiTileFeature thisPiece = (MultiTileFeature) getFeaturePartOf(loc);
                 if (thisPiece != null) { //can be null for bridge undo
                     thisPiece.setEdge(loc, null);
                 }
             }
-        }
-        for (int i = 0; i < 2; i++) {
-            Location halfSide = i == 0 ? loc.getLeftFarm() : loc.getRightFarm();
-            Location oppositeHalfSide = halfSide.rev();
-            oppositePiece = (MultiTileFeature) tile.getFeaturePartOf(oppositeHalfSide);
-            if (oppositePiece != null) {
-                oppositePiece.setEdge(oppositeHalfSide, null);
-                if (!isAbbeyTile()) {
-                    MultiTileFeature thisPiece = (MultiTileFeature) getFeaturePartOf(halfSide);
-                    thisPiece.setEdge(halfSide, null);
-                }
-            }
+            oppositePiece.setEdge(oppositeLoc, null);
         }
     }
 
@@ -253,6 +261,82 @@ public class Tile /*implements Cloneable*/ {
         edgePattern = edgePattern.removeBridgePattern(normalizedLoc);
     }
 
+    public Tile getPrototype() {
+        return prototype;
+    }
+
+    public void setPrototype(Tile prototype) {
+        this.prototype = prototype;
+    }
+
+    /**
+     * Creates pristine copy of just created tile. Prototype is never placed
+     * and it is not bound to any game.
+     */
+    public Tile createPrototype() {
+        Tile copy = copyDefinition(game);
+        copy.game = null;
+        return copy;
+    }
+
+    /**
+     * Creates new unplaced instance of this tile bound to given game.
+     * Copy is created from tile prototype and shares its immutable definition data.
+     */
+    public Tile copy(Game game) {
+        if (prototype == null) {
+            throw new IllegalStateException("Tile " + id + " has no prototype.");
+        }
+        Tile copy = prototype.copyDefinition(game);
+        copy.prototype = prototype;
+        for (Feature f : copy.features) {
+            game.initCopiedFeature(copy, f);
+        }
+        return copy;
+    }
+
+    private Tile copyDefinition(Game game) {
+        Tile copy = new Tile(origin, id);
+        copy.game = game;
+        Map<Feature, Feature> mapping = new IdentityHashMap<>();
+        ArrayList<Feature> copyFeatures = new ArrayList<>(features.size());
+        for (Feature f : features) {
+            TileFeature source = (TileFeature) f;
+            TileFeature feature = source.createCopy();
+            feature.setId(game.idSequnceNextVal());
+            feature.setTile(copy);
+            feature.setLocation(source.getRawLocation());
+            copyFeatures.add(feature);
+            mapping.put(source, feature);
+        }
+        for (Feature f : features) {
+            TileFeature feature = (TileFeature) mapping.get(f);
+            if (f.getNeighbouring() != null) {
+                feature.addNeighbouring(remapFeatures(f.getNeighbouring(), mapping));
+            }
+            if (f instanceof Farm && ((Farm) f).getAdjoiningCities() != null) {
+                ((Farm) feature).setAdjoiningCities(remapFeatures(((Farm) f).getAdjoiningCities(), mapping));
+            }
+        }
+        copy.setFeatures(copyFeatures);
+        copy.symmetry = symmetry;
+        copy.edgePattern = edgePattern;
+        copy.trigger = trigger;
+        copy.river = river;
+        copy.flier = flier;
+        copy.windRose = windRose;
+        copy.cornCircle = cornCircle;
+        return copy;
+    }
+
+    private Feature[] remapFeatures(Feature[] features, Map<Feature, Feature> mapping) {
+        Feature[] result = new Feature[features.length];
+        for (int i = 0; i < features.length; i++) {
+            result[i] = mapping.get(features[i]);
+        }
+        return result;
+    }
+
     public Set<Location> getUnoccupiedScoreables(boolean excludeCompleted) {
         Set<Location> locations = new HashSet<>();
         for (Feature f : features) {
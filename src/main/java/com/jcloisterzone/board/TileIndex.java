@@ -0,0 +1,123 @@
+package com.jcloisterzone.board;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from board coordinates to tiles.
+ * Coordinates are packed into single long key, so lookup doesn't need
+ * any <code>Position</code> instance.
+ */
+class TileIndex {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] keys;
+    private Tile[] values;
+    private int size;
+    private int mask;
+
+    public TileIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Tile[capacity];
+        mask = capacity - 1;
+    }
+
+    static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public Tile get(int x, int y) {
+        long key = key(x, y);
+        int i = slot(key);
+        Tile value;
+        while ((value = values[i]) != null) {
+            if (keys[i] == key) return value;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public void put(int x, int y, Tile tile) {
+        assert tile != null;
+        if (2 * (size + 1) > values.length) {
+            rehash(values.length * 2);
+        }
+        long key = key(x, y);
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = tile;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = tile;
+        size++;
+    }
+
+    public Tile remove(int x, int y) {
+        long key = key(x, y);
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                Tile removed = values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /** closes gap after removed entry, so probe sequences of following entries stay unbroken */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) break;
+            int home = slot(keys[i]);
+            //move entry if its home slot is not cyclically in (gap, i]
+            if (gap <= i ? (home <= gap || home > i) : (home <= gap && home > i)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Tile[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
@@ -180,6 +180,7 @@ public class TilePackFactory {
         }
 
         List<Tile> tiles = new ArrayList<Tile>(count);
+        Tile prototype = null;
         for (int j = 0; j < count; j++) {
             Tile tile = tileFactory.createTile(expansion, tileId, card, isTunnelActive(expansion));
             try {
@@ -188,6 +189,10 @@ public class TilePackFactory {
                 //set after full inicialization
                 tile.setSymmetry(TileSymmetry.forTile(tile));
                 tile.setEdgePattern(EdgePattern.forTile(tile));
+                if (prototype == null) {
+                    prototype = tile.createPrototype();
+                }
+                tile.setPrototype(prototype);
                 tiles.add(tile);
             } catch (RemoveTileException ex) {
                 //empty
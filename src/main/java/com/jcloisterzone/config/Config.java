@@ -37,6 +37,9 @@ public class Config {
 
     private Integer score_display_duration;
     private Integer ai_place_tile_delay;
+    private Integer ai_search_budget;
+    private Integer ai_search_threads;
+    private Boolean ai_ponder;
     private String theme;
 
     private Boolean beep_alert;
@@ -369,6 +372,30 @@ public class Config {
         this.ai_place_tile_delay = ai_place_tile_delay;
     }
 
+    public Integer getAi_search_budget() {
+        return ai_search_budget;
+    }
+
+    public void setAi_search_budget(Integer ai_search_budget) {
+        this.ai_search_budget = ai_search_budget;
+    }
+
+    public Integer getAi_search_threads() {
+        return ai_search_threads;
+    }
+
+    public void setAi_search_threads(Integer ai_search_threads) {
+        this.ai_search_threads = ai_search_threads;
+    }
+
+    public Boolean getAi_ponder() {
+        return ai_ponder;
+    }
+
+    public void setAi_ponder(Boolean ai_ponder) {
+        this.ai_ponder = ai_ponder;
+    }
+
     public String getTheme() {
         return theme;
     }
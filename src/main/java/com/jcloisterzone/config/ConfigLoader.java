@@ -178,6 +178,9 @@ public class ConfigLoader {
         model.put("locale", config.getLocale());
         model.put("score_display_duration", config.getScore_display_duration());
         model.put("ai_place_tile_delay", config.getAi_place_tile_delay());
+        model.put("ai_search_budget", config.getAi_search_budget());
+        model.put("ai_search_threads", config.getAi_search_threads());
+        model.put("ai_ponder", config.getAi_ponder());
         model.put("theme", config.getTheme());
         model.put("beep_alert", config.getBeep_alert());
         model.put("client_name", config.getClient_name());
@@ -17,6 +17,10 @@ public class MeeplePrisonEvent extends MoveEvent<Player> implements Undoable {
         this.meeple = meeple;
     }
 
+    public Follower getMeeple() {
+        return meeple;
+    }
+
     private Map<Player, List<Follower>> getPrisoners(Game game) {
         TowerCapability cap = game.getCapability(TowerCapability.class);
         return cap.getPrisoners();
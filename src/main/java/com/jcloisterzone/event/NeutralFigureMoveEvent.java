@@ -1,6 +1,7 @@
 package com.jcloisterzone.event;
 
 import com.jcloisterzone.Player;
+import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.pointer.BoardPointer;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.board.pointer.MeeplePointer;
@@ -38,7 +39,8 @@ public class NeutralFigureMoveEvent extends MoveEvent<BoardPointer> implements U
             }
         } else if (figure instanceof Dragon) {
             DragonCapability dCap = game.getCapability(DragonCapability.class);
-            dCap.getDragon().setFeaturePointer((FeaturePointer) getFrom());
+            Position from = (Position) getFrom();
+            dCap.getDragon().setFeaturePointer(from == null ? null : from.asFeaturePointer());
         } else {
             throw new UnsupportedOperationException();
         }
@@ -23,6 +23,10 @@ public class Castle extends MultiTileFeature {
         return (Castle) getEdges()[0];
     }
 
+    public void setSecondFeature(Castle castle) {
+        setEdge(0, castle);
+    }
+
     @Override
     public Castle getMaster() {
         Castle other = getSecondFeature();
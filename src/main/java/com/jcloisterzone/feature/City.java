@@ -51,6 +51,17 @@ public class City extends CompletableFeature {
         this.castleBase = castleBase;
     }
 
+    @Override
+    protected void copyDefinition(TileFeature source) {
+        City city = (City) source;
+        pennants = city.pennants;
+        tradeResource = city.tradeResource;
+        besieged = city.besieged;
+        cathedral = city.cathedral;
+        pricenss = city.pricenss;
+        castleBase = city.castleBase;
+    }
+
     @Override
     public CityScoreContext getScoreContext() {
         return new CityScoreContext(getGame());
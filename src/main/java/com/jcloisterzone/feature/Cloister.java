@@ -39,6 +39,14 @@ public class Cloister extends TileFeature implements Completable {
 		this.yagaHut = yagaHut;
 	}
 
+    @Override
+    protected void copyDefinition(TileFeature source) {
+        Cloister cloister = (Cloister) source;
+        shrine = cloister.shrine;
+        monastery = cloister.monastery;
+        yagaHut = cloister.yagaHut;
+    }
+
 	@Override
     public boolean isOpen() {
         Position p = getTile().getPosition();
@@ -37,6 +37,14 @@ public class Farm extends MultiTileFeature {
         this.adjoiningCityOfCarcassonne = adjoiningCityOfCarcassonne;
     }
 
+    @Override
+    protected void copyDefinition(TileFeature source) {
+        Farm farm = (Farm) source;
+        adjoiningCityOfCarcassonne = farm.adjoiningCityOfCarcassonne;
+        pigHerd = farm.pigHerd;
+        //adjoiningCities are tile related, must be remapped by tile
+    }
+
     @Override
     protected Location[] getSides() {
         return Location.sidesFarm();
@@ -0,0 +1,154 @@
+package com.jcloisterzone.feature;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Connected group of {@link MultiTileFeature} pieces with cached aggregates.
+ * <p>
+ * Components are joined incrementally when edges are connected (smaller component is absorbed
+ * by larger one) and every connection is recorded. Disconnecting edges in reverse order
+ * (undo of last tile merge) restores previous components exactly.
+ * Any other change invalidates component and it is rebuilt right away by walking pieces,
+ * so reads never change component state.
+ */
+public class FeatureComponent {
+
+    private static class Connection {
+        MultiTileFeature from, to;
+        FeatureComponent absorbed;
+        int prevOpenEdges, prevAbsorbedOpenEdges, prevSize;
+        MultiTileFeature prevMaster;
+
+        boolean connects(MultiTileFeature a, MultiTileFeature b) {
+            return (from == a && to == b) || (from == b && to == a);
+        }
+    }
+
+    private final List<MultiTileFeature> pieces = new ArrayList<>();
+    private final Deque<Connection> connections = new ArrayDeque<>();
+    private MultiTileFeature master;
+    private int openEdges;
+    private int meepleCount;
+    private boolean valid = true;
+
+    private FeatureComponent() {
+    }
+
+    /** walks all pieces connected with given one and assigns new component to them */
+    static FeatureComponent build(MultiTileFeature start) {
+        FeatureComponent c = new FeatureComponent();
+        Deque<MultiTileFeature> stack = new ArrayDeque<>();
+        start.setComponent(c);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            MultiTileFeature piece = stack.pop();
+            c.add(piece);
+            for (MultiTileFeature edge : piece.edges) {
+                if (edge == null) {
+                    c.openEdges++;
+                } else if (edge.getCurrentComponent() != c) {
+                    edge.setComponent(c);
+                    stack.push(edge);
+                }
+            }
+        }
+        return c;
+    }
+
+    private void add(MultiTileFeature piece) {
+        pieces.add(piece);
+        meepleCount += piece.getMeeples().size();
+        if (master == null || master.getId() > piece.getId()) {
+            master = piece;
+        }
+    }
+
+    /** records closing of edge from piece <code>from</code> to piece <code>to</code> from component <code>other</code> */
+    void connect(MultiTileFeature from, MultiTileFeature to, FeatureComponent other) {
+        if (other != this && other.pieces.size() > pieces.size()) {
+            other.connect(from, to, this);
+            return;
+        }
+        Connection conn = new Connection();
+        conn.from = from;
+        conn.to = to;
+        conn.prevOpenEdges = openEdges;
+        if (other != this) {
+            conn.absorbed = other;
+            conn.prevAbsorbedOpenEdges = other.openEdges;
+            conn.prevSize = pieces.size();
+            conn.prevMaster = master;
+            for (MultiTileFeature piece : other.pieces) {
+                piece.setComponent(this);
+            }
+            pieces.addAll(other.pieces);
+            openEdges += other.openEdges;
+            meepleCount += other.meepleCount;
+            if (master.getId() > other.master.getId()) {
+                master = other.master;
+            }
+        }
+        openEdges--;
+        connections.push(conn);
+    }
+
+    /** reverts connection if it is the last one, otherwise invalidates component */
+    void disconnect(MultiTileFeature from, MultiTileFeature to) {
+        Connection conn = connections.peek();
+        if (conn == null || !conn.connects(from, to)) {
+            invalidate();
+            return;
+        }
+        connections.pop();
+        openEdges = conn.prevOpenEdges;
+        FeatureComponent absorbed = conn.absorbed;
+        if (absorbed != null) {
+            pieces.subList(conn.prevSize, pieces.size()).clear();
+            master = conn.prevMaster;
+            absorbed.openEdges = conn.prevAbsorbedOpenEdges;
+            //meeples can be changed meanwhile, count them again
+            absorbed.meepleCount = 0;
+            for (MultiTileFeature piece : absorbed.pieces) {
+                piece.setComponent(absorbed);
+                absorbed.meepleCount += piece.getMeeples().size();
+            }
+            meepleCount -= absorbed.meepleCount;
+        }
+    }
+
+    void meepleCountChanged(int delta) {
+        meepleCount += delta;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public List<MultiTileFeature> getPieces() {
+        return pieces;
+    }
+
+    /** Returns piece with minimal ID. */
+    public MultiTileFeature getMaster() {
+        return master;
+    }
+
+    public int getOpenEdges() {
+        return openEdges;
+    }
+
+    public boolean isCompleted() {
+        return openEdges == 0;
+    }
+
+    public int getMeepleCount() {
+        return meepleCount;
+    }
+}
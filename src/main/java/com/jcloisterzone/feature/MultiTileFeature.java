@@ -5,13 +5,20 @@ import java.util.Set;
 import java.util.Stack;
 
 import com.jcloisterzone.board.Location;
+import com.jcloisterzone.feature.visitor.ComponentVisitor;
 import com.jcloisterzone.feature.visitor.FeatureVisitor;
 import com.jcloisterzone.feature.visitor.FeatureVisitor.VisitResult;
-import com.jcloisterzone.feature.visitor.FindMaster;
+import com.jcloisterzone.figure.Meeple;
 
 public abstract class MultiTileFeature extends TileFeature implements Scoreable {
 
     protected MultiTileFeature[] edges;
+    /**
+     * Connected pieces with cached aggregates. Component is always valid after any edge change,
+     * it is never rebuilt on read. Like other board state it is changed only by game thread,
+     * other threads (UI, AI search) must work with game copy.
+     */
+    private FeatureComponent component;
 
     @Override
     public void setLocation(Location location) {
@@ -23,7 +30,12 @@ public abstract class MultiTileFeature extends TileFeature implements Scoreable
                 edgeCount++;
             }
         }
-        edges = new MultiTileFeature[edgeCount];
+        edges = createEdges(edgeCount);
+        FeatureComponent.build(this);
+    }
+
+    protected MultiTileFeature[] createEdges(int sideEdgeCount) {
+        return new MultiTileFeature[sideEdgeCount];
     }
 
     public MultiTileFeature[] getEdges() {
@@ -53,21 +65,75 @@ public abstract class MultiTileFeature extends TileFeature implements Scoreable
     }
 
     public void setEdge(Location loc, MultiTileFeature piece) {
-        edges[getEdgeIndex(loc)] = piece;
+        setEdge(getEdgeIndex(loc), piece);
     }
 
     public void setAbbeyEdge(Location loc) {
-        edges[getEdgeIndex(loc)] = this; //special value
+        setEdge(getEdgeIndex(loc), this); //special value
     }
 
+    protected void setEdge(int index, MultiTileFeature piece) {
+        MultiTileFeature prev = edges[index];
+        if (prev != null) {
+            if (component.isValid()) {
+                component.disconnect(this, prev);
+                if (piece != null) {
+                    //replacing connection, no simple way to track it
+                    component.invalidate();
+                    prev.getCurrentComponent().invalidate();
+                }
+            }
+        } else if (piece != null) {
+            //components must be obtained before edge is set, new edge would be already walked
+            FeatureComponent other = piece.getComponent();
+            getComponent().connect(this, piece, other);
+        }
+        edges[index] = piece;
+        //edge is replaced or disconnected out of order, rebuild eagerly split parts
+        if (!component.isValid()) {
+            FeatureComponent.build(this);
+        }
+        if (prev != null && prev != this && !prev.getCurrentComponent().isValid()) {
+            FeatureComponent.build(prev);
+        }
+    }
+
+    public FeatureComponent getComponent() {
+        return component;
+    }
+
+    FeatureComponent getCurrentComponent() {
+        return component;
+    }
+
+    void setComponent(FeatureComponent component) {
+        this.component = component;
+    }
+
+    @Override
+    public void addMeeple(Meeple meeple) {
+        super.addMeeple(meeple);
+        component.meepleCountChanged(1);
+    }
+
+    @Override
+    public void removeMeeple(Meeple meeple) {
+        super.removeMeeple(meeple);
+        component.meepleCountChanged(-1);
+    }
 
     @Override
     public Feature getMaster() {
-        return walk(new FindMaster());
+        return getComponent().getMaster();
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T walk(FeatureVisitor<T> visitor) {
+        if (visitor instanceof ComponentVisitor) {
+            T result = ((ComponentVisitor<T>) visitor).visitComponent(getComponent());
+            if (result != null) return result;
+        }
         Stack<MultiTileFeature> stack = new Stack<MultiTileFeature>();
         //TODO implement by bit set or marking - this method can be optimized
         Set<MultiTileFeature> visited = new HashSet<>();
@@ -1,7 +1,6 @@
 package com.jcloisterzone.feature;
 
 import com.jcloisterzone.PointCategory;
-import com.jcloisterzone.board.Location;
 import com.jcloisterzone.feature.visitor.score.RoadScoreContext;
 
 import static com.jcloisterzone.ui.I18nUtils._;
@@ -41,16 +40,20 @@ public class Road extends CompletableFeature {
     }
 
     @Override
-    public void setLocation(Location location) {
-        super.setLocation(location);
-        if (isTunnelEnd()) {
-            // reallocate - extra edge for tunnel
-            edges = new MultiTileFeature[edges.length + 1];
-        }
+    protected MultiTileFeature[] createEdges(int sideEdgeCount) {
+        // extra edge for tunnel
+        return new MultiTileFeature[isTunnelEnd() ? sideEdgeCount + 1 : sideEdgeCount];
+    }
+
+    @Override
+    protected void copyDefinition(TileFeature source) {
+        Road road = (Road) source;
+        inn = road.inn;
+        tunnelEnd = road.tunnelEnd;
     }
 
     public void setTunnelEdge(MultiTileFeature f) {
-        edges[edges.length - 1] = f;
+        setEdge(edges.length - 1, f);
     }
 
     @Override
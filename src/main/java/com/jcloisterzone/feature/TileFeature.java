@@ -122,6 +122,27 @@ public abstract class TileFeature implements Feature {
         return getClass().getSimpleName()+"@"+getId();
     }
 
+    /**
+     * Creates copy of feature definition. Copy is not bound to any tile,
+     * id, location, edges and meeples must be set by caller.
+     */
+    public TileFeature createCopy() {
+        TileFeature copy;
+        try {
+            copy = getClass().newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.copyDefinition(this);
+        return copy;
+    }
+
+    /**
+     * Copies attributes given by tile definition (and initialized by capabilities) from source feature.
+     */
+    protected void copyDefinition(TileFeature source) {
+    }
+
     public static String getLocalizedNamefor (Class<? extends Feature> feature) {
         try {
             Method m = feature.getMethod("name");
@@ -23,6 +23,11 @@ public class Tower extends TileFeature {
         this.height = height;
     }
 
+    @Override
+    protected void copyDefinition(TileFeature source) {
+        height = ((Tower) source).height;
+    }
+
     public Meeple getMeeple() {
         List<Meeple> meeples = getMeeples();
         if (meeples.isEmpty()) return null;
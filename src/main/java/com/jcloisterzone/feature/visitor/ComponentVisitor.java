@@ -0,0 +1,13 @@
+package com.jcloisterzone.feature.visitor;
+
+import com.jcloisterzone.feature.FeatureComponent;
+
+/**
+ * Visitor which can be often answered from cached component aggregates
+ * without walking through all feature pieces.
+ */
+public interface ComponentVisitor<T> extends FeatureVisitor<T> {
+
+    /** returns result or null if it can't be decided without walk */
+    T visitComponent(FeatureComponent component);
+}
@@ -1,8 +1,9 @@
 package com.jcloisterzone.feature.visitor;
 
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
 
-public class FindMaster implements FeatureVisitor<Feature> {
+public class FindMaster implements ComponentVisitor<Feature> {
 
 	private Feature master;
 
@@ -14,6 +15,11 @@ public class FindMaster implements FeatureVisitor<Feature> {
 		return VisitResult.CONTINUE;
 	}
 
+	@Override
+	public Feature visitComponent(FeatureComponent component) {
+		return component.getMaster();
+	}
+
 	@Deprecated //
 	public Feature getMasterFeature() {
 		return master;
@@ -2,8 +2,9 @@ package com.jcloisterzone.feature.visitor;
 
 import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
 
-public class IsCompleted implements FeatureVisitor<Boolean> {
+public class IsCompleted implements ComponentVisitor<Boolean> {
 
     private boolean isCompleted = true;
 
@@ -17,6 +18,11 @@ public class IsCompleted implements FeatureVisitor<Boolean> {
         return VisitResult.CONTINUE;
     }
 
+    @Override
+    public Boolean visitComponent(FeatureComponent component) {
+        return component.isCompleted();
+    }
+
     @Override
     public Boolean getResult() {
         return isCompleted;
@@ -4,9 +4,10 @@ import java.util.List;
 
 import com.jcloisterzone.Player;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
 import com.jcloisterzone.figure.Meeple;
 
-public class IsOccupied implements FeatureVisitor<Boolean> {
+public class IsOccupied implements ComponentVisitor<Boolean> {
 
     private Player player;
     private Class<? extends Meeple> clazz;
@@ -35,6 +36,13 @@ public class IsOccupied implements FeatureVisitor<Boolean> {
         return VisitResult.CONTINUE;
     }
 
+    @Override
+    public Boolean visitComponent(FeatureComponent component) {
+        if (component.getMeepleCount() == 0) return false;
+        if (player == null && clazz == null) return true;
+        return null; //must check meeples one by one
+    }
+
     @Override
     public Boolean getResult() {
         return isOccupied;
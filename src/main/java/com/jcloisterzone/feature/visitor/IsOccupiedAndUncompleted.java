@@ -2,6 +2,7 @@ package com.jcloisterzone.feature.visitor;
 
 import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
 
 public class IsOccupiedAndUncompleted extends IsOccupied {
 
@@ -17,6 +18,12 @@ public class IsOccupiedAndUncompleted extends IsOccupied {
         return VisitResult.CONTINUE;
     }
 
+    @Override
+    public Boolean visitComponent(FeatureComponent component) {
+        if (component.isCompleted()) return false;
+        return super.visitComponent(component);
+    }
+
     @Override
     public Boolean getResult() {
         return !isCompleted && super.getResult();
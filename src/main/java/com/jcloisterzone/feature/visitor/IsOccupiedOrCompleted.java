@@ -2,6 +2,7 @@ package com.jcloisterzone.feature.visitor;
 
 import com.jcloisterzone.feature.Completable;
 import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
 
 public class IsOccupiedOrCompleted extends IsOccupied {
 
@@ -16,6 +17,12 @@ public class IsOccupiedOrCompleted extends IsOccupied {
 		return super.visit(feature);
 	}
 
+	@Override
+	public Boolean visitComponent(FeatureComponent component) {
+		if (component.isCompleted()) return true;
+		return super.visitComponent(component);
+	}
+
 	@Override
 	public Boolean getResult() {
 		return isCompleted || super.getResult();
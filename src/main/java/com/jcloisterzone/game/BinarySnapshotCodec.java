@@ -0,0 +1,280 @@
+package com.jcloisterzone.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.jcloisterzone.Application;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PointCategory;
+import com.jcloisterzone.board.LoadGameTilePackFactory;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TilePack;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.phase.BinaryLoadGamePhase;
+import com.jcloisterzone.ui.HeadlessGameController;
+
+/**
+ * Compact binary game snapshot, alternative to XML {@link Snapshot}.
+ * <p>
+ * Rules, players, tile pack groups, placed tiles and meeples are written directly from game. Capabilities write
+ * their state by {@link Capability#saveToBinary(BinarySnapshotOutput)} and
+ * {@link Capability#saveTileToBinary(Tile, BinarySnapshotOutput)}, only capabilities without own binary encoding
+ * fall back to their XML snapshot hooks.
+ * <p>
+ * Snapshot is loaded directly into game by {@link BinaryLoadGamePhase}, without snapshot document and XML parsing.
+ * Conversion to XML snapshot by {@link #read(InputStream)} loads headless game first.
+ */
+public class BinarySnapshotCodec {
+
+    /** value of <code>save_format</code> debug option */
+    public static final String SAVE_FORMAT = "binary";
+
+    public static final int VERSION = 2;
+
+    /** id of game created only for conversion to XML snapshot */
+    private static final String CONVERTED_GAME_ID = "binary-snapshot";
+
+    private static final byte[] MAGIC = { 'J', 'C', 'Z', 'B' };
+
+    public static boolean isBinary(byte[] header) {
+        return header.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }
+
+    public static boolean isBinary(File file) throws IOException {
+        try (InputStream is = new FileInputStream(file)) {
+            byte[] header = new byte[MAGIC.length];
+            int n = is.read(header);
+            return n == MAGIC.length && isBinary(header);
+        }
+    }
+
+    public void write(Game game, OutputStream os) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(os);
+        BinarySnapshotOutput out = new BinarySnapshotOutput(buffered);
+        buffered.write(MAGIC);
+        out.writeVarInt(VERSION);
+        out.writeString(Application.VERSION);
+        out.writeSignedVarLong(game.getRandomSeed());
+        writeRules(game, out);
+        writeExpansions(game, out);
+        writePlayers(game, out);
+        //rest is read in order of game preparation by BinaryLoadGamePhase
+        out.writeString(game.getPhase().getClass().getName());
+        writeTiles(game, out);
+        writeCapabilities(game, out);
+        out.flush();
+    }
+
+    private void writeRules(Game game, BinarySnapshotOutput out) throws IOException {
+        List<Entry<CustomRule, Object>> rules = new ArrayList<>();
+        for (Entry<CustomRule, Object> entry : game.getCustomRules().entrySet()) {
+            if (entry.getKey().equals(CustomRule.RANDOM_SEATING_ORDER)) continue;
+            rules.add(entry);
+        }
+        out.writeVarInt(rules.size());
+        for (Entry<CustomRule, Object> entry : rules) {
+            out.writeString(entry.getKey().name());
+            out.writeValue(entry.getValue().toString());
+        }
+    }
+
+    private void writeExpansions(Game game, BinarySnapshotOutput out) throws IOException {
+        out.writeVarInt(game.getExpansions().size());
+        for (Expansion exp : game.getExpansions()) {
+            out.writeString(exp.name());
+        }
+    }
+
+    private void writeCapabilities(Game game, BinarySnapshotOutput out) throws IOException {
+        out.writeVarInt(game.getCapabilities().size());
+        for (Capability cap : game.getCapabilities()) {
+            out.writeString(cap.getClass().getSimpleName().replace("Capability", ""));
+            cap.saveToBinary(out);
+        }
+    }
+
+    private void writePlayers(Game game, BinarySnapshotOutput out) throws IOException {
+        out.writeVarInt(game.getTurnPlayer().getIndex());
+        out.writeVarInt(game.getAllPlayers().length);
+        for (Player p : game.getAllPlayers()) {
+            out.writeString(p.getNick());
+            out.writeSignedVarInt(p.getPoints());
+            out.writeVarInt(p.getSlot().getNumber());
+            out.writeString(p.getSlot().getClientId());
+            out.writeString(p.getSlot().isAi() ? p.getSlot().getAiClassName() : null);
+            int categories = 0;
+            for (PointCategory cat : PointCategory.values()) {
+                if (p.getPointsInCategory(cat) != 0) categories++;
+            }
+            out.writeVarInt(categories);
+            for (PointCategory cat : PointCategory.values()) {
+                int points = p.getPointsInCategory(cat);
+                if (points != 0) { //can be <0 (ransom)
+                    out.writeString(cat.name());
+                    out.writeSignedVarInt(points);
+                }
+            }
+            out.writeVarLong(p.getClock().getTime());
+            out.writeBoolean(p.getClock().isRunning());
+        }
+    }
+
+    private void writeTiles(Game game, BinarySnapshotOutput out) throws IOException {
+        Tile current = game.getCurrentTile();
+        out.writeString(current == null ? null : current.getId());
+        if (current != null) {
+            out.writeBoolean(current.getPosition() != null);
+            if (current.getPosition() != null) {
+                out.writePosition(current.getPosition());
+            }
+        }
+
+        List<String> groups = new ArrayList<>();
+        for (String group : game.getTilePack().getGroups()) {
+            if (group.equals(LoadGameTilePackFactory.PLACED_GROUP)) continue;
+            if (group.equals(TilePack.INACTIVE_GROUP)) continue;
+            groups.add(group);
+        }
+        out.writeVarInt(groups.size());
+        for (String group : groups) {
+            out.writeString(group);
+            out.writeString(game.getTilePack().getGroupState(group).name());
+        }
+
+        out.writeVarInt(game.getBoard().getDiscardedTiles().size());
+        for (Tile tile : game.getBoard().getDiscardedTiles()) {
+            out.writeString(tile.getId());
+        }
+
+        Map<Position, List<Meeple>> meeples = new HashMap<>();
+        for (Meeple m : game.getDeployedMeeples()) {
+            List<Meeple> onTile = meeples.get(m.getPosition());
+            if (onTile == null) {
+                onTile = new ArrayList<>();
+                meeples.put(m.getPosition(), onTile);
+            }
+            onTile.add(m);
+        }
+
+        out.writeVarInt(game.getBoard().getAllTiles().size());
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            out.writeString(tile.getId());
+            out.writeVarInt(tile.getRotation().ordinal());
+            out.writePosition(tile.getPosition());
+            List<Meeple> onTile = meeples.get(tile.getPosition());
+            out.writeVarInt(onTile == null ? 0 : onTile.size());
+            if (onTile != null) {
+                for (Meeple m : onTile) {
+                    out.writeVarInt(m.getPlayer().getIndex());
+                    out.writeString(m.getId());
+                    out.writeLocation(m.getLocation());
+                }
+            }
+        }
+        //capability tile state is read when tiles are created, before they are placed
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            game.saveTileToBinary(tile, out);
+        }
+    }
+
+    /** checks header of binary snapshot and returns input positioned on game settings */
+    public BinarySnapshotInput open(InputStream is) throws IOException {
+        BinarySnapshotInput in = new BinarySnapshotInput(is instanceof BufferedInputStream ? is : new BufferedInputStream(is));
+        byte[] header = new byte[MAGIC.length];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = (byte) in.readByte();
+        }
+        if (!isBinary(header)) {
+            throw new SnapshotCorruptedException("Not a binary snapshot.");
+        }
+        int version = in.readVarInt();
+        if (version != VERSION) {
+            throw new SnapshotVersionException("Unsupported binary snapshot version " + version + ".");
+        }
+        return in;
+    }
+
+    /**
+     * Reads settings and players of binary snapshot and creates not started game.
+     * Rest of input is read by {@link BinaryLoadGamePhase} when game is started.
+     */
+    public Game readGame(BinarySnapshotInput in, String gameId) throws IOException {
+        in.readString(); //application version, format is versioned by VERSION
+        Game game = new Game(gameId, in.readSignedVarLong());
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            CustomRule rule = CustomRule.valueOf(in.readString());
+            game.getCustomRules().put(rule, rule.unpackValue(in.readValue()));
+        }
+        count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            game.getExpansions().add(Expansion.valueOf(in.readString()));
+        }
+        int turnPlayer = in.readVarInt();
+        game.setPlayers(readPlayers(in), turnPlayer);
+        return game;
+    }
+
+    private List<Player> readPlayers(BinarySnapshotInput in) throws IOException {
+        int count = in.readVarInt();
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String nick = in.readString();
+            int points = in.readSignedVarInt();
+            PlayerSlot slot = new PlayerSlot(in.readVarInt());
+            String clientId = in.readString();
+            String aiClassName = in.readString();
+            if (aiClassName != null) {
+                slot.setAiClassName(aiClassName);
+            } else if (clientId != null) {
+                slot.setClientId(clientId);
+            }
+            Player p = new Player(nick, i, slot);
+            p.setPoints(points);
+            int categories = in.readVarInt();
+            for (int j = 0; j < categories; j++) {
+                PointCategory cat = PointCategory.valueOf(in.readString());
+                p.setPointsInCategory(cat, in.readSignedVarInt());
+            }
+            p.getClock().setTime(in.readVarLong());
+            p.getClock().setRunning(in.readBoolean());
+            players.add(p);
+        }
+        return players;
+    }
+
+    /**
+     * Loads binary snapshot directly into new started game. Game has headless controller
+     * and no AI players.
+     */
+    public Game load(InputStream is, String gameId, Config config) throws IOException {
+        BinarySnapshotInput in = open(is);
+        Game game = readGame(in, gameId);
+        BinaryLoadGamePhase phase = new BinaryLoadGamePhase(game, in, new HeadlessGameController(game, config));
+        game.getPhases().put(phase.getClass(), phase);
+        game.setPhase(phase);
+        phase.setSlots(new PlayerSlot[0]);
+        phase.startGame(true);
+        game.flushEventQueue();
+        return game;
+    }
+
+    /** converts binary snapshot to XML snapshot, game is loaded and saved again */
+    public Snapshot read(InputStream is) throws IOException {
+        return new Snapshot(load(is, CONVERTED_GAME_ID, new Config()));
+    }
+}
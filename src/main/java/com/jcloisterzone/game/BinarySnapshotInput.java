@@ -0,0 +1,190 @@
+package com.jcloisterzone.game;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.XMLUtils;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+
+/**
+ * Low level reader of binary snapshot, counterpart of {@link BinarySnapshotOutput}.
+ */
+public class BinarySnapshotInput {
+
+    private final InputStream is;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Location> locations = new HashMap<>();
+    private Element scratch;
+
+    public BinarySnapshotInput(InputStream is) {
+        this.is = is;
+    }
+
+    public int readByte() throws IOException {
+        int b = is.read();
+        if (b < 0) throw new EOFException("Unexpected end of binary snapshot");
+        return b;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new SnapshotCorruptedException("Malformed varint");
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new SnapshotCorruptedException("Malformed varint");
+    }
+
+    public int readSignedVarInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private String readLiteral() throws IOException {
+        byte[] bytes = new byte[readVarInt()];
+        int off = 0;
+        while (off < bytes.length) {
+            int n = is.read(bytes, off, bytes.length - off);
+            if (n < 0) throw new EOFException("Unexpected end of binary snapshot");
+            off += n;
+        }
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(s);
+        return s;
+    }
+
+    private String stringForCode(long code) throws IOException {
+        if (code == 0) return null;
+        if (code == 1) return readLiteral();
+        long index = code - 2;
+        if (index >= strings.size()) {
+            throw new SnapshotCorruptedException("Invalid string reference " + index);
+        }
+        return strings.get((int) index);
+    }
+
+    public String readString() throws IOException {
+        return stringForCode(readVarLong());
+    }
+
+    public String readValue() throws IOException {
+        long header = readVarLong();
+        if ((header & 1) == 1) {
+            int zigzag = (int) (header >>> 1);
+            return Integer.toString((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return stringForCode(header >>> 1);
+    }
+
+    public Position readPosition() throws IOException {
+        int x = readSignedVarInt();
+        int y = readSignedVarInt();
+        return new Position(x, y);
+    }
+
+    /** reads player written by {@link BinarySnapshotOutput#writePlayer(Player)} */
+    public Player readPlayer(Game game) throws IOException {
+        int index = readVarInt();
+        return index == 0 ? null : game.getPlayer(index - 1);
+    }
+
+    public Location readLocation() throws IOException {
+        String name = readString();
+        if (name == null) return null;
+        //parsing of location name is slow, the same locations are read many times
+        Location loc = locations.get(name);
+        if (loc == null) {
+            loc = Location.valueOf(name);
+            locations.put(name, loc);
+        }
+        return loc;
+    }
+
+    public FeaturePointer readFeaturePointer() throws IOException {
+        Position pos = readPosition();
+        return new FeaturePointer(pos, readLocation());
+    }
+
+    /**
+     * Reads element body written by {@link BinarySnapshotOutput#writeElementBody(Element)} into reused scratch element.
+     * Returns <code>null</code> for empty body, in such case no document is created.
+     */
+    public Element readScratchElement() throws IOException {
+        int attrs = readVarInt();
+        Element el = null;
+        if (attrs > 0) {
+            el = getScratchElement();
+            readAttributes(el, attrs);
+        }
+        int children = readVarInt();
+        if (children > 0) {
+            if (el == null) el = getScratchElement();
+            readChildren(el.getOwnerDocument(), el, children);
+        }
+        return el;
+    }
+
+    private Element getScratchElement() {
+        if (scratch == null) {
+            Document doc = XMLUtils.newDocument();
+            scratch = doc.createElement("scratch");
+            doc.appendChild(scratch);
+        } else {
+            XMLUtils.clearElement(scratch);
+        }
+        return scratch;
+    }
+
+    private void readAttributes(Element el, int attrs) throws IOException {
+        for (int i = 0; i < attrs; i++) {
+            String name = readString();
+            el.setAttribute(name, readValue());
+        }
+    }
+
+    private void readChildren(Document doc, Element el, int children) throws IOException {
+        for (int i = 0; i < children; i++) {
+            Element child = doc.createElement(readString());
+            el.appendChild(child);
+            readElementBody(doc, child);
+        }
+    }
+
+    /** fills attributes and child elements of given element written by {@link BinarySnapshotOutput#writeElementBody(Element)} */
+    public void readElementBody(Document doc, Element el) throws IOException {
+        readAttributes(el, readVarInt());
+        readChildren(doc, el, readVarInt());
+    }
+}
@@ -0,0 +1,174 @@
+package com.jcloisterzone.game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.XMLUtils;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+
+/**
+ * Low level writer of binary snapshot. Numbers are written as varints, strings are written only once
+ * and then referenced by index.
+ *
+ * @see BinarySnapshotInput
+ */
+public class BinarySnapshotOutput {
+
+    private final OutputStream os;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private Element scratch;
+
+    public BinarySnapshotOutput(OutputStream os) {
+        this.os = os;
+    }
+
+    /** empty element for collecting content passed to {@link #writeElementBody(Element)}, must be cleared after use */
+    public Element getScratchElement() {
+        if (scratch == null) {
+            Document doc = XMLUtils.newDocument();
+            scratch = doc.createElement("scratch");
+            doc.appendChild(scratch);
+        }
+        return scratch;
+    }
+
+    public void writeByte(int b) throws IOException {
+        os.write(b);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        os.write(value ? 1 : 0);
+    }
+
+    /** writes non negative int in 1-5 bytes */
+    public void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            os.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        os.write(value);
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            os.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        os.write((int) value);
+    }
+
+    /** zig-zag encoded int, small negative numbers are short too */
+    public void writeSignedVarInt(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /** string code: 0 for null, 1 for new literal, index + 2 for already written string */
+    private long stringCode(String s) {
+        if (s == null) return 0;
+        Integer index = strings.get(s);
+        return index == null ? 1 : index + 2;
+    }
+
+    private void writeLiteral(String s) throws IOException {
+        strings.put(s, strings.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        os.write(bytes);
+    }
+
+    public void writeString(String s) throws IOException {
+        long code = stringCode(s);
+        writeVarLong(code);
+        if (code == 1) {
+            writeLiteral(s);
+        }
+    }
+
+    private static boolean isCanonicalInt(String value) {
+        int len = value.length();
+        if (len == 0 || len > 11) return false;
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        if (i == len || (value.charAt(i) == '0' && len > i + 1) || (i == 1 && value.charAt(1) == '0')) return false;
+        for (; i < len; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+        }
+        long l = Long.parseLong(value);
+        return l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE;
+    }
+
+    /** writes attribute value, decimal numbers are stored as varints and restored to same string */
+    public void writeValue(String value) throws IOException {
+        if (value != null && isCanonicalInt(value)) {
+            int n = Integer.parseInt(value);
+            writeVarLong((((long) ((n << 1) ^ (n >> 31)) & 0xFFFFFFFFL) << 1) | 1);
+            return;
+        }
+        long code = stringCode(value);
+        writeVarLong(code << 1);
+        if (code == 1) {
+            writeLiteral(value);
+        }
+    }
+
+    public void writePosition(Position pos) throws IOException {
+        writeSignedVarInt(pos.x);
+        writeSignedVarInt(pos.y);
+    }
+
+    /** writes player index, player can be <code>null</code> */
+    public void writePlayer(Player player) throws IOException {
+        writeVarInt(player == null ? 0 : player.getIndex() + 1);
+    }
+
+    public void writeLocation(Location loc) throws IOException {
+        writeString(loc == null ? null : loc.toString());
+    }
+
+    public void writeFeaturePointer(FeaturePointer fp) throws IOException {
+        writePosition(fp.getPosition());
+        writeLocation(fp.getLocation());
+    }
+
+    /** writes attributes and child elements of given element, text content is not supported by snapshot */
+    public void writeElementBody(Element el) throws IOException {
+        NamedNodeMap attrs = el.getAttributes();
+        writeVarInt(attrs.getLength());
+        for (int i = 0; i < attrs.getLength(); i++) {
+            Attr attr = (Attr) attrs.item(i);
+            writeString(attr.getName());
+            writeValue(attr.getValue());
+        }
+        int children = 0;
+        for (Node child = el.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) children++;
+        }
+        writeVarInt(children);
+        for (Node child = el.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                writeString(((Element) child).getTagName());
+                writeElementBody((Element) child);
+            }
+        }
+    }
+
+    public void flush() throws IOException {
+        os.flush();
+    }
+}
@@ -1,8 +1,11 @@
 package com.jcloisterzone.game;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -11,6 +14,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import com.jcloisterzone.Player;
+import com.jcloisterzone.XMLUtils;
 import com.jcloisterzone.action.MeepleAction;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.board.Board;
@@ -71,12 +75,67 @@ public abstract class Capability {
     public void loadTileFromSnapshot(Tile tile, Element tileNode) {
     }
 
+    /**
+     * Writes state to binary snapshot. Default implementation encodes element filled by
+     * {@link #saveToSnapshot(Document, Element)}, capabilities with state write it directly.
+     */
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        Element el = out.getScratchElement();
+        saveToSnapshot(el.getOwnerDocument(), el);
+        out.writeElementBody(el);
+        XMLUtils.clearElement(el);
+    }
+
+    /** counterpart of {@link #saveToBinary(BinarySnapshotOutput)}, called after tiles are placed */
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        Element el = in.readScratchElement();
+        if (el != null) {
+            loadFromSnapshot(el.getOwnerDocument(), el);
+        }
+    }
+
+    /** binary counterpart of saveTileToSnapshot, capability with tile state must override both */
+    public void saveTileToBinary(Tile tile, BinarySnapshotOutput out) throws IOException {
+    }
+
+    /** called for each placed tile before it is placed on board, tile position and rotation are already set */
+    public void loadTileFromBinary(Tile tile, BinarySnapshotInput in) throws IOException {
+    }
+
     public void initTile(Tile tile, Element xml) {
     }
 
     public void initFeature(Tile tile, Feature feature, Element xml) {
     }
 
+    /** counterpart of initFeature called for features of tile copied from tile prototype */
+    public void initCopiedFeature(Tile tile, Feature feature) {
+    }
+
+    /** called on copied game for each placed tile before it is placed on board */
+    public void copyTileFrom(Tile sourceTile, Tile tile) {
+    }
+
+    /**
+     * Copies state from same capability of another game. Board and meeple pointers
+     * of copied game are already set. State must be copied directly, capabilities without
+     * state implement it as empty method.
+     */
+    public abstract void copyFrom(Capability source);
+
+    /** returns player of this game with same index as given player of copied game */
+    protected Player copyPlayer(Player sourcePlayer) {
+        return sourcePlayer == null ? null : game.getPlayer(sourcePlayer.getIndex());
+    }
+
+    /** copies player keyed values of copied game, values must be immutable */
+    protected <T> void copyPlayerMap(Map<Player, T> source, Map<Player, T> target) {
+        target.clear();
+        for (Entry<Player, T> entry : source.entrySet()) {
+            target.put(copyPlayer(entry.getKey()), entry.getValue());
+        }
+    }
+
     public String getTileGroup(Tile tile) {
         return null;
     }
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -54,9 +55,11 @@ import com.jcloisterzone.figure.neutral.NeutralFigure;
 import com.jcloisterzone.figure.predicate.MeeplePredicates;
 import com.jcloisterzone.game.capability.FairyCapability;
 import com.jcloisterzone.game.capability.PrincessCapability;
+import com.jcloisterzone.game.phase.CopyGamePhase;
 import com.jcloisterzone.game.phase.CreateGamePhase;
 import com.jcloisterzone.game.phase.GameOverPhase;
 import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.GameController;
 
 
 /**
@@ -97,6 +100,8 @@ public class Game extends GameSettings implements EventProxy {
 
     private int idSequenceCurrVal = 0;
 
+    private final ZobristHash zobristHash = new ZobristHash(this);
+
     private final Random random;
     private long randomSeed;
 
@@ -118,6 +123,11 @@ public class Game extends GameSettings implements EventProxy {
         return eventBus;
     }
 
+    /** hash of game state, updated by posted and undone {@link Undoable} events */
+    public ZobristHash getZobristHash() {
+        return zobristHash;
+    }
+
     public Undoable getLastUndoable() {
         return lastUndoable.size() == 0 ? null : lastUndoable.get(lastUndoable.size()-1);
     }
@@ -138,6 +148,9 @@ public class Game extends GameSettings implements EventProxy {
     @Override
     public void post(Event event) {
         eventQueue.add(event);
+        if (event instanceof Undoable && !event.isUndo()) {
+            zobristHash.apply((Undoable) event);
+        }
         if (event instanceof PlayEvent && !event.isUndo()) {
             if (isUiSupportedUndo(event)) {
                 if ((event instanceof BridgeEvent && ((BridgeEvent)event).isForced()) ||
@@ -185,6 +198,7 @@ public class Game extends GameSettings implements EventProxy {
             Event inverse = ev.getInverseEvent();
             inverse.setUndo(true);
 
+            zobristHash.revert(ev);
             ev.undo(this);
             post(inverse); //should be post inside undo? silent vs. firing undo?
         }
@@ -361,6 +375,42 @@ public class Game extends GameSettings implements EventProxy {
         board = new Board(this);
     }
 
+    /**
+     * Creates independent copy of started game. Copy is built directly from game structures,
+     * tile definitions are shared through tile prototypes. Copied players have no AI attached.
+     */
+    public Game copy(GameController gc) {
+        Game copy = new Game(getGameId(), randomSeed);
+        copy.getExpansions().addAll(getExpansions());
+        copy.getCustomRules().putAll(getCustomRules());
+        List<Player> players = new ArrayList<>(plist.length);
+        for (Player p : plist) {
+            PlayerSlot slot = new PlayerSlot(p.getSlot().getNumber());
+            if (p.getSlot().isAi()) {
+                slot.setAiClassName(p.getSlot().getAiClassName());
+            } else {
+                slot.setClientId(p.getSlot().getClientId());
+            }
+            Player player = new Player(p.getNick(), p.getIndex(), slot);
+            player.setPoints(p.getPoints());
+            for (PointCategory cat : PointCategory.values()) {
+                int points = p.getPointsInCategory(cat);
+                if (points != 0) {
+                    player.setPointsInCategory(cat, points);
+                }
+            }
+            player.getClock().setTime(p.getClock().getTime());
+            players.add(player);
+        }
+        copy.setPlayers(players, turnPlayer.getIndex());
+        CopyGamePhase phase = new CopyGamePhase(copy, this, gc);
+        phase.setSlots(new PlayerSlot[0]);
+        copy.getPhases().put(phase.getClass(), phase);
+        copy.setPhase(phase);
+        phase.startGame(false);
+        return copy;
+    }
+
     public boolean isStarted() {
         return !(phase instanceof CreateGamePhase);
     }
@@ -467,6 +517,18 @@ public class Game extends GameSettings implements EventProxy {
         }
     }
 
+    public void initCopiedFeature(Tile tile, Feature feature) {
+        for (Capability cap: capabilities) {
+            cap.initCopiedFeature(tile, feature);
+        }
+    }
+
+    public void copyTileFrom(Tile sourceTile, Tile tile) {
+        for (Capability cap: capabilities) {
+            cap.copyTileFrom(sourceTile, tile);
+        }
+    }
+
     public void initPlayer(Player player) {
         for (Capability cap: capabilities) {
             cap.initPlayer(player);
@@ -558,6 +620,18 @@ public class Game extends GameSettings implements EventProxy {
         }
     }
 
+    public void saveTileToBinary(Tile tile, BinarySnapshotOutput out) throws IOException {
+        for (Capability cap: capabilities) {
+            cap.saveTileToBinary(tile, out);
+        }
+    }
+
+    public void loadTileFromBinary(Tile tile, BinarySnapshotInput in) throws IOException {
+        for (Capability cap: capabilities) {
+            cap.loadTileFromBinary(tile, in);
+        }
+    }
+
     @Override
     public String toString() {
         return "Game in " + phase.getClass().getSimpleName() + " phase.";
@@ -76,6 +76,12 @@ public class Snapshot implements Serializable {
     }
 
     public Snapshot(File savedGame) throws IOException, SAXException {
+        if (BinarySnapshotCodec.isBinary(savedGame)) {
+            try (InputStream is = new FileInputStream(savedGame)) {
+                load(new BinarySnapshotCodec().read(is).doc);
+            }
+            return;
+        }
         try {
             load(new GZIPInputStream(new FileInputStream(savedGame)));
         } catch (IOException e) {
@@ -251,7 +257,11 @@ public class Snapshot implements Serializable {
     }
 
     public void load(InputStream is) throws SnapshotCorruptedException {
-        doc = XMLUtils.parseDocument(is);
+        load(XMLUtils.parseDocument(is));
+    }
+
+    private void load(Document doc) throws SnapshotCorruptedException {
+        this.doc = doc;
         root = doc.getDocumentElement();
         String snapshotVersion = root.getAttribute("app-version");
         if (!snapshotVersion.equals(Application.VERSION) && !snapshotVersion.equals(Application.DEV_VERSION)) {
@@ -0,0 +1,291 @@
+package com.jcloisterzone.game;
+
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.jcloisterzone.LittleBuilding;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.TradeResource;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.pointer.BoardPointer;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.event.BridgeEvent;
+import com.jcloisterzone.event.GoldChangeEvent;
+import com.jcloisterzone.event.MeepleEvent;
+import com.jcloisterzone.event.MeeplePrisonEvent;
+import com.jcloisterzone.event.NeutralFigureMoveEvent;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.event.TowerIncreasedEvent;
+import com.jcloisterzone.event.TradeResourceEvent;
+import com.jcloisterzone.event.Undoable;
+import com.jcloisterzone.feature.Castle;
+import com.jcloisterzone.figure.Follower;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.figure.neutral.NeutralFigure;
+import com.jcloisterzone.game.capability.AbbeyCapability;
+import com.jcloisterzone.game.capability.BridgeCapability;
+import com.jcloisterzone.game.capability.CastleCapability;
+import com.jcloisterzone.game.capability.ClothWineGrainCapability;
+import com.jcloisterzone.game.capability.GoldminesCapability;
+import com.jcloisterzone.game.capability.KingAndRobberBaronCapability;
+import com.jcloisterzone.game.capability.LittleBuildingsCapability;
+import com.jcloisterzone.game.capability.TowerCapability;
+
+/**
+ * Incrementally maintained 64-bit hash of game state. Covers placed tiles with rotations, deployed meeples,
+ * neutral figures, bridges, tower heights, gold pieces on board, prisoners, trade resources, castles,
+ * little buildings and player points.
+ * <p>
+ * Per-player supplies are covered too: castles, little buildings, abbeys, bridges and tower pieces,
+ * as well as the holders of the King and Robber Baron tiles.
+ * <p>
+ * Every state item has key derived from its content (not from random table), so equal states have
+ * equal hash in any JVM and on any client. Keys are summed (mod 2<sup>64</sup>) instead of xor-ed,
+ * which allows counters like tower height or gold count to be added as key multiples.
+ * Board part is updated from {@link Undoable} events when they are posted and reverted when they are undone,
+ * points are added when hash is read because they are also changed without events (e.g. tower ransom).
+ * Castles, little buildings and supplies are added when hash is read too, their events aren't undoable
+ * and save points restore them from capability backup.
+ * <p>
+ * Turn player, phase, drawn tile and tile pack are not part of the hash.
+ */
+public class ZobristHash {
+
+    private static final int TILE = 1;
+    private static final int MEEPLE = 2;
+    private static final int NEUTRAL_FIGURE = 3;
+    private static final int BRIDGE = 4;
+    private static final int TOWER = 5;
+    private static final int GOLD = 6;
+    private static final int PRISONER = 7;
+    private static final int TRADE_RESOURCE = 8;
+    private static final int POINTS = 9;
+    private static final int CASTLE = 10;
+    private static final int LITTLE_BUILDING = 11;
+    private static final int ABBEY = 12;
+    private static final int KING = 13;
+    private static final int ROBBER_BARON = 14;
+
+    private final Game game;
+    private long boardHash;
+
+    public ZobristHash(Game game) {
+        this.game = game;
+    }
+
+    /** returns hash of current game state */
+    public long getValue() {
+        return boardHash + getPlayersHash(game) + getCapabilitiesHash(game);
+    }
+
+    public void apply(Undoable event) {
+        boardHash += getKey(event);
+    }
+
+    /** must be called when given event is undone, before game state is changed by undo */
+    public void revert(Undoable event) {
+        boardHash -= getKey(event);
+    }
+
+    /** recomputes hash from game state, used when game is created from snapshot or copied */
+    public void reset() {
+        boardHash = computeBoardHash(game);
+    }
+
+    /** computes hash of given game from scratch, result is equal to {@link #getValue()} of consistent game */
+    public static long compute(Game game) {
+        return computeBoardHash(game) + getPlayersHash(game) + getCapabilitiesHash(game);
+    }
+
+    private static long getKey(Undoable event) {
+        if (event instanceof TileEvent) {
+            TileEvent ev = (TileEvent) event;
+            return ev.getType() == TileEvent.PLACEMENT ? tileKey(ev.getTile(), ev.getPosition()) : 0L;
+        }
+        if (event instanceof MeepleEvent) {
+            MeepleEvent ev = (MeepleEvent) event;
+            return meepleKey(ev.getMeeple(), ev.getTo()) - meepleKey(ev.getMeeple(), ev.getFrom());
+        }
+        if (event instanceof NeutralFigureMoveEvent) {
+            NeutralFigureMoveEvent ev = (NeutralFigureMoveEvent) event;
+            return neutralFigureKey(ev.getFigure(), ev.getTo()) - neutralFigureKey(ev.getFigure(), ev.getFrom());
+        }
+        if (event instanceof BridgeEvent) {
+            BridgeEvent ev = (BridgeEvent) event;
+            return ev.getType() == BridgeEvent.DEPLOY ? key(key(BRIDGE), ev.getFeaturePointer()) : 0L;
+        }
+        if (event instanceof TowerIncreasedEvent) {
+            return positionKey(TOWER, ((TowerIncreasedEvent) event).getPosition());
+        }
+        if (event instanceof GoldChangeEvent) {
+            GoldChangeEvent ev = (GoldChangeEvent) event;
+            return (ev.getCurrCount() - ev.getPrevCount()) * positionKey(GOLD, ev.getPos());
+        }
+        if (event instanceof MeeplePrisonEvent) {
+            MeeplePrisonEvent ev = (MeeplePrisonEvent) event;
+            return prisonerKey(ev.getMeeple(), ev.getTo()) - prisonerKey(ev.getMeeple(), ev.getFrom());
+        }
+        if (event instanceof TradeResourceEvent) {
+            TradeResourceEvent ev = (TradeResourceEvent) event;
+            return ev.getCount() * tradeResourceKey(ev.getTargetPlayer(), ev.getResource());
+        }
+        //ScoreEvent - points are hashed directly
+        return 0L;
+    }
+
+    private static long computeBoardHash(Game game) {
+        long h = 0L;
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            h += tileKey(tile, tile.getPosition());
+            if (tile.getBridge() != null) {
+                h += key(key(BRIDGE), new FeaturePointer(tile.getPosition(), tile.getBridge().getLocation()));
+            }
+            if (tile.getTower() != null) {
+                h += tile.getTower().getHeight() * positionKey(TOWER, tile.getPosition());
+            }
+        }
+        for (Meeple m : game.getDeployedMeeples()) {
+            h += meepleKey(m, m.getFeaturePointer());
+        }
+        for (NeutralFigure<?> figure : game.getNeutralFigures()) {
+            h += neutralFigureKey(figure, figure.getFeaturePointer());
+        }
+        GoldminesCapability goldCap = game.getCapability(GoldminesCapability.class);
+        if (goldCap != null) {
+            for (Entry<Position, Integer> entry : goldCap.getBoardGold().entrySet()) {
+                h += entry.getValue() * positionKey(GOLD, entry.getKey());
+            }
+        }
+        TowerCapability towerCap = game.getCapability(TowerCapability.class);
+        if (towerCap != null) {
+            for (Entry<Player, List<Follower>> entry : towerCap.getPrisoners().entrySet()) {
+                for (Follower f : entry.getValue()) {
+                    h += prisonerKey(f, entry.getKey());
+                }
+            }
+        }
+        ClothWineGrainCapability cwgCap = game.getCapability(ClothWineGrainCapability.class);
+        if (cwgCap != null) {
+            for (Player p : game.getAllPlayers()) {
+                for (TradeResource res : TradeResource.values()) {
+                    h += cwgCap.getTradeResources(p, res) * tradeResourceKey(p, res);
+                }
+            }
+        }
+        return h;
+    }
+
+    private static long getPlayersHash(Game game) {
+        long h = 0L;
+        for (Player p : game.getAllPlayers()) {
+            h += p.getPoints() * key(key(POINTS), p.getIndex());
+        }
+        return h;
+    }
+
+    private static long getCapabilitiesHash(Game game) {
+        long h = 0L;
+        CastleCapability castleCap = game.getCapability(CastleCapability.class);
+        if (castleCap != null) {
+            for (Castle castle : castleCap.getDeployedCastles()) {
+                h += key(key(CASTLE), new FeaturePointer(castle));
+            }
+            for (Player p : game.getAllPlayers()) {
+                h += castleCap.getPlayerCastles(p) * key(key(CASTLE), p.getIndex());
+            }
+        }
+        LittleBuildingsCapability lbCap = game.getCapability(LittleBuildingsCapability.class);
+        if (lbCap != null) {
+            for (Entry<Position, LittleBuilding> entry : lbCap.getPlacedLittleBuildings().entrySet()) {
+                h += key(positionKey(LITTLE_BUILDING, entry.getKey()), entry.getValue().ordinal());
+            }
+            for (Player p : game.getAllPlayers()) {
+                for (LittleBuilding lb : LittleBuilding.values()) {
+                    h += lbCap.getBuildingsCount(p, lb) * key(key(key(LITTLE_BUILDING), p.getIndex()), lb.ordinal());
+                }
+            }
+        }
+        AbbeyCapability abbeyCap = game.getCapability(AbbeyCapability.class);
+        if (abbeyCap != null) {
+            for (Player p : game.getAllPlayers()) {
+                if (abbeyCap.hasUnusedAbbey(p)) {
+                    h += key(key(ABBEY), p.getIndex());
+                }
+            }
+        }
+        BridgeCapability bridgeCap = game.getCapability(BridgeCapability.class);
+        if (bridgeCap != null) {
+            for (Player p : game.getAllPlayers()) {
+                h += bridgeCap.getPlayerBridges(p) * key(key(BRIDGE), p.getIndex());
+            }
+        }
+        TowerCapability towerCap = game.getCapability(TowerCapability.class);
+        if (towerCap != null) {
+            for (Player p : game.getAllPlayers()) {
+                h += towerCap.getTowerPieces(p) * key(key(TOWER), p.getIndex());
+            }
+        }
+        KingAndRobberBaronCapability kingCap = game.getCapability(KingAndRobberBaronCapability.class);
+        if (kingCap != null) {
+            if (kingCap.getKing() != null) {
+                h += key(key(KING), kingCap.getKing().getIndex());
+            }
+            if (kingCap.getRobberBaron() != null) {
+                h += key(key(ROBBER_BARON), kingCap.getRobberBaron().getIndex());
+            }
+        }
+        return h;
+    }
+
+    private static long tileKey(Tile tile, Position pos) {
+        long h = key(key(TILE), tile.getId().hashCode());
+        return key(key(key(h, pos.x), pos.y), tile.getRotation().ordinal());
+    }
+
+    private static long meepleKey(Meeple m, FeaturePointer fp) {
+        if (fp == null) return 0L;
+        return key(key(key(key(MEEPLE), m.getPlayer().getIndex()), m.getClass().getName().hashCode()), fp);
+    }
+
+    private static long neutralFigureKey(NeutralFigure<?> figure, BoardPointer ptr) {
+        if (ptr == null) return 0L;
+        //fairy next to meeple and dragon on position are stored as feature pointers
+        return key(key(key(NEUTRAL_FIGURE), figure.getClass().getName().hashCode()), ptr.asFeaturePointer());
+    }
+
+    private static long prisonerKey(Follower f, Player jailer) {
+        if (jailer == null) return 0L;
+        long h = key(key(key(PRISONER), f.getPlayer().getIndex()), f.getClass().getName().hashCode());
+        return key(h, jailer.getIndex());
+    }
+
+    private static long tradeResourceKey(Player p, TradeResource res) {
+        return key(key(key(TRADE_RESOURCE), p.getIndex()), res.ordinal());
+    }
+
+    private static long positionKey(int tag, Position pos) {
+        return key(key(key(tag), pos.x), pos.y);
+    }
+
+    private static long key(long h, FeaturePointer fp) {
+        Location loc = fp.getLocation();
+        return key(key(key(h, fp.getPosition().x), fp.getPosition().y), loc == null ? 0 : loc.getMask());
+    }
+
+    private static long key(long h, int value) {
+        return mix(h * 31 + value);
+    }
+
+    private static long key(int tag) {
+        return mix(tag);
+    }
+
+    /** splitmix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -9,6 +10,8 @@ import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.Player;
 import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -71,6 +74,16 @@ public class AbbeyCapability extends Capability {
     }
 
 
+    @Override
+    public void copyFrom(Capability source) {
+        AbbeyCapability abbeyCap = (AbbeyCapability) source;
+        unusedAbbey.clear();
+        for (Player player : abbeyCap.unusedAbbey) {
+            unusedAbbey.add(copyPlayer(player));
+        }
+        abbeyRoundLastPlayer = copyPlayer(abbeyCap.abbeyRoundLastPlayer);
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         for (Player player: game.getAllPlayers()) {
@@ -99,4 +112,22 @@ public class AbbeyCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            out.writeBoolean(unusedAbbey.contains(player));
+        }
+        out.writePlayer(abbeyRoundLastPlayer);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            if (!in.readBoolean()) {
+                useAbbey(player);
+            }
+        }
+        abbeyRoundLastPlayer = in.readPlayer(game);
+    }
+
 }
@@ -24,6 +24,11 @@ public final class BarnCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initPlayer(Player player) {
         /*if (game.hasCapability(Capability.FARM_PLACEMENT)) {
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -14,6 +15,8 @@ import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.TileTrigger;
 import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -123,6 +126,67 @@ public class BazaarCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(bazaarTriggered);
+        out.writeVarInt(bazaarSupply == null ? 0 : bazaarSupply.size());
+        if (bazaarSupply != null) {
+            for (BazaarItem bi : bazaarSupply) {
+                out.writeString(bi.getTile().getId());
+                out.writePlayer(bi.getOwner());
+                out.writePlayer(bi.getCurrentBidder());
+                out.writeVarInt(bi.getCurrentPrice());
+                out.writeBoolean(currentBazaarAuction == bi);
+            }
+        }
+        out.writePlayer(bazaarTileSelectingPlayer);
+        out.writePlayer(bazaarBiddingPlayer);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        bazaarTriggered = in.readBoolean();
+        int count = in.readVarInt();
+        if (count > 0) {
+            bazaarSupply = new ArrayList<BazaarItem>(count);
+            for (int i = 0; i < count; i++) {
+                Tile tile = game.getTilePack().drawTile(in.readString());
+                BazaarItem bi = new BazaarItem(tile);
+                bazaarSupply.add(bi);
+                bi.setOwner(in.readPlayer(game));
+                bi.setCurrentBidder(in.readPlayer(game));
+                bi.setCurrentPrice(in.readVarInt());
+                if (in.readBoolean()) {
+                    currentBazaarAuction = bi;
+                }
+            }
+        }
+        bazaarTileSelectingPlayer = in.readPlayer(game);
+        bazaarBiddingPlayer = in.readPlayer(game);
+    }
+
+    @Override
+    public void copyFrom(Capability source) {
+        //supply tiles are already drawn from source pack, they can't be drawn by id from copied pack
+        BazaarCapability bazaarCap = (BazaarCapability) source;
+        bazaarTriggered = bazaarCap.bazaarTriggered;
+        if (bazaarCap.bazaarSupply != null) {
+            bazaarSupply = new ArrayList<BazaarItem>(bazaarCap.bazaarSupply.size());
+            for (BazaarItem sourceItem : bazaarCap.bazaarSupply) {
+                BazaarItem bi = new BazaarItem(sourceItem.getTile().copy(game));
+                bi.setOwner(copyPlayer(sourceItem.getOwner()));
+                bi.setCurrentBidder(copyPlayer(sourceItem.getCurrentBidder()));
+                bi.setCurrentPrice(sourceItem.getCurrentPrice());
+                bazaarSupply.add(bi);
+                if (bazaarCap.currentBazaarAuction == sourceItem) {
+                    currentBazaarAuction = bi;
+                }
+            }
+        }
+        bazaarTileSelectingPlayer = copyPlayer(bazaarCap.bazaarTileSelectingPlayer);
+        bazaarBiddingPlayer = copyPlayer(bazaarCap.bazaarBiddingPlayer);
+    }
+
     public ArrayList<BazaarItem> getBazaarSupply() {
         return bazaarSupply;
     }
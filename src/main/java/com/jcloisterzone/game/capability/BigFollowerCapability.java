@@ -11,6 +11,11 @@ public class BigFollowerCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initPlayer(Player player) {
         player.addMeeple(new BigFollower(game, null, player));
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,8 @@ import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.BridgeEvent;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -204,6 +207,7 @@ public class BridgeCapability extends Capability {
         }
         bridgeUsed = true;
         tile.placeBridge(loc);
+        getBoard().refreshAdjacentAvailMoves(pos);
         BridgeEvent ev = new BridgeEvent(BridgeEvent.DEPLOY, game.getActivePlayer(), pos, loc);
         ev.setForced(forced);
         game.post(ev);
@@ -213,6 +217,7 @@ public class BridgeCapability extends Capability {
         Tile tile = getBoard().get(pos);
         bridgeUsed = false;
         tile.removeBridge(loc);
+        getBoard().refreshAdjacentAvailMoves(pos);
     }
 
 
@@ -225,6 +230,13 @@ public class BridgeCapability extends Capability {
         }
     }
 
+    @Override
+    public void copyTileFrom(Tile sourceTile, Tile tile) {
+        if (sourceTile.getBridge() != null) {
+            tile.placeBridge(sourceTile.getBridge().getRawLocation());
+        }
+    }
+
     @Override
     public void loadTileFromSnapshot(Tile tile, Element tileNode) {
         if (tileNode.hasAttribute("bridge")) {
@@ -233,6 +245,27 @@ public class BridgeCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveTileToBinary(Tile tile, BinarySnapshotOutput out) throws IOException {
+        out.writeLocation(tile.getBridge() == null ? null : tile.getBridge().getRawLocation());
+    }
+
+    @Override
+    public void loadTileFromBinary(Tile tile, BinarySnapshotInput in) throws IOException {
+        Location loc = in.readLocation();
+        if (loc != null) {
+            //raw location is not rotated, tile is already rotated here
+            tile.placeBridge(loc.rotateCW(tile.getRotation()));
+        }
+    }
+
+    @Override
+    public void copyFrom(Capability source) {
+        BridgeCapability bridgeCap = (BridgeCapability) source;
+        bridgeUsed = bridgeCap.bridgeUsed;
+        copyPlayerMap(bridgeCap.bridges, bridges);
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         node.setAttribute("bridgeUsed", bridgeUsed + "");
@@ -255,5 +288,21 @@ public class BridgeCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(bridgeUsed);
+        for (Player player: game.getAllPlayers()) {
+            out.writeVarInt(getPlayerBridges(player));
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        bridgeUsed = in.readBoolean();
+        for (Player player: game.getAllPlayers()) {
+            bridges.put(player, in.readVarInt());
+        }
+    }
+
 
 }
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -17,6 +18,8 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.figure.Builder;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -93,6 +96,11 @@ public class BuilderCapability extends Capability {
         }
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        builderState = ((BuilderCapability) source).builderState;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         node.setAttribute("builderState", builderState.name());
@@ -103,4 +111,14 @@ public class BuilderCapability extends Capability {
         builderState = BuilderState.valueOf(node.getAttribute("builderState"));
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeString(builderState.name());
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        builderState = BuilderState.valueOf(in.readString());
+    }
+
 }
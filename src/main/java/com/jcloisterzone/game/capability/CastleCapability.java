@@ -1,8 +1,11 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -28,6 +31,8 @@ import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
 import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -168,8 +173,8 @@ public class CastleCapability extends Capability {
     private Castle convertCityToCastle(Position pos, Location loc, boolean loadFromSnaphot) {
         Castle castle1 = replaceCityWithCastle(getBoard().get(pos), loc);
         Castle castle2 = replaceCityWithCastle(getBoard().get(pos.add(loc)), loc.rev());
-        castle1.getEdges()[0] = castle2;
-        castle2.getEdges()[0] = castle1;
+        castle1.setSecondFeature(castle2);
+        castle2.setSecondFeature(castle1);
         if (!loadFromSnaphot) {
             newCastles.add(castle1.getMaster());
         }
@@ -212,6 +217,14 @@ public class CastleCapability extends Capability {
     }
 
 
+    /** returns master features of all castles on board */
+    public List<Castle> getDeployedCastles() {
+        List<Castle> deployed = new ArrayList<>(newCastles);
+        deployed.addAll(scoreableCastleVicinity.keySet());
+        deployed.addAll(emptyCastles);
+        return deployed;
+    }
+
     public int getPlayerCastles(Player pl) {
         return castles.get(pl);
     }
@@ -232,6 +245,32 @@ public class CastleCapability extends Capability {
         return el;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        CastleCapability castleCap = (CastleCapability) source;
+        copyPlayerMap(castleCap.castles, castles);
+        castlePlayer = copyPlayer(castleCap.castlePlayer);
+        if (castleCap.currentTileCastleBases != null) {
+            currentTileCastleBases = new HashMap<>();
+            for (Entry<Player, Set<Location>> entry : castleCap.currentTileCastleBases.entrySet()) {
+                currentTileCastleBases.put(copyPlayer(entry.getKey()), new HashSet<>(entry.getValue()));
+            }
+        }
+        for (Entry<Castle, Position[]> entry : castleCap.scoreableCastleVicinity.entrySet()) {
+            scoreableCastleVicinity.put(copyCastle(entry.getKey()), entry.getValue());
+        }
+        for (Castle castle : castleCap.newCastles) {
+            newCastles.add(copyCastle(castle));
+        }
+        for (Castle castle : castleCap.emptyCastles) {
+            emptyCastles.add(copyCastle(castle));
+        }
+    }
+
+    private Castle copyCastle(Castle sourceCastle) {
+        return convertCityToCastle(sourceCastle.getTile().getPosition(), sourceCastle.getLocation(), true);
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         for (Player player: game.getAllPlayers()) {
@@ -285,4 +324,47 @@ public class CastleCapability extends Capability {
         }
     }
 
+    private void writeCastles(BinarySnapshotOutput out, Collection<Castle> castles) throws IOException {
+        out.writeVarInt(castles.size());
+        for (Castle castle : castles) {
+            out.writePosition(castle.getTile().getPosition());
+            out.writeLocation(castle.getLocation());
+        }
+    }
+
+    private Castle readCastle(BinarySnapshotInput in) throws IOException {
+        Position pos = in.readPosition();
+        return convertCityToCastle(pos, in.readLocation(), true);
+    }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            out.writeVarInt(getPlayerCastles(player));
+        }
+        writeCastles(out, scoreableCastleVicinity.keySet());
+        writeCastles(out, newCastles);
+        writeCastles(out, emptyCastles);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            castles.put(player, in.readVarInt());
+        }
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Castle castle = readCastle(in);
+            scoreableCastleVicinity.put(castle, castle.getVicinity());
+        }
+        count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            newCastles.add(readCastle(in));
+        }
+        count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            emptyCastles.add(readCastle(in));
+        }
+    }
+
 }
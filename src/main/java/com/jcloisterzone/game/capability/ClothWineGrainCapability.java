@@ -1,7 +1,9 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -18,6 +20,8 @@ import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.score.ScoringStrategy;
 import com.jcloisterzone.feature.visitor.score.CityScoreContext;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -107,6 +111,14 @@ public class ClothWineGrainCapability extends Capability {
     }
 
 
+    @Override
+    public void copyFrom(Capability source) {
+        tradeResources.clear();
+        for (Entry<Player, int[]> entry : ((ClothWineGrainCapability) source).tradeResources.entrySet()) {
+            tradeResources.put(copyPlayer(entry.getKey()), entry.getValue().clone());
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         for (Player player: game.getAllPlayers()) {
@@ -130,4 +142,22 @@ public class ClothWineGrainCapability extends Capability {
             addTradeResources(player, TradeResource.CLOTH, Integer.parseInt(playerEl.getAttribute("cloth")));
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            out.writeVarInt(getTradeResources(player, TradeResource.GRAIN));
+            out.writeVarInt(getTradeResources(player, TradeResource.WINE));
+            out.writeVarInt(getTradeResources(player, TradeResource.CLOTH));
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            addTradeResources(player, TradeResource.GRAIN, in.readVarInt());
+            addTradeResources(player, TradeResource.WINE, in.readVarInt());
+            addTradeResources(player, TradeResource.CLOTH, in.readVarInt());
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -10,6 +12,8 @@ import com.jcloisterzone.feature.City;
 import com.jcloisterzone.feature.Farm;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -70,6 +74,13 @@ public class CornCircleCapability extends Capability {
         this.cornCircleOption = cornCircleOption;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        CornCircleCapability cornCircleCap = (CornCircleCapability) source;
+        cornCirclePlayer = copyPlayer(cornCircleCap.cornCirclePlayer);
+        cornCircleOption = cornCircleCap.cornCircleOption;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (cornCircleOption != null) {
@@ -90,4 +101,19 @@ public class CornCircleCapability extends Capability {
             cornCirclePlayer = player;
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeString(cornCircleOption == null ? null : cornCircleOption.name());
+        out.writePlayer(cornCirclePlayer);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        String option = in.readString();
+        if (option != null) {
+            cornCircleOption = CornCicleOption.valueOf(option);
+        }
+        cornCirclePlayer = in.readPlayer(game);
+    }
 }
@@ -13,6 +13,11 @@ public class CountCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     public static boolean isTileForbidden(Tile tile) {
         String id = tile.getId();
         for (String forbidden : FORBIDDEN_TILES) {
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -17,6 +18,8 @@ import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.neutral.Dragon;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -145,6 +148,17 @@ public class DragonCapability extends Capability {
 
 
 
+    @Override
+    public void copyFrom(Capability source) {
+        DragonCapability dragonCap = (DragonCapability) source;
+        if (dragonCap.dragon.isDeployed()) {
+            dragon.deploy(dragonCap.dragon.getPosition());
+        }
+        dragonMovesLeft = dragonCap.dragonMovesLeft;
+        dragonPlayer = copyPlayer(dragonCap.dragonPlayer);
+        dragonVisitedTiles = dragonCap.dragonVisitedTiles == null ? null : new HashSet<>(dragonCap.dragonVisitedTiles);
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (dragon.isDeployed()) {
@@ -183,5 +197,40 @@ public class DragonCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(dragon.isDeployed());
+        if (dragon.isDeployed()) {
+            out.writePosition(dragon.getPosition());
+            out.writeVarInt(dragonMovesLeft);
+            if (dragonMovesLeft > 0) {
+                out.writePlayer(dragonPlayer);
+                out.writeVarInt(dragonVisitedTiles == null ? 0 : dragonVisitedTiles.size());
+                if (dragonVisitedTiles != null) {
+                    for (Position visited : dragonVisitedTiles) {
+                        out.writePosition(visited);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        if (in.readBoolean()) {
+            dragon.deploy(in.readPosition());
+            int moves = in.readVarInt();
+            if (moves > 0) {
+                dragonMovesLeft = moves;
+                dragonPlayer = in.readPlayer(game);
+                dragonVisitedTiles = new HashSet<>();
+                int count = in.readVarInt();
+                for (int i = 0; i < count; i++) {
+                    dragonVisitedTiles.add(in.readPosition());
+                }
+            }
+        }
+    }
+
 
 }
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +25,8 @@ import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.neutral.Fairy;
 import com.jcloisterzone.figure.predicate.MeeplePredicates;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.CustomRule;
 import com.jcloisterzone.game.Game;
@@ -124,6 +127,19 @@ public class FairyCapability extends Capability {
         }
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        Fairy sourceFairy = ((FairyCapability) source).fairy;
+        if (sourceFairy.isDeployed()) {
+            FeaturePointer fp = sourceFairy.getFeaturePointer();
+            if (sourceFairy.getNextTo() != null) {
+                fairy.deploy(new MeeplePointer(fp.getPosition(), fp.getLocation(), sourceFairy.getNextTo().getId()));
+            } else {
+                fairy.deploy(fp.getPosition());
+            }
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (fairy.isDeployed()) {
@@ -151,4 +167,26 @@ public class FairyCapability extends Capability {
             }
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(fairy.isDeployed());
+        if (fairy.isDeployed()) {
+            out.writeFeaturePointer(fairy.getFeaturePointer());
+            out.writeString(fairy.getNextTo() == null ? null : fairy.getNextTo().getId());
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        if (in.readBoolean()) {
+            FeaturePointer fp = in.readFeaturePointer();
+            String nextTo = in.readString();
+            if (nextTo != null) {
+                fairy.deploy(new MeeplePointer(fp.getPosition(), fp.getLocation(), nextTo));
+            } else {
+                fairy.deploy(fp.getPosition());
+            }
+        }
+    }
 }
@@ -26,6 +26,11 @@ public class FestivalCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initTile(Tile tile, Element xml) {
         if (xml.getElementsByTagName("festival").getLength() > 0) {
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +21,8 @@ import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.visitor.IsCompleted;
 import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.SnapshotCorruptedException;
@@ -156,6 +159,14 @@ public class FlierCapability extends Capability {
         this.flierUsed = flierUsed;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        FlierCapability flierCap = (FlierCapability) source;
+        flierDistance = flierCap.flierDistance;
+        meepleType = flierCap.meepleType;
+        flierUsed = flierCap.flierUsed;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (flierUsed) {
@@ -179,4 +190,24 @@ public class FlierCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(flierUsed);
+        out.writeVarInt(flierDistance);
+        if (flierDistance > 0) {
+            out.writeString(meepleType.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        flierUsed = in.readBoolean();
+        int distance = in.readVarInt();
+        if (distance > 0) {
+            flierDistance = distance;
+            meepleType = (Class<? extends Meeple>) XMLUtils.classForName(in.readString());
+        }
+    }
+
 }
@@ -18,6 +18,11 @@ public class GermanMonasteriesCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initFeature(Tile tile, Feature feature, Element xml) {
         if (feature instanceof Cloister) {
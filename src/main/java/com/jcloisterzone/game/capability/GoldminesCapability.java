@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -27,6 +28,8 @@ import com.jcloisterzone.feature.Castle;
 import com.jcloisterzone.feature.score.ScoringStrategy;
 import com.jcloisterzone.feature.visitor.score.CloisterScoreContext;
 import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -80,6 +83,10 @@ public class GoldminesCapability  extends Capability {
         return curr;
     }
 
+    public Map<Position, Integer> getBoardGold() {
+        return boardGold;
+    }
+
     public void setGoldCount(Position pos, int count) {
         if (count == 0) {
             boardGold.remove(pos);
@@ -88,6 +95,23 @@ public class GoldminesCapability  extends Capability {
         }
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        GoldminesCapability goldCap = (GoldminesCapability) source;
+        for (Entry<Position, Integer> entry : goldCap.boardGold.entrySet()) {
+            boardGold.put(entry.getKey(), entry.getValue());
+            game.post(new GoldChangeEvent(null, entry.getKey(), 0, entry.getValue()));
+        }
+        copyPlayerMap(goldCap.playerGold, playerGold);
+        for (Entry<Position, Set<Player>> entry : goldCap.claimedGold.entrySet()) {
+            Set<Player> players = new HashSet<>();
+            for (Player player : entry.getValue()) {
+                players.add(copyPlayer(player));
+            }
+            claimedGold.put(entry.getKey(), players);
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         for (Entry<Position, Integer> entry : boardGold.entrySet()) {
@@ -123,6 +147,32 @@ public class GoldminesCapability  extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeVarInt(boardGold.size());
+        for (Entry<Position, Integer> entry : boardGold.entrySet()) {
+            out.writePosition(entry.getKey());
+            out.writeVarInt(entry.getValue());
+        }
+        for (Player player: game.getAllPlayers()) {
+            out.writeVarInt(playerGold.get(player));
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Position pos = in.readPosition();
+            int gold = in.readVarInt();
+            boardGold.put(pos, gold);
+            game.post(new GoldChangeEvent(null, pos, 0, gold));
+        }
+        for (Player player: game.getAllPlayers()) {
+            playerGold.put(player, in.readVarInt());
+        }
+    }
+
     @Override
     public void scoreCompleted(CompletableScoreContext ctx) {
         if (ctx.getMajorOwners().isEmpty()) return;
@@ -16,6 +16,11 @@ public class InnCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initFeature(Tile tile, Feature feature, Element xml) {
         if (feature instanceof Road) {
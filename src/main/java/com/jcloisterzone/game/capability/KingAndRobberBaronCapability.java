@@ -1,5 +1,7 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -14,6 +16,8 @@ import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.score.ScoringStrategy;
 import com.jcloisterzone.feature.visitor.score.CompletableScoreContext;
 import com.jcloisterzone.feature.visitor.score.PositionCollectingScoreContext;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.SnapshotCorruptedException;
@@ -131,6 +135,17 @@ public final class KingAndRobberBaronCapability extends Capability {
 
 
 
+    @Override
+    public void copyFrom(Capability source) {
+        KingAndRobberBaronCapability kingCap = (KingAndRobberBaronCapability) source;
+        king = copyPlayer(kingCap.king);
+        robberBaron = copyPlayer(kingCap.robberBaron);
+        completedCities = kingCap.completedCities;
+        biggestCitySize = kingCap.biggestCitySize;
+        completedRoads = kingCap.completedRoads;
+        longestRoadLength = kingCap.longestRoadLength;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (king != null) {
@@ -159,6 +174,26 @@ public final class KingAndRobberBaronCapability extends Capability {
         longestRoadLength = Integer.parseInt(node.getAttribute("longestRoadLength"));
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writePlayer(king);
+        out.writePlayer(robberBaron);
+        out.writeVarInt(completedCities);
+        out.writeVarInt(biggestCitySize);
+        out.writeVarInt(completedRoads);
+        out.writeVarInt(longestRoadLength);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        king = in.readPlayer(game);
+        robberBaron = in.readPlayer(game);
+        completedCities = in.readVarInt();
+        biggestCitySize = in.readVarInt();
+        completedRoads = in.readVarInt();
+        longestRoadLength = in.readVarInt();
+    }
+
 
 }
 
@@ -1,5 +1,7 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,12 +13,15 @@ import org.w3c.dom.NodeList;
 
 import com.jcloisterzone.LittleBuilding;
 import com.jcloisterzone.Player;
+import com.jcloisterzone.XMLUtils;
 import com.jcloisterzone.action.LittleBuildingAction;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.LittleBuildingEvent;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -88,6 +93,10 @@ public class LittleBuildingsCapability extends Capability {
     	return placedBuildings.get(pos);
     }
 
+    public Map<Position, LittleBuilding> getPlacedLittleBuildings() {
+        return Collections.unmodifiableMap(placedBuildings);
+    }
+
     @Override
     public void prepareActions(List<PlayerAction<?>> actions, Set<FeaturePointer> followerOptions) {
         Player player = game.getActivePlayer();
@@ -127,6 +136,33 @@ public class LittleBuildingsCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            for (LittleBuilding lb : LittleBuilding.values()) {
+                out.writeVarInt(getBuildingsCount(player, lb));
+            }
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        for (Player player: game.getAllPlayers()) {
+            for (LittleBuilding lb : LittleBuilding.values()) {
+                setBuildingsCount(player, lb, in.readVarInt());
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(Capability source) {
+        LittleBuildingsCapability lbCap = (LittleBuildingsCapability) source;
+        for (int i = 0; i < buildings.length; i++) {
+            copyPlayerMap(lbCap.buildings[i], buildings[i]);
+        }
+        placedBuildings.putAll(lbCap.placedBuildings);
+    }
+
     @Override
     public void saveTileToSnapshot(Tile tile, Document doc, Element tileNode) {
     	LittleBuilding lb = placedBuildings.get(tile.getPosition());
@@ -139,7 +175,22 @@ public class LittleBuildingsCapability extends Capability {
     public void loadTileFromSnapshot(Tile tile, Element tileNode) {
     	if (tileNode.hasAttribute("littleBuilding")) {
             LittleBuilding lb =  LittleBuilding.valueOf(tileNode.getAttribute("littleBuilding"));
-            placedBuildings.put(tile.getPosition(), lb);
+            //tile is loaded before it is placed, position is read from snapshot
+            placedBuildings.put(XMLUtils.extractPosition(tileNode), lb);
+        }
+    }
+
+    @Override
+    public void saveTileToBinary(Tile tile, BinarySnapshotOutput out) throws IOException {
+        LittleBuilding lb = placedBuildings.get(tile.getPosition());
+        out.writeString(lb == null ? null : lb.name());
+    }
+
+    @Override
+    public void loadTileFromBinary(Tile tile, BinarySnapshotInput in) throws IOException {
+        String lb = in.readString();
+        if (lb != null) {
+            placedBuildings.put(tile.getPosition(), LittleBuilding.valueOf(lb));
         }
     }
 }
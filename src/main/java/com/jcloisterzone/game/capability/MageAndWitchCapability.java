@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -23,6 +24,8 @@ import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.visitor.FeatureVisitor;
 import com.jcloisterzone.figure.neutral.Mage;
 import com.jcloisterzone.figure.neutral.Witch;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -157,6 +160,17 @@ public class MageAndWitchCapability extends Capability {
         witch.setFeaturePointer((FeaturePointer) a[1]);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        MageAndWitchCapability mageWitchCap = (MageAndWitchCapability) source;
+        if (mageWitchCap.mage.isDeployed()) {
+            mage.deploy(mageWitchCap.mage.getFeaturePointer());
+        }
+        if (mageWitchCap.witch.isDeployed()) {
+            witch.deploy(mageWitchCap.witch.getFeaturePointer());
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (mage.isDeployed()) {
@@ -186,4 +200,26 @@ public class MageAndWitchCapability extends Capability {
             witch.deploy(fp);
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(mage.isDeployed());
+        if (mage.isDeployed()) {
+            out.writeFeaturePointer(mage.getFeaturePointer());
+        }
+        out.writeBoolean(witch.isDeployed());
+        if (witch.isDeployed()) {
+            out.writeFeaturePointer(witch.getFeaturePointer());
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        if (in.readBoolean()) {
+            mage.deploy(in.readFeaturePointer());
+        }
+        if (in.readBoolean()) {
+            witch.deploy(in.readFeaturePointer());
+        }
+    }
 }
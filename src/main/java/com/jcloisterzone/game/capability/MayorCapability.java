@@ -21,6 +21,11 @@ public class MayorCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initPlayer(Player player) {
         player.addMeeple(new Mayor(game, null, player));
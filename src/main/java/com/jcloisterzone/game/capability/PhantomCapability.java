@@ -17,6 +17,11 @@ public class PhantomCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initPlayer(Player player) {
         player.addMeeple(new Phantom(game, null, player));
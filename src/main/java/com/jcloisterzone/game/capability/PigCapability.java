@@ -21,6 +21,11 @@ public class PigCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initPlayer(Player player) {
         player.addMeeple(new Pig(game, player));
@@ -21,6 +21,11 @@ public class PlagueCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Object backup() {
         throw new UnsupportedOperationException();
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.Set;
 
 import org.w3c.dom.Document;
@@ -12,6 +13,8 @@ import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.MeepleEvent;
 import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.SnapshotCorruptedException;
@@ -83,6 +86,11 @@ public class PortalCapability extends Capability {
         this.portalUsed = portalUsed;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        portalUsed = ((PortalCapability) source).portalUsed;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (portalUsed) {
@@ -96,4 +104,14 @@ public class PortalCapability extends Capability {
             portalUsed = true;
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(portalUsed);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        portalUsed = in.readBoolean();
+    }
 }
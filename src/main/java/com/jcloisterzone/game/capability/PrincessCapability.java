@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -17,6 +18,8 @@ import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.visitor.IsOccupied;
 import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.SnapshotCorruptedException;
@@ -80,6 +83,11 @@ public class PrincessCapability extends Capability {
         this.princessUsed = princessUsed;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        princessUsed = ((PrincessCapability) source).princessUsed;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         if (princessUsed) {
@@ -93,4 +101,14 @@ public class PrincessCapability extends Capability {
             princessUsed = true;
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(princessUsed);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        princessUsed = in.readBoolean();
+    }
 }
@@ -35,6 +35,11 @@ public class RiverCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initTile(Tile tile, Element xml) {
         NodeList nl;
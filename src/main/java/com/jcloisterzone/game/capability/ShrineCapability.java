@@ -22,6 +22,11 @@ public final class ShrineCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initFeature(Tile tile, Feature feature, Element xml) {
         if (feature instanceof Cloister) {
@@ -20,6 +20,11 @@ public final class SiegeCapability extends Capability {
         super(game);
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        //capability has no state
+    }
+
     @Override
     public void initFeature(Tile tile, Feature feature, Element xml) {
         if (feature instanceof City && attributeBoolValue(xml, "besieged")) {
@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,6 +34,8 @@ import com.jcloisterzone.figure.Follower;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.SmallFollower;
 import com.jcloisterzone.figure.predicate.MeeplePredicates;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -257,6 +260,29 @@ public final class TowerCapability extends Capability {
         lastIncreasedTower = null;
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        TowerCapability towerCap = (TowerCapability) source;
+        ransomPaidThisTurn = towerCap.ransomPaidThisTurn;
+        lastIncreasedTower = towerCap.lastIncreasedTower;
+        for (Position towerPos : towerCap.towers) {
+            Tower tower = getBoard().get(towerPos).getTower();
+            tower.setHeight(towerCap.getBoard().get(towerPos).getTower().getHeight());
+            towers.add(towerPos);
+            if (tower.getHeight() > 0) {
+                game.post(new TowerIncreasedEvent(null, towerPos, tower.getHeight()));
+            }
+        }
+        copyPlayerMap(towerCap.towerPieces, towerPieces);
+        for (Entry<Player, List<Follower>> entry : towerCap.prisoners.entrySet()) {
+            Player player = copyPlayer(entry.getKey());
+            for (Follower follower : entry.getValue()) {
+                Meeple m = copyPlayer(follower.getPlayer()).getMeepleFromSupply(follower.getClass());
+                inprison((Follower) m, player);
+            }
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         node.setAttribute("ransomPaid", ransomPaidThisTurn + "");
@@ -320,4 +346,55 @@ public final class TowerCapability extends Capability {
             }
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(ransomPaidThisTurn);
+        out.writeBoolean(lastIncreasedTower != null);
+        if (lastIncreasedTower != null) {
+            out.writePosition(lastIncreasedTower);
+        }
+        out.writeVarInt(towers.size());
+        for (Position towerPos : towers) {
+            out.writePosition(towerPos);
+            out.writeVarInt(getBoard().get(towerPos).getTower().getHeight());
+        }
+        for (Player player: game.getAllPlayers()) {
+            out.writeVarInt(getTowerPieces(player));
+            List<Follower> playerPrisoners = prisoners.get(player);
+            out.writeVarInt(playerPrisoners.size());
+            for (Follower follower : playerPrisoners) {
+                out.writeVarInt(follower.getPlayer().getIndex());
+                out.writeString(follower.getClass().getName());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        ransomPaidThisTurn = in.readBoolean();
+        if (in.readBoolean()) {
+            lastIncreasedTower = in.readPosition();
+        }
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Position towerPos = in.readPosition();
+            Tower tower = getBoard().get(towerPos).getTower();
+            tower.setHeight(in.readVarInt());
+            towers.add(towerPos);
+            if (tower.getHeight() > 0) {
+                game.post(new TowerIncreasedEvent(null, towerPos, tower.getHeight()));
+            }
+        }
+        for (Player player: game.getAllPlayers()) {
+            towerPieces.put(player, in.readVarInt());
+            int prisonerCount = in.readVarInt();
+            for (int i = 0; i < prisonerCount; i++) {
+                Player owner = game.getPlayer(in.readVarInt());
+                Class<? extends Meeple> meepleClass = (Class<? extends Meeple>) XMLUtils.classForName(in.readString());
+                inprison((Follower) owner.getMeepleFromSupply(meepleClass), player);
+            }
+        }
+    }
 }
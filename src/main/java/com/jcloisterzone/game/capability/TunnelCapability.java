@@ -1,10 +1,13 @@
 package com.jcloisterzone.game.capability;
 
 import java.awt.Color;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.w3c.dom.Document;
@@ -16,11 +19,14 @@ import com.jcloisterzone.XMLUtils;
 import com.jcloisterzone.action.PlayerAction;
 import com.jcloisterzone.action.TunnelAction;
 import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.TunnelPiecePlacedEvent;
 import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.PlayerSlot;
@@ -38,6 +44,7 @@ public final class TunnelCapability extends Capability {
 
     public TunnelCapability(Game game) {
         super(game);
+        if (Client.getInstance() == null) return; //headless game (AI self-play, tests), tunnel colors aren't used
         for (PlayerSlot slot : game.getPlayerSlots()) {
             if (!slot.isOccupied()) continue;
             int slotNumber = (slot.getNumber() + 2) % PlayerSlot.COUNT;
@@ -87,6 +94,63 @@ public final class TunnelCapability extends Capability {
         }
     }
 
+    @Override
+    public void initCopiedFeature(Tile tile, Feature feature) {
+        initFeature(tile, feature, null);
+    }
+
+    /**
+     * Copied game creates board tiles before tile pack ones, so tunnel ends are reordered to
+     * source order first. Tunnel pieces are then connected in the same order as in source game.
+     */
+    @Override
+    public void copyFrom(Capability source) {
+        List<Road> unmatched = new ArrayList<>(tunnels);
+        Map<Road, Integer> placedEnds = new LinkedHashMap<>();
+        tunnels.clear();
+        for (Road sourceRoad : ((TunnelCapability) source).tunnels) {
+            Road road = null;
+            if (sourceRoad.getTile().getPosition() != null) {
+                road = (Road) getBoard().get(new FeaturePointer(sourceRoad));
+            } else {
+                for (Road r : unmatched) {
+                    if (r.getTile().getPosition() == null && r.getTile().getId().equals(sourceRoad.getTile().getId())
+                            && r.getRawLocation() == sourceRoad.getRawLocation()) {
+                        road = r;
+                        break;
+                    }
+                }
+            }
+            if (road != null && unmatched.remove(road)) {
+                tunnels.add(road);
+                if (sourceRoad.getTunnelEnd() != Road.OPEN_TUNNEL) {
+                    placedEnds.put(road, sourceRoad.getTunnelEnd());
+                }
+            }
+        }
+        tunnels.addAll(unmatched);
+
+        TunnelCapability tunnelCap = (TunnelCapability) source;
+        if (tunnelCap.placedTunnelCurrentTurn != null) {
+            placedTunnelCurrentTurn = (Road) getBoard().get(new FeaturePointer(tunnelCap.placedTunnelCurrentTurn));
+        }
+        copyPlayerMap(tunnelCap.tunnelTokensA, tunnelTokensA);
+        copyPlayerMap(tunnelCap.tunnelTokensB, tunnelTokensB);
+        for (Entry<Road, Integer> entry : placedEnds.entrySet()) {
+            Road road = entry.getKey();
+            int connectionId = entry.getValue();
+            for (Road r : tunnels) {
+                if (r.getTunnelEnd() == connectionId) {
+                    r.setTunnelEdge(road);
+                    road.setTunnelEdge(r);
+                    break;
+                }
+            }
+            road.setTunnelEnd(connectionId);
+            game.post(new TunnelPiecePlacedEvent(game.getPlayer(connectionId % 100), new FeaturePointer(road), connectionId > 100));
+        }
+    }
+
     public List<Road> getOpenTunnels() {
         List<Road> openTunnels = new ArrayList<>();
         for (Road road : tunnels) {
@@ -211,4 +275,43 @@ public final class TunnelCapability extends Capability {
         }
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeBoolean(placedTunnelCurrentTurn != null);
+        if (placedTunnelCurrentTurn != null) {
+            out.writePosition(placedTunnelCurrentTurn.getTile().getPosition());
+            out.writeLocation(placedTunnelCurrentTurn.getLocation());
+        }
+        List<Road> placed = new ArrayList<>();
+        for (Road tunnel : tunnels) {
+            if (tunnel.getTile().getPosition() != null && tunnel.getTunnelEnd() != Road.OPEN_TUNNEL) {
+                placed.add(tunnel);
+            }
+        }
+        out.writeVarInt(placed.size());
+        for (Road tunnel : placed) {
+            out.writeFeaturePointer(new FeaturePointer(tunnel));
+            out.writeVarInt(tunnel.getTunnelEnd());
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        if (in.readBoolean()) {
+            Position pos = in.readPosition();
+            placedTunnelCurrentTurn = (Road) getBoard().get(pos).getFeature(in.readLocation());
+        }
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            FeaturePointer fp = in.readFeaturePointer();
+            int tunnelEnd = in.readVarInt();
+            Road road = (Road) getBoard().get(fp);
+            if (!road.isTunnelEnd()) {
+                logger.error("Tunnel end does not exist.");
+                continue;
+            }
+            placeTunnelPiece(road, game.getPlayer(tunnelEnd % 100), fp, tunnelEnd > 100);
+        }
+    }
+
 }
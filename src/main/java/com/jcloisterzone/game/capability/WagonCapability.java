@@ -1,5 +1,6 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +27,8 @@ import com.jcloisterzone.feature.Feature;
 import com.jcloisterzone.feature.Road;
 import com.jcloisterzone.feature.TileFeature;
 import com.jcloisterzone.figure.Wagon;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 
@@ -133,6 +136,14 @@ public class WagonCapability extends Capability {
     }
 
 
+    @Override
+    public void copyFrom(Capability source) {
+        for (Entry<Player, Feature> entry : ((WagonCapability) source).scoredWagons.entrySet()) {
+            Feature feature = entry.getValue();
+            scoredWagons.put(copyPlayer(entry.getKey()), getBoard().get(feature.getTile().getPosition()).getFeature(feature.getLocation()));
+        }
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         for (Entry<Player, Feature> rv : scoredWagons.entrySet()) {
@@ -156,4 +167,24 @@ public class WagonCapability extends Capability {
             scoredWagons.put(player, getBoard().get(pos).getFeature(loc));
         }
     }
+
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeVarInt(scoredWagons.size());
+        for (Entry<Player, Feature> rv : scoredWagons.entrySet()) {
+            out.writeVarInt(rv.getKey().getIndex());
+            out.writePosition(rv.getValue().getTile().getPosition());
+            out.writeLocation(rv.getValue().getLocation());
+        }
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Player player = game.getPlayer(in.readVarInt());
+            Position pos = in.readPosition();
+            scoredWagons.put(player, getBoard().get(pos).getFeature(in.readLocation()));
+        }
+    }
 }
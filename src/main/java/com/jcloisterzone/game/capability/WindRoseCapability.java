@@ -1,5 +1,7 @@
 package com.jcloisterzone.game.capability;
 
+import java.io.IOException;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -13,6 +15,8 @@ import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.event.Event;
 import com.jcloisterzone.event.ScoreEvent;
 import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.BinarySnapshotOutput;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.SnapshotCorruptedException;
@@ -43,7 +47,8 @@ public class WindRoseCapability extends Capability {
         if (rose == Location.NWSE) {
             roseRotation = tile.getRotation();
             rosePosition = tile.getPosition();
-        } else {
+        } else if (ev.getTriggeringPlayer() != null) {
+            //tiles of loaded or copied game are placed without player, their points are already counted
             rose = rose.rotateCW(roseRotation);
             if (isInProperQuadrant(rose, tile.getPosition())) {
                 Player p = game.getActivePlayer();
@@ -89,6 +94,13 @@ public class WindRoseCapability extends Capability {
         throw new IllegalArgumentException("Wrong rose argument");
     }
 
+    @Override
+    public void copyFrom(Capability source) {
+        WindRoseCapability windRoseCap = (WindRoseCapability) source;
+        rosePosition = windRoseCap.rosePosition;
+        roseRotation = windRoseCap.roseRotation;
+    }
+
     @Override
     public void saveToSnapshot(Document doc, Element node) {
         node.setAttribute("rotation", roseRotation.name());
@@ -101,4 +113,16 @@ public class WindRoseCapability extends Capability {
         rosePosition = XMLUtils.extractPosition(node);
     }
 
+    @Override
+    public void saveToBinary(BinarySnapshotOutput out) throws IOException {
+        out.writeString(roseRotation.name());
+        out.writePosition(rosePosition);
+    }
+
+    @Override
+    public void loadFromBinary(BinarySnapshotInput in) throws IOException {
+        roseRotation = Rotation.valueOf(in.readString());
+        rosePosition = in.readPosition();
+    }
+
 }
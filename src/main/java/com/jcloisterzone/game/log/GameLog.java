@@ -0,0 +1,188 @@
+package com.jcloisterzone.game.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.RmiCodec;
+import com.jcloisterzone.wsio.RmiCodec.Call;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Event sourced record of running game. Log holds all replayable messages (RMI calls, commits, undo)
+ * as they were broadcast by server, index of first message of each turn and periodic checkpoints.
+ * <p>
+ * RMI calls, which are most of the log, are stored as binary call data of {@link RmiCodec} (few bytes each),
+ * other messages as UTF-8 encoded JSON. JSON payload of any entry is restored on demand.
+ * <p>
+ * Turn is one tile placement - turn starts when drawn tile waits for placement.
+ * Checkpoint is binary snapshot of game taken on turn start, so game state in any turn can be
+ * restored by loading nearest preceding checkpoint and replaying only messages after it.
+ *
+ * @see GameLogPlayer#seek(GameLog, int, com.jcloisterzone.config.Config)
+ */
+public class GameLog {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10;
+
+    public static class Checkpoint {
+
+        private final int turn;
+        private final int entryIndex;
+        private final byte[] snapshot;
+
+        public Checkpoint(int turn, int entryIndex, byte[] snapshot) {
+            this.turn = turn;
+            this.entryIndex = entryIndex;
+            this.snapshot = snapshot;
+        }
+
+        public int getTurn() {
+            return turn;
+        }
+
+        /** number of log entries applied to game when checkpoint was taken */
+        public int getEntryIndex() {
+            return entryIndex;
+        }
+
+        /** binary snapshot data */
+        public byte[] getData() {
+            return snapshot;
+        }
+
+        public Snapshot getSnapshot() {
+            try {
+                return new BinarySnapshotCodec().read(new ByteArrayInputStream(snapshot));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final byte JSON_ENTRY = 0;
+    private static final byte RMI_ENTRY = 1;
+
+    private final String gameId;
+    private final MessageParser parser = new MessageParser();
+    /** entry type byte followed by data */
+    private final List<byte[]> entries = new ArrayList<>();
+    private final List<Integer> turnStarts = new ArrayList<>();
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    public GameLog(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /** checkpoint is taken every <code>checkpointInterval</code> turns */
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Appends message with its JSON payload.
+     * @return index of added entry
+     */
+    public synchronized int addEntry(WsMessage msg, String payload) {
+        byte[] data;
+        if (msg instanceof RmiMessage) {
+            byte[] call = ((RmiMessage) msg).decodeCall();
+            data = new byte[call.length + 1];
+            data[0] = RMI_ENTRY;
+            System.arraycopy(call, 0, data, 1, call.length);
+        } else {
+            byte[] json = payload.getBytes(StandardCharsets.UTF_8);
+            data = new byte[json.length + 1];
+            data[0] = JSON_ENTRY;
+            System.arraycopy(json, 0, data, 1, json.length);
+        }
+        entries.add(data);
+        return entries.size() - 1;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** returns logged message, without parsing JSON for RMI calls */
+    public synchronized WsMessage getMessage(int index) {
+        byte[] data = entries.get(index);
+        if (data[0] == RMI_ENTRY) {
+            Call call = RmiCodec.decode(Arrays.copyOfRange(data, 1, data.length));
+            return new RmiMessage(gameId, call.getMethod(), call.getArgs());
+        }
+        return parser.fromJson(getEntry(index));
+    }
+
+    /** returns JSON payload of entry as it was broadcast */
+    public synchronized String getEntry(int index) {
+        byte[] data = entries.get(index);
+        if (data[0] == RMI_ENTRY) {
+            return parser.toJson(getMessage(index));
+        }
+        return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+    }
+
+    /** returns JSON payloads of entries from given index to end of log */
+    public synchronized String[] getEntries(int from) {
+        String[] result = new String[entries.size() - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getEntry(from + i);
+        }
+        return result;
+    }
+
+    /** marks given entry index as start of next turn */
+    synchronized int startTurn(int entryIndex) {
+        turnStarts.add(entryIndex);
+        return turnStarts.size() - 1;
+    }
+
+    /** number of turns started so far */
+    public synchronized int getTurnCount() {
+        return turnStarts.size();
+    }
+
+    /** index of first entry of given turn */
+    public synchronized int getTurnStart(int turn) {
+        return turnStarts.get(turn);
+    }
+
+    synchronized void addCheckpoint(Checkpoint checkpoint) {
+        checkpoints.add(checkpoint);
+    }
+
+    public synchronized List<Checkpoint> getCheckpoints() {
+        return new ArrayList<>(checkpoints);
+    }
+
+    /** returns nearest checkpoint taken on or before given turn, or <code>null</code> if there is no such */
+    public synchronized Checkpoint getCheckpoint(int turn) {
+        Checkpoint result = null;
+        for (Checkpoint cp : checkpoints) {
+            if (cp.getTurn() > turn) break;
+            result = cp;
+        }
+        return result;
+    }
+
+    public synchronized Checkpoint getLastCheckpoint() {
+        return checkpoints.isEmpty() ? null : checkpoints.get(checkpoints.size() - 1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.jcloisterzone.game.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog.Checkpoint;
+import com.jcloisterzone.game.phase.BinaryLoadGamePhase;
+import com.jcloisterzone.game.phase.CreateGamePhase;
+import com.jcloisterzone.game.phase.LoadGamePhase;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.ui.HeadlessGameController;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Headless game replica which applies game log messages the same way as client applies messages
+ * received from server. All players are remote, so replica never acts itself.
+ */
+public class GameLogPlayer {
+
+    private final Game game;
+    private final HeadlessGameController gc;
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+
+    private Tile turnTile;
+    private int turn = -1;
+
+    /**
+     * Starts replica of new game (<code>snapshot</code> is <code>null</code>) or of loaded game.
+     * Game must be prepared same way as on clients - same id or snapshot seed, expansions and rules.
+     */
+    public GameLogPlayer(Game game, PlayerSlot[] slots, Snapshot snapshot, Config config) {
+        this.game = game;
+        gc = new HeadlessGameController(game, config);
+        CreateGamePhase phase;
+        if (snapshot == null) {
+            phase = new CreateGamePhase(game, gc);
+        } else {
+            phase = new LoadGamePhase(game, snapshot, gc);
+        }
+        start(phase, slots);
+    }
+
+    /**
+     * Starts replica of game loaded from binary checkpoint. Game is created by
+     * {@link BinarySnapshotCodec#readGame(BinarySnapshotInput, String)} and rest of checkpoint is read from <code>in</code>.
+     */
+    public GameLogPlayer(Game game, BinarySnapshotInput in, Config config) {
+        this.game = game;
+        gc = new HeadlessGameController(game, config);
+        start(new BinaryLoadGamePhase(game, in, gc), new PlayerSlot[0]);
+    }
+
+    private void start(CreateGamePhase phase, PlayerSlot[] slots) {
+        game.getPhases().put(phase.getClass(), phase);
+        game.setPhase(phase);
+        phase.setSlots(slots);
+        phase.startGame(true);
+        phaseLoop();
+        updateTurn();
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /** number of turns started on replica, -1 when replica is not in the first turn yet */
+    public int getTurn() {
+        return turn;
+    }
+
+    private void phaseLoop() {
+        Phase phase = game.getPhase();
+        while (phase != null && !phase.isEntered()) {
+            phase.setEntered(true);
+            phase.enter();
+            phase = game.getPhase();
+            game.flushEventQueue();
+        }
+        game.flushEventQueue();
+    }
+
+    private boolean updateTurn() {
+        Phase phase = game.getPhase();
+        //undo can return game to tile phase with same tile, it's still the same turn
+        if (phase instanceof TilePhase && phase.isEntered() && game.getCurrentTile() != turnTile) {
+            turnTile = game.getCurrentTile();
+            turn++;
+            return true;
+        }
+        return false;
+    }
+
+    private void invokeRmi(RmiMessage msg) {
+        try {
+            msg.decode().invoke(game.getPhase());
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Applies logged message and enters following phases.
+     * @return <code>true</code> if new turn started
+     */
+    public boolean apply(WsMessage msg) {
+        if (msg instanceof RmiMessage) {
+            invokeRmi((RmiMessage) msg);
+        } else if (msg instanceof UndoMessage) {
+            game.undo();
+        } else {
+            //commit and flier messages
+            dispatcher.dispatch(msg, gc.getConnection(), game.getPhase());
+        }
+        phaseLoop();
+        return updateTurn();
+    }
+
+    /**
+     * Restores game on start of given turn. Nearest preceding checkpoint is loaded and only
+     * messages logged after it are replayed.
+     */
+    public static Game seek(GameLog log, int turn, Config config) {
+        if (turn < 0 || turn >= log.getTurnCount()) {
+            throw new IllegalArgumentException("Turn " + turn + " is not logged.");
+        }
+        Checkpoint checkpoint = log.getCheckpoint(turn);
+        if (checkpoint == null) {
+            throw new IllegalStateException("No checkpoint precedes turn " + turn + ".");
+        }
+        GameLogPlayer player;
+        try {
+            BinarySnapshotCodec codec = new BinarySnapshotCodec();
+            BinarySnapshotInput in = codec.open(new ByteArrayInputStream(checkpoint.getData()));
+            player = new GameLogPlayer(codec.readGame(in, log.getGameId()), in, config);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int end = log.getTurnStart(turn);
+        for (int i = checkpoint.getEntryIndex(); i < end; i++) {
+            player.apply(log.getMessage(i));
+        }
+        return player.getGame();
+    }
+}
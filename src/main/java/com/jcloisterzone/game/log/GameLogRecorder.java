@@ -0,0 +1,175 @@
+package com.jcloisterzone.game.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog.Checkpoint;
+import com.jcloisterzone.wsio.MessageParser;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Appends messages to game log and optionally keeps game replica to track turns and take checkpoints.
+ * <p>
+ * Replica is run by given executor, recording itself only appends message to log. Executor must run
+ * tasks one at time in submission order. If replica fails, recording continues without checkpoints,
+ * log is still complete for full replay.
+ * <p>
+ * Optionally recorder keeps snapshot of current turn start too. Then game can be restored in any moment
+ * by loading that snapshot and replaying only messages of current turn.
+ */
+public class GameLogRecorder {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final GameLog log;
+    private final MessageParser parser = new MessageParser();
+    private final Executor replicaExecutor;
+    /** accessed only by replica executor */
+    private GameLogPlayer player;
+    private volatile boolean replicaFailed;
+    private boolean trackTurnState;
+    private Checkpoint turnState;
+
+    /** records log only, without replica log has no turns and no checkpoints */
+    public GameLogRecorder(GameLog log) {
+        this.log = log;
+        this.replicaExecutor = null;
+    }
+
+    /**
+     * Records log and keeps replica on calling thread.
+     * @see GameLogPlayer#GameLogPlayer(Game, PlayerSlot[], Snapshot, Config)
+     */
+    public GameLogRecorder(GameLog log, Game game, PlayerSlot[] slots, Snapshot snapshot, Config config) {
+        this(log, game, slots, snapshot, config, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Records log and keeps replica on given serial executor. Replica is created by executor too.
+     * @see GameLogPlayer#GameLogPlayer(Game, PlayerSlot[], Snapshot, Config)
+     */
+    public GameLogRecorder(GameLog log, final Game game, final PlayerSlot[] slots, final Snapshot snapshot,
+            final Config config, Executor replicaExecutor) {
+        this.log = log;
+        this.replicaExecutor = replicaExecutor;
+        replicaExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    player = new GameLogPlayer(game, slots, snapshot, config);
+                    if (player.getTurn() == 0) {
+                        turnStarted(0);
+                    }
+                } catch (Exception e) {
+                    replicaFailed(e);
+                }
+            }
+        });
+    }
+
+    public GameLog getLog() {
+        return log;
+    }
+
+    public boolean isTrackTurnState() {
+        return trackTurnState;
+    }
+
+    /** takes snapshot on every turn start, not only on checkpoints */
+    public synchronized void setTrackTurnState(boolean trackTurnState) {
+        this.trackTurnState = trackTurnState;
+    }
+
+    /**
+     * Returns snapshot taken on start of current turn, or latest checkpoint if turn state is not tracked
+     * or wasn't taken yet. Returns <code>null</code> if there is no replica or it failed.
+     * <p>
+     * Waits until replica applies all recorded messages.
+     */
+    public Checkpoint getTurnState() {
+        if (replicaExecutor == null) return null;
+        FutureTask<Void> sync = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, null);
+        replicaExecutor.execute(sync);
+        try {
+            sync.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        synchronized (this) {
+            if (replicaFailed) return null;
+            return turnState == null ? log.getLastCheckpoint() : turnState;
+        }
+    }
+
+    public void record(WsMessage msg) {
+        record(msg, parser.toJson(msg));
+    }
+
+    /** records message with already serialized payload, replica gets messages in the same order as log */
+    public synchronized void record(final WsMessage msg, String payload) {
+        final int index = log.addEntry(msg, payload);
+        if (replicaExecutor == null || replicaFailed) return;
+        replicaExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (player == null) return;
+                try {
+                    if (player.apply(msg)) {
+                        turnStarted(index + 1);
+                    }
+                } catch (Exception e) {
+                    replicaFailed(e);
+                }
+            }
+        });
+    }
+
+    private void turnStarted(int entryIndex) throws IOException {
+        int turn = log.startTurn(entryIndex);
+        boolean isCheckpoint = turn % log.getCheckpointInterval() == 0;
+        boolean track;
+        synchronized (this) {
+            track = trackTurnState;
+        }
+        if (isCheckpoint || track) {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            new BinarySnapshotCodec().write(player.getGame(), os);
+            Checkpoint checkpoint = new Checkpoint(turn, entryIndex, os.toByteArray());
+            if (isCheckpoint) {
+                log.addCheckpoint(checkpoint);
+            }
+            if (track) {
+                synchronized (this) {
+                    turnState = checkpoint;
+                }
+            }
+        }
+    }
+
+    private void replicaFailed(Exception e) {
+        logger.warn("Game replica failed, game log checkpoints are disabled.", e);
+        player = null;
+        synchronized (this) {
+            replicaFailed = true;
+            turnState = null;
+        }
+    }
+}
@@ -60,6 +60,20 @@ public class BazaarPhase extends ServerAwarePhase {
 
     @Override
     public void loadGame(Snapshot snapshot) {
+        resumeBazaar();
+    }
+
+    @Override
+    public void loadCopiedGame(Game source) {
+        resumeBazaar();
+    }
+
+    @Override
+    public void loadBinaryGame() {
+        resumeBazaar();
+    }
+
+    private void resumeBazaar() {
         setEntered(true); //avoid call enter on load phase to this phase switch
         Player selecting = bazaarCap.getBazaarTileSelectingPlayer();
         if (selecting != null) {
@@ -0,0 +1,173 @@
+package com.jcloisterzone.game.phase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.XMLUtils;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.board.LoadGameTilePackFactory;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.board.TileGroupState;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.event.BridgeEvent;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.BinarySnapshotInput;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.SnapshotCorruptedException;
+import com.jcloisterzone.ui.GameController;
+
+/**
+ * Builds game directly from binary snapshot. Counterpart of {@link LoadGamePhase} which doesn't
+ * create snapshot document.
+ * <p>
+ * Game settings and players are already read by {@link BinarySnapshotCodec#readGame(BinarySnapshotInput, String)},
+ * rest of input is read sequentially as game is prepared.
+ */
+public class BinaryLoadGamePhase extends CreateGamePhase {
+
+    private final BinarySnapshotInput in;
+
+    private String currentTileId;
+    private Position currentTilePosition;
+    private final Map<String, TileGroupState> groups = new LinkedHashMap<>();
+    private final List<Meeple> preplacedMeeples = new ArrayList<>();
+
+    public BinaryLoadGamePhase(Game game, BinarySnapshotInput in, GameController controller) {
+        super(game, controller);
+        this.in = in;
+    }
+
+    @Override
+    protected void preparePlayers() {
+        initializePlayersMeeples();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void preparePhases() {
+        super.preparePhases();
+        try {
+            Class<? extends Phase> active = (Class<? extends Phase>) XMLUtils.classForName(in.readString());
+            setDefaultNext(game.getPhases().get(active));
+        } catch (IOException e) {
+            throw new SnapshotCorruptedException(e);
+        }
+    }
+
+    @Override
+    protected void prepareTilePack() {
+        try {
+            readTiles();
+        } catch (IOException e) {
+            throw new SnapshotCorruptedException(e);
+        }
+    }
+
+    private void readTiles() throws IOException {
+        currentTileId = in.readString();
+        if (currentTileId != null && in.readBoolean()) {
+            currentTilePosition = in.readPosition();
+        }
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            String group = in.readString();
+            groups.put(group, TileGroupState.valueOf(in.readString()));
+        }
+        List<String> discarded = new ArrayList<>();
+        count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            discarded.add(in.readString());
+        }
+
+        LoadGameTilePackFactory tilePackFactory = new LoadGameTilePackFactory();
+        tilePackFactory.setGame(game);
+        tilePackFactory.setConfig(getConfig());
+        tilePackFactory.setExpansions(game.getExpansions());
+        Rotation[] rotations = Rotation.values();
+        count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            String tileId = in.readString();
+            Rotation rot = rotations[in.readVarInt()];
+            Position pos = in.readPosition();
+            tilePackFactory.addPreplacedTile(tileId, pos, rot);
+            int meeples = in.readVarInt();
+            for (int j = 0; j < meeples; j++) {
+                Player player = game.getPlayer(in.readVarInt());
+                Meeple m = getMeeple(player, in.readString());
+                //don't set feature here. Feature must be set after capabilities are loaded
+                m.setFeaturePointer(new FeaturePointer(pos, in.readLocation()));
+                preplacedMeeples.add(m);
+            }
+        }
+        DefaultTilePack tilePack = tilePackFactory.createTilePack();
+        game.setTilePack(tilePack);
+        for (Tile tile : tilePackFactory.getPreplacedTiles()) {
+            game.loadTileFromBinary(tile, in);
+        }
+        for (String tileId : discarded) {
+            game.getBoard().discardTile(tilePack.drawTile(tileId));
+        }
+    }
+
+    @Override
+    protected void preplaceTiles() {
+        for (Tile preplaced : ((DefaultTilePack) getTilePack()).drawPrePlacedActiveTiles()) {
+            game.getBoard().add(preplaced, preplaced.getPosition(), true);
+            game.getBoard().mergeFeatures(preplaced);
+            game.post(new TileEvent(TileEvent.PLACEMENT, null, preplaced, preplaced.getPosition()));
+            if (preplaced.getBridge() != null) {
+                game.post(new BridgeEvent(BridgeEvent.DEPLOY, null, preplaced.getPosition(), preplaced.getBridge().getLocation()));
+            }
+        }
+        try {
+            readCapabilities();
+        } catch (IOException e) {
+            throw new SnapshotCorruptedException(e);
+        }
+        //meeples must be places after capabilites are loaded - when cities replaces castles
+        for (Meeple m : preplacedMeeples) {
+            deployPreplacedMeeple(m);
+        }
+        for (Entry<String, TileGroupState> entry : groups.entrySet()) {
+            getTilePack().setGroupState(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readCapabilities() throws IOException {
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            String capabilityName = "com.jcloisterzone.game.capability." + in.readString() + "Capability";
+            Class<? extends Capability> capabilityClass = (Class<? extends Capability>) XMLUtils.classForName(capabilityName);
+            game.getCapability(capabilityClass).loadFromBinary(in);
+        }
+    }
+
+    @Override
+    public void next() {
+        if (currentTileId == null) {
+            game.setCurrentTile(null);
+        } else if (currentTilePosition != null) {
+            game.setCurrentTile(getBoard().get(currentTilePosition));
+        } else {
+            game.setCurrentTile(getTilePack().drawTile(currentTileId));
+        }
+        //capabilities state is set directly, not by events
+        game.getZobristHash().reset();
+        for (Player player : game.getAllPlayers()) {
+            player.getClock().resetRunning(); //start running clock from now
+        }
+        super.next();
+        getDefaultNext().loadBinaryGame(); //call after super.next() to be able fake entered flag
+    }
+}
@@ -0,0 +1,104 @@
+package com.jcloisterzone.game.phase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jcloisterzone.Player;
+import com.jcloisterzone.board.DefaultTilePack;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.BridgeEvent;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.figure.Meeple;
+import com.jcloisterzone.game.Capability;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.ui.GameController;
+
+/**
+ * Builds game as structural copy of another game. Counterpart of {@link LoadGamePhase}
+ * which doesn't serialize whole game and doesn't parse tile definitions again.
+ */
+public class CopyGamePhase extends CreateGamePhase {
+
+    private final Game source;
+
+    public CopyGamePhase(Game game, Game source, GameController controller) {
+        super(game, controller);
+        this.source = source;
+    }
+
+    @Override
+    protected void prepareCapabilities() {
+        game.getCapabilityClasses().addAll(source.getCapabilityClasses());
+    }
+
+    @Override
+    protected void preparePlayers() {
+        initializePlayersMeeples();
+    }
+
+    @Override
+    protected void preparePhases() {
+        super.preparePhases();
+        Phase active = game.getPhases().get(source.getPhase().getClass());
+        setDefaultNext(active);
+    }
+
+    @Override
+    protected void prepareTilePack() {
+        game.setTilePack(((DefaultTilePack) source.getTilePack()).copy(game));
+        for (Tile discarded : source.getBoard().getDiscardedTiles()) {
+            game.getBoard().discardTile(discarded.copy(game));
+        }
+    }
+
+    @Override
+    protected void preplaceTiles() {
+        for (Tile sourceTile : source.getBoard().getAllTiles()) {
+            Tile tile = sourceTile.copy(game);
+            game.copyTileFrom(sourceTile, tile);
+            tile.setRotation(sourceTile.getRotation());
+            game.getBoard().add(tile, sourceTile.getPosition(), true);
+            game.getBoard().mergeFeatures(tile);
+            game.post(new TileEvent(TileEvent.PLACEMENT, null, tile, tile.getPosition()));
+            if (tile.getBridge() != null) {
+                game.post(new BridgeEvent(BridgeEvent.DEPLOY, null, tile.getPosition(), tile.getBridge().getLocation()));
+            }
+        }
+        Tile sourceCurrent = source.getCurrentTile();
+        if (sourceCurrent != null) {
+            if (sourceCurrent.getPosition() != null) {
+                game.setCurrentTile(game.getBoard().get(sourceCurrent.getPosition()));
+            } else {
+                game.setCurrentTile(sourceCurrent.copy(game));
+            }
+        }
+
+        List<Meeple> deployed = new ArrayList<>();
+        for (Meeple sourceMeeple : source.getDeployedMeeples()) {
+            Meeple m = getMeeple(game.getPlayer(sourceMeeple.getPlayer().getIndex()), sourceMeeple.getId());
+            //don't set feature here. Feature must be set after capabilities are copied to correct replace ref (castles)
+            m.setFeaturePointer(sourceMeeple.getFeaturePointer());
+            deployed.add(m);
+        }
+        for (Capability capability : game.getCapabilities()) {
+            capability.copyFrom(source.getCapability(capability.getClass()));
+        }
+        for (Meeple m : deployed) {
+            deployPreplacedMeeple(m);
+        }
+        for (String group : source.getTilePack().getGroups()) {
+            game.getTilePack().setGroupState(group, source.getTilePack().getGroupState(group));
+        }
+    }
+
+    @Override
+    public void next() {
+        //capabilities state is set directly, not by events
+        game.getZobristHash().reset();
+        for (Player player : game.getAllPlayers()) {
+            player.getClock().resetRunning(); //start running clock from now
+        }
+        super.next();
+        getDefaultNext().loadCopiedGame(source); //call after super.next() to be able fake entered flag
+    }
+}
@@ -208,6 +208,20 @@ public class CornCirclePhase extends ServerAwarePhase {
 
     @Override
     public void loadGame(Snapshot snapshot) {
+        resumeCornCircle();
+    }
+
+    @Override
+    public void loadCopiedGame(Game source) {
+        resumeCornCircle();
+    }
+
+    @Override
+    public void loadBinaryGame() {
+        resumeCornCircle();
+    }
+
+    private void resumeCornCircle() {
         setEntered(true); //avoid call enter on load phase to this phase switch
         if (cornCircleCap.getCornCircleOption() == null) {
             game.post(new CornCircleSelectOptionEvent(game.getActivePlayer(), getTile().getPosition()));
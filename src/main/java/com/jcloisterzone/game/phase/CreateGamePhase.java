@@ -17,11 +17,16 @@ import com.jcloisterzone.board.DefaultTilePack;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.board.TileGroupState;
 import com.jcloisterzone.board.TilePackFactory;
+import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.config.Config.DebugConfig;
 import com.jcloisterzone.event.GameStateChangeEvent;
+import com.jcloisterzone.event.MeepleEvent;
 import com.jcloisterzone.event.PlayerTurnEvent;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.event.setup.SupportedExpansionsChangeEvent;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.figure.Barn;
+import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.figure.SmallFollower;
 import com.jcloisterzone.game.Capability;
 import com.jcloisterzone.game.CustomRule;
@@ -169,6 +174,34 @@ public class CreateGamePhase extends ServerAwarePhase {
         }
     }
 
+    /** returns meeple with given id from all meeples of player */
+    protected Meeple getMeeple(Player player, String meepleId) {
+        for (Meeple m : player.getMeeples()) {
+            if (m.getId().equals(meepleId)) {
+                return m;
+            }
+        }
+        throw new IllegalStateException("Meeple " + meepleId + " doesn't exist.");
+    }
+
+    /**
+     * Puts meeple of loaded or copied game on its feature. Feature must be set after capabilities
+     * are loaded to correct replace ref during merge (eg. castles).
+     */
+    protected void deployPreplacedMeeple(Meeple m) {
+        Tile tile = game.getBoard().get(m.getPosition());
+        Feature f;
+        if (m instanceof Barn) {
+            //special case, barn holds 'corner' location
+            f = tile.getFeaturePartOf(m.getLocation());
+        } else {
+            f = tile.getFeature(m.getLocation());
+        }
+        m.setFeature(f);
+        f.addMeeple(m);
+        game.post(new MeepleEvent(null, m, null, new FeaturePointer(m.getPosition(), m.getLocation())));
+    }
+
     protected void preparePlayers() {
         createPlayers();
         initializePlayersMeeples();
@@ -92,6 +92,17 @@ public class DrawPhase extends ServerAwarePhase {
         nextTile(tile);
     }
 
+    /**
+     * Enters phase with given tile instead of random one. Used by AI to examine possible draws.
+     * @return false if tile pack doesn't contain such tile
+     */
+    public boolean enter(String tileId) {
+        Tile tile = getTilePack().drawTile(tileId);
+        if (tile == null) return false;
+        nextTile(tile);
+        return true;
+    }
+
     private void nextTile(Tile tile) {
         game.setCurrentTile(tile);
         getBoard().refreshAvailablePlacements(tile);
@@ -40,6 +40,7 @@ public class GameOverPhase extends ServerAwarePhase implements ScoreAllCallback,
             //erase position to not affect final scoring
         	//TOOD what about rather check game phase in rating instead this hack
             fairyCap.getFairy().setFeaturePointer(null);
+            game.getZobristHash().reset();
         }
 
         ScoreAllFeatureFinder scoreAll = new ScoreAllFeatureFinder();
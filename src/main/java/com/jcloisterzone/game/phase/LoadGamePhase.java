@@ -6,12 +6,8 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.board.DefaultTilePack;
 import com.jcloisterzone.board.LoadGameTilePackFactory;
 import com.jcloisterzone.board.Tile;
-import com.jcloisterzone.board.pointer.FeaturePointer;
 import com.jcloisterzone.event.BridgeEvent;
-import com.jcloisterzone.event.MeepleEvent;
 import com.jcloisterzone.event.TileEvent;
-import com.jcloisterzone.feature.Feature;
-import com.jcloisterzone.figure.Barn;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.Snapshot;
@@ -68,17 +64,7 @@ public class LoadGamePhase extends CreateGamePhase {
         snapshot.loadCapabilities(game);
         //meeples must be places after capabilites are loaded - when cities replaces castles
         for (Meeple m : tilePackFactory.getPreplacedMeeples()) {
-            Tile tile = game.getBoard().get(m.getPosition());
-            Feature f;
-            if (m instanceof Barn) {
-                //special case, barn holds 'corner' location
-                f = tile.getFeaturePartOf(m.getLocation());
-            } else {
-                f = tile.getFeature(m.getLocation());
-            }
-            m.setFeature(f);
-            f.addMeeple(m);
-            game.post(new MeepleEvent(null, m, null, new FeaturePointer(m.getPosition(), m.getLocation())));
+            deployPreplacedMeeple(m);
         }
         tilePackFactory.activateGroups((DefaultTilePack) game.getTilePack());
     }
@@ -100,6 +86,8 @@ public class LoadGamePhase extends CreateGamePhase {
 
     @Override
     public void next() {
+        //capabilities state is set directly, not by events
+        game.getZobristHash().reset();
         for (Player player : game.getAllPlayers()) {
             player.getClock().resetRunning(); //start running clock from now
         }
@@ -80,6 +80,16 @@ public abstract class Phase implements RmiProxy {
         //do nothing by default
     }
 
+    /** handler called after game is copied from another one if this phase is active */
+    public void loadCopiedGame(Game source) {
+        //do nothing by default
+    }
+
+    /** called on active phase of game loaded from binary snapshot, capabilities and current tile are already set */
+    public void loadBinaryGame() {
+        //do nothing by default
+    }
+
     public boolean isActive() {
         return true;
     }
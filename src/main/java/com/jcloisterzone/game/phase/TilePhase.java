@@ -42,6 +42,20 @@ public class TilePhase extends Phase {
          String tileId = snapshot.getNextTile();
          Tile tile = game.getTilePack().drawTile(tileId);
          game.setCurrentTile(tile);
+         loadTile(tile);
+    }
+
+    @Override
+    public void loadCopiedGame(Game source) {
+        loadTile(game.getCurrentTile());
+    }
+
+    @Override
+    public void loadBinaryGame() {
+        loadTile(game.getCurrentTile());
+    }
+
+    private void loadTile(Tile tile) {
          game.getBoard().refreshAvailablePlacements(tile);
          game.post(new TileEvent(TileEvent.DRAW, getActivePlayer(), tile, null));
     }
@@ -93,7 +93,7 @@ public class GameController extends EventProxyUiController<Game> implements Invo
         if (getConnection() == null) {
             logger.info("Not connected. Message ignored");
         } else {
-            RmiMessage rmi = new RmiMessage(game.getGameId(), method.getName(), args);
+            RmiMessage rmi = new RmiMessage(game.getGameId(), method, args);
             getConnection().send(rmi);
         }
         return null;
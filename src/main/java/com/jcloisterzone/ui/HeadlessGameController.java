@@ -0,0 +1,181 @@
+package com.jcloisterzone.ui;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.log.GameLogRecorder;
+import com.jcloisterzone.wsio.Connection;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.DeployFlierMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * Game controller without user interface and without server.
+ * <p>
+ * Game events are not forwarded to Swing thread. RMI calls and messages which would be sent to server
+ * are queued instead and later executed on the current phase by {@link #pollPending}, the same way
+ * as client executes them when server echoes them back.
+ */
+public class HeadlessGameController extends GameController {
+
+    private final Config config;
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+    private final BlockingQueue<Runnable> pending = new LinkedBlockingQueue<>();
+    private final LoopbackConnection loopback = new LoopbackConnection();
+    private final ExecutorService deferredExecutor = new DeferredExecutor();
+    private GameLogRecorder recorder;
+
+    public HeadlessGameController(Game game, Config config) {
+        super(null, game);
+        this.config = config;
+        game.getEventBus().unregister(getInvokeInSwingUiAdapter());
+        setConnection(loopback);
+    }
+
+    @Override
+    public Config getConfig() {
+        return config;
+    }
+
+    /** records all messages which would be sent to server, including RMI calls */
+    public void setRecorder(GameLogRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (recorder != null) {
+            recorder.record(new RmiMessage(getGame().getGameId(), method, args));
+        }
+        pending.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    method.invoke(getGame().getPhase(), args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Returns next queued call or <code>null</code> if nothing is queued within given timeout.
+     */
+    public Runnable pollPending(long timeout, TimeUnit unit) throws InterruptedException {
+        return pending.poll(timeout, unit);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Returns executor which queues tasks together with RMI calls. AI players using it run their searches
+     * on the calling thread of {@link #pollPending} after all listeners received current events.
+     */
+    public ExecutorService getDeferredExecutor() {
+        return deferredExecutor;
+    }
+
+    class DeferredExecutor extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    class LoopbackConnection implements Connection {
+
+        @Override
+        public void send(final WsMessage msg) {
+            //server stamps time to messages used to update random seed, keep it constant to make games reproducible
+            if (msg instanceof CommitMessage) {
+                ((CommitMessage) msg).setCurrentTime(0);
+            } else if (msg instanceof DeployFlierMessage) {
+                ((DeployFlierMessage) msg).setCurrentTime(0);
+            } else {
+                //clock, game over and other server only messages
+                return;
+            }
+            if (recorder != null) {
+                recorder.record(msg);
+            }
+            pending.add(new Runnable() {
+                @Override
+                public void run() {
+                    dispatcher.dispatch(msg, loopback, getGame().getPhase());
+                }
+            });
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void reconnect(String gameId) {
+        }
+
+        @Override
+        public void stopReconnecting() {
+        }
+
+        @Override
+        public String getSessionId() {
+            return null;
+        }
+
+        @Override
+        public String getNickname() {
+            return null;
+        }
+    }
+}
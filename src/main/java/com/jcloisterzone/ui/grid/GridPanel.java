@@ -6,6 +6,7 @@ import java.awt.Cursor;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -78,6 +79,8 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
     private int offsetX, offsetY;
     private double cx = 0.0, cy = 0.0;
     private MoveCenterAnimation moveAnimation;
+    /** board area (in tile coordinates) being painted, null if whole board is painted */
+    private Rectangle visibleTiles;
 
     private List<GridLayer> layers = new ArrayList<GridLayer>();
     private ErrorMessagePanel errorMsg;
@@ -516,6 +519,8 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
+        visibleTiles = calculateVisibleTiles(g2.getClipBounds());
+
         //paint layers
 
         for (GridLayer layer : layers) {
@@ -531,6 +536,28 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         super.paintChildren(g);
     }
 
+    /**
+     * Converts clip (already in board coordinates, so board rotation is included) to tile rectangle.
+     * One tile margin is added for content overlapping tile bounds (meeples, bridges, tile borders).
+     */
+    private Rectangle calculateVisibleTiles(Rectangle clip) {
+        if (clip == null || tileWidth <= 0 || tileHeight <= 0) return null;
+        int x1 = Math.floorDiv(clip.x, tileWidth) - 1;
+        int y1 = Math.floorDiv(clip.y, tileHeight) - 1;
+        int x2 = Math.floorDiv(clip.x + clip.width, tileWidth) + 1;
+        int y2 = Math.floorDiv(clip.y + clip.height, tileHeight) + 1;
+        return new Rectangle(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+    }
+
+    /** returns board area (in tile coordinates) being painted or null if whole board is painted */
+    public Rectangle getVisibleTiles() {
+        return visibleTiles;
+    }
+
+    public boolean isVisible(Position pos) {
+        return visibleTiles == null || visibleTiles.contains(pos.x, pos.y);
+    }
+
     public BufferedImage takeScreenshot() {
         //calculate size of play board
         Integer screenshotScaleValue = client.getConfig().getScreenshots().getScale();
@@ -560,6 +587,8 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         //TODO is this dangerous if GridPanel is rendered while print screening?
 
         int origWidth = tileWidth;
+        Rectangle origVisibleTiles = visibleTiles;
+        visibleTiles = null;
         updateTileSize(screenshotScale);
         for (GridLayer layer : layers) {
             if (layer.isVisible()) {
@@ -571,6 +600,7 @@ public class GridPanel extends JPanel implements ForwardBackwardListener {
         }
         //set it back
         updateTileSize(origWidth);
+        visibleTiles = origVisibleTiles;
 
         //reset translation
         graphics.translate(-transX, -transY);
@@ -0,0 +1,90 @@
+package com.jcloisterzone.ui.grid;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.jcloisterzone.board.Position;
+
+/**
+ * Layer content indexed by board position, used to paint only content in visible part of board.
+ * <p>
+ * Positions are ordered by rows (see {@link Position#compareTo(Position)}), so each visible row is
+ * single range lookup and content is returned in the same order regardless of visible area.
+ */
+public class PositionIndex<T> {
+
+    private final TreeMap<Position, List<T>> cells = new TreeMap<>();
+    private int size;
+
+    public void add(Position pos, T item) {
+        List<T> items = cells.get(pos);
+        if (items == null) {
+            items = new ArrayList<>(1);
+            cells.put(pos, items);
+        }
+        items.add(item);
+        size++;
+    }
+
+    public boolean remove(Position pos, T item) {
+        List<T> items = cells.get(pos);
+        if (items == null || !items.remove(item)) return false;
+        if (items.isEmpty()) {
+            cells.remove(pos);
+        }
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        cells.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns content on positions inside given rectangle (in tile coordinates) ordered by position.
+     * @param tiles visible tiles, <code>null</code> means whole board
+     */
+    public List<T> query(Rectangle tiles) {
+        return query(tiles, new ArrayList<T>());
+    }
+
+    /**
+     * Fills given buffer with content on positions inside given rectangle (in tile coordinates) ordered by position.
+     * Buffer is cleared first, reusing the same buffer for every painted frame avoids list allocation.
+     * @param tiles visible tiles, <code>null</code> means whole board
+     * @return given buffer
+     */
+    public List<T> query(Rectangle tiles, List<T> result) {
+        result.clear();
+        if (tiles == null || tiles.height > cells.size()) {
+            //sparse content, filtering is cheaper than range lookups
+            for (Entry<Position, List<T>> entry : cells.entrySet()) {
+                if (tiles == null || tiles.contains(entry.getKey().x, entry.getKey().y)) {
+                    result.addAll(entry.getValue());
+                }
+            }
+            return result;
+        }
+        int maxX = tiles.x + tiles.width - 1;
+        for (int y = tiles.y; y < tiles.y + tiles.height; y++) {
+            NavigableMap<Position, List<T>> row = cells.subMap(new Position(tiles.x, y), true, new Position(maxX, y), true);
+            for (List<T> items : row.values()) {
+                result.addAll(items);
+            }
+        }
+        return result;
+    }
+}
@@ -63,6 +63,7 @@ public abstract class AbstractTilePlacementLayer extends AbstractGridLayer imple
 
         g2.setColor(getClient().getTheme().getTilePlacementColor());
         for (Position p : availablePositions) {
+            if (!gridPanel.isVisible(p)) continue;
             if (previewPosition == null || !previewPosition.equals(p)) {
                 int x = getOffsetX(p)+shift, y = getOffsetY(p)+shift;
                 g2.fillRect(x, y, xSize, thickness);
@@ -37,6 +37,7 @@ public class BridgeLayer extends AbstractGridLayer {
         Composite oldComposite = g2.getComposite();
         for (Entry<Position, Location> entry : bridges.entrySet()) {
             Position pos = entry.getKey();
+            if (!gridPanel.isVisible(pos)) continue;
             Location loc = entry.getValue();
             Tile tile = getGame().getBoard().get(pos);
 
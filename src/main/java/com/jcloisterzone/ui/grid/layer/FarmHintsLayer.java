@@ -63,6 +63,7 @@ public class FarmHintsLayer extends AbstractGridLayer {
         }
 
         for (FarmHint fh : hints) {
+            if (!gridPanel.isVisible(fh.position)) continue;
             if (fh.scaledArea == null) {
                 if (scale == null) {
                     fh.scaledArea = fh.area;
@@ -54,6 +54,7 @@ public class GoldLayer extends AbstractGridLayer {
         g2.setColor(FILL_COLOR);
         for (Entry<Position, Integer> entry : placedGold.entrySet()) {
             Position pos = entry.getKey();
+            if (!gridPanel.isVisible(pos)) continue;
             int tx = (int)(size*0.45);
 
             AffineTransform at = getAffineTransformIgnoringRotation(pos);
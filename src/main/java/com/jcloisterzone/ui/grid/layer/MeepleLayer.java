@@ -116,6 +116,7 @@ public class MeepleLayer extends AbstractGridLayer {
     }
 
     private void paintPositionedImage(Graphics2D g, PositionedImage mi, int squareSize) {
+        if (!gridPanel.isVisible(mi.position)) return;
         ImageData i = mi.getScaledImageData(squareSize);
 
         int x = getOffsetX(mi.position) + i.offset.getX();
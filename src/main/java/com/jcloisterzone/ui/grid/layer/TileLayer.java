@@ -1,9 +1,9 @@
 package com.jcloisterzone.ui.grid.layer;
 
 import java.awt.Graphics2D;
-import java.util.Comparator;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.awt.Insets;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.eventbus.Subscribe;
 import com.jcloisterzone.board.Position;
@@ -11,21 +11,16 @@ import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.event.TileEvent;
 import com.jcloisterzone.ui.GameController;
 import com.jcloisterzone.ui.grid.GridPanel;
+import com.jcloisterzone.ui.grid.PositionIndex;
 import com.jcloisterzone.ui.resources.TileImage;
 
 public class TileLayer extends AbstractGridLayer {
 
     //keep own copy of tiles in Swing thread to prevent concurrent modification ex. of tile list on game
-    private SortedSet<Tile> placedTiles = new TreeSet<>(new Comparator<Tile>() {
-        @Override
-        public int compare(Tile o1, Tile o2) {
-        	if (o1.getPosition() == null) {
-        		return o2.getPosition() == null ? 0 : 1;
-        	}
-            return o1.getPosition().compareTo(o2.getPosition());
-
-        }
-    });
+    //indexed by position, only tiles in visible part of board are painted
+    private PositionIndex<Tile> placedTiles = new PositionIndex<>();
+    //query buffer reused for every painted frame (used only by Swing thread)
+    private final List<Tile> visibleTiles = new ArrayList<>();
 
     public TileLayer(GridPanel gridPanel, GameController gc) {
         super(gridPanel, gc);
@@ -35,6 +30,7 @@ public class TileLayer extends AbstractGridLayer {
 
     @Override
     public void paint(Graphics2D g2) {
+        placedTiles.query(gridPanel.getVisibleTiles(), visibleTiles);
         //TODO nice shadow
         if (!getClient().getGridPanel().isLayerVisible(AbstractTilePlacementLayer.class)) {
 
@@ -42,7 +38,7 @@ public class TileLayer extends AbstractGridLayer {
             int xSize = getTileWidth(),
                 ySize = getTileHeight(),
                 thickness = xSize / 11;
-            for (Tile tile : placedTiles) {
+            for (Tile tile : visibleTiles) {
                 Position p = tile.getPosition();
                 if (tile.getPosition() != null) { //threading, tile can be removed
                     int x = getOffsetX(p), y = getOffsetY(p);
@@ -51,10 +47,14 @@ public class TileLayer extends AbstractGridLayer {
             }
         }
 
-        for (Tile tile : placedTiles) {
-            if (tile.getPosition() != null) {
-                TileImage tileImg = rm.getTileImage(tile);
-                g2.drawImage(tileImg.getImage(), getAffineTransform(tileImg, tile.getPosition()), null);
+        int width = getTileWidth(), height = getTileHeight();
+        for (Tile tile : visibleTiles) {
+            Position p = tile.getPosition();
+            if (p != null) { //threading, tile can be removed
+                //pre-scaled for current zoom, painted without resampling
+                TileImage tileImg = rm.getScaledTileImage(tile, tile.getRotation(), width, height);
+                Insets offset = tileImg.getOffset();
+                g2.drawImage(tileImg.getImage(), getOffsetX(p) - offset.left, getOffsetY(p) - offset.top, null);
             }
         }
     }
@@ -62,17 +62,17 @@ public class TileLayer extends AbstractGridLayer {
     @Subscribe
     public void handleTileEvent(TileEvent ev) {
     if (ev.getType() == TileEvent.PLACEMENT) {
-        tilePlaced(ev.getTile());
+        tilePlaced(ev.getTile(), ev.getPosition());
     } else if (ev.getType() == TileEvent.REMOVE) {
-        tileRemoved(ev.getTile());
+        tileRemoved(ev.getTile(), ev.getPosition());
     }
     }
 
-    private void tilePlaced(Tile tile) {
-        placedTiles.add(tile);
+    private void tilePlaced(Tile tile, Position pos) {
+        placedTiles.add(pos, tile);
     }
 
-    private void tileRemoved(Tile tile) {
-        placedTiles.remove(tile);
+    private void tileRemoved(Tile tile, Position pos) {
+        placedTiles.remove(pos, tile);
     }
 }
@@ -33,6 +33,7 @@ public class TowerLayer extends AbstractGridLayer {
     public void paint(Graphics2D g2) {
         g2.setColor(FILL_COLOR);
         for (Entry<Position, Integer> entry : heights.entrySet()) {
+            if (!gridPanel.isVisible(entry.getKey())) continue;
             Tile tile = gridPanel.getTile(entry.getKey());
             Area ra = rm.getMeepleTileArea(tile, getTileWidth(), getTileHeight(), Location.TOWER).getTrackingArea();
             g2.fill(transformArea(ra, entry.getKey()));
@@ -9,20 +9,24 @@ import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
-
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jcloisterzone.Expansion;
 import com.jcloisterzone.XMLUtils;
 import com.jcloisterzone.board.Location;
@@ -51,30 +55,142 @@ import com.jcloisterzone.ui.resources.svg.ThemeGeometry;
 public class ResourcePlugin extends Plugin implements ResourceManager {
 
     public static final int NORMALIZED_SIZE = 1000;
+    /** max number of cached feature area maps */
+    private static final int FEATURE_AREA_CACHE_SIZE = 512;
+
+    /**
+     * Identifies computed feature areas. Geometry is given by tile definition, only bridge
+     * and castle can be added to placed tile. Zoom and bridge placement results in new key.
+     */
+    private static final class FeatureAreaKey {
+        private final String tileId;
+        private final Rotation rotation;
+        private final Location bridge;
+        private final boolean castle;
+        private final int width, height;
+        private final Set<Location> locations;
+
+        FeatureAreaKey(Tile tile, int width, int height, Set<Location> locations) {
+            this.tileId = tile.getId();
+            this.rotation = tile.getRotation();
+            this.bridge = tile.getBridge() == null ? null : tile.getBridge().getLocation();
+            boolean castle = false;
+            for (Feature f : tile.getFeatures()) {
+                if (f instanceof Castle) {
+                    castle = true;
+                    break;
+                }
+            }
+            this.castle = castle;
+            this.width = width;
+            this.height = height;
+            this.locations = new HashSet<>(locations);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = tileId.hashCode();
+            result = 31 * result + rotation.hashCode();
+            result = 31 * result + (bridge == null ? 0 : bridge.hashCode());
+            result = 31 * result + (castle ? 1 : 0);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return 31 * result + locations.hashCode();
+        }
 
-    private static ThemeGeometry defaultGeometry;
-    private ThemeGeometry pluginGeometry;
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof FeatureAreaKey)) return false;
+            FeatureAreaKey other = (FeatureAreaKey) obj;
+            return tileId.equals(other.tileId) && rotation == other.rotation && bridge == other.bridge
+                && castle == other.castle && width == other.width && height == other.height
+                && locations.equals(other.locations);
+        }
+    }
+
+    /**
+     * Geometry is parsed on background threads, so plugins with metadata are available to UI
+     * immediately and geometry of all plugins is parsed in parallel. First use of geometry waits for it.
+     * <p>
+     * Plugin whose geometry can't be parsed is disabled as soon as parsing fails. Its geometry is empty
+     * then, so lookups already in progress fall back to default geometry.
+     */
+    private static final ExecutorService geometryLoader = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        new ThreadFactoryBuilder().setNameFormat("plugin-loader-%d").setDaemon(true).build());
+
+    private static final Future<ThemeGeometry> defaultGeometry = geometryLoader.submit(new Callable<ThemeGeometry>() {
+        @Override
+        public ThemeGeometry call() throws Exception {
+            try {
+                return new ThemeGeometry(ResourcePlugin.class.getClassLoader(), "defaults/tiles", 1.0);
+            } catch (Exception e) {
+                LoggerFactory.getLogger(ThemeGeometry.class).error("Unable to load default geometry", e);
+                return new ThemeGeometry(1.0);
+            }
+        }
+    });
+    private Future<ThemeGeometry> pluginGeometry;
+    private volatile boolean geometryFailed;
     private Insets imageOffset =  new Insets(0, 0, 0, 0);
     private int imageRatioX = 1;
     private int imageRatioY = 1;
 
     private Set<String> supportedExpansions = new HashSet<>(); //expansion codes
 
-    static {
-        try {
-            defaultGeometry = new ThemeGeometry(ResourcePlugin.class.getClassLoader(), "defaults/tiles", 1.0);
-        } catch (IOException | SAXException | ParserConfigurationException e) {
-            LoggerFactory.getLogger(ThemeGeometry.class).error(e.getMessage(), e);
-        }
-    }
+    //Area operations are expensive and areas are requested on each hover over tile
+    private final Map<FeatureAreaKey, Map<Location, FeatureArea>> featureAreaCache =
+        new LinkedHashMap<FeatureAreaKey, Map<Location, FeatureArea>>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Entry<FeatureAreaKey, Map<Location, FeatureArea>> eldest) {
+                return size() > FEATURE_AREA_CACHE_SIZE;
+            }
+        };
 
     public ResourcePlugin(URL url, String relativePath) throws Exception {
         super(url, relativePath);
     }
 
     @Override
-    protected void doLoad() throws IOException, SAXException, ParserConfigurationException {
-        pluginGeometry = new ThemeGeometry(getLoader(), "tiles", getImageSizeRatio());
+    protected void doLoad() {
+        pluginGeometry = geometryLoader.submit(new Callable<ThemeGeometry>() {
+            @Override
+            public ThemeGeometry call() throws Exception {
+                try {
+                    return new ThemeGeometry(getLoader(), "tiles", getImageSizeRatio());
+                } catch (Exception e) {
+                    logger.error("Unable to load plugin " + getRelativePath(), e);
+                    geometryFailed = true;
+                    return new ThemeGeometry(getImageSizeRatio());
+                }
+            }
+        });
+    }
+
+    /** waits until geometry of plugin (and default geometry) is parsed */
+    public void awaitLoaded() {
+        getDefaultGeometry();
+        getPluginGeometry();
+    }
+
+    /** true if plugin geometry can't be parsed, such plugin is disabled */
+    public boolean isGeometryFailed() {
+        return geometryFailed;
+    }
+
+    /** plugin is disabled also when its geometry failed, regardless of whether it was enabled before or after failure */
+    @Override
+    public boolean isEnabled() {
+        return super.isEnabled() && !geometryFailed;
+    }
+
+    private static ThemeGeometry getDefaultGeometry() {
+        return Futures.getUnchecked(defaultGeometry);
+    }
+
+    private ThemeGeometry getPluginGeometry() {
+        return Futures.getUnchecked(pluginGeometry);
     }
 
     @Override
@@ -196,9 +312,9 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
         if (!containsTile(tile.getId())) return null;
         if (type.equals(Barn.class)) return null;
         Feature piece = tile.getFeature(loc);
-        ImmutablePoint point = pluginGeometry.getMeeplePlacement(tile, piece.getClass(), loc);
+        ImmutablePoint point = getPluginGeometry().getMeeplePlacement(tile, piece.getClass(), loc);
         if (point == null) {
-            point = defaultGeometry.getMeeplePlacement(tile, piece.getClass(), piece.getLocation());
+            point = getDefaultGeometry().getMeeplePlacement(tile, piece.getClass(), piece.getLocation());
         }
         if (point == null) {
             logger.warn("No point defined for <" + (new FeatureDescriptor(tile, piece.getClass(), loc)) + ">");
@@ -232,17 +348,17 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
             featureClass = City.class;
         }
         ThemeGeometry source = null;
-        FeatureArea area = pluginGeometry.getArea(tile, featureClass, loc);        
+        FeatureArea area = getPluginGeometry().getArea(tile, featureClass, loc);        
         if (area == null) {
-            area = adaptDefaultGeometry(defaultGeometry.getArea(tile, featureClass, loc));
+            area = adaptDefaultGeometry(getDefaultGeometry().getArea(tile, featureClass, loc));
             if (area == null) {
                 logger.error("No shape defined for <" + (new FeatureDescriptor(tile, featureClass, loc)) + ">");
                 return new FeatureArea(new Area(), 0);
             } else {
-            	source = defaultGeometry;
+            	source = getDefaultGeometry();
             }            
         } else {
-        	source = pluginGeometry;
+        	source = getPluginGeometry();
         }
         
         area = applyRotationScaling(tile, source, area);
@@ -253,8 +369,8 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
     }
 
     private Area getSubstractionArea(Tile tile, boolean farm) {
-        Area d = defaultGeometry.getSubstractionArea(tile, farm),
-             p = pluginGeometry.getSubstractionArea(tile, farm),
+        Area d = getDefaultGeometry().getSubstractionArea(tile, farm),
+             p = getPluginGeometry().getSubstractionArea(tile, farm),
              area = new Area();
 
         if (d != null) {
@@ -281,8 +397,8 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
     }
 
     private boolean isFarmComplement(Tile tile, Location loc) {
-        if (pluginGeometry.isFarmComplement(tile, loc)) return true;
-        if (defaultGeometry.isFarmComplement(tile, loc)) return true;
+        if (getPluginGeometry().isFarmComplement(tile, loc)) return true;
+        if (getDefaultGeometry().isFarmComplement(tile, loc)) return true;
         return false;
     }
     
@@ -305,6 +421,32 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
     public Map<Location, FeatureArea> getFeatureAreas(Tile tile, int width, int height, Set<Location> locations) {
         if (!containsTile(tile.getId())) return null;
 
+        FeatureAreaKey key = new FeatureAreaKey(tile, width, height, locations);
+        Map<Location, FeatureArea> areas;
+        synchronized (featureAreaCache) {
+            areas = featureAreaCache.get(key);
+        }
+        if (areas == null) {
+            areas = computeFeatureAreas(tile, width, height, locations);
+            synchronized (featureAreaCache) {
+                featureAreaCache.put(key, areas);
+            }
+        }
+        //callers are free to modify returned areas
+        Map<Location, FeatureArea> result = new HashMap<>();
+        for (Entry<Location, FeatureArea> entry : areas.entrySet()) {
+            result.put(entry.getKey(), new FeatureArea(entry.getValue()));
+        }
+        return result;
+    }
+
+    public void clearFeatureAreaCache() {
+        synchronized (featureAreaCache) {
+            featureAreaCache.clear();
+        }
+    }
+
+    private Map<Location, FeatureArea> computeFeatureAreas(Tile tile, int width, int height, Set<Location> locations) {
         Map<Location, FeatureArea> areas = new HashMap<>();
         Area subsBridge = getBaseRoadAndCitySubstractions(tile);
         Area subsRoadCity = new Area(subsBridge);
@@ -390,7 +532,7 @@ public class ResourcePlugin extends Plugin implements ResourceManager {
             double ratioY = height / (double)NORMALIZED_SIZE / getImageSizeRatio();
             transform1 = AffineTransform.getScaleInstance(ratioX,ratioY);
         }
-        Area a = pluginGeometry.getBridgeArea(loc).createTransformedArea(transform1);
+        Area a = getPluginGeometry().getBridgeArea(loc).createTransformedArea(transform1);
         return new FeatureArea(a, FeatureArea.DEFAULT_BRIDGE_ZINDEX);
     }
 
@@ -1,24 +1,63 @@
 package com.jcloisterzone.ui.resources;
 
+import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import com.jcloisterzone.board.Location;
 import com.jcloisterzone.board.Rotation;
 import com.jcloisterzone.board.Tile;
 import com.jcloisterzone.figure.Meeple;
 import com.jcloisterzone.ui.ImmutablePoint;
+import com.jcloisterzone.ui.UiUtils;
 
 /** extends resource manager with convenient methods
  * and add tile image caching
  */
 public class ConvenientResourceManager implements ResourceManager {
 
+    /** about 64 MB of source images */
+    public static final long IMAGE_CACHE_PIXELS = 16 * 1024 * 1024;
+    /** about 64 MB of tile images scaled for board */
+    public static final long SPRITE_CACHE_PIXELS = 16 * 1024 * 1024;
+
+    /** key of tile image scaled to given size */
+    private static final class SpriteKey {
+        String tileId;
+        Rotation rot;
+        int width, height;
+
+        SpriteKey set(String tileId, Rotation rot, int width, int height) {
+            this.tileId = tileId;
+            this.rot = rot;
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((tileId.hashCode() * 31 + rot.ordinal()) * 31 + width) * 31 + height;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SpriteKey)) return false;
+            SpriteKey other = (SpriteKey) obj;
+            return width == other.width && height == other.height && rot == other.rot && tileId.equals(other.tileId);
+        }
+    }
+
     private final ResourceManager manager;
-    private final Map<String, Object> imageCache = new WeakHashMap<>(64);
+    private final SpriteCache imageCache = new SpriteCache(IMAGE_CACHE_PIXELS);
+    private final SpriteCache spriteCache = new SpriteCache(SPRITE_CACHE_PIXELS);
+    //lookup key reused for cache hits, guarded by spriteCache lock
+    private final SpriteKey spriteProbe = new SpriteKey();
 
 
     public ConvenientResourceManager(ResourceManager manager) {
@@ -27,6 +66,72 @@ public class ConvenientResourceManager implements ResourceManager {
 
     public void clearCache() {
         imageCache.clear();
+        spriteCache.clear();
+    }
+
+    /** cache of tile images scaled for board, exposed for statistics */
+    public SpriteCache getSpriteCache() {
+        return spriteCache;
+    }
+
+    /**
+     * Returns tile image scaled so its tile area has exactly given size. Image is scaled once
+     * for each zoom level and then can be painted without any transformation.
+     * Offset of returned image is scaled too.
+     */
+    public TileImage getScaledTileImage(Tile tile, Rotation rot, int width, int height) {
+        TileImage img;
+        synchronized (spriteCache) {
+            img = (TileImage) spriteCache.get(spriteProbe.set(tile.getId(), rot, width, height));
+        }
+        if (img == null) {
+            img = scaleTileImage(getTileImage(tile, rot), width, height);
+            spriteCache.put(new SpriteKey().set(tile.getId(), rot, width, height), img);
+        }
+        return img;
+    }
+
+    private TileImage scaleTileImage(TileImage tileImg, int width, int height) {
+        Image src = tileImg.getImage();
+        Insets offset = tileImg.getOffset();
+        int srcWidth = src.getWidth(null), srcHeight = src.getHeight(null);
+        double ratioX = width / (double) (srcWidth - offset.left - offset.right);
+        double ratioY = height / (double) (srcHeight - offset.top - offset.bottom);
+        Insets scaledOffset = new Insets(
+            (int) Math.round(offset.top * ratioY), (int) Math.round(offset.left * ratioX),
+            (int) Math.round(offset.bottom * ratioY), (int) Math.round(offset.right * ratioX)
+        );
+        int w = width + scaledOffset.left + scaledOffset.right;
+        int h = height + scaledOffset.top + scaledOffset.bottom;
+        return new TileImage(drawScaled(src, srcWidth, srcHeight, w, h), scaledOffset);
+    }
+
+    /**
+     * Scales image by drawing through Graphics2D. Large downscale is done in halving steps,
+     * single bilinear pass would skip source pixels and produce aliased sprite.
+     */
+    private BufferedImage drawScaled(Image src, int srcWidth, int srcHeight, int w, int h) {
+        Image img = src;
+        int imgWidth = srcWidth, imgHeight = srcHeight;
+        BufferedImage buf;
+        do {
+            if (imgWidth / 2 >= w && imgHeight / 2 >= h) {
+                imgWidth /= 2;
+                imgHeight /= 2;
+            } else {
+                imgWidth = w;
+                imgHeight = h;
+            }
+            buf = UiUtils.newTransparentImage(imgWidth, imgHeight);
+            Graphics2D g = buf.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(img, 0, 0, imgWidth, imgHeight, null);
+            g.dispose();
+            img = buf;
+        } while (imgWidth != w || imgHeight != h);
+        return buf;
     }
 
     //helper methods
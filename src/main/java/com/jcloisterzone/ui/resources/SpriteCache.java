@@ -0,0 +1,107 @@
+package com.jcloisterzone.ui.resources;
+
+import java.awt.Image;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+/**
+ * Least recently used image cache bounded by total number of pixels.
+ * <p>
+ * Entries are held strongly, so they are not lost at each garbage collection like entries
+ * of weak map keyed by freshly created strings. Values are {@link Image} or {@link TileImage}.
+ */
+public class SpriteCache {
+
+    private final LinkedHashMap<Object, Object> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxPixels;
+    private long pixels;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxPixels max sum of width * height of all cached images
+     */
+    public SpriteCache(long maxPixels) {
+        this.maxPixels = maxPixels;
+    }
+
+    public synchronized Object get(Object key) {
+        Object value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    public synchronized void put(Object key, Object value) {
+        if (value == null) return;
+        Object prev = entries.put(key, value);
+        if (prev != null) {
+            pixels -= getPixels(prev);
+        }
+        pixels += getPixels(value);
+        Iterator<Entry<Object, Object>> iter = entries.entrySet().iterator();
+        //keep at least just inserted entry
+        while (pixels > maxPixels && entries.size() > 1) {
+            Entry<Object, Object> eldest = iter.next();
+            pixels -= getPixels(eldest.getValue());
+            iter.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        pixels = 0;
+    }
+
+    private static long getPixels(Object value) {
+        Image img;
+        if (value instanceof TileImage) {
+            img = ((TileImage) value).getImage();
+        } else if (value instanceof Image) {
+            img = (Image) value;
+        } else {
+            return 1;
+        }
+        if (img == null) return 1;
+        long w = img.getWidth(null), h = img.getHeight(null);
+        return w > 0 && h > 0 ? w * h : 1;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** sum of width * height of cached images */
+    public synchronized long getPixels() {
+        return pixels;
+    }
+
+    public long getMaxPixels() {
+        return maxPixels;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d images, %d/%d px, hits %d misses %d evictions %d",
+            entries.size(), pixels, maxPixels, hits, misses, evictions);
+    }
+}
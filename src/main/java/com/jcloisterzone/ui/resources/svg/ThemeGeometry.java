@@ -6,6 +6,7 @@ import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -72,6 +73,12 @@ public class ThemeGeometry {
         BRIDGE_AREA_WE = a;
     }
 
+    /** empty geometry, all lookups return <code>null</code> */
+    public ThemeGeometry(double imageSizeRatio) {
+        this.imageSizeRatio = imageSizeRatio;
+        this.points = Collections.emptyMap();
+    }
+
     public ThemeGeometry(ClassLoader loader, String folder, double imageSizeRatio) throws IOException, SAXException, ParserConfigurationException {
     	this.imageSizeRatio = imageSizeRatio;
     	
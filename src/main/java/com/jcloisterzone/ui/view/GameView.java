@@ -31,6 +31,7 @@ import com.jcloisterzone.Player;
 import com.jcloisterzone.bugreport.BugReportDialog;
 import com.jcloisterzone.config.Config.DebugConfig;
 import com.jcloisterzone.event.ClientListChangedEvent;
+import com.jcloisterzone.game.BinarySnapshotCodec;
 import com.jcloisterzone.game.Game;
 import com.jcloisterzone.game.Snapshot;
 import com.jcloisterzone.ui.Client;
@@ -435,12 +436,19 @@ public class GameView extends AbstractUiView implements WindowStateListener {
                     file = new File(file.getAbsolutePath() + ".jcz");
                 }
                 try {
-                    Snapshot snapshot = new Snapshot(game);
                     DebugConfig debugConfig = client.getConfig().getDebug();
-                    if (debugConfig != null && "plain".equals(debugConfig.getSave_format())) {
-                        snapshot.setGzipOutput(false);
+                    String saveFormat = debugConfig == null ? null : debugConfig.getSave_format();
+                    if (BinarySnapshotCodec.SAVE_FORMAT.equals(saveFormat)) {
+                        try (FileOutputStream os = new FileOutputStream(file)) {
+                            new BinarySnapshotCodec().write(game, os);
+                        }
+                    } else {
+                        Snapshot snapshot = new Snapshot(game);
+                        if ("plain".equals(saveFormat)) {
+                            snapshot.setGzipOutput(false);
+                        }
+                        snapshot.save(new FileOutputStream(file));
                     }
-                    snapshot.save(new FileOutputStream(file));
                 } catch (IOException | TransformerException ex) {
                     logger.error(ex.getMessage(), ex);
                     JOptionPane.showMessageDialog(client, ex.getLocalizedMessage(), _("Error"), JOptionPane.ERROR_MESSAGE);
@@ -1,56 +1,98 @@
 package com.jcloisterzone.wsio;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jcloisterzone.wsio.message.WsMessage;
 
+/**
+ * Delivers messages to {@link WsSubscribe} annotated methods of targets.
+ * <p>
+ * Handler methods are looked up once per target class. Handlers are kept as method handles
+ * adapted to common <code>(target, context, message)</code> signature, so both one argument
+ * <code>(message)</code> and two arguments <code>(context, message)</code> handlers are invoked same way.
+ */
 public class MessageDispatcher {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
-    public void dispatch(WsMessage msg, Object context, Object... targets) {
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class, WsMessage.class);
+
+    /** target class -> (message class -> handler), shared by all dispatchers */
+    private static final Map<Class<?>, Map<Class<? extends WsMessage>, MethodHandle>> HANDLERS = new ConcurrentHashMap<>();
+
+    /**
+     * Delivers message to all targets subscribed to its class.
+     * @return <code>true</code> if message was handled by any target
+     */
+    public boolean dispatch(WsMessage msg, Object context, Object... targets) {
         if (targets.length == 0) {
             throw new IllegalArgumentException("No targets");
         }
+        boolean handled = false;
         for (Object target : targets) {
-            dispatchOn(msg, context, target);
+            handled |= dispatchOn(msg, context, target);
         }
+        return handled;
     }
 
-    //TODO what about cache targets
     private boolean dispatchOn(WsMessage msg, Object context, Object target) {
-        Class<?> type = target.getClass();
+        MethodHandle handle = getHandlers(target.getClass()).get(msg.getClass());
+        if (handle == null) {
+            return false;
+        }
+        try {
+            handle.invokeExact(target, context, msg);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+        return true;
+    }
+
+    static Map<Class<? extends WsMessage>, MethodHandle> getHandlers(Class<?> type) {
+        Map<Class<? extends WsMessage>, MethodHandle> handlers = HANDLERS.get(type);
+        if (handlers == null) {
+            handlers = createHandlers(type);
+            HANDLERS.put(type, handlers);
+        }
+        return handlers;
+    }
+
+    private static Map<Class<? extends WsMessage>, MethodHandle> createHandlers(Class<?> type) {
+        Map<Class<? extends WsMessage>, MethodHandle> handlers = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         for (Method m : type.getMethods()) {
-            WsSubscribe handler = m.getAnnotation(WsSubscribe.class);
-            if (handler != null) {
-                Class<?> params[] = m.getParameterTypes();
-                @SuppressWarnings("unchecked")
-                Class<? extends WsMessage> cls = (Class<? extends WsMessage>) params[params.length-1];
-                if (cls.equals(msg.getClass())) {
-                    try {
-                        if (params.length == 1) {
-                            m.invoke(target, msg);
-                        } else {
-                            m.invoke(target, context, msg);
-                        }
-                    } catch (InvocationTargetException e) {
-                        if (e.getCause() instanceof RuntimeException) {
-                            throw (RuntimeException) e.getCause();
-                        } else {
-                            logger.error(e.getMessage(), e);
-                        }
-                    } catch (IllegalAccessException e) {
-                        logger.error(e.getMessage(), e);
-                    }
-                    return true;
-                }
+            if (m.getAnnotation(WsSubscribe.class) == null) continue;
+            Class<?> params[] = m.getParameterTypes();
+            @SuppressWarnings("unchecked")
+            Class<? extends WsMessage> cls = (Class<? extends WsMessage>) params[params.length-1];
+            if (handlers.containsKey(cls)) continue; //first found handler wins
+            MethodHandle handle;
+            try {
+                //public method can be declared on non public class
+                m.setAccessible(true);
+                handle = lookup.unreflect(m);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            if (params.length == 1) {
+                //ignore context
+                handle = MethodHandles.dropArguments(handle, 1, Object.class);
             }
+            handlers.put(cls, handle.asType(HANDLER_TYPE));
         }
-        return false;
+        return Collections.unmodifiableMap(handlers);
     }
 
 }
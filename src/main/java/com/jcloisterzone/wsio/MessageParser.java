@@ -1,6 +1,8 @@
 package com.jcloisterzone.wsio;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
@@ -56,8 +58,52 @@ public final class MessageParser {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    /** serialization buffers above this capacity are not kept for reuse */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
     private final Gson gson;
     private final Map<String, Class<? extends WsMessage>> types = new HashMap<>();
+    private final Map<Class<? extends WsMessage>, String> commands = new HashMap<>();
+
+    /** per thread, parser is shared by game threads on server */
+    private final ThreadLocal<BufferWriter> buffer = new ThreadLocal<BufferWriter>() {
+        @Override
+        protected BufferWriter initialValue() {
+            return new BufferWriter();
+        }
+    };
+
+    /**
+     * Unsynchronized writer to reusable buffer. Gson writes plain <code>Appendable</code>
+     * char by char, so it is wrapped to writer.
+     */
+    private static class BufferWriter extends Writer {
+
+        private final StringBuilder sb = new StringBuilder(256);
+
+        @Override
+        public void write(int c) {
+            sb.append((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 
     public static class CustomRulesMapAdapter extends TypeAdapter<Map<CustomRule, Object>> {
 
@@ -149,19 +195,46 @@ public final class MessageParser {
     }
 
     private void registerMsgType(Class<? extends WsMessage> type) {
-        types.put(getCmdName(type), type);
+        String command = getCmdName(type);
+        types.put(command, type);
+        commands.put(type, command);
     }
 
     public WsMessage fromJson(String payload) {
-        String s[] = payload.split(" ", 2); //command, arg
-        Class<? extends WsMessage> type = types.get(s[0]);
+        int sep = payload.indexOf(' '); //command, arg
+        if (sep == -1) {
+            throw new IllegalArgumentException("Invalid message " + payload);
+        }
+        String command = payload.substring(0, sep);
+        Class<? extends WsMessage> type = types.get(command);
         if (type == null) {
-            throw new IllegalArgumentException("Mapping type is not declared for "+s[0]);
+            throw new IllegalArgumentException("Mapping type is not declared for "+command);
         }
-        return gson.fromJson(s[1], type);
+        //read json part in place, without copying it to new string
+        StringReader reader = new StringReader(payload);
+        try {
+            reader.skip(sep + 1);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return gson.fromJson(reader, type);
     }
 
     public String toJson(WsMessage arg) {
-        return getCmdName(arg.getClass()) + " " + gson.toJson(arg);
+        String command = commands.get(arg.getClass());
+        if (command == null) {
+            throw new IllegalArgumentException("Mapping type is not declared for "+arg.getClass().getName());
+        }
+        BufferWriter writer = buffer.get();
+        StringBuilder sb = writer.sb;
+        sb.setLength(0);
+        sb.append(command).append(' ');
+        gson.toJson(arg, arg.getClass(), writer);
+        String result = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_BUFFER) {
+            //don't hold memory after large message (eg. game with replay)
+            buffer.remove();
+        }
+        return result;
     }
 }
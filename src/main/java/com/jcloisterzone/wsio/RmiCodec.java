@@ -0,0 +1,312 @@
+package com.jcloisterzone.wsio;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jcloisterzone.LittleBuilding;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.BoardPointer;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.board.pointer.MeeplePointer;
+import com.jcloisterzone.figure.Barn;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.figure.Builder;
+import com.jcloisterzone.figure.Mayor;
+import com.jcloisterzone.figure.Phantom;
+import com.jcloisterzone.figure.Pig;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.figure.Wagon;
+import com.jcloisterzone.figure.neutral.Dragon;
+import com.jcloisterzone.figure.neutral.Fairy;
+import com.jcloisterzone.figure.neutral.Mage;
+import com.jcloisterzone.figure.neutral.Witch;
+
+/**
+ * Binary encoding of {@link RmiProxy} calls.
+ * <p>
+ * Call is encoded as method id followed by arguments. Arguments are written according to declared
+ * parameter types, so no type information is sent. Integers are varints, positions are zigzag varints,
+ * locations are sent as mask, enums as ordinal and figure classes as index to figure table.
+ * Value 0 is reserved for <code>null</code> where argument can be null.
+ * <p>
+ * Method ids are indexes of methods sorted by name, so any change of {@link RmiProxy} is protocol change.
+ */
+public final class RmiCodec {
+
+    private static final Method[] METHODS;
+    private static final Map<String, Method> METHODS_BY_NAME = new HashMap<>();
+    private static final Map<Method, Integer> METHOD_IDS = new HashMap<>();
+
+    /** figure classes passed as RMI arguments, append only */
+    private static final List<Class<?>> FIGURES = Collections.unmodifiableList(Arrays.<Class<?>>asList(
+        SmallFollower.class, BigFollower.class, Phantom.class, Mayor.class, Wagon.class, Builder.class,
+        Pig.class, Barn.class, Dragon.class, Fairy.class, Mage.class, Witch.class
+    ));
+
+    private static final int BOARD_POINTER_POSITION = 1;
+    private static final int BOARD_POINTER_FEATURE = 2;
+    private static final int BOARD_POINTER_MEEPLE = 3;
+
+    static {
+        List<Method> methods = new ArrayList<>(Arrays.asList(RmiProxy.class.getMethods()));
+        Collections.sort(methods, new Comparator<Method>() {
+            @Override
+            public int compare(Method o1, Method o2) {
+                return o1.toGenericString().compareTo(o2.toGenericString());
+            }
+        });
+        METHODS = methods.toArray(new Method[methods.size()]);
+        for (int i = 0; i < METHODS.length; i++) {
+            Method m = METHODS[i];
+            for (Class<?> type : m.getParameterTypes()) {
+                if (!isSupported(type)) {
+                    throw new IllegalStateException("Unsupported RMI argument " + type.getName() + " of " + m.getName());
+                }
+            }
+            if (METHODS_BY_NAME.put(m.getName(), m) != null) {
+                throw new IllegalStateException("Overloaded RMI method " + m.getName());
+            }
+            METHOD_IDS.put(m, i);
+        }
+    }
+
+    /** decoded RMI call */
+    public static class Call {
+
+        private final Method method;
+        private final Object[] args;
+
+        public Call(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public Object[] getArgs() {
+            return args;
+        }
+
+        public void invoke(RmiProxy target) throws InvocationTargetException, IllegalAccessException {
+            method.invoke(target, args);
+        }
+    }
+
+    private RmiCodec() {
+    }
+
+    public static Method getMethod(String name) {
+        Method m = METHODS_BY_NAME.get(name);
+        if (m == null) {
+            throw new IllegalArgumentException("Unknown RMI method " + name);
+        }
+        return m;
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        return type == boolean.class || type == Integer.class || type == Position.class || type == Location.class
+            || type == Rotation.class || type == LittleBuilding.class || type == FeaturePointer.class
+            || type == MeeplePointer.class || type == BoardPointer.class || type == Class.class;
+    }
+
+    public static byte[] encode(Method method, Object[] args) {
+        Integer id = METHOD_IDS.get(method);
+        if (id == null) {
+            throw new IllegalArgumentException("Not an RMI method " + method);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        writeVarInt(out, id);
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            writeArg(out, types[i], args[i]);
+        }
+        return out.toByteArray();
+    }
+
+    public static Call decode(byte[] data) {
+        int[] offset = new int[1];
+        int id = readVarInt(data, offset);
+        if (id >= METHODS.length) {
+            throw new IllegalArgumentException("Unknown RMI method id " + id);
+        }
+        Method method = METHODS[id];
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = readArg(data, offset, types[i]);
+        }
+        if (offset[0] != data.length) {
+            throw new IllegalArgumentException("Trailing data in RMI call " + method.getName());
+        }
+        return new Call(method, args);
+    }
+
+    private static void writeArg(ByteArrayOutputStream out, Class<?> type, Object value) {
+        if (type == boolean.class) {
+            out.write((Boolean) value ? 1 : 0);
+        } else if (type == Integer.class) {
+            writeVarInt(out, value == null ? 0 : zigzag((Integer) value) + 1);
+        } else if (type == Location.class) {
+            writeLocation(out, (Location) value);
+        } else if (type == Rotation.class || type == LittleBuilding.class) {
+            writeVarInt(out, value == null ? 0 : ((Enum<?>) value).ordinal() + 1);
+        } else if (type == Class.class) {
+            writeVarInt(out, value == null ? 0 : figureId((Class<?>) value) + 1);
+        } else if (value == null) {
+            out.write(0);
+        } else if (type == Position.class) {
+            out.write(1);
+            writePosition(out, (Position) value);
+        } else if (type == FeaturePointer.class) {
+            out.write(1);
+            writeFeaturePointer(out, (FeaturePointer) value);
+        } else if (type == MeeplePointer.class) {
+            out.write(1);
+            writeMeeplePointer(out, (MeeplePointer) value);
+        } else if (value instanceof Position) {
+            out.write(BOARD_POINTER_POSITION);
+            writePosition(out, (Position) value);
+        } else if (value instanceof FeaturePointer) {
+            out.write(BOARD_POINTER_FEATURE);
+            writeFeaturePointer(out, (FeaturePointer) value);
+        } else if (value instanceof MeeplePointer) {
+            out.write(BOARD_POINTER_MEEPLE);
+            writeMeeplePointer(out, (MeeplePointer) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported RMI argument " + value);
+        }
+    }
+
+    private static Object readArg(byte[] data, int[] offset, Class<?> type) {
+        if (type == boolean.class) {
+            return data[offset[0]++] != 0;
+        }
+        int header = readVarInt(data, offset);
+        if (type == Integer.class) {
+            return header == 0 ? null : unzigzag(header - 1);
+        }
+        if (type == Location.class) {
+            return Location.create(header);
+        }
+        if (header == 0) {
+            return null;
+        }
+        if (type == Rotation.class) {
+            return Rotation.values()[header - 1];
+        }
+        if (type == LittleBuilding.class) {
+            return LittleBuilding.values()[header - 1];
+        }
+        if (type == Class.class) {
+            return FIGURES.get(header - 1);
+        }
+        if (type == Position.class) {
+            return readPosition(data, offset);
+        }
+        if (type == FeaturePointer.class) {
+            return readFeaturePointer(data, offset);
+        }
+        if (type == MeeplePointer.class) {
+            return readMeeplePointer(data, offset);
+        }
+        switch (header) {
+        case BOARD_POINTER_POSITION: return readPosition(data, offset);
+        case BOARD_POINTER_FEATURE: return readFeaturePointer(data, offset);
+        case BOARD_POINTER_MEEPLE: return readMeeplePointer(data, offset);
+        }
+        throw new IllegalArgumentException("Invalid board pointer type " + header);
+    }
+
+    private static int figureId(Class<?> cls) {
+        int id = FIGURES.indexOf(cls);
+        if (id == -1) {
+            throw new IllegalArgumentException("Unsupported figure class " + cls.getName());
+        }
+        return id;
+    }
+
+    private static void writeLocation(ByteArrayOutputStream out, Location loc) {
+        writeVarInt(out, loc == null ? 0 : loc.getMask());
+    }
+
+    private static void writePosition(ByteArrayOutputStream out, Position pos) {
+        writeVarInt(out, zigzag(pos.x));
+        writeVarInt(out, zigzag(pos.y));
+    }
+
+    private static Position readPosition(byte[] data, int[] offset) {
+        int x = unzigzag(readVarInt(data, offset));
+        int y = unzigzag(readVarInt(data, offset));
+        return new Position(x, y);
+    }
+
+    private static void writeFeaturePointer(ByteArrayOutputStream out, FeaturePointer fp) {
+        writePosition(out, fp.getPosition());
+        writeLocation(out, fp.getLocation());
+    }
+
+    private static FeaturePointer readFeaturePointer(byte[] data, int[] offset) {
+        Position pos = readPosition(data, offset);
+        return new FeaturePointer(pos, Location.create(readVarInt(data, offset)));
+    }
+
+    private static void writeMeeplePointer(ByteArrayOutputStream out, MeeplePointer mp) {
+        writeFeaturePointer(out, mp.asFeaturePointer());
+        byte[] id = mp.getMeepleId().getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, id.length);
+        out.write(id, 0, id.length);
+    }
+
+    private static MeeplePointer readMeeplePointer(byte[] data, int[] offset) {
+        FeaturePointer fp = readFeaturePointer(data, offset);
+        int length = readVarInt(data, offset);
+        if (offset[0] + length > data.length) {
+            throw new IllegalArgumentException("Truncated RMI call");
+        }
+        String meepleId = new String(data, offset[0], length, StandardCharsets.UTF_8);
+        offset[0] += length;
+        return new MeeplePointer(fp, meepleId);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] data, int[] offset) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (offset[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated RMI call");
+            }
+            int b = data[offset[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in RMI call");
+    }
+}
@@ -1,55 +1,37 @@
 package com.jcloisterzone.wsio.message;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
+import java.lang.reflect.Method;
+import java.util.Base64;
 
+import com.jcloisterzone.wsio.RmiCodec;
+import com.jcloisterzone.wsio.RmiCodec.Call;
 import com.jcloisterzone.wsio.WsMessageCommand;
 
+/**
+ * Call of {@link com.jcloisterzone.wsio.RmiProxy} method. Method and arguments are encoded by {@link RmiCodec}.
+ */
 @WsMessageCommand("RMI")
 public class RmiMessage implements WsInGameMessage {
 
-    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
-
     private String gameId;
-    private String method;
-    private String args; //serialized
+    private String call; //encoded, url safe base64
 
-    public RmiMessage(String gameId, String method, Object[] args) {
+    public RmiMessage(String gameId, Method method, Object[] args) {
         this.gameId = gameId;
-        this.method = method;
-        this.args = encode(args);
+        this.call = encode(method, args);
     }
 
-    public String encode(Object object) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(object);
-            oos.close();
-            return new String(Base64Coder.encode(baos.toByteArray()));
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
-            throw new RuntimeException(e);
-        }
+    public static String encode(Method method, Object[] args) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(RmiCodec.encode(method, args));
     }
 
-    public Object decode(String object) {
-        try {
-            byte[] data = Base64Coder.decode(object);
-            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
-            Object o = ois.readObject();
-            ois.close();
-            return o;
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
-            throw new RuntimeException(e);
-        }
+    public Call decode() {
+        return RmiCodec.decode(decodeCall());
+    }
+
+    /** returns binary call data, see {@link RmiCodec#encode(Method, Object[])} */
+    public byte[] decodeCall() {
+        return Base64.getUrlDecoder().decode(call);
     }
 
     public String getGameId() {
@@ -60,32 +42,23 @@ public class RmiMessage implements WsInGameMessage {
         this.gameId = gameId;
     }
 
-    public String getMethod() {
-        return method;
-    }
-
-    public void setMethod(String method) {
-        this.method = method;
-    }
-
-    public String getArgs() {
-        return args;
+    public String getCall() {
+        return call;
     }
 
-    public void setArgs(String args) {
-        this.args = args;
+    public void setCall(String call) {
+        this.call = call;
     }
 
     @Override
     public String toString() {
+        Call c = decode();
         StringBuilder sb = new StringBuilder();
-        sb.append("RMI {\"gameID\": \"").append(gameId).append("\", \"method\": \"").append(method).append("\"} args=[");
-        Object[] oargs = (Object[]) decode(args);
-        if (oargs != null) {
-            for (int i = 0; i < oargs.length; i++) {
-                if (i > 0) sb.append(", ");
-                sb.append(oargs[i] == null ? null : oargs[i].toString());
-            }
+        sb.append("RMI {\"gameID\": \"").append(gameId).append("\", \"method\": \"").append(c.getMethod().getName()).append("\"} args=[");
+        Object[] oargs = c.getArgs();
+        for (int i = 0; i < oargs.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(oargs[i] == null ? null : oargs[i].toString());
         }
         sb.append("]");
         return sb.toString();
@@ -0,0 +1,160 @@
+package com.jcloisterzone.wsio.server;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.CloseFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of messages waiting for sending to single connection.
+ * <p>
+ * Socket itself buffers written frames without limit, so only few frames are passed to it at once
+ * and rest waits here. Waiting messages can be superseded by newer message with the same key
+ * (like clock state), so slow client gets only latest state. When too many messages are waiting,
+ * client can't keep up with the game and it is disconnected. It can reconnect and get current game state.
+ * <p>
+ * Queue is filled by game threads and drained both by them and by server's drain task, which runs
+ * only while some queue waits for socket buffer.
+ */
+public class OutboundQueue {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private static class Entry {
+        PreparedMessage msg;
+        long enqueued;
+    }
+
+    private final WebSocket ws;
+    private final int maxBuffered;
+    private final int maxQueued;
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    /** frames passed to socket since its buffer was last seen empty */
+    private int inFlight;
+    private boolean overflow;
+
+    private int maxDepth;
+    private long sent;
+    private long superseded;
+    private long totalLatency;
+    private long maxLatency;
+
+    /**
+     * @param maxBuffered max number of frames passed to socket and not written yet
+     * @param maxQueued max number of messages waiting in queue, connection is closed when exceeded
+     */
+    public OutboundQueue(WebSocket ws, int maxBuffered, int maxQueued) {
+        this.ws = ws;
+        this.maxBuffered = maxBuffered;
+        this.maxQueued = maxQueued;
+    }
+
+    public synchronized void offer(PreparedMessage msg) {
+        if (overflow) return;
+        String key = msg.getSupersedeKey();
+        if (key != null) {
+            Iterator<Entry> iter = queue.iterator();
+            while (iter.hasNext()) {
+                if (key.equals(iter.next().msg.getSupersedeKey())) {
+                    //new state must not overtake messages queued before it, it's appended
+                    iter.remove();
+                    superseded++;
+                    break;
+                }
+            }
+        }
+        Entry e = new Entry();
+        e.msg = msg;
+        e.enqueued = System.nanoTime();
+        queue.add(e);
+        if (queue.size() > maxDepth) {
+            maxDepth = queue.size();
+        }
+        drain();
+        if (queue.size() > maxQueued) {
+            overflow = true;
+            logger.warn("Slow connection {}, {} messages waiting, closing.", ws.getRemoteSocketAddress(), queue.size());
+            queue.clear();
+            ws.close(CloseFrame.POLICY_VALIDATION, "Slow consumer");
+        }
+    }
+
+    /** passes waiting messages to socket while it has free buffer */
+    public synchronized void drain() {
+        if (queue.isEmpty() || !ws.isOpen()) return;
+        long now = System.nanoTime();
+        Iterator<Entry> iter = queue.iterator();
+        while (iter.hasNext() && getBuffered() < maxBuffered) {
+            Entry e = iter.next();
+            iter.remove();
+            e.msg.send(ws);
+            inFlight++;
+            long latency = now - e.enqueued;
+            totalLatency += latency;
+            if (latency > maxLatency) {
+                maxLatency = latency;
+            }
+            sent++;
+        }
+    }
+
+    /**
+     * Upper estimate of frames passed to socket but not written to network yet. Socket tells only
+     * if it has any buffered data, so frames are counted since its buffer was last seen empty.
+     */
+    public synchronized int getBuffered() {
+        if (!ws.hasBufferedData()) {
+            inFlight = 0;
+        }
+        return inFlight;
+    }
+
+    public WebSocket getWebSocket() {
+        return ws;
+    }
+
+    /** number of messages waiting in queue */
+    public synchronized int getDepth() {
+        return queue.size();
+    }
+
+    /** max number of messages waiting in queue at once */
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /** number of messages passed to socket */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /** number of messages replaced by newer ones before sending */
+    public synchronized long getSuperseded() {
+        return superseded;
+    }
+
+    /** average time in nanoseconds message spent in queue */
+    public synchronized long getAverageLatency() {
+        return sent == 0 ? 0 : totalLatency / sent;
+    }
+
+    /** max time in nanoseconds message spent in queue */
+    public synchronized long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /** true if connection was closed because of full queue */
+    public synchronized boolean isOverflow() {
+        return overflow;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s queued %d (max %d) buffered %d sent %d superseded %d latency avg %.2f ms max %.2f ms",
+            ws.getRemoteSocketAddress(), queue.size(), maxDepth, getBuffered(), sent, superseded,
+            getAverageLatency() / 1e6, maxLatency / 1e6);
+    }
+}
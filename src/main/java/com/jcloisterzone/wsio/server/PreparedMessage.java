@@ -0,0 +1,62 @@
+package com.jcloisterzone.wsio.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.Framedata.Opcode;
+import org.java_websocket.framing.FramedataImpl1;
+
+/**
+ * Message payload encoded once and sent to many connections.
+ * <p>
+ * <code>WebSocket.send(String)</code> encodes text for each connection again. Frame can't be shared
+ * either, because writing frame consumes its payload buffer, so each connection gets
+ * new frame over its own view of shared encoded payload.
+ */
+public class PreparedMessage {
+
+    private final String payload;
+    private final ByteBuffer data;
+    private final String supersedeKey;
+
+    public PreparedMessage(String payload) {
+        this(payload, null);
+    }
+
+    /**
+     * @param supersedeKey message which is still queued for sending is replaced by newer message with same key,
+     *                     <code>null</code> if message must be always delivered
+     */
+    public PreparedMessage(String payload, String supersedeKey) {
+        this.payload = payload;
+        this.data = ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8));
+        this.supersedeKey = supersedeKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getSupersedeKey() {
+        return supersedeKey;
+    }
+
+    /** creates unmasked frame (as sent by server), each frame can be sent only once */
+    public Framedata createFrame() {
+        FramedataImpl1 frame = new FramedataImpl1(Opcode.TEXT);
+        frame.setFin(true);
+        try {
+            frame.setPayload(data.duplicate());
+        } catch (InvalidDataException e) {
+            throw new IllegalStateException(e);
+        }
+        return frame;
+    }
+
+    public void send(WebSocket ws) {
+        ws.sendFrame(createFrame());
+    }
+}
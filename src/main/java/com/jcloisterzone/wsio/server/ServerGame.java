@@ -0,0 +1,615 @@
+package com.jcloisterzone.wsio.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import javax.xml.transform.TransformerException;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.PlayerClock;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.CustomRule;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.GameSettings;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.game.log.GameLog.Checkpoint;
+import com.jcloisterzone.game.log.GameLogRecorder;
+import com.jcloisterzone.wsio.MessageDispatcher;
+import com.jcloisterzone.wsio.WsSubscribe;
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.ClientUpdateMessage;
+import com.jcloisterzone.wsio.message.ClientUpdateMessage.ClientState;
+import com.jcloisterzone.wsio.message.ClockMessage;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.DeployFlierMessage;
+import com.jcloisterzone.wsio.message.ErrorMessage;
+import com.jcloisterzone.wsio.message.GameMessage;
+import com.jcloisterzone.wsio.message.GameMessage.GameState;
+import com.jcloisterzone.wsio.message.GameOverMessage;
+import com.jcloisterzone.wsio.message.GameSetupMessage;
+import com.jcloisterzone.wsio.message.LeaveSlotMessage;
+import com.jcloisterzone.wsio.message.PostChatMessage;
+import com.jcloisterzone.wsio.message.RmiMessage;
+import com.jcloisterzone.wsio.message.SetExpansionMessage;
+import com.jcloisterzone.wsio.message.SetRuleMessage;
+import com.jcloisterzone.wsio.message.SlotMessage;
+import com.jcloisterzone.wsio.message.StartGameMessage;
+import com.jcloisterzone.wsio.message.TakeSlotMessage;
+import com.jcloisterzone.wsio.message.ToggleClockMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+import com.jcloisterzone.wsio.message.WelcomeMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
+import com.jcloisterzone.wsio.message.WsMessage;
+
+/**
+ * State of single game hosted by {@link SimpleServer}.
+ * <p>
+ * All game state is accessed only from tasks run by game executor, so handlers don't need
+ * any synchronization and different games can be handled in parallel.
+ */
+public class ServerGame {
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SimpleServer server;
+    private final Executor executor;
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+
+    private final GameSettings game;
+    private final ServerPlayerSlot[] slots = new ServerPlayerSlot[PlayerSlot.COUNT];
+    private int slotSerial;
+    private GameLogRecorder recorder;
+    private boolean gameLogReplica;
+    private boolean authoritativeState;
+    /** xml of last sent checkpoint, reused while no newer checkpoint is taken */
+    private Checkpoint sentCheckpoint;
+    private String sentCheckpointXml;
+
+    private final Snapshot snapshot;
+    private final String hostClientId;
+    private boolean gameStarted;
+    private boolean gameOver;
+
+    private long[] clocks;
+    private int runningClock = -1;
+    private long runningSince;
+
+    private final Map<WebSocket, ServerRemoteClient> connections = new HashMap<>();
+
+    private Random random = new Random();
+
+    public ServerGame(SimpleServer server, Executor executor, String gameId, Snapshot snapshot, Game settings, String hostClientId) {
+        this.server = server;
+        this.executor = executor;
+        this.snapshot = snapshot;
+        this.hostClientId = hostClientId;
+        game = new GameSettings(gameId);
+        if (snapshot != null) {
+            game.getExpansions().addAll(snapshot.getExpansions());
+            game.getCustomRules().putAll(snapshot.getCustomRules());
+            loadSlotsFromSnapshot();
+        } else if (settings != null) {
+            game.getExpansions().addAll(settings.getExpansions());
+            game.getCustomRules().putAll(settings.getCustomRules());
+            loadSlotsFromGame(settings);
+        } else {
+            game.getExpansions().add(Expansion.BASIC);
+            game.getCustomRules().putAll(CustomRule.getDefaultRules());
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ServerPlayerSlot(i);
+            }
+        }
+    }
+
+    public String getGameId() {
+        return game.getGameId();
+    }
+
+    public GameSettings getSettings() {
+        return game;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public GameLog getGameLog() {
+        return recorder == null ? null : recorder.getLog();
+    }
+
+    public boolean isGameLogReplica() {
+        return gameLogReplica;
+    }
+
+    /**
+     * Server keeps headless replica of game to track turns and take game log checkpoints.
+     * Joining client then gets latest checkpoint and replays only messages after it.
+     * Replica runs on server replica pool, not on thread which handles game messages.
+     * Without replica joining client replays whole game log. Must be set before game is started.
+     */
+    public void setGameLogReplica(boolean gameLogReplica) {
+        this.gameLogReplica = gameLogReplica;
+    }
+
+    public boolean isAuthoritativeState() {
+        return authoritativeState;
+    }
+
+    /**
+     * Server replica snapshots game on each turn start and joining client gets current turn state
+     * with only messages of current turn, instead of latest checkpoint and all messages after it.
+     * Requires game log replica. Must be set before game is started.
+     */
+    public void setAuthoritativeState(boolean authoritativeState) {
+        this.authoritativeState = authoritativeState;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadSlotsFromGame(Game settings) {
+        //Game is game from client since, so we can use isLocalHuman
+        int maxSerial = 0;
+        for (Player player : settings.getAllPlayers()) {
+            int slotNumber = player.getSlot().getNumber();
+            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
+            slots[slotNumber] = slot;
+            boolean isAi = player.getSlot().isAi();
+            if (player.isLocalHuman() || isAi) {
+                if (isAi) {
+                    String className = player.getSlot().getAiClassName();
+                    try {
+                        EnumSet<Expansion> supported = (EnumSet<Expansion>) Class.forName(className).getMethod("supportedExpansions").invoke(null);
+                        slot.setSupportedExpansions(supported.toArray(new Expansion[supported.size()]));
+                        slot.setAiClassName(className);
+                    } catch (Exception e) {
+                        logger.warn("AI class is not present " + className);
+                        continue;
+                    }
+                }
+                slot.setNickname(player.getNick());
+                slot.setAutoAssignClientId(player.getSlot().getClientId());
+                int serial = player.getSlot().getSerial() == null ? player.getIndex() : player.getSlot().getSerial();
+                maxSerial = Math.max(maxSerial, serial);
+                slot.setSerial(serial);
+            }
+        }
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                slots[i] = new ServerPlayerSlot(i);
+            }
+        }
+        slotSerial = maxSerial + 1;
+    }
+
+    private void loadSlotsFromSnapshot() {
+        List<Player> players = snapshot.getPlayers();
+        for (Player player : players) {
+            int slotNumber = player.getSlot().getNumber();
+            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
+            slot.setNickname(player.getNick());
+            slot.setAiClassName(player.getSlot().getAiClassName());
+            slot.setAutoAssignClientId(player.getSlot().getClientId());
+            slots[slotNumber] = slot;
+        }
+    }
+
+    /** handles message on game executor */
+    public void handle(final WebSocket ws, final WsMessage msg) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dispatcher.dispatch(msg, ws, ServerGame.this);
+                } catch (Exception e) {
+                    server.onError(ws, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds client to the game. Join is refused if game is already started and client is not
+     * one of participants.
+     * @param welcome welcome message to send if join is allowed, <code>null</code> if it was already sent
+     */
+    public void join(final WebSocket ws, final ServerRemoteClient client, final WelcomeMessage welcome) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    doJoin(ws, client, welcome);
+                } catch (Exception e) {
+                    server.onError(ws, e);
+                }
+            }
+        });
+    }
+
+    /** removes client from the game, eg. on connection close */
+    public void leave(final WebSocket ws) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    doLeave(ws);
+                } catch (Exception e) {
+                    server.onError(ws, e);
+                }
+            }
+        });
+    }
+
+    private SlotMessage newSlotMessage(ServerPlayerSlot slot) {
+        SlotMessage msg = new SlotMessage(game.getGameId(), slot.getNumber(), slot.getSerial(), slot.getSessionId(), slot.getClientId(), slot.getNickname());
+        msg.setAiClassName(slot.getAiClassName());
+        msg.setSupportedExpansions(slot.getSupportedExpansions());
+        return msg;
+    }
+
+    private GameMessage newGameMessage(boolean includeReplay) {
+        GameSetupMessage gsm = new GameSetupMessage(game.getGameId(), game.getCustomRules(), game.getExpansions(), game.getCapabilityClasses());
+        GameMessage gm = new GameMessage(game.getGameId(), game.getName() == null ? "" : game.getName(), gameStarted ? GameState.RUNNING : GameState.OPEN, gsm);
+        List<SlotMessage> slotMsgs = new ArrayList<>();
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null) {
+                SlotMessage sm = newSlotMessage(slot);
+                slotMsgs.add(sm);
+            }
+        }
+        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
+        if (snapshot != null) {
+            try {
+                gm.setSnapshot(snapshot.saveToString());
+            } catch (TransformerException | IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (includeReplay) {
+            int replayFrom = 0;
+            Checkpoint checkpoint = authoritativeState ? recorder.getTurnState() : recorder.getLog().getLastCheckpoint();
+            if (checkpoint != null && checkpoint.getEntryIndex() > 0) {
+                //send latest known state instead of initial state, client replays only messages after it
+                try {
+                    if (checkpoint != sentCheckpoint) {
+                        sentCheckpointXml = checkpoint.getSnapshot().saveToString();
+                        sentCheckpoint = checkpoint;
+                    }
+                    gm.setSnapshot(sentCheckpointXml);
+                    replayFrom = checkpoint.getEntryIndex();
+                } catch (TransformerException | IOException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            gm.setReplay(recorder.getLog().getEntries(replayFrom));
+        }
+        return gm;
+    }
+
+    private boolean isParticipant(String clientId, String secret) {
+        for (int i = 0; i < slots.length; i++) {
+            if (clientId.equals(slots[i].getClientId()) && secret.equals(slots[i].getSecret())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean shouldAutoAssign(ServerRemoteClient client, ServerPlayerSlot slot) {
+        if (slot == null || slot.getSessionId() != null) return false;
+        if (gameStarted) {
+            return client.getClientId().equals(slot.getClientId()) && client.getSecret().equals(slot.getSecret());
+        } else {
+            boolean isHostClient = client.getClientId().equals(hostClientId);
+            return client.getClientId().equals(slot.getAutoAssignClientId()) || (isHostClient && slot.getAiClassName() != null);
+        }
+    }
+
+    private void doJoin(WebSocket ws, ServerRemoteClient client, WelcomeMessage welcome) {
+        if (gameStarted) {
+            if (!isParticipant(client.getClientId(), client.getSecret())) {
+                server.send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Join not allowed."));
+                ws.close();
+                return;
+            }
+        }
+        String sessionId = client.getSessionId();
+        for (ServerPlayerSlot slot : slots) {
+            if (shouldAutoAssign(client, slot)) {
+                slot.setClientId(client.getClientId());
+                slot.setSessionId(sessionId);
+                slot.setSecret(client.getSecret());
+                broadcast(newSlotMessage(slot), false);
+            }
+        }
+
+        //add after broadcasting slot update
+        connections.put(ws, client);
+
+        if (welcome != null) {
+            server.send(ws, welcome);
+        }
+        server.send(ws, newGameMessage(gameStarted));
+        for (ServerRemoteClient rc : connections.values()) {
+            if (!rc.getSessionId().equals(sessionId)) {
+                server.send(ws, new ClientUpdateMessage(game.getGameId(), rc.getSessionId(), rc.getName(), ClientState.ACTIVE));
+            }
+        }
+        broadcast(new ClientUpdateMessage(game.getGameId(), sessionId, client.getName(), ClientState.ACTIVE), false);
+        if (gameStarted) {
+            long ts = System.currentTimeMillis();
+            long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
+            if (runningClock != -1) {
+                clocksCopy[runningClock] += ts-runningSince;
+             }
+            ClockMessage clockMsg = new ClockMessage(game.getGameId(), runningClock == -1 ? null : runningClock, clocksCopy, ts);
+            server.send(ws, clockMsg);
+        }
+    }
+
+    private void doLeave(WebSocket ws) {
+        RemoteClient conn = connections.remove(ws);
+        if (conn == null) return;
+
+        for (ServerPlayerSlot slot : slots) {
+            if (slot != null && conn.getSessionId().equals(slot.getSessionId())) {
+                if (!gameStarted) {
+                    leaveSlot(slot);
+                } else {
+                    slot.setSessionId(null);
+                    broadcast(newSlotMessage(slot), false);
+                }
+            }
+        }
+        broadcast(new ClientUpdateMessage(game.getGameId(), conn.getSessionId(), null, ClientState.OFFLINE), false);
+        if (connections.isEmpty() && !gameStarted) {
+            server.gameAbandoned(this);
+        }
+    }
+
+    private void checkGameId(WsInGameMessage msg) {
+        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
+    }
+
+    @WsSubscribe
+    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        game.getExpansions().clear();
+        game.getExpansions().addAll(msg.getExpansions());
+        game.getCustomRules().clear();
+        game.getCustomRules().putAll(msg.getRules());
+        broadcast(msg, false);
+    }
+
+    @WsSubscribe
+    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        ServerRemoteClient client = connections.get(ws);
+        String sessionId = client.getSessionId();
+        int number = msg.getNumber();
+        if (number < 0 || number >= slots.length || slots[number] == null) {
+            server.send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
+            return;
+        }
+        ServerPlayerSlot slot = slots[number];
+        if (!slot.isOccupied()) {
+            slot.setSerial(++slotSerial);
+        }
+        slot.setNickname(msg.getNickname());
+        slot.setAiClassName(msg.getAiClassName());
+        slot.setSessionId(sessionId);
+        slot.setSupportedExpansions(msg.getSupportedExpansions());
+        slot.setClientId(client.getClientId());
+        slot.setSecret(client.getSecret());
+        broadcast(newSlotMessage(slot), false);
+    }
+
+    private void leaveSlot(ServerPlayerSlot slot) {
+        if (snapshot == null) {
+            slot.setNickname(null);
+            slot.setAiClassName(null);
+            slot.setSupportedExpansions(null);
+        }
+        slot.setSerial(null);
+        slot.setSessionId(null);
+        slot.setClientId(null);
+        slot.setSecret(null);
+        broadcast(newSlotMessage(slot), false);
+    }
+
+    @WsSubscribe
+    public void handleLeaveSlot(WebSocket ws, LeaveSlotMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        int number = msg.getNumber();
+        if (number < 0 || number >= slots.length || slots[number] == null) {
+            server.send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
+            return;
+
+        }
+        ServerPlayerSlot slot = slots[number];
+        leaveSlot(slot);
+    }
+
+    @WsSubscribe
+    public void handleSetExpansion(WebSocket ws, SetExpansionMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        Expansion expansion = msg.getExpansion();
+        if (!expansion.isImplemented() || expansion == Expansion.BASIC) {
+            logger.error("Invalid expansion {}", expansion);
+            return;
+        }
+        if (msg.isEnabled()) {
+            game.getExpansions().add(msg.getExpansion());
+        } else {
+            game.getExpansions().remove(msg.getExpansion());
+        }
+        broadcast(msg, false);
+    }
+
+    @WsSubscribe
+    public void handleSetRule(WebSocket ws, SetRuleMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        CustomRule rule = msg.getRule();
+        game.getCustomRules().put(rule, msg.getValue());
+        broadcast(msg, false);
+    }
+
+    @WsSubscribe
+    public void handleStartGame(WebSocket ws, StartGameMessage msg) {
+        checkGameId(msg);
+        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+        runningClock = -1;
+        if (snapshot == null) {
+            int playerCount = 0;
+            for (ServerPlayerSlot slot : slots) {
+                if (!slot.isOccupied()) continue;
+                playerCount++;
+                if (slot.getSupportedExpansions() != null) {
+                    game.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
+                }
+                if (game.getBooleanValue(CustomRule.RANDOM_SEATING_ORDER)) {
+                    slot.setSerial(random.nextInt());
+                }
+            }
+            clocks = new long[playerCount];
+        } else {
+            List<Player> players = snapshot.getPlayers();
+            clocks = new long[players.size()];
+            for (int i = 0; i < clocks.length; i++) {
+                PlayerClock clock = players.get(i).getClock();
+                clocks[i] = clock.resetRunning();
+                if (clock.isRunning()) {
+                    runningClock = i;
+                }
+            }
+            runningSince = System.currentTimeMillis();
+        }
+        gameStarted = true;
+        GameLog log = new GameLog(game.getGameId());
+        if (gameLogReplica || authoritativeState) {
+            recorder = new GameLogRecorder(log, createReplica(), createReplicaSlots(), snapshot, new Config(), server.createReplicaExecutor());
+            recorder.setTrackTurnState(authoritativeState);
+        } else {
+            recorder = new GameLogRecorder(log);
+        }
+        broadcast(newGameMessage(false), false);
+    }
+
+    /** creates game same way as clients do, to be replayed by game log recorder */
+    private Game createReplica() {
+        if (snapshot != null) {
+            return snapshot.asGame(game.getGameId());
+        }
+        Game replica = new Game(game.getGameId());
+        replica.getExpansions().addAll(game.getExpansions());
+        replica.getCustomRules().putAll(game.getCustomRules());
+        return replica;
+    }
+
+    private PlayerSlot[] createReplicaSlots() {
+        PlayerSlot[] result = new PlayerSlot[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ServerPlayerSlot slot = slots[i];
+            if (slot == null) continue;
+            result[i] = new PlayerSlot(i);
+            result[i].setNickname(slot.getNickname());
+            result[i].setSerial(slot.getSerial());
+            result[i].setClientId(slot.getClientId());
+            result[i].setAiClassName(slot.getAiClassName());
+            result[i].setState(slot.getClientId() == null ? SlotState.OPEN : SlotState.REMOTE);
+        }
+        return result;
+    }
+
+    @WsSubscribe
+    public void handleToggleClock(WebSocket ws, ToggleClockMessage msg) {
+        checkGameId(msg);
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        long ts = System.currentTimeMillis();
+        if (runningClock != -1) {
+           clocks[runningClock] += ts-runningSince;
+        }
+        runningSince = ts;
+        runningClock = msg.getRun() == null ? -1 : msg.getRun();
+        long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
+        ClockMessage clockMsg = new ClockMessage(msg.getGameId(), msg.getRun(), clocksCopy, ts);
+        broadcast(clockMsg, false);
+    }
+
+    @WsSubscribe
+    public void handleDeployFlier(WebSocket ws, DeployFlierMessage msg) {
+        checkGameId(msg);
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        msg.setCurrentTime(System.currentTimeMillis());
+        broadcast(msg, true);
+    }
+
+    @WsSubscribe
+    public void handleCommit(WebSocket ws, CommitMessage msg) {
+        checkGameId(msg);
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        msg.setCurrentTime(System.currentTimeMillis());
+        broadcast(msg, true);
+    }
+
+    @WsSubscribe
+    public void handleRmi(WebSocket ws, RmiMessage msg) {
+        checkGameId(msg);
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        broadcast(msg, true);
+    }
+
+    @WsSubscribe
+    public void handleUndo(WebSocket ws, UndoMessage msg) {
+        checkGameId(msg);
+        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
+        broadcast(msg, true);
+    }
+
+    @WsSubscribe
+    public void handlePostChat(WebSocket ws, PostChatMessage msg) {
+        checkGameId(msg);
+        String sessionId = connections.get(ws).getSessionId();
+        ChatMessage reMsg = new ChatMessage(sessionId, msg.getText());
+        reMsg.setGameId(msg.getGameId());
+        broadcast(reMsg, false);
+    }
+
+    @WsSubscribe
+    public void handleGameOver(WebSocket ws, GameOverMessage msg) {
+        checkGameId(msg);
+        if (gameOver) return; //sent by each client
+        gameOver = true;
+        server.gameOver(this);
+    }
+
+    public void broadcast(WsMessage data, boolean recordReplay) {
+        PreparedMessage prepared = server.prepare(data);
+        if (recordReplay) {
+            recorder.record(data, prepared.getPayload());
+        }
+        for (WebSocket ws : connections.keySet()) {
+        	if (ws.isOpen()) { //prevent exception when server is closing
+        		server.send(ws, prepared);
+        	}
+        }
+    }
+}
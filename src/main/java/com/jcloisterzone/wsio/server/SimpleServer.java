@@ -2,15 +2,17 @@ package com.jcloisterzone.wsio.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Random;
-
-import javax.xml.transform.TransformerException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
@@ -18,73 +20,90 @@ import org.java_websocket.server.WebSocketServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jcloisterzone.Application;
-import com.jcloisterzone.Expansion;
 import com.jcloisterzone.KeyUtils;
-import com.jcloisterzone.Player;
-import com.jcloisterzone.PlayerClock;
 import com.jcloisterzone.VersionComparator;
 import com.jcloisterzone.config.ConfigLoader;
-import com.jcloisterzone.game.CustomRule;
 import com.jcloisterzone.game.Game;
-import com.jcloisterzone.game.GameSettings;
-import com.jcloisterzone.game.PlayerSlot;
 import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog;
 import com.jcloisterzone.wsio.MessageDispatcher;
 import com.jcloisterzone.wsio.MessageParser;
 import com.jcloisterzone.wsio.WsSubscribe;
-import com.jcloisterzone.wsio.message.ChatMessage;
 import com.jcloisterzone.wsio.message.ClientUpdateMessage;
 import com.jcloisterzone.wsio.message.ClientUpdateMessage.ClientState;
 import com.jcloisterzone.wsio.message.ClockMessage;
-import com.jcloisterzone.wsio.message.CommitMessage;
-import com.jcloisterzone.wsio.message.DeployFlierMessage;
+import com.jcloisterzone.wsio.message.CreateGameMessage;
 import com.jcloisterzone.wsio.message.ErrorMessage;
-import com.jcloisterzone.wsio.message.GameMessage;
-import com.jcloisterzone.wsio.message.GameMessage.GameState;
 import com.jcloisterzone.wsio.message.GameOverMessage;
-import com.jcloisterzone.wsio.message.GameSetupMessage;
 import com.jcloisterzone.wsio.message.HelloMessage;
-import com.jcloisterzone.wsio.message.LeaveSlotMessage;
+import com.jcloisterzone.wsio.message.JoinGameMessage;
+import com.jcloisterzone.wsio.message.LeaveGameMessage;
 import com.jcloisterzone.wsio.message.PingMessage;
 import com.jcloisterzone.wsio.message.PongMessage;
-import com.jcloisterzone.wsio.message.PostChatMessage;
-import com.jcloisterzone.wsio.message.RmiMessage;
-import com.jcloisterzone.wsio.message.SetExpansionMessage;
-import com.jcloisterzone.wsio.message.SetRuleMessage;
-import com.jcloisterzone.wsio.message.SlotMessage;
-import com.jcloisterzone.wsio.message.StartGameMessage;
-import com.jcloisterzone.wsio.message.TakeSlotMessage;
-import com.jcloisterzone.wsio.message.ToggleClockMessage;
-import com.jcloisterzone.wsio.message.UndoMessage;
 import com.jcloisterzone.wsio.message.WelcomeMessage;
+import com.jcloisterzone.wsio.message.WsInGameMessage;
 import com.jcloisterzone.wsio.message.WsMessage;
 
 public class SimpleServer extends WebSocketServer  {
 
     protected final transient Logger logger = LoggerFactory.getLogger(getClass());
 
+    /** socket gives no notice when its buffer is written, waiting messages are retried after this delay */
+    private static final long DRAIN_RETRY_MS = 1;
+
     private final SimpleServerErrorHandler errHandler;
 
     private MessageParser parser = new MessageParser();
     private MessageDispatcher dispatcher = new MessageDispatcher();
 
-    private GameSettings game;
-    protected final ServerPlayerSlot[] slots;
-    protected int slotSerial;
-    private final List<String> replay = new ArrayList<String>();
-
-    private Snapshot snapshot;
-    private boolean gameStarted;
-
-    private long[] clocks;
-    private int runningClock;
-    private long runningSince;
-
-    protected final Map<WebSocket, ServerRemoteClient> connections = new HashMap<>();
-    private String hostClientId;
-
-    private Random random = new Random();
+    /** hosted games by game id */
+    private final Map<String, ServerGame> games = new ConcurrentHashMap<>();
+    /** game joined by connection */
+    private final Map<WebSocket, ServerGame> joinedGames = new ConcurrentHashMap<>();
+    /** game joined on hello, <code>null</code> in multi game mode */
+    private ServerGame defaultGame;
+
+    /** shared by all games in multi game mode, each game runs serially on it */
+    private ExecutorService gamePool;
+    /** shared by game log replicas of all games, created when first replica is needed */
+    private ExecutorService replicaPool;
+    private boolean gameLogReplica;
+    private boolean authoritativeState;
+
+    protected final Map<WebSocket, ServerRemoteClient> connections = new ConcurrentHashMap<>();
+
+    /** messages waiting for sending, by connection */
+    private final Map<WebSocket, OutboundQueue> outbound = new ConcurrentHashMap<>();
+    private int maxBufferedFrames = 16;
+    private int maxQueuedMessages = 1000;
+    /** queues with messages waiting for socket buffer */
+    private final Set<OutboundQueue> backlogged = Collections.newSetFromMap(new ConcurrentHashMap<OutboundQueue, Boolean>());
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    /** passes waiting messages to sockets which have written previous ones, runs only while some queue is backlogged */
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("outbound-drain").setDaemon(true).build());
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drainScheduled.set(false);
+            for (OutboundQueue queue : backlogged) {
+                queue.drain();
+                if (queue.getDepth() == 0 || !queue.getWebSocket().isOpen()) {
+                    backlogged.remove(queue);
+                    //message can be queued meanwhile by game thread
+                    if (queue.getDepth() > 0 && queue.getWebSocket().isOpen()) {
+                        backlogged.add(queue);
+                    }
+                }
+            }
+            if (!backlogged.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    };
 
     public static interface SimpleServerErrorHandler {
         public void onError(WebSocket ws, final Exception ex);
@@ -93,101 +112,145 @@ public class SimpleServer extends WebSocketServer  {
     public SimpleServer(InetSocketAddress address, SimpleServerErrorHandler errHandler) {
         super(address);
         this.errHandler = errHandler;
-        slots = new ServerPlayerSlot[PlayerSlot.COUNT];
     }
 
-    public void createGame(Snapshot snapshot, Game settings, String hostClientId) {
-        slotSerial = 0;
-        runningClock = -1;
-        gameStarted = false;
-        replay.clear();
-        this.snapshot = null;
-        this.hostClientId = hostClientId;
-        game = new GameSettings(KeyUtils.createRandomId());
-        if (snapshot != null) {
-            this.snapshot =  snapshot;
-            game.getExpansions().addAll(snapshot.getExpansions());
-            game.getCustomRules().putAll(snapshot.getCustomRules());
-            loadSlotsFromSnapshot();
-        } else if (settings != null) {
-            game.getExpansions().addAll(settings.getExpansions());
-            game.getCustomRules().putAll(settings.getCustomRules());
-            loadSlotsFromGame(settings);
-        } else {
-            game.getExpansions().add(Expansion.BASIC);
-            game.getCustomRules().putAll(CustomRule.getDefaultRules());
-            for (int i = 0; i < slots.length; i++) {
-                slots[i] = new ServerPlayerSlot(i);
-            }
+    private void scheduleDrain() {
+        if (!drainer.isShutdown() && drainScheduled.compareAndSet(false, true)) {
+            drainer.schedule(drainTask, DRAIN_RETRY_MS, TimeUnit.MILLISECONDS);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void loadSlotsFromGame(Game settings) {
-        //Game is game from client since, so we can use isLocalHuman
-        int maxSerial = 0;
-        for (Player player : settings.getAllPlayers()) {
-            int slotNumber = player.getSlot().getNumber();
-            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
-            slots[slotNumber] = slot;
-            boolean isAi = player.getSlot().isAi();
-            if (player.isLocalHuman() || isAi) {
-                if (isAi) {
-                    String className = player.getSlot().getAiClassName();
-                    try {
-                        EnumSet<Expansion> supported = (EnumSet<Expansion>) Class.forName(className).getMethod("supportedExpansions").invoke(null);
-                        slot.setSupportedExpansions(supported.toArray(new Expansion[supported.size()]));
-                        slot.setAiClassName(className);
-                    } catch (Exception e) {
-                        logger.warn("AI class is not present " + className);
-                        continue;
-                    }
-                }
-                slot.setNickname(player.getNick());
-                slot.setAutoAssignClientId(player.getSlot().getClientId());
-                int serial = player.getSlot().getSerial() == null ? player.getIndex() : player.getSlot().getSerial();
-                maxSerial = Math.max(maxSerial, serial);
-                slot.setSerial(serial);
+    @Override
+    public void stop(int timeout) throws IOException, InterruptedException {
+        drainer.shutdown();
+        synchronized (this) {
+            if (replicaPool != null) {
+                replicaPool.shutdown();
             }
         }
-        for (int i = 0; i < slots.length; i++) {
-            if (slots[i] == null) {
-                slots[i] = new ServerPlayerSlot(i);
-            }
+        super.stop(timeout);
+    }
+
+    /**
+     * Sets limits of outbound queues of connections opened later.
+     * @see OutboundQueue#OutboundQueue(WebSocket, int, int)
+     */
+    public void setOutboundLimits(int maxBufferedFrames, int maxQueuedMessages) {
+        this.maxBufferedFrames = maxBufferedFrames;
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    /** outbound queues of open connections, exposes queue depth and send latency */
+    public Collection<OutboundQueue> getOutboundQueues() {
+        return outbound.values();
+    }
+
+    /**
+     * Switches server to multi game mode. Clients are not joined to any game on hello,
+     * they create game by {@link CreateGameMessage} or join existing one by {@link JoinGameMessage}.
+     * Messages of different games are handled in parallel on pool with given number of threads.
+     */
+    public void setMultiGame(int threads) {
+        gamePool = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("game-%d").setDaemon(true).build());
+    }
+
+    public boolean isMultiGame() {
+        return gamePool != null;
+    }
+
+    public boolean isGameLogReplica() {
+        return gameLogReplica;
+    }
+
+    /** applies to games created later, see {@link ServerGame#setGameLogReplica(boolean)} */
+    public void setGameLogReplica(boolean gameLogReplica) {
+        this.gameLogReplica = gameLogReplica;
+    }
+
+    /** returns serial executor for game log replica of one game */
+    synchronized Executor createReplicaExecutor() {
+        if (replicaPool == null) {
+            replicaPool = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                new ThreadFactoryBuilder().setNameFormat("game-log-replica-%d").setDaemon(true).build());
         }
-        slotSerial = maxSerial + 1;
-    }
-
-    private void loadSlotsFromSnapshot() {
-        List<Player> players = snapshot.getPlayers();
-        for (Player player : players) {
-            int slotNumber = player.getSlot().getNumber();
-            ServerPlayerSlot slot = new ServerPlayerSlot(slotNumber);
-            slot.setNickname(player.getNick());
-            slot.setAiClassName(player.getSlot().getAiClassName());
-            slot.setAutoAssignClientId(player.getSlot().getClientId());
-            slots[slotNumber] = slot;
+        return new SerialExecutor(replicaPool);
+    }
+
+    public boolean isAuthoritativeState() {
+        return authoritativeState;
+    }
+
+    /** applies to games created later, see {@link ServerGame#setAuthoritativeState(boolean)} */
+    public void setAuthoritativeState(boolean authoritativeState) {
+        this.authoritativeState = authoritativeState;
+    }
+
+    private ServerGame registerGame(Snapshot snapshot, Game settings, String hostClientId) {
+        //without game pool, tasks are run on network thread but still one at time
+        Executor executor = new SerialExecutor(gamePool == null ? MoreExecutors.directExecutor() : gamePool);
+        ServerGame game = new ServerGame(this, executor, KeyUtils.createRandomId(), snapshot, settings, hostClientId);
+        game.setGameLogReplica(gameLogReplica);
+        game.setAuthoritativeState(authoritativeState);
+        games.put(game.getGameId(), game);
+        return game;
+    }
+
+    /** creates game joined by all clients, used in single game mode */
+    public void createGame(Snapshot snapshot, Game settings, String hostClientId) {
+        if (defaultGame != null) {
+            games.remove(defaultGame.getGameId());
+        }
+        defaultGame = registerGame(snapshot, settings, hostClientId);
+    }
+
+    public ServerGame getGame(String gameId) {
+        return games.get(gameId);
+    }
+
+    /** returns game joined by given connection or <code>null</code> */
+    public ServerGame getJoinedGame(WebSocket ws) {
+        return joinedGames.get(ws);
+    }
+
+    /** game created by {@link #createGame(Snapshot, Game, String)}, <code>null</code> in multi game mode */
+    public ServerGame getDefaultGame() {
+        return defaultGame;
+    }
+
+    public Collection<ServerGame> getGames() {
+        return games.values();
+    }
+
+    /** game log of game created by {@link #createGame(Snapshot, Game, String)} */
+    public GameLog getGameLog() {
+        return defaultGame == null ? null : defaultGame.getGameLog();
+    }
+
+    /** called by game when it's finished */
+    void gameOver(ServerGame game) {
+        if (game != defaultGame) {
+            games.remove(game.getGameId());
         }
     }
 
+    /** called by game when all clients left game which is not started yet */
+    void gameAbandoned(ServerGame game) {
+        if (game != defaultGame) {
+            games.remove(game.getGameId());
+        }
+    }
 
     @Override
     public void onClose(WebSocket ws, int code, String reason, boolean remote) {
-        if (!remote) return;
-        RemoteClient conn = connections.remove(ws);
-        if (conn == null) return;
-
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null && conn.getSessionId().equals(slot.getSessionId())) {
-                if (!gameStarted) {
-                    leaveSlot(slot);
-                } else {
-                    slot.setSessionId(null);
-                    broadcast(newSlotMessage(slot), false);
-                }
-            }
+        OutboundQueue queue = outbound.remove(ws);
+        if (queue != null) {
+            backlogged.remove(queue);
+        }
+        connections.remove(ws);
+        ServerGame game = joinedGames.remove(ws);
+        if (game != null) {
+            game.leave(ws);
         }
-        broadcast(new ClientUpdateMessage(game.getGameId(), conn.getSessionId(), null, ClientState.OFFLINE), false);
     }
 
     @Override
@@ -199,46 +262,18 @@ public class SimpleServer extends WebSocketServer  {
     public void onMessage(WebSocket ws, String payload) {
         //logger.info(payload);
         WsMessage msg = parser.fromJson(payload);
-        dispatcher.dispatch(msg, ws, this);
+        if (dispatcher.dispatch(msg, ws, this)) return;
+        if (msg instanceof WsInGameMessage) {
+            String gameId = ((WsInGameMessage) msg).getGameId();
+            ServerGame game = games.get(gameId);
+            if (game == null || game != joinedGames.get(ws)) throw new IllegalArgumentException("Invalid game id.");
+            game.handle(ws, msg);
+        }
     }
 
     @Override
     public void onOpen(WebSocket ws, ClientHandshake hs) {
-    }
-
-    private String getSessionId(WebSocket ws) {
-        return connections.get(ws).getSessionId();
-    }
-
-    private SlotMessage newSlotMessage(ServerPlayerSlot slot) {
-        SlotMessage msg = new SlotMessage(game.getGameId(), slot.getNumber(), slot.getSerial(), slot.getSessionId(), slot.getClientId(), slot.getNickname());
-        msg.setAiClassName(slot.getAiClassName());
-        msg.setSupportedExpansions(slot.getSupportedExpansions());
-        return msg;
-    }
-
-    private GameMessage newGameMessage(boolean includeReplay) {
-        GameSetupMessage gsm = new GameSetupMessage(game.getGameId(), game.getCustomRules(), game.getExpansions(), game.getCapabilityClasses());
-        GameMessage gm = new GameMessage(game.getGameId(), "", gameStarted ? GameState.RUNNING : GameState.OPEN, gsm);
-        List<SlotMessage> slotMsgs = new ArrayList<>();
-        for (ServerPlayerSlot slot : slots) {
-            if (slot != null) {
-                SlotMessage sm = newSlotMessage(slot);
-                slotMsgs.add(sm);
-            }
-        }
-        gm.setSlots(slotMsgs.toArray(new SlotMessage[slotMsgs.size()]));
-        if (snapshot != null) {
-            try {
-                gm.setSnapshot(snapshot.saveToString());
-            } catch (TransformerException | IOException e) {
-                logger.error(e.getMessage(), e);
-            }
-        }
-        if (includeReplay) {
-            gm.setReplay(replay.toArray(new String[replay.size()]));
-        }
-        return gm;
+        outbound.put(ws, new OutboundQueue(ws, maxBufferedFrames, maxQueuedMessages));
     }
 
     private String getWebsocketHost(WebSocket ws) {
@@ -251,25 +286,6 @@ public class SimpleServer extends WebSocketServer  {
         send(ws, new PongMessage());
     }
 
-    private boolean isParticipant(String clientId, String secret) {
-        for (int i = 0; i < slots.length; i++) {
-            if (clientId.equals(slots[i].getClientId()) && secret.equals(slots[i].getSecret())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean shouldAutoAssign(HelloMessage msg, String sessionId, ServerPlayerSlot slot) {
-        if (slot == null || slot.getSessionId() != null) return false;
-        if (gameStarted) {
-            return msg.getClientId().equals(slot.getClientId()) && msg.getSecret().equals(slot.getSecret());
-        } else {
-            boolean isHostClient = msg.getClientId().equals(hostClientId);
-            return msg.getClientId().equals(slot.getAutoAssignClientId()) || (isHostClient && slot.getAiClassName() != null);
-        }
-    }
-
     @WsSubscribe
     public void handleHello(WebSocket ws, HelloMessage msg) {
         if (new VersionComparator().compare(Application.PROTCOL_VERSION, msg.getProtocolVersion()) != 0) {
@@ -277,242 +293,88 @@ public class SimpleServer extends WebSocketServer  {
             ws.close();
             return;
         }
-        if (gameStarted) {
-            if (!isParticipant(msg.getClientId(), msg.getSecret())) {
-                send(ws, new ErrorMessage(ErrorMessage.NOT_ALLOWED, "Join not allowed."));
-                ws.close();
-                return;
-            }
-        }
         String nickname = msg.getNickname() + '@' + getWebsocketHost(ws);
         String sessionId = KeyUtils.createRandomId();
         ServerRemoteClient client = new ServerRemoteClient(sessionId, nickname, ClientState.ACTIVE);
         client.setClientId(msg.getClientId());
         client.setSecret(msg.getSecret());
-
-        for (ServerPlayerSlot slot : slots) {
-            if (shouldAutoAssign(msg, sessionId, slot)) {
-                slot.setClientId(msg.getClientId());
-                slot.setSessionId(sessionId);
-                slot.setSecret(msg.getSecret());
-                broadcast(newSlotMessage(slot), false);
-            }
-        }
-
-        //add after broadcasting slot update
         connections.put(ws, client);
 
-        send(ws, new WelcomeMessage(sessionId, nickname, 120, System.currentTimeMillis()));
-        send(ws, newGameMessage(gameStarted));
-        for (ServerRemoteClient rc : connections.values()) {
-            if (!rc.getSessionId().equals(sessionId)) {
-                send(ws, new ClientUpdateMessage(game.getGameId(), rc.getSessionId(), rc.getName(), ClientState.ACTIVE));
-            }
-        }
-        broadcast(new ClientUpdateMessage(game.getGameId(), sessionId, nickname, ClientState.ACTIVE), false);
-        if (gameStarted) {
-            long ts = System.currentTimeMillis();
-            long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
-            if (runningClock != -1) {
-                clocksCopy[runningClock] += ts-runningSince;
-             }
-            ClockMessage clockMsg = new ClockMessage(game.getGameId(), runningClock == -1 ? null : runningClock, clocksCopy, ts);
-            send(ws, clockMsg);
+        WelcomeMessage welcome = new WelcomeMessage(sessionId, nickname, 120, System.currentTimeMillis());
+        if (defaultGame == null) {
+            send(ws, welcome);
+        } else {
+            //welcome is sent by game after join is allowed
+            joinGame(ws, defaultGame, welcome);
         }
     }
 
-
-    @WsSubscribe
-    public void handleGameSetupMessage(WebSocket ws, GameSetupMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        game.getExpansions().clear();
-        game.getExpansions().addAll(msg.getExpansions());
-        game.getCustomRules().clear();
-        game.getCustomRules().putAll(msg.getRules());
-        broadcast(msg, false);
+    private void joinGame(WebSocket ws, ServerGame game, WelcomeMessage welcome) {
+        ServerGame previous = joinedGames.put(ws, game);
+        if (previous != null) {
+            previous.leave(ws);
+        }
+        game.join(ws, connections.get(ws), welcome);
     }
 
-
     @WsSubscribe
-    public void handleTakeSlot(WebSocket ws, TakeSlotMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
+    public void handleCreateGame(WebSocket ws, CreateGameMessage msg) {
+        if (!isMultiGame()) throw new IllegalArgumentException("Server hosts single game.");
         ServerRemoteClient client = connections.get(ws);
-        String sessionId = client.getSessionId();
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("TAKE_SLOT", "Invalid slot number"));
-            return;
-        }
-        ServerPlayerSlot slot = slots[number];
-        if (!slot.isOccupied()) {
-            slot.setSerial(++slotSerial);
-        }
-        slot.setNickname(msg.getNickname());
-        slot.setAiClassName(msg.getAiClassName());
-        slot.setSessionId(sessionId);
-        slot.setSupportedExpansions(msg.getSupportedExpansions());
-        slot.setClientId(client.getClientId());
-        slot.setSecret(client.getSecret());
-        broadcast(newSlotMessage(slot), false);
-    }
-
-    private void leaveSlot(ServerPlayerSlot slot) {
-        if (snapshot == null) {
-            slot.setNickname(null);
-            slot.setAiClassName(null);
-            slot.setSupportedExpansions(null);
-        }
-        slot.setSerial(null);
-        slot.setSessionId(null);
-        slot.setClientId(null);
-        slot.setSecret(null);
-        broadcast(newSlotMessage(slot), false);
+        if (client == null) throw new IllegalArgumentException("Hello expected.");
+        ServerGame game = registerGame(null, null, client.getClientId());
+        game.getSettings().setName(msg.getName());
+        joinGame(ws, game, null);
     }
 
     @WsSubscribe
-    public void handleLeaveSlot(WebSocket ws, LeaveSlotMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        int number = msg.getNumber();
-        if (number < 0 || number >= slots.length || slots[number] == null) {
-            send(ws, new ErrorMessage("LEAVE_SLOT", "Invalid slot number"));
+    public void handleJoinGame(WebSocket ws, JoinGameMessage msg) {
+        if (connections.get(ws) == null) throw new IllegalArgumentException("Hello expected.");
+        ServerGame game = games.get(msg.getGameId());
+        if (game == null) {
+            send(ws, new ErrorMessage("JOIN_GAME", "Game doesn't exist."));
             return;
-
         }
-        ServerPlayerSlot slot = slots[number];
-        leaveSlot(slot);
+        if (joinedGames.get(ws) == game) return; //already joined on hello
+        joinGame(ws, game, null);
     }
 
     @WsSubscribe
-    public void handleSetExpansion(WebSocket ws, SetExpansionMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        Expansion expansion = msg.getExpansion();
-        if (!expansion.isImplemented() || expansion == Expansion.BASIC) {
-            logger.error("Invalid expansion {}", expansion);
-            return;
+    public void handleLeaveGame(WebSocket ws, LeaveGameMessage msg) {
+        ServerGame game = joinedGames.get(ws);
+        if (game != null && game.getGameId().equals(msg.getGameId())) {
+            joinedGames.remove(ws);
+            game.leave(ws);
         }
-        if (msg.isEnabled()) {
-            game.getExpansions().add(msg.getExpansion());
-        } else {
-            game.getExpansions().remove(msg.getExpansion());
-        }
-        broadcast(msg, false);
     }
 
-    @WsSubscribe
-    public void handleSetRule(WebSocket ws, SetRuleMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        CustomRule rule = msg.getRule();
-        game.getCustomRules().put(rule, msg.getValue());
-        broadcast(msg, false);
+    public void send(WebSocket ws, WsMessage message) {
+        send(ws, prepare(message));
     }
 
-    @WsSubscribe
-    public void handleStartGame(WebSocket ws, StartGameMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (gameStarted) throw new IllegalArgumentException("Game is already started.");
-        runningClock = -1;
-        if (snapshot == null) {
-            int playerCount = 0;
-            for (ServerPlayerSlot slot : slots) {
-                if (!slot.isOccupied()) continue;
-                playerCount++;
-                if (slot.getSupportedExpansions() != null) {
-                    game.getExpansions().retainAll(Arrays.asList(slot.getSupportedExpansions()));
-                }
-                if (game.getBooleanValue(CustomRule.RANDOM_SEATING_ORDER)) {
-                    slot.setSerial(random.nextInt());
-                }
-            }
-            clocks = new long[playerCount];
-        } else {
-            List<Player> players = snapshot.getPlayers();
-            clocks = new long[players.size()];
-            for (int i = 0; i < clocks.length; i++) {
-                PlayerClock clock = players.get(i).getClock();
-                clocks[i] = clock.resetRunning();
-                if (clock.isRunning()) {
-                    runningClock = i;
-                }
-            }
-            runningSince = System.currentTimeMillis();
+    void send(WebSocket ws, PreparedMessage message) {
+        OutboundQueue queue = outbound.get(ws);
+        if (queue == null) {
+            //connection is closed
+            return;
         }
-        gameStarted = true;
-        broadcast(newGameMessage(false), false);
-    }
-
-    @WsSubscribe
-    public void handleToggleClock(WebSocket ws, ToggleClockMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        long ts = System.currentTimeMillis();
-        if (runningClock != -1) {
-           clocks[runningClock] += ts-runningSince;
+        queue.offer(message);
+        if (queue.getDepth() > 0) {
+            backlogged.add(queue);
+            scheduleDrain();
         }
-        runningSince = ts;
-        runningClock = msg.getRun() == null ? -1 : msg.getRun();
-        long[] clocksCopy = Arrays.copyOf(clocks, clocks.length);
-        ClockMessage clockMsg = new ClockMessage(msg.getGameId(), msg.getRun(), clocksCopy, ts);
-        broadcast(clockMsg, false);
-    }
-
-    @WsSubscribe
-    public void handleDeployFlier(WebSocket ws, DeployFlierMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        msg.setCurrentTime(System.currentTimeMillis());
-        broadcast(msg, true);
-    }
-
-    @WsSubscribe
-    public void handleCommit(WebSocket ws, CommitMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        msg.setCurrentTime(System.currentTimeMillis());
-        broadcast(msg, true);
     }
 
-    @WsSubscribe
-    public void handleRmi(WebSocket ws, RmiMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        broadcast(msg, true);
-    }
-
-    @WsSubscribe
-    public void handleUndo(WebSocket ws, UndoMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        if (!gameStarted) throw new IllegalArgumentException("Game is not started.");
-        broadcast(msg, true);
-    }
-
-    @WsSubscribe
-    public void handlePostChat(WebSocket ws, PostChatMessage msg) {
-        if (!msg.getGameId().equals(game.getGameId())) throw new IllegalArgumentException("Invalid game id.");
-        String sessionId = getSessionId(ws);
-        ChatMessage reMsg = new ChatMessage(sessionId, msg.getText());
-        reMsg.setGameId(msg.getGameId());
-        broadcast(reMsg, false);
-    }
-
-    public void send(WebSocket ws, WsMessage message) {
-        ws.send(parser.toJson(message));
-    }
-
-    public void broadcast(WsMessage data, boolean recordReplay) {
-        String payload = parser.toJson(data);
-        if (recordReplay) {
-            replay.add(payload);
-        }
-        for (WebSocket ws : connections.keySet()) {
-        	if (ws.isOpen()) { //prevent exception when server is closing
-        		ws.send(payload);
-        	}
+    /** serializes message, state messages which can be replaced by newer ones get supersede key */
+    PreparedMessage prepare(WsMessage message) {
+        String key = null;
+        if (message instanceof ClockMessage) {
+            key = "CLOCK " + ((ClockMessage) message).getGameId();
+        } else if (message instanceof ClientUpdateMessage) {
+            ClientUpdateMessage update = (ClientUpdateMessage) message;
+            key = "CLIENT_UPDATE " + update.getGameId() + " " + update.getSessionId();
         }
+        return new PreparedMessage(parser.toJson(message), key);
     }
 
     public static class StandaloneSimpleServer extends SimpleServer {
@@ -523,6 +385,15 @@ public class SimpleServer extends WebSocketServer  {
 
         @WsSubscribe
         public void handleStandaloneGameOver(WebSocket ws, GameOverMessage msg) {
+            ServerGame game = getGame(msg.getGameId());
+            //only client which joined game can finish it
+            if (game == null || game != getJoinedGame(ws)) throw new IllegalArgumentException("Invalid game id.");
+            if (isMultiGame()) {
+                //finished game is removed by game itself, other games continue
+                game.handle(ws, msg);
+                return;
+            }
+            if (game != getDefaultGame()) throw new IllegalArgumentException("Invalid game id.");
             for (WebSocket conn : connections.keySet()) {
                 conn.close();
             }
@@ -545,7 +416,15 @@ public class SimpleServer extends WebSocketServer  {
                 logger.error(ex.getMessage(), ex);
             }
         });
-        server.createGame(null, null, null);
+        server.setGameLogReplica(Boolean.getBoolean("gameLogReplica"));
+        server.setAuthoritativeState(Boolean.getBoolean("authoritativeState"));
+        String threads = System.getProperty("gameThreads");
+        if (threads != null && threads.length() > 0) {
+            server.setMultiGame(Integer.parseInt(threads));
+            logger.info("Multi game mode, games are handled by {} threads", threads);
+        } else {
+            server.createGame(null, null, null);
+        }
         server.start();
         logger.info("Simple server started on port {}", port);
     }
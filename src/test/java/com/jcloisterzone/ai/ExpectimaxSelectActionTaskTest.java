@@ -0,0 +1,67 @@
+package com.jcloisterzone.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExpectimaxSelectActionTaskTest {
+
+    private Map<String, Integer> createCounts(int patterns) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < patterns; i++) {
+            counts.put("p" + i, i + 1);
+        }
+        return counts;
+    }
+
+    @Test
+    public void fewDrawsAreWeightedByCount() {
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("a", 2);
+        counts.put("b", 5);
+        counts.put("c", 2);
+        Map<String, Double> draws = ExpectimaxSelectActionTask.selectDraws(counts, 8, 0L);
+        assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<>(draws.keySet()));
+        assertEquals(5.0, draws.get("b"), 0.0);
+        assertEquals(2.0, draws.get("a"), 0.0);
+        assertEquals(2.0, draws.get("c"), 0.0);
+    }
+
+    @Test
+    public void manyDrawsAreSampled() {
+        Map<String, Integer> counts = createCounts(20);
+        Map<String, Double> draws = ExpectimaxSelectActionTask.selectDraws(counts, 8, 7L);
+        assertTrue(draws.size() <= 8);
+        double weightSum = 0.0;
+        int prevCount = Integer.MAX_VALUE;
+        for (Map.Entry<String, Double> e : draws.entrySet()) {
+            weightSum += e.getValue();
+            //ordered by remaining count, the most probable first
+            assertTrue(counts.get(e.getKey()) <= prevCount);
+            prevCount = counts.get(e.getKey());
+        }
+        assertEquals(8.0, weightSum, 0.0);
+        assertEquals(draws, ExpectimaxSelectActionTask.selectDraws(counts, 8, 7L));
+    }
+
+    @Test
+    public void samplingFollowsCounts() {
+        Map<String, Integer> counts = createCounts(9);
+        counts.put("p0", 1000);
+        Map<String, Double> sampled = new HashMap<>();
+        for (long seed = 0; seed < 50; seed++) {
+            for (Map.Entry<String, Double> e : ExpectimaxSelectActionTask.selectDraws(counts, 8, seed).entrySet()) {
+                Double w = sampled.get(e.getKey());
+                sampled.put(e.getKey(), w == null ? e.getValue() : w + e.getValue());
+            }
+        }
+        //p0 holds about 96 % of remaining tiles
+        assertTrue(sampled.get("p0") > 0.9 * 50 * 8);
+    }
+}
@@ -0,0 +1,56 @@
+package com.jcloisterzone.board;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TileIndexTest {
+
+    @Test
+    public void negativeCoordinates() {
+        TileIndex index = new TileIndex();
+        Tile a = new Tile(Expansion.BASIC, "A");
+        Tile b = new Tile(Expansion.BASIC, "B");
+        index.put(-1, 0, a);
+        index.put(0, -1, b);
+        assertSame(a, index.get(-1, 0));
+        assertSame(b, index.get(0, -1));
+        assertNull(index.get(-1, -1));
+        assertNull(index.get(0, 0));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        TileIndex index = new TileIndex();
+        Map<Position, Tile> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            Position p = new Position(random.nextInt(41) - 20, random.nextInt(41) - 20);
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(p), index.remove(p.x, p.y));
+            } else {
+                Tile tile = new Tile(Expansion.BASIC, "T" + i);
+                expected.put(p, tile);
+                index.put(p.x, p.y, tile);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        for (Entry<Position, Tile> e : expected.entrySet()) {
+            assertSame(e.getValue(), index.get(e.getKey().x, e.getKey().y));
+        }
+        for (int x = -21; x <= 21; x++) {
+            for (int y = -21; y <= 21; y++) {
+                assertSame(expected.get(new Position(x, y)), index.get(x, y));
+            }
+        }
+    }
+}
@@ -35,7 +35,14 @@ public class AbstractIntegrationTest {
     protected EventCatchingGame createGame(String save) {
         try {
             URI uri = getClass().getResource(save).toURI();
-            Snapshot snapshot = new Snapshot(new File(uri));
+            return createGame(new Snapshot(new File(uri)));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected EventCatchingGame createGame(Snapshot snapshot) {
+        try {
             EventCatchingGame game = (EventCatchingGame) snapshot.asGame(new EventCatchingGame());
             GameController gc = new GameController(null, game);
             gc.setConnection(new MutedConnection(null));
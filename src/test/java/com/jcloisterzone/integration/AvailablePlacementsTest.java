@@ -0,0 +1,71 @@
+package com.jcloisterzone.integration;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Board;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.game.Game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class AvailablePlacementsTest extends AbstractIntegrationTest {
+
+    private Map<Position, Set<Rotation>> bruteForcePlacements(Game game, Tile tile) {
+        Board board = game.getBoard();
+        Map<Position, Set<Rotation>> result = new HashMap<>();
+        for (Tile placed : board.getAllTiles()) {
+            for (Position offset : Position.ADJACENT.values()) {
+                Position p = placed.getPosition().add(offset);
+                if (board.get(p) != null || result.containsKey(p)) continue;
+                EnumSet<Rotation> allowed = EnumSet.noneOf(Rotation.class);
+                for (Rotation rotation : Rotation.values()) {
+                    tile.setRotation(rotation);
+                    if (board.isPlacementAllowed(tile, p) && game.isTilePlacementAllowed(tile, p)) {
+                        allowed.add(rotation);
+                    }
+                }
+                if (!allowed.isEmpty()) {
+                    result.put(p, allowed);
+                }
+            }
+        }
+        tile.setRotation(Rotation.R0);
+        return result;
+    }
+
+    @Test
+    public void placementsMatchBruteForce() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Tile tile = game.getCurrentTile();
+        assertFalse(game.getBoard().getAvailablePlacements().isEmpty());
+        assertEquals(bruteForcePlacements(game, tile), game.getBoard().getAvailablePlacements());
+    }
+
+    @Test
+    public void placementsMatchAfterPlacementAndUndo() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Tile tile = game.getCurrentTile();
+        Board board = game.getBoard();
+        Position p = new Position(-2, 0);
+
+        tile.setRotation(Rotation.R90);
+        board.add(tile, p);
+        board.mergeFeatures(tile);
+        Tile other = game.getTilePack().drawTile(0);
+        board.refreshAvailablePlacements(other);
+        assertEquals(bruteForcePlacements(game, other), board.getAvailablePlacements());
+
+        board.unmergeFeatures(tile);
+        board.remove(tile);
+        board.refreshAvailablePlacements(other);
+        assertEquals(bruteForcePlacements(game, other), board.getAvailablePlacements());
+    }
+}
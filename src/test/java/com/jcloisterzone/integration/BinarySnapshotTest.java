@@ -0,0 +1,177 @@
+package com.jcloisterzone.integration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.ai.selfplay.SelfPlayResult;
+import com.jcloisterzone.board.LoadGameTilePackFactory;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.BinarySnapshotCodec;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinarySnapshotTest extends AbstractIntegrationTest {
+
+    private static final int LOADED_TURNS = 6;
+
+    /** self play game which loads binary snapshot of live game after each step of first turns */
+    private class LoadingGame extends SelfPlayGame {
+
+        private final Expansion expansion;
+        private Tile turnTile;
+        private int turns;
+        private int loads;
+
+        public LoadingGame(Expansion expansion) {
+            super(7, Arrays.asList(DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName()),
+                EnumSet.of(Expansion.BASIC, expansion), new Config());
+            this.expansion = expansion;
+        }
+
+        @Override
+        protected void stepFinished(Game game) {
+            if (game.getCurrentTile() != turnTile) {
+                turnTile = game.getCurrentTile();
+                turns++;
+            }
+            if (turns > LOADED_TURNS || game.getPhase() instanceof GameOverPhase) return;
+            try {
+                Game loaded = loadBinary(writeBinary(game));
+                String message = expansion + " " + game.getPhase().getClass().getSimpleName();
+                assertEquals(message, withoutGroups(withoutLocalSlots(withoutClocks(snapshotGame(game)))),
+                    withoutGroups(withoutLocalSlots(withoutClocks(snapshotGame(loaded)))));
+                //groups with placed tiles only are not created when game is loaded, same as from XML snapshot
+                for (String group : loaded.getTilePack().getGroups()) {
+                    if (group.equals(LoadGameTilePackFactory.PLACED_GROUP)) continue;
+                    assertEquals(message + " " + group, game.getTilePack().getGroupState(group), loaded.getTilePack().getGroupState(group));
+                }
+            } catch (AssertionError e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AssertionError(expansion.name(), e);
+            }
+            loads++;
+        }
+    }
+
+    private byte[] writeBinary(Game game) throws Exception {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new BinarySnapshotCodec().write(game, os);
+        return os.toByteArray();
+    }
+
+    private Snapshot readBinary(byte[] data) throws Exception {
+        return new BinarySnapshotCodec().read(new ByteArrayInputStream(data));
+    }
+
+    private String withoutClocks(String xml) {
+        //clocks are running during test, ignore elapsed time
+        return xml.replaceAll("<clock[^>]*>", "");
+    }
+
+    private String withoutGroups(String xml) {
+        return xml.replaceAll("\\s*<group [^>]*>", "");
+    }
+
+    private String withoutLocalSlots(String xml) {
+        //live game players are local, loaded players not
+        return xml.replaceAll(" (local|ai-class|clientId)=\"[^\"]*\"", "");
+    }
+
+    private void assertRoundTrip(String save) throws Exception {
+        Game game = createGame(save);
+        String xml = withoutClocks(snapshotGame(game));
+        byte[] data = writeBinary(game);
+        assertEquals(xml, withoutClocks(readBinary(data).saveToString()));
+        assertTrue(data.length < xml.length());
+    }
+
+    @Test
+    public void xmlRoundTripTilePhase() throws Exception {
+        assertRoundTrip("/saved-games/tilePhase.jcz");
+    }
+
+    @Test
+    public void xmlRoundTripActionPhase() throws Exception {
+        assertRoundTrip("/saved-games/actionPhase.jcz");
+    }
+
+    @Test
+    public void xmlRoundTripExpansions() throws Exception {
+        //capability state and capability tile attributes
+        assertRoundTrip("/saved-games/bridgesTunnelsBuildings.jcz");
+        assertRoundTrip("/saved-games/bazaarPhase.jcz");
+        assertRoundTrip("/saved-games/cornCirclePhase.jcz");
+    }
+
+    private Game loadBinary(byte[] data) throws Exception {
+        return new BinarySnapshotCodec().load(new ByteArrayInputStream(data), "binary", new Config());
+    }
+
+    @Test
+    public void loadBinarySnapshot() throws Exception {
+        Game game = createGame("/saved-games/actionPhase.jcz");
+        Game loaded = loadBinary(writeBinary(game));
+        assertTrue(loaded.getPhase() instanceof ActionPhase);
+        assertEquals(game.getCurrentTile().getPosition(), loaded.getCurrentTile().getPosition());
+        assertEquals(withoutClocks(snapshotGame(game)), withoutClocks(snapshotGame(loaded)));
+    }
+
+    @Test
+    public void loadBinarySnapshotExpansions() throws Exception {
+        for (String save : new String[] { "/saved-games/bridgesTunnelsBuildings.jcz", "/saved-games/bazaarPhase.jcz", "/saved-games/cornCirclePhase.jcz" }) {
+            Game game = createGame(save);
+            Game loaded = loadBinary(writeBinary(game));
+            assertEquals(game.getPhase().getClass(), loaded.getPhase().getClass());
+            assertEquals(withoutClocks(snapshotGame(game)), withoutClocks(snapshotGame(loaded)));
+        }
+    }
+
+    @Test
+    public void loadedTilePhaseDrawsTile() throws Exception {
+        Game game = createGame("/saved-games/tilePhase.jcz");
+        Game loaded = loadBinary(writeBinary(game));
+        assertEquals(game.getCurrentTile().getId(), loaded.getCurrentTile().getId());
+        assertEquals(game.getTilePack().size(), loaded.getTilePack().size());
+    }
+
+    @Test
+    public void loadBinaryFile() throws Exception {
+        Game game = createGame("/saved-games/tilePhase.jcz");
+        File file = File.createTempFile("binary-snapshot", ".jcz");
+        file.deleteOnExit();
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            new BinarySnapshotCodec().write(game, os);
+        }
+        Game loaded = createGame(new Snapshot(file));
+        assertEquals(withoutClocks(snapshotGame(game)), withoutClocks(snapshotGame(loaded)));
+    }
+
+    /** every capability writes its state to binary snapshot, loaded game must match original one */
+    @Test
+    public void loadPlayedExpansions() throws Exception {
+        for (Expansion expansion : Expansion.values()) {
+            if (!expansion.isImplemented() || expansion == Expansion.BASIC) continue;
+            LoadingGame selfPlay = new LoadingGame(expansion);
+            SelfPlayResult result = selfPlay.call();
+            assertNull(expansion.name(), result.getError());
+            assertTrue(expansion.name(), selfPlay.loads > LOADED_TURNS);
+        }
+    }
+}
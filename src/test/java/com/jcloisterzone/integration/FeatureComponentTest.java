@@ -0,0 +1,94 @@
+package com.jcloisterzone.integration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.event.TileEvent;
+import com.jcloisterzone.feature.Feature;
+import com.jcloisterzone.feature.FeatureComponent;
+import com.jcloisterzone.feature.MultiTileFeature;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.Phase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FeatureComponentTest extends AbstractIntegrationTest {
+
+    /** compares cached aggregates with values collected by plain walk through edges */
+    private void assertComponentsConsistent(Game game) {
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Feature f : tile.getFeatures()) {
+                if (!(f instanceof MultiTileFeature)) continue;
+                Map<MultiTileFeature, Boolean> visited = new IdentityHashMap<>();
+                Deque<MultiTileFeature> stack = new ArrayDeque<>();
+                stack.push((MultiTileFeature) f);
+                visited.put((MultiTileFeature) f, true);
+                MultiTileFeature master = null;
+                int openEdges = 0, meeples = 0;
+                while (!stack.isEmpty()) {
+                    MultiTileFeature piece = stack.pop();
+                    if (master == null || master.getId() > piece.getId()) master = piece;
+                    meeples += piece.getMeeples().size();
+                    for (MultiTileFeature edge : piece.getEdges()) {
+                        if (edge == null) {
+                            openEdges++;
+                        } else if (!visited.containsKey(edge)) {
+                            visited.put(edge, true);
+                            stack.push(edge);
+                        }
+                    }
+                }
+                FeatureComponent c = ((MultiTileFeature) f).getComponent();
+                //components are rebuilt on change, never on read
+                assertTrue(c.isValid());
+                assertEquals(visited.size(), c.getPieces().size());
+                assertSame(master, c.getMaster());
+                assertEquals(openEdges, c.getOpenEdges());
+                assertEquals(meeples, c.getMeepleCount());
+            }
+        }
+    }
+
+    @Test
+    public void loadedGame() {
+        assertComponentsConsistent(createGame("/saved-games/tilePhase.jcz"));
+        assertComponentsConsistent(createGame("/saved-games/actionPhase.jcz"));
+        assertComponentsConsistent(createGame("/saved-games/bridgesTunnelsBuildings.jcz"));
+    }
+
+    @Test
+    public void placeTileAndUndo() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        assertComponentsConsistent(game);
+        Map<MultiTileFeature, FeatureComponent> components = new IdentityHashMap<>();
+        for (Tile tile : game.getBoard().getAllTiles()) {
+            for (Feature f : tile.getFeatures()) {
+                if (f instanceof MultiTileFeature) {
+                    components.put((MultiTileFeature) f, ((MultiTileFeature) f).getComponent());
+                }
+            }
+        }
+
+        Phase phase = game.getPhase();
+        phase.placeTile(Rotation.R90, new Position(-2, 0));
+        assertComponentsConsistent(game);
+
+        TileEvent ev = (TileEvent) game.events.get(0);
+        ev.undo(game);
+        game.setPhase(phase);
+        assertComponentsConsistent(game);
+        //undo restores previous components, no rebuild is needed
+        for (Map.Entry<MultiTileFeature, FeatureComponent> e : components.entrySet()) {
+            assertSame(e.getValue(), e.getKey().getComponent());
+        }
+    }
+}
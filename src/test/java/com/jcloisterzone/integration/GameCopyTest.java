@@ -0,0 +1,150 @@
+package com.jcloisterzone.integration;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.ai.selfplay.SelfPlayResult;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.phase.ActionPhase;
+import com.jcloisterzone.game.phase.BazaarPhase;
+import com.jcloisterzone.game.phase.CornCirclePhase;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.ui.HeadlessGameController;
+import com.jcloisterzone.wsio.MutedConnection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GameCopyTest extends AbstractIntegrationTest {
+
+    private static final int COPIED_TURNS = 15;
+
+    /** self play game which copies live game after each step of first turns */
+    private class CopyingGame extends SelfPlayGame {
+
+        private final Expansion expansion;
+        private Tile turnTile;
+        private int turns;
+        private int copies;
+
+        public CopyingGame(Expansion expansion) {
+            super(7, Arrays.asList(DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName()),
+                EnumSet.of(Expansion.BASIC, expansion), new Config());
+            this.expansion = expansion;
+        }
+
+        @Override
+        protected void stepFinished(Game game) {
+            if (game.getCurrentTile() != turnTile) {
+                turnTile = game.getCurrentTile();
+                turns++;
+            }
+            if (turns > COPIED_TURNS || game.getPhase() instanceof GameOverPhase) return;
+            //live game must not get controller with UI adapter
+            Game copy = game.copy(new HeadlessGameController(game, new Config()));
+            assertEquals(expansion + " " + game.getPhase().getClass().getSimpleName(),
+                withoutLocalSlots(snapshotWithoutClocks(game)), withoutLocalSlots(snapshotWithoutClocks(copy)));
+            copies++;
+        }
+    }
+
+    private Game copyGame(Game game) {
+        GameController gc = new GameController(null, game);
+        gc.setConnection(new MutedConnection(null));
+        return game.copy(gc);
+    }
+
+    private String snapshotWithoutClocks(Game game) {
+        //clocks are running during test, ignore elapsed time
+        return snapshotGame(game).replaceAll("<clock[^>]*>", "");
+    }
+
+    private String withoutLocalSlots(String xml) {
+        //live game players are local, copied players not
+        return xml.replaceAll(" (local|ai-class|clientId)=\"[^\"]*\"", "");
+    }
+
+    @Test
+    public void copyTilePhase() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        Game copy = copyGame(game);
+        assertTrue(copy.getPhase() instanceof TilePhase);
+        assertEquals(snapshotWithoutClocks(game), snapshotWithoutClocks(copy));
+        assertEquals(game.getBoard().getAvailablePlacements(), copy.getBoard().getAvailablePlacements());
+        assertEquals(game.getTilePack().size(), copy.getTilePack().size());
+    }
+
+    @Test
+    public void copyActionPhase() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        Game copy = copyGame(game);
+        assertTrue(copy.getPhase() instanceof ActionPhase);
+        assertNotSame(game.getCurrentTile(), copy.getCurrentTile());
+        assertEquals(game.getCurrentTile().getPosition(), copy.getCurrentTile().getPosition());
+        assertEquals(snapshotWithoutClocks(game), snapshotWithoutClocks(copy));
+    }
+
+    /** bridges, castles, tunnels and little buildings deployed on board */
+    @Test
+    public void copyBridgesTunnelsBuildings() {
+        EventCatchingGame game = createGame("/saved-games/bridgesTunnelsBuildings.jcz");
+        Game copy = copyGame(game);
+        assertTrue(copy.getPhase() instanceof ActionPhase);
+        assertEquals(snapshotWithoutClocks(game), snapshotWithoutClocks(copy));
+        assertEquals(game.getBoard().getAvailablePlacements(), copy.getBoard().getAvailablePlacements());
+    }
+
+    /** game saved during bazaar auction */
+    @Test
+    public void copyBazaarPhase() {
+        EventCatchingGame game = createGame("/saved-games/bazaarPhase.jcz");
+        Game copy = copyGame(game);
+        assertTrue(copy.getPhase() instanceof BazaarPhase);
+        assertEquals(snapshotWithoutClocks(game), snapshotWithoutClocks(copy));
+    }
+
+    @Test
+    public void copyCornCirclePhase() {
+        EventCatchingGame game = createGame("/saved-games/cornCirclePhase.jcz");
+        Game copy = copyGame(game);
+        assertTrue(copy.getPhase() instanceof CornCirclePhase);
+        assertEquals(snapshotWithoutClocks(game), snapshotWithoutClocks(copy));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        String s1 = snapshotWithoutClocks(game);
+
+        Game copy = copyGame(game);
+        copy.getPhase().placeTile(Rotation.R90, new Position(-2, 0));
+
+        assertEquals(s1, snapshotWithoutClocks(game));
+        assertTrue(game.getBoard().get(new Position(-2, 0)) == null);
+    }
+
+    /** every capability is copied directly, snapshot of copy must match original game */
+    @Test
+    public void copyPlayedExpansions() throws Exception {
+        for (Expansion expansion : Expansion.values()) {
+            if (!expansion.isImplemented() || expansion == Expansion.BASIC) continue;
+            CopyingGame selfPlay = new CopyingGame(expansion);
+            SelfPlayResult result = selfPlay.call();
+            assertNull(expansion.name(), result.getError());
+            assertTrue(expansion.name(), selfPlay.copies > COPIED_TURNS);
+        }
+    }
+}
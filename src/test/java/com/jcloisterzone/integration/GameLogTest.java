@@ -0,0 +1,206 @@
+package com.jcloisterzone.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.ai.selfplay.SelfPlayResult;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.PlayerSlot;
+import com.jcloisterzone.game.PlayerSlot.SlotState;
+import com.jcloisterzone.game.Snapshot;
+import com.jcloisterzone.game.log.GameLog;
+import com.jcloisterzone.game.log.GameLog.Checkpoint;
+import com.jcloisterzone.game.log.GameLogPlayer;
+import com.jcloisterzone.game.log.GameLogRecorder;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.game.phase.TilePhase;
+import com.jcloisterzone.wsio.message.WsMessage;
+import com.jcloisterzone.wsio.MessageParser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GameLogTest extends AbstractIntegrationTest {
+
+    /** self play game which snapshots live game on each turn start */
+    private class SnapshottingGame extends SelfPlayGame {
+
+        private final List<String> turnSnapshots = new ArrayList<>();
+        private Tile turnTile;
+
+        public SnapshottingGame() {
+            super(11, Arrays.asList(DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName()),
+                Collections.<Expansion>emptySet(), new Config());
+        }
+
+        @Override
+        protected void stepFinished(Game game) {
+            Phase phase = game.getPhase();
+            if (phase instanceof TilePhase && phase.isEntered() && game.getCurrentTile() != turnTile) {
+                turnTile = game.getCurrentTile();
+                turnSnapshots.add(snapshotGame(game));
+            }
+        }
+    }
+
+    private GameLog recordGame() throws Exception {
+        return recordGame(new SnapshottingGame());
+    }
+
+    private GameLog recordGame(SelfPlayGame selfPlay) throws Exception {
+        selfPlay.setRecordLog(true);
+        SelfPlayResult result = selfPlay.call();
+        assertNull(result.getError());
+        return result.getLog();
+    }
+
+    private String withoutClocks(String xml) {
+        return xml.replaceAll("<clock[^>]*>", "");
+    }
+
+    private String withoutLocalSlots(String xml) {
+        //live game players are local, replica players remote
+        return xml.replaceAll(" (local|ai-class|clientId)=\"[^\"]*\"", "");
+    }
+
+    /** replays whole log from first checkpoint */
+    private Game replay(GameLog log, int turn) {
+        Checkpoint first = log.getCheckpoints().get(0);
+        Snapshot snapshot = first.getSnapshot();
+        GameLogPlayer player = new GameLogPlayer(snapshot.asGame(log.getGameId()), new PlayerSlot[0], snapshot, new Config());
+        MessageParser parser = new MessageParser();
+        for (int i = first.getEntryIndex(); i < log.getTurnStart(turn); i++) {
+            player.apply(parser.fromJson(log.getEntry(i)));
+        }
+        return player.getGame();
+    }
+
+    /** records log again by recorder which keeps turn state */
+    private GameLogRecorder rerecord(GameLog log, int entries) {
+        return rerecord(log, entries, MoreExecutors.directExecutor());
+    }
+
+    private GameLogRecorder rerecord(GameLog log, int entries, Executor replicaExecutor) {
+        Game game = new Game("selfplay-11", 11);
+        game.getExpansions().add(Expansion.BASIC);
+        PlayerSlot[] slots = new PlayerSlot[PlayerSlot.COUNT];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new PlayerSlot(i);
+            if (i < 2) {
+                slots[i].setSerial(i);
+                slots[i].setNickname("AI-" + i + "-Dummy");
+                slots[i].setAiClassName(DummyAiPlayer.class.getName());
+                slots[i].setState(SlotState.REMOTE);
+            } else {
+                slots[i].setState(SlotState.OPEN);
+            }
+        }
+        GameLogRecorder recorder = new GameLogRecorder(new GameLog(log.getGameId()), game, slots, null, new Config(), replicaExecutor);
+        recorder.setTrackTurnState(true);
+        MessageParser parser = new MessageParser();
+        for (int i = 0; i < entries; i++) {
+            WsMessage msg = parser.fromJson(log.getEntry(i));
+            recorder.record(msg, log.getEntry(i));
+        }
+        return recorder;
+    }
+
+    @Test
+    public void checkpointsAreTaken() throws Exception {
+        GameLog log = recordGame();
+        int turns = log.getTurnCount();
+        assertTrue(turns > 50);
+        assertEquals((turns - 1) / GameLog.DEFAULT_CHECKPOINT_INTERVAL + 1, log.getCheckpoints().size());
+        for (Checkpoint cp : log.getCheckpoints()) {
+            assertEquals(log.getTurnStart(cp.getTurn()), cp.getEntryIndex());
+        }
+        assertEquals(20, log.getCheckpoint(27).getTurn());
+    }
+
+    @Test
+    public void seekMatchesFullReplay() throws Exception {
+        SnapshottingGame selfPlay = new SnapshottingGame();
+        GameLog log = recordGame(selfPlay);
+        assertEquals(selfPlay.turnSnapshots.size(), log.getTurnCount());
+        for (int turn : new int[] { 0, 9, 10, 27, log.getTurnCount() - 1 }) {
+            Game game = GameLogPlayer.seek(log, turn, new Config());
+            assertTrue(game.getPhase() instanceof TilePhase);
+            String seekXml = withoutClocks(snapshotGame(game));
+            assertEquals(withoutLocalSlots(withoutClocks(selfPlay.turnSnapshots.get(turn))), withoutLocalSlots(seekXml));
+            assertEquals(withoutClocks(snapshotGame(replay(log, turn))), seekXml);
+        }
+    }
+
+    @Test
+    public void entriesRestorePayload() throws Exception {
+        GameLog log = recordGame();
+        MessageParser parser = new MessageParser();
+        for (int i = 0; i < log.size(); i++) {
+            assertEquals(log.getEntry(i), parser.toJson(log.getMessage(i)));
+            assertEquals(log.getEntry(i), parser.toJson(parser.fromJson(log.getEntry(i))));
+        }
+    }
+
+    @Test
+    public void replicaOnExecutorMatchesDirect() throws Exception {
+        GameLog log = recordGame();
+        int entries = log.getTurnStart(37) + 1;
+        GameLogRecorder direct = rerecord(log, entries);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GameLogRecorder async = rerecord(log, entries, executor);
+            //waits for replica
+            Checkpoint state = async.getTurnState();
+            assertEquals(direct.getTurnState().getTurn(), state.getTurn());
+            assertEquals(direct.getTurnState().getEntryIndex(), state.getEntryIndex());
+            assertTrue(Arrays.equals(direct.getTurnState().getData(), state.getData()));
+            assertEquals(direct.getLog().getTurnCount(), async.getLog().getTurnCount());
+            assertEquals(direct.getLog().getCheckpoints().size(), async.getLog().getCheckpoints().size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void recordWithoutReplica() throws Exception {
+        GameLog log = recordGame();
+        GameLogRecorder recorder = new GameLogRecorder(new GameLog(log.getGameId()));
+        MessageParser parser = new MessageParser();
+        for (int i = 0; i < log.size(); i++) {
+            recorder.record(parser.fromJson(log.getEntry(i)), log.getEntry(i));
+        }
+        assertEquals(log.size(), recorder.getLog().size());
+        assertEquals(0, recorder.getLog().getTurnCount());
+        assertNull(recorder.getTurnState());
+    }
+
+    @Test
+    public void turnStateFollowsGame() throws Exception {
+        GameLog log = recordGame();
+        int turn = 37;
+        //join in the middle of turn
+        GameLogRecorder recorder = rerecord(log, log.getTurnStart(turn) + 1);
+        Checkpoint state = recorder.getTurnState();
+        assertEquals(turn, state.getTurn());
+        assertEquals(log.getTurnStart(turn), state.getEntryIndex());
+        assertEquals(4, recorder.getLog().getCheckpoints().size());
+
+        Snapshot snapshot = state.getSnapshot();
+        Game game = new GameLogPlayer(snapshot.asGame(log.getGameId()), new PlayerSlot[0], snapshot, new Config()).getGame();
+        assertEquals(withoutClocks(snapshotGame(GameLogPlayer.seek(log, turn, new Config()))), withoutClocks(snapshotGame(game)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.jcloisterzone.integration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.ParallelSelectActionTask;
+import com.jcloisterzone.ai.SelectActionTask;
+import com.jcloisterzone.ai.choice.AiChoice;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.event.Event;
+import com.jcloisterzone.event.SelectActionEvent;
+import com.jcloisterzone.ui.HeadlessGameController;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class ParallelSearchTest extends AbstractIntegrationTest {
+
+    private static final int THREADS = 3;
+
+    private LegacyAiPlayer createAiPlayer(EventCatchingGame game, SelectActionEvent ev) {
+        LegacyAiPlayer ai = new LegacyAiPlayer();
+        ai.setGame(game);
+        ai.setGameController(new HeadlessGameController(game, new Config()));
+        ai.setPlayer(ev.getTargetPlayer());
+        return ai;
+    }
+
+    private SelectActionEvent requestAction(EventCatchingGame game) {
+        game.getPhase().reenter();
+        SelectActionEvent ev = null;
+        for (Event e : game.events) {
+            if (e instanceof SelectActionEvent) ev = (SelectActionEvent) e;
+        }
+        assertNotNull(ev);
+        return ev;
+    }
+
+    private String describeChain(AiChoice last) {
+        StringBuilder sb = new StringBuilder();
+        for (AiChoice choice = last; choice != null; choice = choice.getPrevious()) {
+            sb.insert(0, choice.toString() + "; ");
+        }
+        return sb.toString();
+    }
+
+    private void assertSameResult(String save) throws Exception {
+        EventCatchingGame game = createGame(save);
+        SelectActionEvent ev = requestAction(game);
+
+        SelectActionTask sequential = new SelectActionTask(createAiPlayer(game, ev), ev);
+        sequential.search();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            ParallelSelectActionTask parallel = new ParallelSelectActionTask(createAiPlayer(game, ev), ev, executor, THREADS);
+            parallel.search();
+
+            assertNotNull(sequential.getBestSoFar());
+            assertEquals(describeChain(sequential.getBestSoFar()), describeChain(parallel.getBestSoFar()));
+            assertEquals(sequential.getBestSoFarRanking(), parallel.getBestSoFarRanking(), 0.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void tilePhaseMatchesSequential() throws Exception {
+        assertSameResult("/saved-games/tilePhase.jcz");
+    }
+
+    @Test
+    public void actionPhaseMatchesSequential() throws Exception {
+        assertSameResult("/saved-games/actionPhase.jcz");
+    }
+}
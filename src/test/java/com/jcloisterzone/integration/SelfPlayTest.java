@@ -0,0 +1,143 @@
+package com.jcloisterzone.integration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.SearchStats;
+import com.jcloisterzone.ai.legacyplayer.ExpectimaxAiPlayer;
+import com.jcloisterzone.ai.legacyplayer.LegacyAiPlayer;
+import com.jcloisterzone.ai.mctsplayer.MctsAiPlayer;
+import com.jcloisterzone.ai.selfplay.SelfPlayReport;
+import com.jcloisterzone.ai.selfplay.SelfPlayResult;
+import com.jcloisterzone.ai.selfplay.SelfPlayRunner;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.game.phase.GameOverPhase;
+import com.jcloisterzone.game.phase.TilePhase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SelfPlayTest {
+
+    /** finishes pondering before own turn, so every predicted turn is served from ponder cache */
+    public static class PonderAwaitingAiPlayer extends LegacyAiPlayer {
+        @Override
+        protected boolean isPonderAwaited() {
+            return true;
+        }
+    }
+
+    /** search limited by playouts count instead of time */
+    public static class IterationsMctsAiPlayer extends MctsAiPlayer {
+        public IterationsMctsAiPlayer() {
+            setIterations(20);
+        }
+    }
+
+    private SelfPlayReport runBatch() throws InterruptedException {
+        SelfPlayRunner runner = new SelfPlayRunner();
+        runner.setGames(3);
+        runner.setThreads(2);
+        runner.setSeed(42);
+        runner.setAiClassNames(Arrays.asList(DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName()));
+        return runner.run();
+    }
+
+    @Test
+    public void gamesAreFinished() throws InterruptedException {
+        SelfPlayReport report = runBatch();
+        assertEquals(3, report.getFinished().size());
+        for (SelfPlayResult r : report.getResults()) {
+            assertEquals(2, r.getPoints().size());
+            assertTrue(r.getPhaseTimes().containsKey(TilePhase.class));
+            assertTrue(r.getPhaseTimes().containsKey(GameOverPhase.class));
+        }
+    }
+
+    /** plays one seeded game */
+    private SelfPlayReport runSingleGame(Config config, Class<?>... players) throws InterruptedException {
+        SelfPlayRunner runner = new SelfPlayRunner();
+        runner.setGames(1);
+        runner.setThreads(1);
+        runner.setSeed(42);
+        runner.setConfig(config);
+        List<String> classNames = new ArrayList<>();
+        for (Class<?> player : players) {
+            classNames.add(player.getName());
+        }
+        runner.setAiClassNames(classNames);
+        SelfPlayReport report = runner.run();
+        assertEquals(1, report.getFinished().size());
+        assertTrue(report.getSearchStats(0).getDecisions() > 0);
+        return report;
+    }
+
+    @Test
+    public void budgetedSearchIsCutOff() throws InterruptedException {
+        SearchStats unlimited = runSingleGame(new Config(), LegacyAiPlayer.class, DummyAiPlayer.class).getSearchStats(0);
+        Config config = new Config();
+        config.setAi_search_budget(1);
+        SelfPlayReport report = runSingleGame(config, LegacyAiPlayer.class, DummyAiPlayer.class);
+        SearchStats budgeted = report.getSearchStats(0);
+        assertNull(report.getSearchStats(1));
+        assertEquals(0, unlimited.getCutOffDecisions());
+        assertTrue(budgeted.getCutOffDecisions() > 0);
+        assertTrue(budgeted.getChoicesPerDecision() < unlimited.getChoicesPerDecision());
+    }
+
+    @Test
+    public void expectimaxPlayerRanksDraws() throws InterruptedException {
+        SearchStats legacy = runSingleGame(new Config(), LegacyAiPlayer.class, DummyAiPlayer.class).getSearchStats(0);
+        Config config = new Config();
+        config.setAi_search_threads(2);
+        SearchStats expectimax = runSingleGame(config, ExpectimaxAiPlayer.class, DummyAiPlayer.class).getSearchStats(0);
+        //opponent placements of each draw are ranked on top of common search
+        assertTrue(expectimax.getChoicesPerDecision() > legacy.getChoicesPerDecision());
+    }
+
+    @Test
+    public void mctsPlayerUsesWholeBudget() throws InterruptedException {
+        Config config = new Config();
+        config.setAi_search_threads(2);
+        config.setAi_search_budget(20);
+        SearchStats stats = runSingleGame(config, MctsAiPlayer.class, DummyAiPlayer.class).getSearchStats(0);
+        //anytime search, playouts are run until deadline
+        assertEquals(stats.getDecisions(), stats.getCutOffDecisions());
+    }
+
+    @Test
+    public void mctsPlayerRunsIterations() throws InterruptedException {
+        Config config = new Config();
+        config.setAi_search_threads(2);
+        SearchStats stats = runSingleGame(config, IterationsMctsAiPlayer.class, DummyAiPlayer.class).getSearchStats(0);
+        //search limited by iterations only, doesn't depend on timing
+        assertEquals(0, stats.getCutOffDecisions());
+        assertTrue(stats.getEvaluatedChoices() >= stats.getDecisions());
+    }
+
+    @Test
+    public void ponderingIsLookedUp() throws InterruptedException {
+        Config config = new Config();
+        config.setAi_ponder(true);
+        //pondering is finished before every own turn, so hits don't depend on timing
+        SearchStats stats = runSingleGame(config, PonderAwaitingAiPlayer.class, PonderAwaitingAiPlayer.class).getSearchStats(0);
+        assertTrue(stats.getPonderLookups() > 0);
+        assertTrue(stats.getPonderHits() > 0);
+        assertTrue(stats.getPonderHits() <= stats.getPonderLookups());
+    }
+
+    @Test
+    public void seededGamesAreReproducible() throws InterruptedException {
+        List<SelfPlayResult> first = runBatch().getResults();
+        List<SelfPlayResult> second = runBatch().getResults();
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getSeed(), second.get(i).getSeed());
+            assertEquals(first.get(i).getPoints(), second.get(i).getPoints());
+        }
+    }
+}
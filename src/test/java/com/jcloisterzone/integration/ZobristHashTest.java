@@ -0,0 +1,171 @@
+package com.jcloisterzone.integration;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.LittleBuilding;
+import com.jcloisterzone.Player;
+import com.jcloisterzone.ai.DummyAiPlayer;
+import com.jcloisterzone.ai.SavePoint;
+import com.jcloisterzone.ai.SavePointManager;
+import com.jcloisterzone.ai.selfplay.SelfPlayGame;
+import com.jcloisterzone.ai.selfplay.SelfPlayResult;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.config.Config;
+import com.jcloisterzone.event.Undoable;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.game.Game;
+import com.jcloisterzone.game.ZobristHash;
+import com.jcloisterzone.game.capability.LittleBuildingsCapability;
+import com.jcloisterzone.game.phase.Phase;
+import com.jcloisterzone.ui.GameController;
+import com.jcloisterzone.wsio.MutedConnection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ZobristHashTest extends AbstractIntegrationTest {
+
+    /** self play game which recomputes hash after each step */
+    private static class HashCheckingGame extends SelfPlayGame {
+
+        private int steps;
+
+        public HashCheckingGame() {
+            super(5, Arrays.asList(DummyAiPlayer.class.getName(), DummyAiPlayer.class.getName()),
+                EnumSet.of(Expansion.BASIC, Expansion.ABBEY_AND_MAYOR, Expansion.BRIDGES_CASTLES_AND_BAZAARS,
+                    Expansion.TOWER, Expansion.KING_AND_ROBBER_BARON, Expansion.LITTLE_BUILDINGS), new Config());
+        }
+
+        @Override
+        protected void stepFinished(Game game) {
+            assertEquals(game.getPhase().getClass().getSimpleName() + " step " + steps,
+                ZobristHash.compute(game), game.getZobristHash().getValue());
+            steps++;
+        }
+    }
+
+    private void undoEvents(EventCatchingGame game, Phase phase) {
+        for (int i = game.events.size() - 1; i >= 0; i--) {
+            if (game.events.get(i) instanceof Undoable) {
+                Undoable u = (Undoable) game.events.get(i);
+                game.getZobristHash().revert(u);
+                u.undo(game);
+            }
+        }
+        game.setPhase(phase);
+    }
+
+    @Test
+    public void loadedGameIsConsistent() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        assertEquals(ZobristHash.compute(game), game.getZobristHash().getValue());
+    }
+
+    @Test
+    public void placeTileUndo() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        long h1 = game.getZobristHash().getValue();
+
+        Phase phase = game.getPhase();
+        phase.placeTile(Rotation.R90, new Position(-2, 0));
+        long h2 = game.getZobristHash().getValue();
+        assertNotEquals(h1, h2);
+        assertEquals(ZobristHash.compute(game), h2);
+
+        undoEvents(game, phase);
+        assertEquals(h1, game.getZobristHash().getValue());
+        assertEquals(h1, ZobristHash.compute(game));
+    }
+
+    @Test
+    public void placeFollowerUndo() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        long h1 = game.getZobristHash().getValue();
+
+        Phase phase = game.getPhase();
+        phase.deployMeeple(new FeaturePointer(new Position(1, -3), Location.NE), BigFollower.class);
+        assertNotEquals(h1, game.getZobristHash().getValue());
+        assertEquals(ZobristHash.compute(game), game.getZobristHash().getValue());
+
+        undoEvents(game, phase);
+        assertEquals(h1, game.getZobristHash().getValue());
+    }
+
+    @Test
+    public void placeTowerPieceUndo() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        long h1 = game.getZobristHash().getValue();
+
+        Phase phase = game.getPhase();
+        phase.placeTowerPiece(new Position(1, -2));
+        assertNotEquals(h1, game.getZobristHash().getValue());
+        assertEquals(ZobristHash.compute(game), game.getZobristHash().getValue());
+
+        undoEvents(game, phase);
+        assertEquals(h1, game.getZobristHash().getValue());
+    }
+
+    @Test
+    public void copyHasEqualHash() {
+        EventCatchingGame game = createGame("/saved-games/actionPhase.jcz");
+        GameController gc = new GameController(null, game);
+        gc.setConnection(new MutedConnection(null));
+        Game copy = game.copy(gc);
+        assertEquals(game.getZobristHash().getValue(), copy.getZobristHash().getValue());
+    }
+
+    @Test
+    public void littleBuildingsAreHashed() {
+        EventCatchingGame game = createGame("/saved-games/bridgesTunnelsBuildings.jcz");
+        assertEquals(ZobristHash.compute(game), game.getZobristHash().getValue());
+        GameController gc = new GameController(null, game);
+        gc.setConnection(new MutedConnection(null));
+        assertEquals(game.getZobristHash().getValue(), game.copy(gc).getZobristHash().getValue());
+
+        LittleBuildingsCapability cap = game.getCapability(LittleBuildingsCapability.class);
+        long h1 = game.getZobristHash().getValue();
+        Object backup = cap.backup();
+        Player player = game.getAllPlayers()[0];
+        cap.setBuildingsCount(player, LittleBuilding.SHED, cap.getBuildingsCount(player, LittleBuilding.SHED) + 1);
+        assertNotEquals(h1, game.getZobristHash().getValue());
+
+        cap.restore(backup);
+        assertEquals(h1, game.getZobristHash().getValue());
+    }
+
+    @Test
+    public void savePointRestoresHash() {
+        EventCatchingGame game = createGame("/saved-games/tilePhase.jcz");
+        SavePointManager spm = new SavePointManager(game);
+        spm.startRecording();
+        SavePoint sp = spm.save();
+        long h1 = game.getZobristHash().getValue();
+
+        game.getPhase().placeTile(Rotation.R90, new Position(-2, 0));
+        game.flushEventQueue();
+        assertNotEquals(h1, game.getZobristHash().getValue());
+
+        spm.restore(sp);
+        assertEquals(h1, game.getZobristHash().getValue());
+        assertEquals(h1, ZobristHash.compute(game));
+        spm.stopRecording();
+    }
+
+    /** supplies of all expansions in play are hashed, incremental hash matches recomputed one after each move */
+    @Test
+    public void playedGameIsConsistent() throws Exception {
+        HashCheckingGame selfPlay = new HashCheckingGame();
+        SelfPlayResult result = selfPlay.call();
+        assertNull(result.getError());
+        assertTrue(selfPlay.steps > 100);
+    }
+}
@@ -0,0 +1,57 @@
+package com.jcloisterzone.ui.grid;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.jcloisterzone.board.Position;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PositionIndexTest {
+
+    private PositionIndex<String> createIndex() {
+        PositionIndex<String> index = new PositionIndex<>();
+        for (int y = -5; y <= 5; y++) {
+            for (int x = -5; x <= 5; x++) {
+                index.add(new Position(x, y), x + "," + y);
+            }
+        }
+        return index;
+    }
+
+    @Test
+    public void queryRows() {
+        PositionIndex<String> index = createIndex();
+        assertEquals(121, index.size());
+        assertEquals(Arrays.asList("0,-1", "1,-1", "0,0", "1,0"), index.query(new Rectangle(0, -1, 2, 2)));
+        assertEquals(121, index.query(null).size());
+        assertTrue(index.query(new Rectangle(10, 10, 3, 3)).isEmpty());
+    }
+
+    @Test
+    public void querySparse() {
+        PositionIndex<String> index = new PositionIndex<>();
+        index.add(new Position(3, 0), "a");
+        index.add(new Position(-2, 40), "b");
+        index.add(new Position(3, 0), "c");
+        assertEquals(Arrays.asList("a", "c"), index.query(new Rectangle(0, -10, 5, 20)));
+        assertTrue(index.remove(new Position(3, 0), "a"));
+        assertEquals(Arrays.asList("c", "b"), index.query(new Rectangle(-5, -10, 10, 60)));
+    }
+
+    @Test
+    public void queryReusesBuffer() {
+        PositionIndex<String> index = createIndex();
+        List<String> buffer = new ArrayList<>();
+        assertSame(buffer, index.query(new Rectangle(0, 0, 2, 1), buffer));
+        assertEquals(Arrays.asList("0,0", "1,0"), buffer);
+        index.query(new Rectangle(-5, 5, 1, 1), buffer);
+        assertEquals(Arrays.asList("-5,5"), buffer);
+    }
+}
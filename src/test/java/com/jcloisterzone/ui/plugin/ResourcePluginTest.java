@@ -0,0 +1,126 @@
+package com.jcloisterzone.ui.plugin;
+
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jcloisterzone.Expansion;
+import com.jcloisterzone.board.AbstractTileTest;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.Tile;
+import com.jcloisterzone.figure.SmallFollower;
+import com.jcloisterzone.ui.resources.FeatureArea;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResourcePluginTest extends AbstractTileTest {
+
+    private ResourcePlugin plugin;
+
+    @Before
+    public void loadPlugin() throws Exception {
+        plugin = (ResourcePlugin) Plugin.readPlugin(Paths.get(ResourcePlugin.class.getResource("/plugins/classic").toURI()));
+        plugin.load();
+        plugin.setEnabled(true);
+    }
+
+    /** plugin resources are looked up by full tile id, as in tile pack */
+    private Tile createPluginTile(String id) {
+        packFactory.setExpansions(Collections.singleton(Expansion.BASIC));
+        return packFactory.createTilePack().drawTile(Expansion.BASIC.getCode() + "." + id);
+    }
+
+    private Rectangle getBounds(Tile tile, Location loc) {
+        Set<Location> locations = new HashSet<>(Arrays.asList(Location.N, Location.S, Location.E, Location.W));
+        return plugin.getFeatureAreas(tile, 100, 100, locations).get(loc).getTrackingArea().getBounds();
+    }
+
+    @Test
+    public void cachedAreasAreNotShared() {
+        Tile tile = createPluginTile("RRR");
+        Rectangle bounds = getBounds(tile, Location.E);
+        Map<Location, FeatureArea> areas = plugin.getFeatureAreas(tile, 100, 100, new HashSet<>(Arrays.asList(Location.N, Location.S, Location.E, Location.W)));
+        areas.get(Location.E).getTrackingArea().transform(AffineTransform.getTranslateInstance(500, 500));
+        assertEquals(bounds, getBounds(tile, Location.E));
+    }
+
+    @Test
+    public void rotationAndZoomChangeAreas() {
+        Tile tile = createPluginTile("RRR");
+        Rectangle bounds = getBounds(tile, Location.E);
+        tile.setRotation(Rotation.R90);
+        assertNotEquals(bounds, getBounds(tile, Location.S));
+        plugin.clearFeatureAreaCache();
+        assertEquals(getBounds(tile, Location.S), getBounds(tile, Location.S));
+        Set<Location> locations = Collections.singleton(Location.S);
+        Rectangle zoomed = plugin.getFeatureAreas(tile, 200, 200, locations).get(Location.S).getTrackingArea().getBounds();
+        assertEquals(2 * getBounds(tile, Location.S).width, zoomed.width, 2);
+    }
+
+    @Test
+    public void geometryIsLoadedInBackground() throws Exception {
+        final ResourcePlugin fresh = (ResourcePlugin) Plugin.readPlugin(Paths.get(ResourcePlugin.class.getResource("/plugins/classic").toURI()));
+        fresh.load();
+        fresh.setEnabled(true);
+        final Tile tile = createPluginTile("RRR");
+        final Set<Location> locations = Collections.singleton(Location.E);
+        //first lookups wait for geometry which is still parsed
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Rectangle>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(new Callable<Rectangle>() {
+                    @Override
+                    public Rectangle call() throws Exception {
+                        return fresh.getFeatureAreas(tile, 100, 100, locations).get(Location.E).getTrackingArea().getBounds();
+                    }
+                }));
+            }
+            for (Future<Rectangle> result : results) {
+                assertEquals(getBounds(tile, Location.E), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        fresh.awaitLoaded();
+        assertFalse(fresh.isGeometryFailed());
+        assertTrue(fresh.isEnabled());
+    }
+
+    @Test
+    public void brokenGeometryDisablesPlugin() throws Exception {
+        ResourcePlugin broken = new ResourcePlugin(ResourcePlugin.class.getResource("/plugins/broken-geometry"), "plugins/broken-geometry");
+        broken.loadMetadata();
+        broken.load();
+        broken.setEnabled(true);
+        broken.awaitLoaded();
+        assertTrue(broken.isGeometryFailed());
+        assertFalse(broken.isEnabled());
+
+        Tile tile = createPluginTile("RRR");
+        assertNull(broken.getFeatureAreas(tile, 100, 100, Collections.singleton(Location.E)));
+        assertNull(broken.getMeeplePlacement(tile, SmallFollower.class, Location.E));
+        //failure is handled once, repeated waits neither throw nor enable plugin again
+        broken.awaitLoaded();
+        assertFalse(broken.isEnabled());
+    }
+}
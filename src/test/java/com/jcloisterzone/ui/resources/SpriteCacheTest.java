@@ -0,0 +1,45 @@
+package com.jcloisterzone.ui.resources;
+
+import java.awt.Insets;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SpriteCacheTest {
+
+    private TileImage createImage(int size) {
+        return new TileImage(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB), new Insets(0, 0, 0, 0));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        SpriteCache cache = new SpriteCache(250);
+        TileImage a = createImage(10), b = createImage(10), c = createImage(10);
+        cache.put("a", a);
+        cache.put("b", b);
+        assertSame(a, cache.get("a"));
+        cache.put("c", c);
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        assertSame(c, cache.get("c"));
+        assertEquals(200, cache.getPixels());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void keepsOversizedEntry() {
+        SpriteCache cache = new SpriteCache(50);
+        cache.put("a", createImage(5));
+        cache.put("b", createImage(10));
+        assertEquals(1, cache.size());
+        assertEquals(100, cache.getPixels());
+        cache.put("b", createImage(5));
+        assertEquals(25, cache.getPixels());
+    }
+}
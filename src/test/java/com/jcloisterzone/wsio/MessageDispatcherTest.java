@@ -0,0 +1,79 @@
+package com.jcloisterzone.wsio;
+
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.message.ChatMessage;
+import com.jcloisterzone.wsio.message.CommitMessage;
+import com.jcloisterzone.wsio.message.UndoMessage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MessageDispatcherTest {
+
+    public static class Target {
+
+        Object context;
+        int commits;
+        int chats;
+
+        @WsSubscribe
+        public void handleCommit(Object context, CommitMessage msg) {
+            this.context = context;
+            commits++;
+        }
+
+        @WsSubscribe
+        public void handleChat(ChatMessage msg) {
+            chats++;
+        }
+
+        public void handleUndo(UndoMessage msg) {
+            throw new IllegalStateException("not subscribed");
+        }
+    }
+
+    public static class SubTarget extends Target {
+
+        int undos;
+
+        @WsSubscribe
+        public void handleSubUndo(Object context, UndoMessage msg) {
+            undos++;
+        }
+    }
+
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+
+    @Test
+    public void dispatchByMessageClass() {
+        Target target = new Target();
+        Object context = new Object();
+        dispatcher.dispatch(new CommitMessage("g"), context, target);
+        dispatcher.dispatch(new ChatMessage("s", "text"), context, target);
+        dispatcher.dispatch(new ChatMessage("s", "text"), context, target);
+        dispatcher.dispatch(new UndoMessage("g"), context, target);
+        assertSame(context, target.context);
+        assertEquals(1, target.commits);
+        assertEquals(2, target.chats);
+    }
+
+    @Test
+    public void subclassHandlers() {
+        SubTarget target = new SubTarget();
+        dispatcher.dispatch(new UndoMessage("g"), null, new Target(), target);
+        dispatcher.dispatch(new CommitMessage("g"), null, target);
+        assertEquals(1, target.undos);
+        assertEquals(1, target.commits);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void handlerExceptionIsPropagated() {
+        dispatcher.dispatch(new CommitMessage("g"), null, new Object() {
+            @WsSubscribe
+            public void handleCommit(CommitMessage msg) {
+                throw new IllegalArgumentException();
+            }
+        });
+    }
+}
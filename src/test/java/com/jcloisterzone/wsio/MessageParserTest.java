@@ -0,0 +1,35 @@
+package com.jcloisterzone.wsio;
+
+import org.junit.Test;
+
+import com.jcloisterzone.wsio.message.ChatMessage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MessageParserTest {
+
+    private final MessageParser parser = new MessageParser();
+
+    @Test
+    public void roundTrip() {
+        ChatMessage msg = new ChatMessage("s1", "hello <world> žlutý kůň");
+        String payload = parser.toJson(msg);
+        assertTrue(payload.startsWith("CHAT {"));
+        ChatMessage parsed = (ChatMessage) parser.fromJson(payload);
+        assertEquals(msg.getText(), parsed.getText());
+        assertEquals("s1", parsed.getSessionId());
+        //reused buffer must not leak previous content
+        assertEquals(payload, parser.toJson(parsed));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingCommand() {
+        parser.fromJson("{}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCommand() {
+        parser.fromJson("FOO {}");
+    }
+}
@@ -0,0 +1,66 @@
+package com.jcloisterzone.wsio;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import com.jcloisterzone.LittleBuilding;
+import com.jcloisterzone.board.Location;
+import com.jcloisterzone.board.Position;
+import com.jcloisterzone.board.Rotation;
+import com.jcloisterzone.board.pointer.FeaturePointer;
+import com.jcloisterzone.board.pointer.MeeplePointer;
+import com.jcloisterzone.figure.BigFollower;
+import com.jcloisterzone.figure.neutral.Mage;
+import com.jcloisterzone.wsio.RmiCodec.Call;
+import com.jcloisterzone.wsio.message.RmiMessage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RmiCodecTest {
+
+    private final FeaturePointer fp = new FeaturePointer(new Position(-130, 7), Location.NW.union(Location.CLOISTER));
+    private final MeeplePointer mp = new MeeplePointer(fp, "2.SmallFollower.4");
+
+    private void assertRoundTrip(String name, Object... args) {
+        Method method = RmiCodec.getMethod(name);
+        RmiMessage msg = (RmiMessage) new MessageParser().fromJson(new MessageParser().toJson(new RmiMessage("g", method, args)));
+        Call call = msg.decode();
+        assertEquals(method, call.getMethod());
+        assertArrayEquals(args, call.getArgs());
+    }
+
+    @Test
+    public void roundTrip() {
+        assertRoundTrip("pass");
+        assertRoundTrip("placeTile", Rotation.R270, new Position(-1, 300));
+        assertRoundTrip("deployMeeple", fp, BigFollower.class);
+        assertRoundTrip("undeployMeeple", mp);
+        assertRoundTrip("moveNeutralFigure", fp, Mage.class);
+        assertRoundTrip("moveNeutralFigure", mp, Mage.class);
+        assertRoundTrip("moveNeutralFigure", new Position(2, -2), Mage.class);
+        assertRoundTrip("moveNeutralFigure", null, Mage.class);
+        assertRoundTrip("placeTunnelPiece", fp, true);
+        assertRoundTrip("payRansom", 3, BigFollower.class);
+        assertRoundTrip("deployBridge", new Position(0, 0), Location.NS);
+        assertRoundTrip("bazaarBid", 0, -1);
+        assertRoundTrip("bazaarBid", null, Integer.MAX_VALUE);
+        assertRoundTrip("placeLittleBuilding", LittleBuilding.TOWER);
+    }
+
+    @Test
+    public void compactCall() {
+        Method method = RmiCodec.getMethod("placeTile");
+        assertTrue(RmiCodec.encode(method, new Object[] { Rotation.R90, new Position(-2, 0) }).length <= 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedCall() {
+        byte[] data = RmiCodec.encode(RmiCodec.getMethod("undeployMeeple"), new Object[] { mp });
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        RmiCodec.decode(truncated);
+    }
+}
@@ -0,0 +1,110 @@
+package com.jcloisterzone.wsio.server;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.Framedata;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OutboundQueueTest {
+
+    /** socket which doesn't write anything to network until it's flushed */
+    static class FakeSocket implements InvocationHandler {
+
+        final List<String> written = new ArrayList<>();
+        int buffered;
+        boolean open = true;
+
+        WebSocket create() {
+            return (WebSocket) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebSocket.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+            case "sendFrame":
+                Framedata frame = (Framedata) args[0];
+                written.add(StandardCharsets.UTF_8.decode(frame.getPayloadData()).toString());
+                buffered++;
+                return null;
+            case "hasBufferedData":
+                return buffered > 0;
+            case "isOpen":
+                return open;
+            case "close":
+                open = false;
+                return null;
+            default:
+                return null;
+            }
+        }
+    }
+
+    private final FakeSocket socket = new FakeSocket();
+    private final OutboundQueue queue = new OutboundQueue(socket.create(), 1, 3);
+
+    @Test
+    public void waitsForSocketBuffer() {
+        queue.offer(new PreparedMessage("a"));
+        queue.offer(new PreparedMessage("b"));
+        assertEquals(1, socket.written.size());
+        assertEquals(1, queue.getDepth());
+        socket.buffered = 0;
+        queue.drain();
+        assertEquals(2, socket.written.size());
+        assertEquals("b", socket.written.get(1));
+        assertEquals(2, queue.getSent());
+    }
+
+    @Test
+    public void supersedesWaitingState() {
+        queue.offer(new PreparedMessage("a"));
+        queue.offer(new PreparedMessage("clock 1", "CLOCK"));
+        queue.offer(new PreparedMessage("b"));
+        queue.offer(new PreparedMessage("clock 2", "CLOCK"));
+        assertEquals(2, queue.getDepth());
+        assertEquals(1, queue.getSuperseded());
+        socket.buffered = 0;
+        queue.drain();
+        socket.buffered = 0;
+        queue.drain();
+        //newer state doesn't overtake message queued before it
+        assertEquals("b", socket.written.get(1));
+        assertEquals("clock 2", socket.written.get(2));
+        assertEquals(3, socket.written.size());
+    }
+
+    @Test
+    public void countsFramesUntilSocketBufferIsEmpty() {
+        OutboundQueue queue = new OutboundQueue(socket.create(), 2, 10);
+        queue.offer(new PreparedMessage("a"));
+        queue.offer(new PreparedMessage("b"));
+        queue.offer(new PreparedMessage("c"));
+        assertEquals(2, queue.getBuffered());
+        assertEquals(1, queue.getDepth());
+        socket.buffered = 0;
+        assertEquals(0, queue.getBuffered());
+        queue.drain();
+        assertEquals("c", socket.written.get(2));
+    }
+
+    @Test
+    public void closesSlowConnection() {
+        for (int i = 0; i < 5; i++) {
+            queue.offer(new PreparedMessage("m" + i));
+        }
+        assertTrue(queue.isOverflow());
+        assertFalse(socket.open);
+        assertEquals(0, queue.getDepth());
+        assertEquals(4, queue.getMaxDepth());
+    }
+}
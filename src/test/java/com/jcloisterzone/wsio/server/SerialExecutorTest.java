@@ -0,0 +1,81 @@
+package com.jcloisterzone.wsio.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SerialExecutorTest {
+
+    @Test
+    public void tasksRunInSubmissionOrder() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> order = new ArrayList<>();
+            final AtomicInteger concurrent = new AtomicInteger();
+            final AtomicInteger maxConcurrent = new AtomicInteger();
+            final CountDownLatch done = new CountDownLatch(1000);
+            SerialExecutor executor = new SerialExecutor(pool);
+            for (int i = 0; i < 1000; i++) {
+                final int n = i;
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        int c = concurrent.incrementAndGet();
+                        if (c > maxConcurrent.get()) maxConcurrent.set(c);
+                        order.add(n);
+                        concurrent.decrementAndGet();
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(1, maxConcurrent.get());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, order.get(i).intValue());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void failedTaskDoesNotBlockQueue() {
+        final AtomicInteger runs = new AtomicInteger();
+        Thread.UncaughtExceptionHandler original = Thread.currentThread().getUncaughtExceptionHandler();
+        Thread.currentThread().setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread t, Throwable e) {
+                runs.addAndGet(100);
+            }
+        });
+        try {
+            SerialExecutor executor = new SerialExecutor(MoreExecutors.directExecutor());
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    throw new IllegalStateException();
+                }
+            });
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runs.incrementAndGet();
+                }
+            });
+            assertEquals(101, runs.get());
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(original);
+        }
+    }
+}